@@ -0,0 +1,186 @@
+package com.kemham.kartukompetensi.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.kemham.kartukompetensi.model.Employee;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Upgrades databases created from the exported schema of every released version and checks the
+ * result against the current schema, then that the migrated data reads back correctly.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MigrationsTest {
+
+    private static final String TEST_DB = "migration-test";
+
+    @Rule
+    public final MigrationTestHelper helper =
+            new MigrationTestHelper(InstrumentationRegistry.getInstrumentation(), AppDatabase.class);
+
+    @Test
+    public void everyReleasedVersionMigratesToTheLatest() throws IOException {
+        for (int version = 1; version < Migrations.LATEST_VERSION; version++) {
+            String name = TEST_DB + "-" + version;
+            helper.createDatabase(name, version).close();
+            helper.runMigrationsAndValidate(name, Migrations.LATEST_VERSION, true, Migrations.ALL).close();
+        }
+    }
+
+    @Test
+    public void migrate1To2BackfillsScoreTotals() throws IOException {
+        createVersion1();
+        SupportSQLiteDatabase db = helper.runMigrationsAndValidate(TEST_DB, 2, true, Migrations.MIGRATION_1_2);
+
+        // 60/80 is 75% and 90/90 is 100%
+        try (Cursor cursor = db.query("SELECT skillProgressSum, skillCount, overallScore FROM employees " +
+                "WHERE nip = '198501012010011001'")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(175, cursor.getLong(0));
+            assertEquals(2, cursor.getInt(1));
+            assertEquals(87, cursor.getInt(2));
+        }
+        try (Cursor cursor = db.query("SELECT skillProgressSum, skillCount, overallScore FROM employees " +
+                "WHERE nip = '199002022015012002'")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(0, cursor.getLong(0));
+            assertEquals(0, cursor.getInt(1));
+            assertEquals(0, cursor.getInt(2));
+        }
+        db.close();
+    }
+
+    @Test
+    public void migrate1To2IndexesExistingRowsForSearch() throws IOException {
+        createVersion1();
+        SupportSQLiteDatabase db = helper.runMigrationsAndValidate(TEST_DB, 2, true, Migrations.MIGRATION_1_2);
+
+        assertEquals("198501012010011001", queryString(db,
+                "SELECT e.nip FROM employees e JOIN employees_fts ON e.rowid = employees_fts.docid " +
+                "WHERE employees_fts MATCH 'sant*'"));
+        assertEquals("Analisis Hukum", queryString(db,
+                "SELECT s.name FROM skills s JOIN skills_fts ON s.id = skills_fts.docid " +
+                "WHERE skills_fts MATCH 'analis*'"));
+
+        // The content-sync triggers keep the index current after the upgrade
+        db.execSQL("UPDATE employees SET name = 'Siti Lestari' WHERE nip = '199002022015012002'");
+        assertEquals("199002022015012002", queryString(db,
+                "SELECT e.nip FROM employees e JOIN employees_fts ON e.rowid = employees_fts.docid " +
+                "WHERE employees_fts MATCH 'lestari*'"));
+
+        // Score updates skip the index: a row dropped from it is not put back
+        db.execSQL("DELETE FROM employees_fts WHERE docid = " +
+                "(SELECT rowid FROM employees WHERE nip = '198501012010011001')");
+        db.execSQL("UPDATE employees SET overallScore = 90 WHERE nip = '198501012010011001'");
+        assertEquals(0, queryInt(db, "SELECT COUNT(*) FROM employees_fts WHERE employees_fts MATCH 'sant*'"));
+        db.close();
+    }
+
+    @Test
+    public void migrate1To2ReplacesTheSkillIndex() throws IOException {
+        createVersion1();
+        SupportSQLiteDatabase db = helper.runMigrationsAndValidate(TEST_DB, 2, true, Migrations.MIGRATION_1_2);
+
+        assertEquals(0, queryInt(db, "SELECT COUNT(*) FROM sqlite_master " +
+                "WHERE type = 'index' AND name = 'index_skills_employeeNip'"));
+        assertEquals(1, queryInt(db, "SELECT COUNT(*) FROM sqlite_master " +
+                "WHERE type = 'index' AND name = 'index_skills_employeeNip_category_name'"));
+        db.close();
+    }
+
+    @Test
+    public void migrate1To2FillsAndMaintainsTheSummaryTables() throws IOException {
+        createVersion1();
+        SupportSQLiteDatabase db = helper.runMigrationsAndValidate(TEST_DB, 2, true, Migrations.MIGRATION_1_2);
+
+        assertEquals(2, queryInt(db, "SELECT skillCount FROM employee_category_stats " +
+                "WHERE employeeNip = '198501012010011001' AND category = 'TECHNICAL'"));
+        assertEquals(150, queryInt(db, "SELECT scoreSum FROM employee_category_stats " +
+                "WHERE employeeNip = '198501012010011001' AND category = 'TECHNICAL'"));
+        assertEquals(1, queryInt(db, "SELECT achievedCount FROM employee_category_stats " +
+                "WHERE employeeNip = '198501012010011001' AND category = 'TECHNICAL'"));
+        assertEquals(2, queryInt(db, "SELECT headcount FROM unit_stats " +
+                "WHERE unit = 'Direktorat Jenderal Imigrasi' AND status = 'ACTIVE'"));
+        assertEquals(87, queryInt(db, "SELECT scoreSum FROM unit_stats " +
+                "WHERE unit = 'Direktorat Jenderal Imigrasi' AND status = 'ACTIVE'"));
+
+        // The triggers created by the migration keep the summaries current
+        db.execSQL("PRAGMA foreign_keys = ON");
+        db.execSQL("INSERT INTO skills (employeeNip, name, score, targetScore, category) " +
+                "VALUES ('199002022015012002', 'Kepemimpinan', 70, 80, 'BASIC')");
+        assertEquals(1, queryInt(db, "SELECT skillCount FROM employee_category_stats " +
+                "WHERE employeeNip = '199002022015012002' AND category = 'BASIC'"));
+        db.close();
+    }
+
+    @Test
+    public void roomUpgradesAndOpensAVersion1Database() throws IOException {
+        // Room runs the migration itself and checks the result against its generated schema
+        createVersion1();
+
+        Context context = ApplicationProvider.getApplicationContext();
+        AppDatabase database = Room.databaseBuilder(context, AppDatabase.class, TEST_DB)
+                .addCallback(new AppDatabase.SchemaCallback())
+                .addMigrations(Migrations.ALL)
+                .allowMainThreadQueries()
+                .build();
+        helper.closeWhenFinished(database);
+
+        Employee employee = database.employeeDao()
+                .getEmployeesWithStatus(Employee.EmployeeStatus.ACTIVE, 10).get(0);
+        assertEquals("198501012010011001", employee.getNip());
+        assertEquals(2, employee.getSkillCount());
+        assertFalse(database.employeeDao().getExistingNips(
+                Collections.singletonList("199002022015012002")).isEmpty());
+    }
+
+    /**
+     * Creates a version 1 database with one assessed employee and one without skills.
+     */
+    private void createVersion1() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 1);
+        db.execSQL("INSERT INTO employees (nip, name, unit, position, overallScore, targetScore, status) " +
+                "VALUES ('198501012010011001', 'Budi Santoso', 'Direktorat Jenderal Imigrasi', " +
+                "'Pemeriksa Keimigrasian', 0, 90, 'ACTIVE')");
+        db.execSQL("INSERT INTO employees (nip, name, unit, position, overallScore, targetScore, status) " +
+                "VALUES ('199002022015012002', 'Siti Rahmawati', 'Direktorat Jenderal Imigrasi', " +
+                "'Analis Kepegawaian', 0, 80, 'ACTIVE')");
+        db.execSQL("INSERT INTO skills (employeeNip, name, description, score, targetScore, category) " +
+                "VALUES ('198501012010011001', 'Analisis Hukum', 'Menganalisis perkara', 60, 80, 'TECHNICAL')");
+        db.execSQL("INSERT INTO skills (employeeNip, name, description, score, targetScore, category) " +
+                "VALUES ('198501012010011001', 'Pemeriksaan Dokumen', 'Memeriksa paspor', 90, 90, 'TECHNICAL')");
+        db.close();
+    }
+
+    private static int queryInt(SupportSQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            assertTrue(sql, cursor.moveToFirst());
+            return cursor.getInt(0);
+        }
+    }
+
+    private static String queryString(SupportSQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            assertTrue(sql, cursor.moveToFirst());
+            return cursor.getString(0);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.kemham.kartukompetensi;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.widget.CompoundButton;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.kemham.kartukompetensi.data.QueryProfiler;
+import com.kemham.kartukompetensi.util.AppExecutors;
+import com.kemham.kartukompetensi.util.Priority;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Shows executor queue latency, run time and rejection metrics, the per-query profile and the
+ * startup stage timings, and saves them to a file under the app's external files directory so
+ * they can be pulled for a bug report. Release builds only profile queries once the switch here
+ * is turned on. Opened by long-pressing the overall score on the main screen.
+ */
+public class DiagnosticsActivity extends AppCompatActivity {
+    private AppExecutors executors;
+    private QueryProfiler queryProfiler;
+    private TextView reportText;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_diagnostics);
+
+        executors = AppExecutors.getInstance();
+        queryProfiler = QueryProfiler.getInstance(this);
+        reportText = findViewById(R.id.reportText);
+
+        findViewById(R.id.refreshButton).setOnClickListener(v -> refreshReport());
+        findViewById(R.id.resetButton).setOnClickListener(v -> {
+            executors.getMetrics().reset();
+            queryProfiler.reset();
+            refreshReport();
+        });
+        findViewById(R.id.saveButton).setOnClickListener(v -> saveReport());
+
+        CompoundButton profileQueries = findViewById(R.id.profileQueriesSwitch);
+        profileQueries.setChecked(BuildConfig.DEBUG || QueryProfiler.isEnabled(this));
+        // Debug builds always profile
+        profileQueries.setEnabled(!BuildConfig.DEBUG);
+        profileQueries.setOnCheckedChangeListener((button, checked) -> setQueryProfiling(checked));
+    }
+
+    private void setQueryProfiling(boolean enabled) {
+        Context context = getApplicationContext();
+        executors.writes().execute(Priority.BACKGROUND, "diagnostics-profiling", () -> {
+            try {
+                QueryProfiler.setEnabled(context, enabled);
+            } catch (IOException e) {
+                String message = context.getString(R.string.diagnostics_save_failed, e.getMessage());
+                executors.executeMainThread(() ->
+                    Toast.makeText(context, message, Toast.LENGTH_LONG).show());
+            }
+        });
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        refreshReport();
+    }
+
+    private void refreshReport() {
+        reportText.setText(buildReport());
+    }
+
+    private void saveReport() {
+        // The report is a snapshot of in-memory counters, so only the file write leaves the main
+        // thread, and the task holds no reference to this activity
+        String report = buildReport();
+        File file = new File(getDiagnosticsDir(), "diagnostics-" + timestamp() + ".txt");
+        Context context = getApplicationContext();
+
+        executors.writes().execute(Priority.BACKGROUND, "diagnostics-dump", () -> {
+            String message;
+            file.getParentFile().mkdirs();
+            try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                out.write(report);
+                message = context.getString(R.string.diagnostics_saved, file.getAbsolutePath());
+            } catch (IOException e) {
+                message = context.getString(R.string.diagnostics_save_failed, e.getMessage());
+            }
+            String result = message;
+            executors.executeMainThread(() ->
+                Toast.makeText(context, result, Toast.LENGTH_LONG).show());
+        });
+    }
+
+    private File getDiagnosticsDir() {
+        File dir = getExternalFilesDir("diagnostics");
+        return dir != null ? dir : new File(getFilesDir(), "diagnostics");
+    }
+
+    private static String timestamp() {
+        return new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.ROOT).format(new Date());
+    }
+
+    private String buildReport() {
+        StringWriter out = new StringWriter();
+        try {
+            executors.dumpMetrics(out);
+            out.write("\n");
+            queryProfiler.dump(out);
+            out.write("\n");
+            ((KartuKompetensiApp) getApplication()).getStartup().dump(out);
+        } catch (IOException e) {
+            // StringWriter does not throw
+        }
+        return out.toString();
+    }
+}
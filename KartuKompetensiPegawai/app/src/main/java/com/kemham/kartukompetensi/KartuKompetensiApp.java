@@ -3,68 +3,92 @@ package com.kemham.kartukompetensi;
 import android.app.Application;
 import android.os.StrictMode;
 
+import androidx.annotation.WorkerThread;
 import androidx.appcompat.app.AppCompatDelegate;
 
 import com.kemham.kartukompetensi.data.AppDatabase;
+import com.kemham.kartukompetensi.jobs.BackgroundJobs;
+import com.kemham.kartukompetensi.jobs.JobSpec;
 import com.kemham.kartukompetensi.repository.KompetensiRepository;
 import com.kemham.kartukompetensi.util.AppExecutors;
+import com.kemham.kartukompetensi.util.AppStartup;
 import com.kemham.kartukompetensi.util.AppSettings;
 import com.kemham.kartukompetensi.util.PreferenceManager;
+import com.kemham.kartukompetensi.util.Priority;
+import com.kemham.kartukompetensi.util.PriorityExecutor;
+import com.kemham.kartukompetensi.view.AvatarCache;
 
 import java.util.concurrent.TimeUnit;
 
 /**
- * Custom Application class for initialization and dependency management.
+ * Custom Application class for initialization and dependency management. Components are created
+ * lazily through {@link AppStartup} stages: only the settings needed for the theme are read in
+ * {@link #onCreate()}, the database is opened on a background lane, and the periodic jobs are
+ * registered with {@link BackgroundJobs} once the first frame is drawn.
  */
 public class KartuKompetensiApp extends Application {
-    private KompetensiRepository repository;
-    private PreferenceManager preferenceManager;
-    private AppExecutors appExecutors;
+    private static final String JOB_CLEANUP_OLD_DATA = "cleanupOldData";
+    private static final String JOB_OPTIMIZE_DATABASE = "optimizeDatabase";
+    private static final String JOB_UPDATE_STATISTICS = "updateStatistics";
+
+    private AppStartup startup;
+    private AppStartup.Stage<AppExecutors> executorsStage;
+    private AppStartup.Stage<PreferenceManager> preferencesStage;
+    private AppStartup.Stage<AppDatabase> databaseStage;
+    private AppStartup.Stage<KompetensiRepository> repositoryStage;
+    private AppStartup.Stage<BackgroundJobs> jobsStage;
 
     @Override
     public void onCreate() {
         super.onCreate();
 
-        // Initialize components
+        // Declare components; nothing is created yet
         initializeComponents();
 
         // Setup preferences
-        setupPreferences();
+        startup.trace("theme", this::setupPreferences);
 
         // Configure strict mode for development
         if (AppSettings.DEBUG) {
             setupStrictMode();
         }
 
+        // Open the database while the first activity inflates
+        getAppExecutors().reads().execute(Priority.INTERACTIVE, "startup-database", () ->
+            startup.trace("database-open", () ->
+                databaseStage.get().getOpenHelper().getWritableDatabase()));
+
         // Schedule periodic tasks
-        schedulePeriodicTasks();
+        startup.watchFirstFrame(this);
+        startup.runAfterFirstFrame(this::schedulePeriodicTasks);
     }
 
     private void initializeComponents() {
-        // Initialize executors
-        appExecutors = AppExecutors.getInstance();
+        startup = new AppStartup(this);
+
+        // Executors
+        executorsStage = startup.stage("executors", context -> AppExecutors.getInstance());
+
+        // Preferences; the boot file answers the theme without waiting for the full load
+        preferencesStage = startup.stage("preferences", PreferenceManager::getInstance, executorsStage);
 
-        // Initialize preferences
-        preferenceManager = PreferenceManager.getInstance(this);
+        // Database; Room only opens the file on the first query or the warm-up in onCreate
+        databaseStage = startup.stage("database", AppDatabase::getInstance, executorsStage);
 
-        // Initialize database
-        AppDatabase database = AppDatabase.getInstance(this);
+        // Repository
+        repositoryStage = startup.stage("repository", KompetensiRepository::getInstance,
+            databaseStage, executorsStage);
 
-        // Initialize repository
-        repository = KompetensiRepository.getInstance(this);
+        // Periodic jobs; reads the job history and registers the jobs
+        jobsStage = startup.stage("jobs", context -> createBackgroundJobs(), repositoryStage);
     }
 
     private void setupPreferences() {
         // Set theme based on preferences
-        boolean isDarkMode = preferenceManager.isDarkMode();
+        boolean isDarkMode = getPreferenceManager().isDarkMode();
         AppCompatDelegate.setDefaultNightMode(
             isDarkMode ? AppCompatDelegate.MODE_NIGHT_YES : AppCompatDelegate.MODE_NIGHT_NO
         );
-
-        // Handle first launch
-        if (preferenceManager.isFirstLaunch()) {
-            onFirstLaunch();
-        }
     }
 
     private void setupStrictMode() {
@@ -83,85 +107,87 @@ public class KartuKompetensiApp extends Application {
     }
 
     private void schedulePeriodicTasks() {
-        // Schedule auto-refresh if enabled
-        if (preferenceManager.isAutoRefreshEnabled()) {
-            int interval = preferenceManager.getRefreshInterval();
-            appExecutors.executeAtFixedRate(
-                this::refreshData,
-                interval,
-                interval,
-                TimeUnit.MINUTES
-            );
+        // Handle first launch
+        if (getPreferenceManager().isFirstLaunch()) {
+            onFirstLaunch();
         }
 
-        // Schedule daily maintenance tasks
-        scheduleDailyMaintenance();
+        // Register the periodic jobs. This reads the job history, so it runs off the main thread.
+        getAppExecutors().reads().execute(Priority.BACKGROUND, "schedule-jobs", this::getBackgroundJobs);
     }
 
-    private void scheduleDailyMaintenance() {
-        appExecutors.executeAtFixedRate(
-            this::performMaintenance,
-            24,
-            24,
-            TimeUnit.HOURS
-        );
-    }
+    private BackgroundJobs createBackgroundJobs() {
+        BackgroundJobs jobs = BackgroundJobs.getInstance(this);
+        KompetensiRepository repository = getRepository();
 
-    private void onFirstLaunch() {
-        // Perform first launch initialization
-        appExecutors.diskIO().execute(() -> {
-            // Pre-populate database if needed
-            repository.prepopulateData();
+        // Daily maintenance as separate jobs, each split into short write-lane steps so user saves
+        // queued meanwhile run between them. They share an interval and constraints, so one
+        // wake-up runs all three.
+        jobs.schedule(maintenanceJob(JOB_CLEANUP_OLD_DATA, repository::cleanupOldData));
+        jobs.schedule(maintenanceJob(JOB_OPTIMIZE_DATABASE, repository::optimizeDatabase));
+        jobs.schedule(maintenanceJob(JOB_UPDATE_STATISTICS, repository::updateStatistics));
 
-            // Mark first launch complete
-            preferenceManager.setFirstLaunchComplete();
-        });
+        return jobs;
     }
 
-    private void refreshData() {
-        repository.refreshData();
+    private JobSpec maintenanceJob(String name, JobSpec.Work work) {
+        // The job waits on the read lane and hands its steps to the write lane
+        PriorityExecutor reads = getAppExecutors().reads();
+        return JobSpec.builder(name, work)
+            .runOn(command -> reads.execute(Priority.MAINTENANCE, name, command))
+            .every(24, TimeUnit.HOURS)
+            .flex(6, TimeUnit.HOURS)
+            .require(JobSpec.REQUIRES_IDLE | JobSpec.REQUIRES_BATTERY_NOT_LOW)
+            .backoff(15, 4 * 60, TimeUnit.MINUTES)
+            .build();
     }
 
-    private void performMaintenance() {
-        appExecutors.diskIO().execute(() -> {
-            // Clean up old data
-            repository.cleanupOldData();
-
-            // Optimize database
-            repository.optimizeDatabase();
-
-            // Update statistics
-            repository.updateStatistics();
+    private void onFirstLaunch() {
+        // Seed data ships in the database asset, so there is nothing to insert here
+        getAppExecutors().reads().execute(Priority.BACKGROUND, () -> {
+            // Mark first launch complete
+            getPreferenceManager().setFirstLaunchComplete();
         });
     }
 
     @Override
     public void onLowMemory() {
         super.onLowMemory();
-        // Clear non-essential caches
-        repository.clearCache();
+        // The repository holds no caches of its own, and the platform already releases SQLite's
+        // page cache here; rendered avatars are the only memory worth giving back
+        AvatarCache.getInstance().clear();
     }
 
     @Override
     public void onTrimMemory(int level) {
         super.onTrimMemory(level);
-        if (level >= TRIM_MEMORY_BACKGROUND) {
-            // Clear non-essential resources
-            repository.trimMemory();
-        }
+        // Rendered avatars are cheap to redraw, so they go first under any pressure
+        AvatarCache.getInstance().trimMemory(level);
     }
 
-    // Getters for dependencies
+    // Getters for dependencies, each created on first use
     public KompetensiRepository getRepository() {
-        return repository;
+        return repositoryStage.get();
     }
 
     public PreferenceManager getPreferenceManager() {
-        return preferenceManager;
+        return preferencesStage.get();
     }
 
     public AppExecutors getAppExecutors() {
-        return appExecutors;
+        return executorsStage.get();
+    }
+
+    /**
+     * Returns the periodic jobs, registering them on first use. Reads files, so not on the main thread.
+     */
+    @WorkerThread
+    public BackgroundJobs getBackgroundJobs() {
+        return jobsStage.get();
+    }
+
+    public AppStartup getStartup() {
+        return startup;
     }
 
     // Cleanup
@@ -172,11 +198,17 @@ public class KartuKompetensiApp extends Application {
     }
 
     private void cleanup() {
-        // Cancel scheduled tasks
-        appExecutors.shutdown();
+        // Commit pending writes while the executors still accept work
+        KompetensiRepository repository = repositoryStage.getIfCreated();
+        if (repository != null) {
+            repository.cleanup();
+        }
 
-        // Cleanup repository
-        repository.cleanup();
+        // Cancel scheduled tasks; queued work still runs
+        AppExecutors appExecutors = executorsStage.getIfCreated();
+        if (appExecutors != null) {
+            appExecutors.shutdown();
+        }
 
         // Close database
         AppDatabase.destroyInstance();
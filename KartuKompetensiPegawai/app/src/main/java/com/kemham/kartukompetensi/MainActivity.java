@@ -1,34 +1,42 @@
 package com.kemham.kartukompetensi;
 
+import android.content.Intent;
 import android.os.Bundle;
-import android.view.View;
-import android.widget.AdapterView;
-import android.widget.ArrayAdapter;
-import android.widget.Spinner;
 import android.widget.TextView;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.LiveData;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.google.android.material.chip.Chip;
 import com.google.android.material.chip.ChipGroup;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
+import com.kemham.kartukompetensi.adapter.CompactSkillAdapter;
+import com.kemham.kartukompetensi.dialog.EmployeePickerDialog;
 import com.kemham.kartukompetensi.model.Employee;
 import com.kemham.kartukompetensi.model.Skill;
+import com.kemham.kartukompetensi.util.AppSettings;
+import com.kemham.kartukompetensi.util.KompetensiUtil;
+import com.kemham.kartukompetensi.view.CompetencyCardView;
+import com.kemham.kartukompetensi.view.QueryProfilerOverlay;
+import com.kemham.kartukompetensi.view.SkillChipRenderer;
 import com.kemham.kartukompetensi.viewmodel.MainViewModel;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class MainActivity extends AppCompatActivity {
+    // Rows the four category cards keep around between updates, shared so any card can reuse them
+    private static final int MAX_POOLED_SKILL_ROWS = 60;
+
     private MainViewModel viewModel;
-    private Spinner employeeSpinner;
+    private TextView employeePicker;
     private TextView nameText, nipText, positionText, rankText, supervisorText;
     private TextView initialsText, ovrScore;
     private ChipGroup specialSkillsChipGroup;
+    private SkillChipRenderer specialSkillChips;
     private RecyclerView developmentAreasRecyclerView;
+    private CompetencyCardView basicCard, technicalCard, emergingCard, potentialCard;
     private FloatingActionButton addSkillFab;
 
     @Override
@@ -41,13 +49,17 @@ public class MainActivity extends AppCompatActivity {
 
         // Initialize views
         initializeViews();
-        setupEmployeeSpinner();
+        setupEmployeePicker();
         setupObservers();
         setupClickListeners();
+
+        if (AppSettings.DEBUG) {
+            QueryProfilerOverlay.attach(this);
+        }
     }
 
     private void initializeViews() {
-        employeeSpinner = findViewById(R.id.employeeSpinner);
+        employeePicker = findViewById(R.id.employeePicker);
         nameText = findViewById(R.id.nameText);
         nipText = findViewById(R.id.nipText);
         positionText = findViewById(R.id.positionText);
@@ -56,62 +68,52 @@ public class MainActivity extends AppCompatActivity {
         initialsText = findViewById(R.id.initialsText);
         ovrScore = findViewById(R.id.ovrScore);
         specialSkillsChipGroup = findViewById(R.id.specialSkillsChipGroup);
+        specialSkillChips = new SkillChipRenderer(specialSkillsChipGroup, R.color.teal_700, android.R.color.white);
         developmentAreasRecyclerView = findViewById(R.id.developmentAreasRecyclerView);
         addSkillFab = findViewById(R.id.addSkillFab);
 
         // Setup RecyclerView
         developmentAreasRecyclerView.setLayoutManager(new LinearLayoutManager(this));
-    }
 
-    private void setupEmployeeSpinner() {
-        viewModel.getAllEmployees().observe(this, employees -> {
-            List<String> employeeNames = new ArrayList<>();
-            for (Employee employee : employees) {
-                employeeNames.add(employee.getName());
-            }
-            ArrayAdapter<String> adapter = new ArrayAdapter<>(
-                this,
-                android.R.layout.simple_spinner_item,
-                employeeNames
-            );
-            adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
-            employeeSpinner.setAdapter(adapter);
-        });
+        basicCard = findViewById(R.id.basicCard);
+        technicalCard = findViewById(R.id.technicalCard);
+        emergingCard = findViewById(R.id.emergingCard);
+        potentialCard = findViewById(R.id.potentialCard);
+
+        RecyclerView.RecycledViewPool skillRowPool = new RecyclerView.RecycledViewPool();
+        skillRowPool.setMaxRecycledViews(CompactSkillAdapter.VIEW_TYPE_SKILL, MAX_POOLED_SKILL_ROWS);
+        basicCard.setRecycledViewPool(skillRowPool);
+        technicalCard.setRecycledViewPool(skillRowPool);
+        emergingCard.setRecycledViewPool(skillRowPool);
+        potentialCard.setRecycledViewPool(skillRowPool);
+    }
 
-        employeeSpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
-            @Override
-            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                String selectedName = parent.getItemAtPosition(position).toString();
-                viewModel.getAllEmployees().getValue().stream()
-                    .filter(emp -> emp.getName().equals(selectedName))
-                    .findFirst()
-                    .ifPresent(employee -> viewModel.setCurrentEmployee(employee.getNip()));
+    private void setupEmployeePicker() {
+        // The picker pages the roster from Room instead of binding every employee up front
+        employeePicker.setOnClickListener(v -> {
+            if (getSupportFragmentManager().findFragmentByTag(EmployeePickerDialog.TAG) == null) {
+                EmployeePickerDialog.newInstance()
+                    .show(getSupportFragmentManager(), EmployeePickerDialog.TAG);
             }
-
-            @Override
-            public void onNothingSelected(AdapterView<?> parent) {}
         });
     }
 
     private void setupObservers() {
         // Observe current employee
-        viewModel.getCurrentEmployee().observe(this, employee -> {
+        viewModel.getSelectedEmployee().observe(this, employee -> {
             if (employee != null) {
                 updateEmployeeUI(employee);
             }
         });
 
         // Observe special skills
-        viewModel.getSpecialSkills().observe(this, skills -> {
-            specialSkillsChipGroup.removeAllViews();
-            for (Skill skill : skills) {
-                Chip chip = new Chip(this);
-                chip.setText(skill.getName());
-                chip.setChipBackgroundColorResource(R.color.teal_700);
-                chip.setTextColor(getResources().getColor(android.R.color.white));
-                specialSkillsChipGroup.addView(chip);
-            }
-        });
+        viewModel.getSpecialSkills().observe(this, specialSkillChips::render);
+
+        // Observe category cards
+        observeCategory(viewModel.getBasicSkills(), basicCard);
+        observeCategory(viewModel.getTechnicalSkills(), technicalCard);
+        observeCategory(viewModel.getEmergingSkills(), emergingCard);
+        observeCategory(viewModel.getPotentialSkills(), potentialCard);
 
         // Observe overall score
         viewModel.getOverallScore().observe(this, score -> {
@@ -127,11 +129,19 @@ public class MainActivity extends AppCompatActivity {
         });
     }
 
+    private void observeCategory(LiveData<List<Skill>> skills, CompetencyCardView card) {
+        skills.observe(this, list -> {
+            card.setSkills(list);
+            card.setScore((int) Math.round(KompetensiUtil.calculateAverageScore(list)), 100);
+        });
+    }
+
     private void updateEmployeeUI(Employee employee) {
+        employeePicker.setText(employee.getName());
         nameText.setText(employee.getName());
         nipText.setText(employee.getNip());
         positionText.setText(employee.getPosition());
-        rankText.setText(employee.getRank());
+        rankText.setText(employee.getGrade());
         supervisorText.setText(employee.getSupervisor());
         initialsText.setText(employee.getInitials());
     }
@@ -141,5 +151,11 @@ public class MainActivity extends AppCompatActivity {
             // Show dialog to add new skill
             // Implementation needed
         });
+
+        // Hidden entry point to executor and query diagnostics for bug reports
+        ovrScore.setOnLongClickListener(v -> {
+            startActivity(new Intent(this, DiagnosticsActivity.class));
+            return true;
+        });
     }
 }
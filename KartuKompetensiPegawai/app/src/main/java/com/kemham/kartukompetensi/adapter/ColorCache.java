@@ -0,0 +1,33 @@
+package com.kemham.kartukompetensi.adapter;
+
+import android.content.Context;
+import android.util.SparseIntArray;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.ColorRes;
+import androidx.core.content.ContextCompat;
+
+/**
+ * Resolves color resources once per adapter instead of once per bind. A theme change recreates
+ * the activity and its adapters, so cached colors never go stale.
+ */
+final class ColorCache {
+
+    private final Context context;
+    private final SparseIntArray colors = new SparseIntArray();
+
+    ColorCache(Context context) {
+        this.context = context;
+    }
+
+    @ColorInt
+    int get(@ColorRes int colorRes) {
+        int index = colors.indexOfKey(colorRes);
+        if (index >= 0) {
+            return colors.valueAt(index);
+        }
+        int color = ContextCompat.getColor(context, colorRes);
+        colors.put(colorRes, color);
+        return color;
+    }
+}
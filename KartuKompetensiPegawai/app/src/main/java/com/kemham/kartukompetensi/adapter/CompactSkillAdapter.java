@@ -0,0 +1,123 @@
+package com.kemham.kartukompetensi.adapter;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.kemham.kartukompetensi.R;
+import com.kemham.kartukompetensi.model.Skill;
+import com.kemham.kartukompetensi.util.KompetensiUtil;
+import com.kemham.kartukompetensi.view.ScoreProgressBar;
+
+import java.util.List;
+
+/**
+ * Adapter for the compact skill rows of a competency card. Every card uses the same view type, so
+ * cards sharing a {@link RecyclerView.RecycledViewPool} can reuse each other's rows.
+ */
+public class CompactSkillAdapter extends ListAdapter<Skill, CompactSkillAdapter.CompactSkillViewHolder> {
+
+    public static final int VIEW_TYPE_SKILL = R.layout.item_skill_compact;
+
+    private final Context context;
+    private final SkillClickListener listener;
+    private final ColorCache colors;
+
+    public interface SkillClickListener {
+        void onSkillClick(Skill skill);
+    }
+
+    public CompactSkillAdapter(Context context, SkillClickListener listener) {
+        super(SkillDiffCallback.config());
+        this.context = context;
+        this.listener = listener;
+        this.colors = new ColorCache(context);
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getId();
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return VIEW_TYPE_SKILL;
+    }
+
+    @NonNull
+    @Override
+    public CompactSkillViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(context).inflate(R.layout.item_skill_compact, parent, false);
+        return new CompactSkillViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull CompactSkillViewHolder holder, int position) {
+        holder.bind(getItem(position));
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull CompactSkillViewHolder holder, int position,
+                                 @NonNull List<Object> payloads) {
+        int changes = SkillDiffCallback.mergePayloads(payloads);
+        if (changes == 0) {
+            onBindViewHolder(holder, position);
+        } else {
+            holder.bindChanges(getItem(position), changes);
+        }
+    }
+
+    class CompactSkillViewHolder extends RecyclerView.ViewHolder {
+        private final TextView nameText;
+        private final ScoreProgressBar scoreProgress;
+        private final TextView scoreText;
+        private Skill skill;
+
+        CompactSkillViewHolder(@NonNull View itemView) {
+            super(itemView);
+            nameText = itemView.findViewById(R.id.text_skill_name);
+            scoreProgress = itemView.findViewById(R.id.progress_score);
+            scoreText = itemView.findViewById(R.id.text_score);
+
+            // Bound once per holder; read the current skill at click time
+            itemView.setOnClickListener(v -> {
+                if (listener != null && skill != null) {
+                    listener.onSkillClick(skill);
+                }
+            });
+        }
+
+        void bind(Skill skill) {
+            this.skill = skill;
+            nameText.setText(skill.getName());
+            bindScore(skill);
+        }
+
+        /**
+         * Rebinds only the score, the one field of a {@link SkillDiffCallback} payload this row
+         * shows. Priority and assessment changes only refresh the clicked skill.
+         */
+        void bindChanges(Skill skill, int changes) {
+            this.skill = skill;
+            if ((changes & SkillDiffCallback.PAYLOAD_SCORE) != 0) {
+                bindScore(skill);
+            }
+        }
+
+        private void bindScore(Skill skill) {
+            int currentScore = skill.getScore();
+            int targetScore = skill.getTargetScore();
+            scoreProgress.setMax(targetScore);
+            scoreProgress.setProgress(currentScore);
+            scoreProgress.setProgressColor(colors.get(KompetensiUtil.getProgressColorRes(currentScore, targetScore)));
+            scoreText.setText(context.getString(R.string.score_fraction_format, currentScore, targetScore));
+        }
+    }
+}
@@ -7,8 +7,8 @@ import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.TextView;
 
+import androidx.annotation.ColorRes;
 import androidx.annotation.NonNull;
-import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
@@ -17,13 +17,17 @@ import com.kemham.kartukompetensi.model.Skill;
 import com.kemham.kartukompetensi.util.KompetensiUtil;
 import com.kemham.kartukompetensi.view.ScoreProgressBar;
 
+import java.util.List;
+
 /**
- * Adapter for displaying development areas in a RecyclerView.
+ * Adapter for displaying development areas in a RecyclerView. Rows are diffed off the main thread
+ * and rebound partially when only the score or priority changed.
  */
 public class DevelopmentAreaAdapter extends ListAdapter<Skill, DevelopmentAreaAdapter.DevelopmentAreaViewHolder> {
 
     private final Context context;
     private final DevelopmentAreaClickListener listener;
+    private final ColorCache colors;
 
     public interface DevelopmentAreaClickListener {
         void onDevelopmentAreaClick(Skill skill);
@@ -31,9 +35,16 @@ public class DevelopmentAreaAdapter extends ListAdapter<Skill, DevelopmentAreaAd
     }
 
     public DevelopmentAreaAdapter(Context context, DevelopmentAreaClickListener listener) {
-        super(new DevelopmentAreaDiffCallback());
+        super(SkillDiffCallback.config());
         this.context = context;
         this.listener = listener;
+        this.colors = new ColorCache(context);
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getId();
     }
 
     @NonNull
@@ -45,8 +56,18 @@ public class DevelopmentAreaAdapter extends ListAdapter<Skill, DevelopmentAreaAd
 
     @Override
     public void onBindViewHolder(@NonNull DevelopmentAreaViewHolder holder, int position) {
-        Skill skill = getItem(position);
-        holder.bind(skill);
+        holder.bind(getItem(position));
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull DevelopmentAreaViewHolder holder, int position,
+                                 @NonNull List<Object> payloads) {
+        int changes = SkillDiffCallback.mergePayloads(payloads);
+        if (changes == 0) {
+            onBindViewHolder(holder, position);
+        } else {
+            holder.bindChanges(getItem(position), changes);
+        }
     }
 
     class DevelopmentAreaViewHolder extends RecyclerView.ViewHolder {
@@ -59,6 +80,7 @@ public class DevelopmentAreaAdapter extends ListAdapter<Skill, DevelopmentAreaAd
         private final TextView recommendationText;
         private final View actionButton;
         private final View categoryIndicator;
+        private Skill skill;
 
         DevelopmentAreaViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -71,28 +93,30 @@ public class DevelopmentAreaAdapter extends ListAdapter<Skill, DevelopmentAreaAd
             recommendationText = itemView.findViewById(R.id.text_recommendation);
             actionButton = itemView.findViewById(R.id.button_action);
             categoryIndicator = itemView.findViewById(R.id.category_indicator);
+
+            // Bound once per holder; read the current skill at click time
+            itemView.setOnClickListener(v -> {
+                if (listener != null && skill != null) {
+                    listener.onDevelopmentAreaClick(skill);
+                }
+            });
+
+            actionButton.setOnClickListener(v -> {
+                if (listener != null && skill != null) {
+                    listener.onActionButtonClick(skill);
+                }
+            });
         }
 
         void bind(Skill skill) {
+            this.skill = skill;
+
             // Set basic info
             nameText.setText(skill.getName());
             categoryText.setText(getCategoryText(skill.getCategory()));
 
-            // Set score progress
-            int currentScore = skill.getScore();
-            int targetScore = skill.getTargetScore();
-            scoreProgress.setProgress(currentScore);
-            scoreProgress.setMax(targetScore);
-            scoreProgress.setProgressColor(KompetensiUtil.getProgressColor(context, currentScore, targetScore));
-
-            // Calculate and display gap
-            int gap = targetScore - currentScore;
-            gapText.setText(context.getString(R.string.score_gap_format, gap));
-
-            // Set priority level
-            Skill.Level priority = skill.getPriorityLevel();
-            setPriorityIndicator(priority);
-            priorityText.setText(getPriorityText(priority));
+            bindScore(skill);
+            bindPriority(skill);
 
             // Set recommendation if available
             String recommendation = skill.getRecommendation();
@@ -105,19 +129,39 @@ public class DevelopmentAreaAdapter extends ListAdapter<Skill, DevelopmentAreaAd
 
             // Set category indicator color
             setCategoryIndicator(skill.getCategory());
+        }
 
-            // Set click listeners
-            itemView.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onDevelopmentAreaClick(skill);
-                }
-            });
+        /**
+         * Rebinds only the views behind the changed fields, given as a
+         * {@link SkillDiffCallback} payload mask. The assessment date is not shown here.
+         */
+        void bindChanges(Skill skill, int changes) {
+            this.skill = skill;
+            if ((changes & SkillDiffCallback.PAYLOAD_SCORE) != 0) {
+                bindScore(skill);
+            }
+            if ((changes & SkillDiffCallback.PAYLOAD_PRIORITY) != 0) {
+                bindPriority(skill);
+            }
+        }
 
-            actionButton.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onActionButtonClick(skill);
-                }
-            });
+        private void bindScore(Skill skill) {
+            // Set score progress
+            int currentScore = skill.getScore();
+            int targetScore = skill.getTargetScore();
+            scoreProgress.setMax(targetScore);
+            scoreProgress.setProgress(currentScore);
+            scoreProgress.setProgressColor(colors.get(KompetensiUtil.getProgressColorRes(currentScore, targetScore)));
+
+            // Calculate and display gap
+            int gap = targetScore - currentScore;
+            gapText.setText(context.getString(R.string.score_gap_format, gap));
+        }
+
+        private void bindPriority(Skill skill) {
+            Skill.Level priority = skill.getPriorityLevel();
+            setPriorityIndicator(priority);
+            priorityText.setText(getPriorityText(priority));
         }
 
         private String getCategoryText(Skill.Category category) {
@@ -163,7 +207,7 @@ public class DevelopmentAreaAdapter extends ListAdapter<Skill, DevelopmentAreaAd
             }
             priorityIcon.setVisibility(View.VISIBLE);
             priorityIcon.setImageResource(iconRes);
-            priorityIcon.setColorFilter(context.getResources().getColor(tintRes));
+            priorityIcon.setColorFilter(colors.get(tintRes));
         }
 
         private String getPriorityText(Skill.Level priority) {
@@ -185,7 +229,7 @@ public class DevelopmentAreaAdapter extends ListAdapter<Skill, DevelopmentAreaAd
         }
 
         private void setCategoryIndicator(Skill.Category category) {
-            int colorRes;
+            @ColorRes int colorRes;
             switch (category) {
                 case BASIC:
                     colorRes = R.color.category_basic;
@@ -202,19 +246,7 @@ public class DevelopmentAreaAdapter extends ListAdapter<Skill, DevelopmentAreaAd
                 default:
                     colorRes = R.color.category_default;
             }
-            categoryIndicator.setBackgroundColor(context.getResources().getColor(colorRes));
-        }
-    }
-
-    private static class DevelopmentAreaDiffCallback extends DiffUtil.ItemCallback<Skill> {
-        @Override
-        public boolean areItemsTheSame(@NonNull Skill oldItem, @NonNull Skill newItem) {
-            return oldItem.getId() == newItem.getId();
-        }
-
-        @Override
-        public boolean areContentsTheSame(@NonNull Skill oldItem, @NonNull Skill newItem) {
-            return oldItem.equals(newItem);
+            categoryIndicator.setBackgroundColor(colors.get(colorRes));
         }
     }
 }
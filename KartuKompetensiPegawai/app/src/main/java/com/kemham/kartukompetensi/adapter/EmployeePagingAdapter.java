@@ -0,0 +1,100 @@
+package com.kemham.kartukompetensi.adapter;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.kemham.kartukompetensi.R;
+import com.kemham.kartukompetensi.model.Employee;
+import com.kemham.kartukompetensi.util.KompetensiUtil;
+import com.kemham.kartukompetensi.view.InitialsAvatarView;
+
+import java.util.Objects;
+
+/**
+ * Adapter for the paged employee picker. Only the loaded window of the roster is bound.
+ */
+public class EmployeePagingAdapter extends PagingDataAdapter<Employee, EmployeePagingAdapter.EmployeeViewHolder> {
+
+    private final EmployeeClickListener listener;
+
+    public interface EmployeeClickListener {
+        void onEmployeeClick(Employee employee);
+    }
+
+    public EmployeePagingAdapter(EmployeeClickListener listener) {
+        super(new EmployeeDiffCallback());
+        this.listener = listener;
+    }
+
+    @NonNull
+    @Override
+    public EmployeeViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+            .inflate(R.layout.item_employee_spinner_dropdown, parent, false);
+        return new EmployeeViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull EmployeeViewHolder holder, int position) {
+        holder.bind(getItem(position));
+    }
+
+    class EmployeeViewHolder extends RecyclerView.ViewHolder {
+        private final InitialsAvatarView avatarView;
+        private final TextView nameText;
+        private final TextView nipText;
+        private final TextView positionText;
+        private Employee employee;
+
+        EmployeeViewHolder(@NonNull View itemView) {
+            super(itemView);
+            avatarView = itemView.findViewById(R.id.avatarView);
+            nameText = itemView.findViewById(R.id.nameText);
+            nipText = itemView.findViewById(R.id.nipText);
+            positionText = itemView.findViewById(R.id.positionText);
+
+            // Bound once per holder; reads the current employee at click time
+            itemView.setOnClickListener(v -> {
+                if (listener != null && employee != null) {
+                    listener.onEmployeeClick(employee);
+                }
+            });
+        }
+
+        void bind(Employee employee) {
+            this.employee = employee;
+            if (employee == null) {
+                nameText.setText(null);
+                nipText.setText(null);
+                positionText.setText(null);
+                avatarView.setInitials("");
+                return;
+            }
+
+            nameText.setText(employee.getName());
+            nipText.setText(KompetensiUtil.formatNip(employee.getNip()));
+            positionText.setText(employee.getPosition());
+            avatarView.setInitials(employee.getName());
+        }
+    }
+
+    private static class EmployeeDiffCallback extends DiffUtil.ItemCallback<Employee> {
+        @Override
+        public boolean areItemsTheSame(@NonNull Employee oldItem, @NonNull Employee newItem) {
+            return oldItem.getNip().equals(newItem.getNip());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Employee oldItem, @NonNull Employee newItem) {
+            return Objects.equals(oldItem.getName(), newItem.getName())
+                && Objects.equals(oldItem.getPosition(), newItem.getPosition());
+        }
+    }
+}
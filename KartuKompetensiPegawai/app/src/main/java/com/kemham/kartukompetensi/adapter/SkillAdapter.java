@@ -7,26 +7,28 @@ import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.TextView;
 
+import androidx.annotation.ColorRes;
 import androidx.annotation.NonNull;
-import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.kemham.kartukompetensi.R;
 import com.kemham.kartukompetensi.model.Skill;
-import com.kemham.kartukompetensi.util.AppSettings;
 import com.kemham.kartukompetensi.util.KompetensiUtil;
 import com.kemham.kartukompetensi.view.ScoreProgressBar;
 
 import java.util.Date;
+import java.util.List;
 
 /**
- * Adapter for displaying skills in a RecyclerView.
+ * Adapter for displaying skills in a RecyclerView. Rows are diffed off the main thread and
+ * rebound partially when only the score, priority or assessment date changed.
  */
 public class SkillAdapter extends ListAdapter<Skill, SkillAdapter.SkillViewHolder> {
 
     private final Context context;
     private final SkillClickListener listener;
+    private final ColorCache colors;
 
     public interface SkillClickListener {
         void onSkillClick(Skill skill);
@@ -35,9 +37,16 @@ public class SkillAdapter extends ListAdapter<Skill, SkillAdapter.SkillViewHolde
     }
 
     public SkillAdapter(Context context, SkillClickListener listener) {
-        super(new SkillDiffCallback());
+        super(SkillDiffCallback.config());
         this.context = context;
         this.listener = listener;
+        this.colors = new ColorCache(context);
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getId();
     }
 
     @NonNull
@@ -49,8 +58,17 @@ public class SkillAdapter extends ListAdapter<Skill, SkillAdapter.SkillViewHolde
 
     @Override
     public void onBindViewHolder(@NonNull SkillViewHolder holder, int position) {
-        Skill skill = getItem(position);
-        holder.bind(skill);
+        holder.bind(getItem(position));
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull SkillViewHolder holder, int position, @NonNull List<Object> payloads) {
+        int changes = SkillDiffCallback.mergePayloads(payloads);
+        if (changes == 0) {
+            onBindViewHolder(holder, position);
+        } else {
+            holder.bindChanges(getItem(position), changes);
+        }
     }
 
     class SkillViewHolder extends RecyclerView.ViewHolder {
@@ -64,6 +82,7 @@ public class SkillAdapter extends ListAdapter<Skill, SkillAdapter.SkillViewHolde
         private final View editButton;
         private final View deleteButton;
         private final View statusIndicator;
+        private Skill skill;
 
         SkillViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -77,9 +96,30 @@ public class SkillAdapter extends ListAdapter<Skill, SkillAdapter.SkillViewHolde
             editButton = itemView.findViewById(R.id.button_edit);
             deleteButton = itemView.findViewById(R.id.button_delete);
             statusIndicator = itemView.findViewById(R.id.status_indicator);
+
+            // Bound once per holder; read the current skill at click time
+            itemView.setOnClickListener(v -> {
+                if (listener != null && skill != null) {
+                    listener.onSkillClick(skill);
+                }
+            });
+
+            editButton.setOnClickListener(v -> {
+                if (listener != null && skill != null) {
+                    listener.onEditClick(skill);
+                }
+            });
+
+            deleteButton.setOnClickListener(v -> {
+                if (listener != null && skill != null) {
+                    listener.onDeleteClick(skill);
+                }
+            });
         }
 
         void bind(Skill skill) {
+            this.skill = skill;
+
             // Set basic info
             nameText.setText(skill.getName());
             categoryText.setText(getCategoryText(skill.getCategory()));
@@ -92,50 +132,52 @@ public class SkillAdapter extends ListAdapter<Skill, SkillAdapter.SkillViewHolde
                 descriptionText.setVisibility(View.GONE);
             }
 
+            bindScore(skill);
+            bindLastAssessed(skill);
+            setPriorityIndicator(skill.getPriorityLevel());
+        }
+
+        /**
+         * Rebinds only the views behind the changed fields, given as a
+         * {@link SkillDiffCallback} payload mask.
+         */
+        void bindChanges(Skill skill, int changes) {
+            this.skill = skill;
+            if ((changes & SkillDiffCallback.PAYLOAD_SCORE) != 0) {
+                bindScore(skill);
+            }
+            if ((changes & SkillDiffCallback.PAYLOAD_PRIORITY) != 0) {
+                setPriorityIndicator(skill.getPriorityLevel());
+            }
+            if ((changes & SkillDiffCallback.PAYLOAD_ASSESSMENT) != 0) {
+                bindLastAssessed(skill);
+            }
+        }
+
+        private void bindScore(Skill skill) {
             // Set score progress
             int score = skill.getScore();
             int targetScore = skill.getTargetScore();
-            scoreProgress.setProgress(score);
             scoreProgress.setMax(targetScore);
-            scoreProgress.setProgressColor(KompetensiUtil.getProgressColor(context, score, targetScore));
+            scoreProgress.setProgress(score);
+            scoreProgress.setProgressColor(colors.get(KompetensiUtil.getProgressColorRes(score, targetScore)));
 
             // Set target score
             targetScoreText.setText(context.getString(R.string.target_score_format, targetScore));
 
-            // Set last assessed date
+            // Set status indicator color
+            setStatusIndicator(score, targetScore);
+        }
+
+        private void bindLastAssessed(Skill skill) {
             Date lastAssessed = skill.getLastAssessed();
             if (lastAssessed != null) {
                 lastAssessedText.setVisibility(View.VISIBLE);
-                lastAssessedText.setText(context.getString(R.string.last_assessed_format, 
+                lastAssessedText.setText(context.getString(R.string.last_assessed_format,
                     KompetensiUtil.formatDate(lastAssessed)));
             } else {
                 lastAssessedText.setVisibility(View.GONE);
             }
-
-            // Set priority indicator
-            setPriorityIndicator(skill.getPriorityLevel());
-
-            // Set status indicator color
-            setStatusIndicator(score, targetScore);
-
-            // Set click listeners
-            itemView.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onSkillClick(skill);
-                }
-            });
-
-            editButton.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onEditClick(skill);
-                }
-            });
-
-            deleteButton.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onDeleteClick(skill);
-                }
-            });
         }
 
         private String getCategoryText(Skill.Category category) {
@@ -181,33 +223,21 @@ public class SkillAdapter extends ListAdapter<Skill, SkillAdapter.SkillViewHolde
             }
             priorityIcon.setVisibility(View.VISIBLE);
             priorityIcon.setImageResource(iconRes);
-            priorityIcon.setColorFilter(context.getResources().getColor(tintRes));
+            priorityIcon.setColorFilter(colors.get(tintRes));
         }
 
         private void setStatusIndicator(int score, int target) {
-            int color;
+            @ColorRes int colorRes;
             if (score >= target) {
-                color = context.getResources().getColor(R.color.status_complete);
+                colorRes = R.color.status_complete;
             } else if (score >= target * 0.8) {
-                color = context.getResources().getColor(R.color.status_on_track);
+                colorRes = R.color.status_on_track;
             } else if (score >= target * 0.6) {
-                color = context.getResources().getColor(R.color.status_in_progress);
+                colorRes = R.color.status_in_progress;
             } else {
-                color = context.getResources().getColor(R.color.status_needs_attention);
+                colorRes = R.color.status_needs_attention;
             }
-            statusIndicator.setBackgroundColor(color);
-        }
-    }
-
-    private static class SkillDiffCallback extends DiffUtil.ItemCallback<Skill> {
-        @Override
-        public boolean areItemsTheSame(@NonNull Skill oldItem, @NonNull Skill newItem) {
-            return oldItem.getId() == newItem.getId();
-        }
-
-        @Override
-        public boolean areContentsTheSame(@NonNull Skill oldItem, @NonNull Skill newItem) {
-            return oldItem.equals(newItem);
+            statusIndicator.setBackgroundColor(colors.get(colorRes));
         }
     }
 }
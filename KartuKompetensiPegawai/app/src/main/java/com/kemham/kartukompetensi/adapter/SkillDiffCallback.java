@@ -0,0 +1,99 @@
+package com.kemham.kartukompetensi.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.kemham.kartukompetensi.model.Skill;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Diffs skill rows by the fields the skill lists show. {@link Skill#equals} only compares ids, so
+ * it cannot tell whether a row changed. When only the score, the priority or the assessment date
+ * changed, the change payload is a bit mask of {@code PAYLOAD_*} flags so the row can rebind
+ * just those views.
+ */
+class SkillDiffCallback extends DiffUtil.ItemCallback<Skill> {
+
+    static final int PAYLOAD_SCORE = 1;
+    static final int PAYLOAD_PRIORITY = 1 << 1;
+    static final int PAYLOAD_ASSESSMENT = 1 << 2;
+
+    private static volatile AsyncDifferConfig<Skill> config;
+
+    private SkillDiffCallback() {
+    }
+
+    /**
+     * Returns the differ configuration shared by every skill list. Diffs are CPU work and run on
+     * the differ's own background pool, so they never take a read-lane thread from a query.
+     */
+    static AsyncDifferConfig<Skill> config() {
+        if (config == null) {
+            synchronized (SkillDiffCallback.class) {
+                if (config == null) {
+                    config = new AsyncDifferConfig.Builder<>(new SkillDiffCallback()).build();
+                }
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Merges the payloads queued for a row into one mask. Returns 0 if the row must be fully
+     * rebound, which is also the case when no payload was given.
+     */
+    static int mergePayloads(List<Object> payloads) {
+        int mask = 0;
+        for (Object payload : payloads) {
+            if (!(payload instanceof Integer)) {
+                return 0;
+            }
+            mask |= (Integer) payload;
+        }
+        return mask;
+    }
+
+    @Override
+    public boolean areItemsTheSame(@NonNull Skill oldItem, @NonNull Skill newItem) {
+        return oldItem.getId() == newItem.getId();
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull Skill oldItem, @NonNull Skill newItem) {
+        return sameExceptPayloadFields(oldItem, newItem)
+            && oldItem.getScore() == newItem.getScore()
+            && oldItem.getTargetScore() == newItem.getTargetScore()
+            && oldItem.getPriorityLevel() == newItem.getPriorityLevel()
+            && Objects.equals(oldItem.getLastAssessed(), newItem.getLastAssessed());
+    }
+
+    @Nullable
+    @Override
+    public Object getChangePayload(@NonNull Skill oldItem, @NonNull Skill newItem) {
+        if (!sameExceptPayloadFields(oldItem, newItem)) {
+            return null;
+        }
+        int mask = 0;
+        if (oldItem.getScore() != newItem.getScore() || oldItem.getTargetScore() != newItem.getTargetScore()) {
+            mask |= PAYLOAD_SCORE;
+        }
+        if (oldItem.getPriorityLevel() != newItem.getPriorityLevel()) {
+            mask |= PAYLOAD_PRIORITY;
+        }
+        if (!Objects.equals(oldItem.getLastAssessed(), newItem.getLastAssessed())) {
+            mask |= PAYLOAD_ASSESSMENT;
+        }
+        return mask;
+    }
+
+    private static boolean sameExceptPayloadFields(Skill oldItem, Skill newItem) {
+        return Objects.equals(oldItem.getName(), newItem.getName())
+            && oldItem.getCategory() == newItem.getCategory()
+            && Objects.equals(oldItem.getDescription(), newItem.getDescription())
+            && Objects.equals(oldItem.getRecommendation(), newItem.getRecommendation());
+    }
+}
@@ -1,37 +1,56 @@
 package com.kemham.kartukompetensi.data;
 
 import android.content.Context;
+import android.database.Cursor;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
 import androidx.room.TypeConverters;
 import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
 
+import com.kemham.kartukompetensi.BuildConfig;
 import com.kemham.kartukompetensi.model.CategoryConverter;
 import com.kemham.kartukompetensi.model.DateConverter;
 import com.kemham.kartukompetensi.model.Employee;
+import com.kemham.kartukompetensi.model.EmployeeCategoryStats;
+import com.kemham.kartukompetensi.model.EmployeeFts;
 import com.kemham.kartukompetensi.model.Skill;
+import com.kemham.kartukompetensi.model.SkillFts;
+import com.kemham.kartukompetensi.model.UnitStats;
 import com.kemham.kartukompetensi.util.AppExecutors;
 
+import java.io.File;
+
 /**
  * The Room database for the application.
  */
 @Database(
-    entities = {Employee.class, Skill.class},
-    version = 1,
-    exportSchema = false
+    entities = {
+        Employee.class,
+        Skill.class,
+        EmployeeFts.class,
+        SkillFts.class,
+        EmployeeCategoryStats.class,
+        UnitStats.class
+    },
+    version = Migrations.LATEST_VERSION,
+    exportSchema = true
 )
 @TypeConverters({DateConverter.class, CategoryConverter.class})
 public abstract class AppDatabase extends RoomDatabase {
 
     private static final String DATABASE_NAME = "kartu_kompetensi.db";
+    private static final String[] SEARCH_INDICES = {"employees_fts", "skills_fts"};
     private static volatile AppDatabase instance;
 
     // DAOs
     public abstract EmployeeDao employeeDao();
     public abstract SkillDao skillDao();
+    public abstract StatsDao statsDao();
 
     /**
      * Gets the singleton instance of the database.
@@ -48,80 +67,136 @@ public abstract class AppDatabase extends RoomDatabase {
     }
 
     /**
-     * Builds and pre-populates the database.
+     * Builds the database. A fresh install starts from a copy of the pre-built seed database, so
+     * first launch does no inserts and the first query always sees the seed data.
      */
     private static AppDatabase buildDatabase(Context context) {
-        return Room.databaseBuilder(context, AppDatabase.class, DATABASE_NAME)
-                .addCallback(new RoomDatabase.Callback() {
-                    @Override
-                    public void onCreate(@NonNull SupportSQLiteDatabase db) {
-                        super.onCreate(db);
-                        // Pre-populate database in background
-                        AppExecutors.getInstance().diskIO().execute(() -> {
-                            AppDatabase database = AppDatabase.getInstance(context);
-                            prepopulateDatabase(database);
-                        });
-                    }
-
-                    @Override
-                    public void onOpen(@NonNull SupportSQLiteDatabase db) {
-                        super.onOpen(db);
-                        // Enable foreign key constraints
-                        db.execSQL("PRAGMA foreign_keys = ON");
-                    }
-                })
-                .addMigrations() // Add migrations here when updating schema
-                .fallbackToDestructiveMigration() // Wipes database on schema change
-                .build();
+        RoomDatabase.Builder<AppDatabase> builder =
+                Room.databaseBuilder(context, AppDatabase.class, DATABASE_NAME)
+                .addCallback(new SchemaCallback())
+                // Room's queries and transactions run on the app's read and write lanes
+                .setQueryExecutor(AppExecutors.getInstance().reads())
+                .setTransactionExecutor(AppExecutors.getInstance().writes())
+                // WAL lets the read lane query in parallel with the writer
+                .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING)
+                .addMigrations(Migrations.ALL) // Add migrations in Migrations when updating schema
+                .fallbackToDestructiveMigrationOnDowngrade(); // Upgrades never wipe data
+
+        if (BuildConfig.DEBUG || QueryProfiler.isEnabled(context)) {
+            // Times every statement by SQL shape and logs slow and main-thread queries
+            builder.openHelperFactory(new ProfilingOpenHelperFactory(
+                    new FrameworkSQLiteOpenHelperFactory(), QueryProfiler.getInstance(context)));
+        }
+
+        File seedOverride = new File(context.getFilesDir(), SeedDatabase.OVERRIDE_PATH);
+        if (seedOverride.isFile()) {
+            builder.createFromFile(seedOverride, new SeedDatabase());
+        } else {
+            builder.createFromAsset(SeedDatabase.ASSET_PATH, new SeedDatabase());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates the summary and search triggers on an empty database and sets the per-connection
+     * pragmas. Public so tests can build an in-memory database with the same schema.
+     */
+    public static class SchemaCallback extends RoomDatabase.Callback {
+        @Override
+        public void onCreate(@NonNull SupportSQLiteDatabase db) {
+            super.onCreate(db);
+            // Only reached for a database not copied from the seed; the tables start empty
+            StatsTriggers.create(db);
+            SearchTriggers.create(db);
+        }
+
+        @Override
+        public void onOpen(@NonNull SupportSQLiteDatabase db) {
+            super.onOpen(db);
+            // Enable foreign key constraints
+            db.execSQL("PRAGMA foreign_keys = ON");
+            // Let REPLACE inserts fire delete triggers so the FTS indices drop the old row
+            db.execSQL("PRAGMA recursive_triggers = ON");
+        }
+    }
+
+    /**
+     * Recomputes the summary tables from employees and skills, repairing any drift.
+     * Must be called off the main thread.
+     */
+    public void rebuildStatistics() {
+        runInTransaction(() -> StatsTriggers.rebuild(getOpenHelper().getWritableDatabase()));
+    }
+
+    /**
+     * Recomputes the category summaries of the next {@code limit} employees after
+     * {@code afterNip} in one transaction. Must be called off the main thread.
+     * @return The last nip rebuilt, or null once every employee has been rebuilt
+     */
+    @Nullable
+    public String rebuildEmployeeStatistics(@Nullable String afterNip, int limit) {
+        return runInTransaction(() ->
+                StatsTriggers.rebuildEmployees(getOpenHelper().getWritableDatabase(), afterNip, limit));
+    }
+
+    /**
+     * Recomputes the per-unit summaries. Must be called off the main thread.
+     */
+    public void rebuildUnitStatistics() {
+        runInTransaction(() -> StatsTriggers.rebuildUnits(getOpenHelper().getWritableDatabase()));
+    }
+
+    /**
+     * Deletes summary rows left empty by removed skills and employees.
+     * Must be called off the main thread.
+     */
+    public void pruneStatistics() {
+        runInTransaction(() -> StatsTriggers.pruneEmpty(getOpenHelper().getWritableDatabase()));
     }
 
     /**
-     * Pre-populates the database with initial data.
+     * Merges up to {@code pages} pages of the FTS index segments written by incremental updates,
+     * in each search index. Repeat until it returns false to fully merge the indices; unlike the
+     * 'optimize' command, each call does a bounded amount of work. Must be called off the main thread.
+     * @return true if there may be more to merge
      */
-    private static void prepopulateDatabase(AppDatabase database) {
-        // Add sample employee
-        Employee sampleEmployee = new Employee.Builder("199901010001")
-                .name("John Doe")
-                .unit("IT Department")
-                .position("Software Engineer")
-                .grade("L3")
-                .email("john.doe@kemham.go.id")
-                .build();
-        database.employeeDao().insert(sampleEmployee);
-
-        // Add sample skills
-        Skill basicSkill = new Skill.Builder()
-                .employeeNip("199901010001")
-                .name("Java Programming")
-                .description("Core Java programming skills")
-                .category(Skill.Category.BASIC)
-                .score(80)
-                .targetScore(100)
-                .priorityLevel(Skill.Level.HIGH)
-                .build();
-        database.skillDao().insert(basicSkill);
-
-        Skill technicalSkill = new Skill.Builder()
-                .employeeNip("199901010001")
-                .name("Android Development")
-                .description("Android app development skills")
-                .category(Skill.Category.TECHNICAL)
-                .score(75)
-                .targetScore(100)
-                .priorityLevel(Skill.Level.HIGH)
-                .build();
-        database.skillDao().insert(technicalSkill);
-
-        Skill emergingSkill = new Skill.Builder()
-                .employeeNip("199901010001")
-                .name("Kotlin Programming")
-                .description("Modern Android development with Kotlin")
-                .category(Skill.Category.EMERGING)
-                .score(60)
-                .targetScore(100)
-                .priorityLevel(Skill.Level.MEDIUM)
-                .build();
-        database.skillDao().insert(emergingSkill);
+    public boolean mergeSearchIndices(int pages) {
+        SupportSQLiteDatabase db = getOpenHelper().getWritableDatabase();
+        return runInTransaction(() -> {
+            boolean more = false;
+            for (String table : SEARCH_INDICES) {
+                // FTS4 reports a merge that had nothing left to do as fewer than two changes
+                long before = totalChanges(db);
+                db.execSQL("INSERT INTO " + table + "(" + table + ") VALUES('merge=" + pages + ",2')");
+                more |= totalChanges(db) - before >= 2;
+            }
+            return more;
+        });
+    }
+
+    /**
+     * Refreshes the query planner statistics. Must be called off the main thread.
+     */
+    public void analyze() {
+        // The pragma returns rows, which execSQL rejects
+        try (Cursor cursor = getOpenHelper().getWritableDatabase().query("PRAGMA optimize")) {
+            cursor.moveToFirst();
+        }
+    }
+
+    /**
+     * Copies the WAL into the database file and truncates it. Must be called off the main thread.
+     */
+    public void checkpoint() {
+        try (Cursor cursor = getOpenHelper().getWritableDatabase().query("PRAGMA wal_checkpoint(TRUNCATE)")) {
+            cursor.moveToFirst();
+        }
+    }
+
+    private static long totalChanges(SupportSQLiteDatabase db) {
+        try (Cursor cursor = db.query("SELECT total_changes()")) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
     }
 
     /**
@@ -129,7 +204,7 @@ public abstract class AppDatabase extends RoomDatabase {
      */
     public void clearAllTables() {
         if (instance != null) {
-            AppExecutors.getInstance().diskIO().execute(() -> {
+            AppExecutors.getInstance().writes().execute(() -> {
                 synchronized (AppDatabase.class) {
                     instance.clearAllTables();
                 }
@@ -149,39 +224,17 @@ public abstract class AppDatabase extends RoomDatabase {
         }
     }
 
-    /**
-     * Checks if the database is open.
-     */
-    public boolean isOpen() {
-        return instance != null && instance.getOpenHelper().getWritableDatabase().isOpen();
-    }
-
     /**
      * Gets the database version.
      */
     public int getVersion() {
-        return instance != null ? instance.getOpenHelper().getWritableDatabase().getVersion() : 0;
+        return getOpenHelper().getWritableDatabase().getVersion();
     }
 
     /**
      * Gets the database path.
      */
     public String getPath() {
-        return instance != null ? instance.getOpenHelper().getWritableDatabase().getPath() : null;
-    }
-
-    /**
-     * Runs a transaction.
-     */
-    public void runInTransaction(Runnable body) {
-        if (instance != null) {
-            instance.getOpenHelper().getWritableDatabase().beginTransaction();
-            try {
-                body.run();
-                instance.getOpenHelper().getWritableDatabase().setTransactionSuccessful();
-            } finally {
-                instance.getOpenHelper().getWritableDatabase().endTransaction();
-            }
-        }
+        return getOpenHelper().getWritableDatabase().getPath();
     }
 }
@@ -1,6 +1,10 @@
 package com.kemham.kartukompetensi.data;
 
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
@@ -34,10 +38,37 @@ public interface EmployeeDao {
     List<Long> insertAll(List<Employee> employees);
 
     /**
-     * Update an employee in the database.
+     * Insert employees that do not exist yet. Existing rows are left untouched, so their skills
+     * and score totals survive; the returned row id is -1 for each skipped employee.
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    List<Long> insertAllIfAbsent(List<Employee> employees);
+
+    /**
+     * Update the roster fields of an existing employee, leaving score totals unchanged.
+     * Optional fields the roster leaves empty (null) keep their stored value.
+     */
+    @Query("UPDATE employees SET name = :name, unit = :unit, position = :position, grade = :grade, " +
+           "email = COALESCE(:email, email), phoneNumber = COALESCE(:phoneNumber, phoneNumber), " +
+           "supervisor = COALESCE(:supervisor, supervisor), " +
+           "joinDate = COALESCE(:joinDate, joinDate), status = :status, targetScore = :targetScore " +
+           "WHERE nip = :nip")
+    int updateRosterFields(String nip, String name, String unit, String position, String grade,
+                           String email, String phoneNumber, String supervisor, Date joinDate,
+                           EmployeeStatus status, int targetScore);
+
+    /**
+     * Get which of the given NIPs exist.
      */
-    @Update
-    int update(Employee employee);
+    @Query("SELECT nip FROM employees WHERE nip IN (:nips)")
+    List<String> getExistingNips(List<String> nips);
+
+    /**
+     * Update the editable columns of an employee. The score columns are owned by ScoreEngine and
+     * left alone, so writing back a stale Employee cannot undo skill writes made meanwhile.
+     */
+    @Update(entity = Employee.class)
+    int updateProfile(Profile profile);
 
     /**
      * Delete an employee from the database.
@@ -51,12 +82,24 @@ public interface EmployeeDao {
     @Query("SELECT * FROM employees WHERE nip = :nip")
     LiveData<Employee> getEmployee(String nip);
 
+    /**
+     * Get the overall score of one employee.
+     */
+    @Query("SELECT overallScore FROM employees WHERE nip = :nip")
+    LiveData<Integer> getOverallScore(String nip);
+
     /**
      * Get all employees.
      */
     @Query("SELECT * FROM employees ORDER BY name ASC")
     LiveData<List<Employee>> getAllEmployees();
 
+    /**
+     * Get all employees one page at a time.
+     */
+    @Query("SELECT * FROM employees ORDER BY name ASC")
+    PagingSource<Integer, Employee> getAllEmployeesPaged();
+
     /**
      * Get active employees.
      */
@@ -75,6 +118,12 @@ public interface EmployeeDao {
     @Query("SELECT * FROM employees WHERE unit = :unit ORDER BY name ASC")
     LiveData<List<Employee>> getEmployeesByUnit(String unit);
 
+    /**
+     * Get employees by unit one page at a time.
+     */
+    @Query("SELECT * FROM employees WHERE unit = :unit ORDER BY name ASC")
+    PagingSource<Integer, Employee> getEmployeesByUnitPaged(String unit);
+
     /**
      * Get employees needing assessment.
      */
@@ -105,6 +154,44 @@ public interface EmployeeDao {
     @Query("SELECT * FROM employees WHERE name LIKE '%' || :query || '%' OR nip LIKE '%' || :query || '%' ORDER BY name ASC")
     LiveData<List<Employee>> searchEmployees(String query);
 
+    /**
+     * Full-text search over name, NIP, unit and position.
+     * Exact NIP matches rank first, then name prefix matches, then matches in any other column.
+     * @param match A MATCH expression built with {@link FtsQuery#prefix(String)}
+     * @param rawQuery The trimmed user input, used only for ranking
+     */
+    @Query("SELECT e.* FROM employees e JOIN employees_fts ON e.rowid = employees_fts.docid " +
+           "WHERE employees_fts MATCH :match " +
+           "ORDER BY CASE WHEN e.nip = :rawQuery THEN 0 WHEN e.name LIKE :rawQuery || '%' THEN 1 ELSE 2 END, " +
+           "e.name ASC LIMIT :limit")
+    LiveData<List<Employee>> searchEmployeesRanked(String match, String rawQuery, int limit);
+
+    /**
+     * Full-text search over name, NIP, unit and position one page at a time, ranked like
+     * {@link #searchEmployeesRanked(String, String, int)}.
+     */
+    @Query("SELECT e.* FROM employees e JOIN employees_fts ON e.rowid = employees_fts.docid " +
+           "WHERE employees_fts MATCH :match " +
+           "ORDER BY CASE WHEN e.nip = :rawQuery THEN 0 WHEN e.name LIKE :rawQuery || '%' THEN 1 ELSE 2 END, " +
+           "e.name ASC")
+    PagingSource<Integer, Employee> searchEmployeesPaged(String match, String rawQuery);
+
+    /**
+     * Full-text search limited to one status, or to none if the status is null, ranked like
+     * {@link #searchEmployeesRanked(String, String, int)}. Blocking; the caller picks the thread.
+     */
+    @Query("SELECT e.* FROM employees e JOIN employees_fts ON e.rowid = employees_fts.docid " +
+           "WHERE employees_fts MATCH :match AND (:status IS NULL OR e.status = :status) " +
+           "ORDER BY CASE WHEN e.nip = :rawQuery THEN 0 WHEN e.name LIKE :rawQuery || '%' THEN 1 ELSE 2 END, " +
+           "e.name ASC LIMIT :limit")
+    List<Employee> searchEmployeesWithStatus(String match, String rawQuery, EmployeeStatus status, int limit);
+
+    /**
+     * Employees with one status, or all employees if the status is null, by name. Blocking.
+     */
+    @Query("SELECT * FROM employees WHERE :status IS NULL OR status = :status ORDER BY name ASC LIMIT :limit")
+    List<Employee> getEmployeesWithStatus(EmployeeStatus status, int limit);
+
     /**
      * Get all unique units.
      */
@@ -123,6 +210,58 @@ public interface EmployeeDao {
     @Query("UPDATE employees SET overallScore = :score, lastAssessment = :assessmentDate WHERE nip = :nip")
     int updateEmployeeScore(String nip, int score, Date assessmentDate);
 
+    /**
+     * Apply a change to an employee's running skill totals and recompute the overall score from them.
+     * SET expressions see the row's old values, so the new average is derived in a single statement.
+     * @param assessmentDate The date of this assessment, or null, e.g. for deletes. The stored date
+     *                       only moves forward, so saving an older assessment keeps the later one.
+     */
+    @Query("UPDATE employees SET " +
+           "skillProgressSum = skillProgressSum + :progressDelta, " +
+           "skillCount = skillCount + :countDelta, " +
+           "overallScore = CASE WHEN skillCount + :countDelta > 0 " +
+           "THEN (skillProgressSum + :progressDelta) / (skillCount + :countDelta) ELSE 0 END, " +
+           "lastAssessment = CASE WHEN lastAssessment IS NULL OR :assessmentDate > lastAssessment " +
+           "THEN :assessmentDate ELSE lastAssessment END " +
+           "WHERE nip = :nip")
+    int applyScoreDelta(String nip, long progressDelta, int countDelta, Date assessmentDate);
+
+    /**
+     * Rebuild the running skill totals of one employee from the skills table. The overall score
+     * is left as is; derive it afterwards with {@link #refreshOverallScore}.
+     */
+    @Query("UPDATE employees SET " +
+           "skillProgressSum = (SELECT COALESCE(SUM(CASE WHEN s.targetScore > 0 " +
+           "THEN s.score * 100 / s.targetScore ELSE 0 END), 0) " +
+           "FROM skills s WHERE s.employeeNip = employees.nip), " +
+           "skillCount = (SELECT COUNT(*) FROM skills s WHERE s.employeeNip = employees.nip) " +
+           "WHERE nip = :nip")
+    int rebuildScoreTotals(String nip);
+
+    /**
+     * Rebuild the running skill totals of every employee from the skills table. Derive the overall
+     * scores afterwards with {@link #refreshOverallScores}.
+     */
+    @Query("UPDATE employees SET " +
+           "skillProgressSum = (SELECT COALESCE(SUM(CASE WHEN s.targetScore > 0 " +
+           "THEN s.score * 100 / s.targetScore ELSE 0 END), 0) " +
+           "FROM skills s WHERE s.employeeNip = employees.nip), " +
+           "skillCount = (SELECT COUNT(*) FROM skills s WHERE s.employeeNip = employees.nip)")
+    int rebuildAllScoreTotals();
+
+    /**
+     * Derive the overall score of one employee from their running skill totals.
+     */
+    @Query("UPDATE employees SET overallScore = CASE WHEN skillCount > 0 THEN skillProgressSum / skillCount ELSE 0 END " +
+           "WHERE nip = :nip")
+    int refreshOverallScore(String nip);
+
+    /**
+     * Derive overall scores of every employee from their running skill totals.
+     */
+    @Query("UPDATE employees SET overallScore = CASE WHEN skillCount > 0 THEN skillProgressSum / skillCount ELSE 0 END")
+    int refreshOverallScores();
+
     /**
      * Delete inactive employees.
      */
@@ -171,4 +310,59 @@ public interface EmployeeDao {
      */
     @Query("SELECT * FROM employees WHERE status = 'ACTIVE' AND overallScore < :threshold ORDER BY overallScore ASC")
     LiveData<List<Employee>> getEmployeesNeedingDevelopment(int threshold);
+
+    /**
+     * Get one batch of competency card rows for export: one row per skill, or a single row with
+     * null skill columns for an employee without skills. Employees are taken in NIP order after
+     * {@code afterNip}, so callers walk the whole table with constant memory by passing the last
+     * NIP of the previous batch.
+     * @param unit The unit to export, or null for all units
+     */
+    @Query("SELECT e.nip, e.name AS employeeName, e.unit, e.position, e.grade, e.status, " +
+           "e.overallScore, e.targetScore AS employeeTargetScore, s.name AS skillName, s.category, " +
+           "s.score, s.targetScore, s.priorityLevel, s.lastAssessed, s.assessor, s.recommendation " +
+           "FROM employees e LEFT JOIN skills s ON s.employeeNip = e.nip " +
+           "WHERE e.nip IN (SELECT nip FROM employees WHERE nip > :afterNip " +
+           "AND (:unit IS NULL OR unit = :unit) ORDER BY nip LIMIT :employeeLimit) " +
+           "ORDER BY e.nip, s.category, s.name")
+    Cursor getCompetencyRows(String afterNip, String unit, int employeeLimit);
+
+    /**
+     * The editable columns of an employee, as a partial entity for {@link #updateProfile(Profile)}.
+     */
+    class Profile {
+        @NonNull
+        public String nip;
+        public String name;
+        public String unit;
+        public String position;
+        public String grade;
+        public String email;
+        public String phoneNumber;
+        public Date joinDate;
+        public String supervisor;
+        public int targetScore;
+        public String notes;
+        public EmployeeStatus status;
+
+        public Profile(@NonNull String nip) {
+            this.nip = nip;
+        }
+
+        public static Profile of(Employee employee) {
+            Profile profile = new Profile(employee.getNip());
+            profile.name = employee.getName();
+            profile.unit = employee.getUnit();
+            profile.position = employee.getPosition();
+            profile.grade = employee.getGrade();
+            profile.email = employee.getEmail();
+            profile.phoneNumber = employee.getPhoneNumber();
+            profile.joinDate = employee.getJoinDate();
+            profile.supervisor = employee.getSupervisor();
+            profile.targetScore = employee.getTargetScore();
+            profile.notes = employee.getNotes();
+            profile.status = employee.getStatus();
+            return profile;
+        }
+    }
 }
@@ -0,0 +1,45 @@
+package com.kemham.kartukompetensi.data;
+
+import androidx.annotation.Nullable;
+
+import java.util.Locale;
+
+/**
+ * Builds MATCH expressions for the employees_fts and skills_fts tables from raw user input.
+ */
+public final class FtsQuery {
+
+    private FtsQuery() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Converts free text into a prefix query where every term must match, e.g. "sya zak" -> "sya* zak*".
+     * FTS operators and punctuation are dropped so user input can never produce a malformed query.
+     * @param input The raw search text
+     * @return The MATCH expression, or null if the input contains no searchable terms
+     */
+    @Nullable
+    public static String prefix(@Nullable String input) {
+        if (input == null) {
+            return null;
+        }
+
+        StringBuilder match = new StringBuilder(input.length() + 8);
+        int termStart = -1;
+        for (int i = 0; i <= input.length(); i++) {
+            boolean isTermChar = i < input.length() && Character.isLetterOrDigit(input.charAt(i));
+            if (isTermChar && termStart < 0) {
+                termStart = i;
+            } else if (!isTermChar && termStart >= 0) {
+                if (match.length() > 0) {
+                    match.append(' ');
+                }
+                // Lower case so terms like "OR" or "NEAR" are never read as operators
+                match.append(input.substring(termStart, i).toLowerCase(Locale.ROOT)).append('*');
+                termStart = -1;
+            }
+        }
+        return match.length() > 0 ? match.toString() : null;
+    }
+}
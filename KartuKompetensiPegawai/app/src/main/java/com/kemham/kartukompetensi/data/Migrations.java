@@ -0,0 +1,142 @@
+package com.kemham.kartukompetensi.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Schema migrations for {@link AppDatabase}.
+ *
+ * Every released schema change bumps {@link #LATEST_VERSION} once, adds a migration here and
+ * registers it in {@link #ALL}; changes between releases extend the pending migration instead.
+ * Room exports each version's schema to app/schemas, and MigrationsTest upgrades a database
+ * created from each released schema and checks it against the current one.
+ */
+final class Migrations {
+
+    static final int LATEST_VERSION = 2;
+
+    /**
+     * Upgrades the first release's schema: running skill totals for ScoreEngine, full-text search
+     * indices, composite query indices and the trigger-maintained summary tables. Each part is
+     * backfilled from the existing rows, after duplicate skills are removed.
+     */
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            removeDuplicateSkills(db);
+            addScoreTotals(db);
+            addSearchIndices(db);
+            addQueryIndices(db);
+            addSummaryTables(db);
+
+            // Give the query planner statistics for the new indices
+            db.execSQL("ANALYZE");
+        }
+    };
+
+    /**
+     * Keeps only the newest of an employee's skills with the same category and name, which
+     * re-imported rosters left behind, so the skill key can be indexed as unique.
+     */
+    private static void removeDuplicateSkills(SupportSQLiteDatabase db) {
+        db.execSQL("DELETE FROM skills WHERE id NOT IN " +
+                "(SELECT MAX(id) FROM skills GROUP BY employeeNip, category, name)");
+    }
+
+    /**
+     * Adds the running skill totals used by ScoreEngine and backfills them from existing skills.
+     */
+    private static void addScoreTotals(SupportSQLiteDatabase db) {
+        db.execSQL("ALTER TABLE employees ADD COLUMN skillProgressSum INTEGER NOT NULL DEFAULT 0");
+        db.execSQL("ALTER TABLE employees ADD COLUMN skillCount INTEGER NOT NULL DEFAULT 0");
+        db.execSQL("UPDATE employees SET " +
+                "skillProgressSum = (SELECT COALESCE(SUM(CASE WHEN s.targetScore > 0 " +
+                "THEN s.score * 100 / s.targetScore ELSE 0 END), 0) FROM skills s WHERE s.employeeNip = employees.nip), " +
+                "skillCount = (SELECT COUNT(*) FROM skills s WHERE s.employeeNip = employees.nip)");
+        db.execSQL("UPDATE employees SET overallScore = " +
+                "CASE WHEN skillCount > 0 THEN skillProgressSum / skillCount ELSE 0 END");
+    }
+
+    /**
+     * Adds the full-text indices for employee and skill search, with the same content-sync
+     * triggers a fresh install has, and builds them from the existing rows.
+     */
+    private static void addSearchIndices(SupportSQLiteDatabase db) {
+        db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `employees_fts` USING FTS4(" +
+                "`name` TEXT, `nip` TEXT, `unit` TEXT, `position` TEXT, " +
+                "tokenize=unicode61, content=`employees`)");
+        createContentSyncTriggers(db, "employees_fts", "employees",
+                "`name`, `nip`, `unit`, `position`");
+        SearchTriggers.create(db);
+        db.execSQL("INSERT INTO `employees_fts`(`employees_fts`) VALUES('rebuild')");
+
+        db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `skills_fts` USING FTS4(" +
+                "`name` TEXT, `description` TEXT, `recommendation` TEXT, " +
+                "tokenize=unicode61, content=`skills`)");
+        createContentSyncTriggers(db, "skills_fts", "skills",
+                "`name`, `description`, `recommendation`");
+        db.execSQL("INSERT INTO `skills_fts`(`skills_fts`) VALUES('rebuild')");
+    }
+
+    private static void createContentSyncTriggers(SupportSQLiteDatabase db, String ftsTable,
+                                                  String contentTable, String columns) {
+        String newValues = columns.replace("`", "").replaceAll("(\\w+)", "NEW.`$1`");
+        String prefix = "CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_" + ftsTable + "_";
+        db.execSQL(prefix + "BEFORE_UPDATE BEFORE UPDATE ON `" + contentTable + "` BEGIN " +
+                "DELETE FROM `" + ftsTable + "` WHERE `docid`=OLD.`rowid`; END");
+        db.execSQL(prefix + "BEFORE_DELETE BEFORE DELETE ON `" + contentTable + "` BEGIN " +
+                "DELETE FROM `" + ftsTable + "` WHERE `docid`=OLD.`rowid`; END");
+        db.execSQL(prefix + "AFTER_UPDATE AFTER UPDATE ON `" + contentTable + "` BEGIN " +
+                "INSERT INTO `" + ftsTable + "`(`docid`, " + columns + ") " +
+                "VALUES (NEW.`rowid`, " + newValues + "); END");
+        db.execSQL(prefix + "AFTER_INSERT AFTER INSERT ON `" + contentTable + "` BEGIN " +
+                "INSERT INTO `" + ftsTable + "`(`docid`, " + columns + ") " +
+                "VALUES (NEW.`rowid`, " + newValues + "); END");
+    }
+
+    /**
+     * Replaces the single skills(employeeNip) index with composite indices matching the DAO
+     * query shapes, and indexes the employee columns used for filtering and sorting.
+     */
+    private static void addQueryIndices(SupportSQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_employees_status_name` ON `employees` (`status`, `name`)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_employees_status_overallScore` ON `employees` (`status`, `overallScore`)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_employees_unit_name` ON `employees` (`unit`, `name`)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_employees_supervisor_name` ON `employees` (`supervisor`, `name`)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_employees_lastAssessment` ON `employees` (`lastAssessment`)");
+
+        db.execSQL("DROP INDEX IF EXISTS `index_skills_employeeNip`");
+        db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_skills_employeeNip_category_name` ON `skills` (`employeeNip`, `category`, `name`)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_skills_employeeNip_lastAssessed` ON `skills` (`employeeNip`, `lastAssessed`)");
+    }
+
+    /**
+     * Adds the trigger-maintained summary tables for dashboard aggregates and fills them.
+     * Runs after {@link #addScoreTotals}, since the unit summaries read the overall scores.
+     */
+    private static void addSummaryTables(SupportSQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS `employee_category_stats` (" +
+                "`employeeNip` TEXT NOT NULL, `category` TEXT NOT NULL, " +
+                "`skillCount` INTEGER NOT NULL, `scoreSum` INTEGER NOT NULL, " +
+                "`progressSum` INTEGER NOT NULL, `achievedCount` INTEGER NOT NULL, " +
+                "PRIMARY KEY(`employeeNip`, `category`), " +
+                "FOREIGN KEY(`employeeNip`) REFERENCES `employees`(`nip`) " +
+                "ON UPDATE NO ACTION ON DELETE CASCADE )");
+        db.execSQL("CREATE TABLE IF NOT EXISTS `unit_stats` (" +
+                "`unit` TEXT NOT NULL, `status` TEXT NOT NULL, " +
+                "`headcount` INTEGER NOT NULL, `scoreSum` INTEGER NOT NULL, " +
+                "`belowTargetCount` INTEGER NOT NULL, " +
+                "PRIMARY KEY(`unit`, `status`))");
+        StatsTriggers.create(db);
+        StatsTriggers.rebuild(db);
+    }
+
+    static final Migration[] ALL = {
+        MIGRATION_1_2
+    };
+
+    private Migrations() {
+        // Private constructor to prevent instantiation
+    }
+}
@@ -0,0 +1,454 @@
+package com.kemham.kartukompetensi.data;
+
+import android.content.ContentValues;
+import android.database.AbstractWindowedCursor;
+import android.database.Cursor;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteTransactionListener;
+import android.os.CancellationSignal;
+import android.util.Pair;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteOpenHelper;
+import androidx.sqlite.db.SupportSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteStatement;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Open helper factory that times every statement Room runs and reports it to a
+ * {@link QueryProfiler}.
+ *
+ * Room's QueryCallback is told about a query before it runs, so it cannot see how long the query
+ * took or how many rows it returned; this wraps the database one level below Room instead. SQLite
+ * only steps through a query's rows when the cursor is first read, so a query's time covers its
+ * execution and the fill of the first window: the cursor is moved to its first row, which is the
+ * fill the caller's first move would do, and rewound. The rows recorded are those in that window,
+ * which is the whole result for all but the largest queries. The original cursor is returned
+ * unwrapped, keeping Room's own window handling intact.
+ */
+public class ProfilingOpenHelperFactory implements SupportSQLiteOpenHelper.Factory {
+
+    private final SupportSQLiteOpenHelper.Factory delegate;
+    private final QueryProfiler profiler;
+
+    public ProfilingOpenHelperFactory(SupportSQLiteOpenHelper.Factory delegate, QueryProfiler profiler) {
+        this.delegate = delegate;
+        this.profiler = profiler;
+    }
+
+    @NonNull
+    @Override
+    public SupportSQLiteOpenHelper create(@NonNull SupportSQLiteOpenHelper.Configuration configuration) {
+        return new ProfilingOpenHelper(delegate.create(configuration), profiler);
+    }
+
+    private static void record(QueryProfiler profiler, String sql, long startedAt, long rows) {
+        long duration = System.nanoTime() - startedAt;
+        profiler.record(sql, duration, rows, Thread.currentThread().getName(), QueryProfiler.isMainThread());
+    }
+
+    private static final class ProfilingOpenHelper implements SupportSQLiteOpenHelper {
+        private final SupportSQLiteOpenHelper delegate;
+        private final QueryProfiler profiler;
+        private volatile ProfilingDatabase database;
+
+        ProfilingOpenHelper(SupportSQLiteOpenHelper delegate, QueryProfiler profiler) {
+            this.delegate = delegate;
+            this.profiler = profiler;
+        }
+
+        @Nullable
+        @Override
+        public String getDatabaseName() {
+            return delegate.getDatabaseName();
+        }
+
+        @Override
+        public void setWriteAheadLoggingEnabled(boolean enabled) {
+            delegate.setWriteAheadLoggingEnabled(enabled);
+        }
+
+        @NonNull
+        @Override
+        public SupportSQLiteDatabase getWritableDatabase() {
+            return wrap(delegate.getWritableDatabase());
+        }
+
+        @NonNull
+        @Override
+        public SupportSQLiteDatabase getReadableDatabase() {
+            return wrap(delegate.getReadableDatabase());
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+
+        private SupportSQLiteDatabase wrap(SupportSQLiteDatabase db) {
+            // The framework helper hands out one database object, so the wrapper is reused too
+            ProfilingDatabase current = database;
+            if (current == null || current.delegate != db) {
+                current = new ProfilingDatabase(db, profiler);
+                database = current;
+            }
+            return current;
+        }
+    }
+
+    private static final class ProfilingDatabase implements SupportSQLiteDatabase {
+        final SupportSQLiteDatabase delegate;
+        private final QueryProfiler profiler;
+
+        ProfilingDatabase(SupportSQLiteDatabase delegate, QueryProfiler profiler) {
+            this.delegate = delegate;
+            this.profiler = profiler;
+        }
+
+        private Cursor timed(String sql, long startedAt, Cursor cursor) {
+            long rows = 0;
+            if (cursor.moveToFirst()) {
+                rows = cursor instanceof AbstractWindowedCursor
+                    ? ((AbstractWindowedCursor) cursor).getWindow().getNumRows()
+                    : -1;
+            }
+            record(profiler, sql, startedAt, rows);
+            // Back before the first row, where the caller expects a new cursor to be
+            cursor.moveToPosition(-1);
+            return cursor;
+        }
+
+        // Queries
+
+        @NonNull
+        @Override
+        public Cursor query(@NonNull String query) {
+            long startedAt = System.nanoTime();
+            return timed(query, startedAt, delegate.query(query));
+        }
+
+        @NonNull
+        @Override
+        public Cursor query(@NonNull String query, @NonNull Object[] bindArgs) {
+            long startedAt = System.nanoTime();
+            return timed(query, startedAt, delegate.query(query, bindArgs));
+        }
+
+        @NonNull
+        @Override
+        public Cursor query(@NonNull SupportSQLiteQuery query) {
+            long startedAt = System.nanoTime();
+            return timed(query.getSql(), startedAt, delegate.query(query));
+        }
+
+        @NonNull
+        @Override
+        public Cursor query(@NonNull SupportSQLiteQuery query, @Nullable CancellationSignal cancellationSignal) {
+            long startedAt = System.nanoTime();
+            return timed(query.getSql(), startedAt, delegate.query(query, cancellationSignal));
+        }
+
+        // Writes
+
+        @NonNull
+        @Override
+        public SupportSQLiteStatement compileStatement(@NonNull String sql) {
+            return new ProfilingStatement(delegate.compileStatement(sql), sql, profiler);
+        }
+
+        @Override
+        public long insert(@NonNull String table, int conflictAlgorithm, @NonNull ContentValues values)
+                throws SQLException {
+            long startedAt = System.nanoTime();
+            long rowId = delegate.insert(table, conflictAlgorithm, values);
+            record(profiler, "INSERT INTO " + table + " (ContentValues)", startedAt, rowId != -1 ? 1 : 0);
+            return rowId;
+        }
+
+        @Override
+        public int delete(@NonNull String table, @Nullable String whereClause, @Nullable Object[] whereArgs) {
+            long startedAt = System.nanoTime();
+            int rows = delegate.delete(table, whereClause, whereArgs);
+            record(profiler, "DELETE FROM " + table + (whereClause != null ? " WHERE " + whereClause : ""),
+                startedAt, rows);
+            return rows;
+        }
+
+        @Override
+        public int update(@NonNull String table, int conflictAlgorithm, @NonNull ContentValues values,
+                          @Nullable String whereClause, @Nullable Object[] whereArgs) {
+            long startedAt = System.nanoTime();
+            int rows = delegate.update(table, conflictAlgorithm, values, whereClause, whereArgs);
+            record(profiler, "UPDATE " + table + " (ContentValues)"
+                + (whereClause != null ? " WHERE " + whereClause : ""), startedAt, rows);
+            return rows;
+        }
+
+        @Override
+        public void execSQL(@NonNull String sql) throws SQLException {
+            long startedAt = System.nanoTime();
+            delegate.execSQL(sql);
+            record(profiler, sql, startedAt, -1);
+        }
+
+        @Override
+        public void execSQL(@NonNull String sql, @NonNull Object[] bindArgs) throws SQLException {
+            long startedAt = System.nanoTime();
+            delegate.execSQL(sql, bindArgs);
+            record(profiler, sql, startedAt, -1);
+        }
+
+        @Override
+        public boolean isExecPerConnectionSQLSupported() {
+            return delegate.isExecPerConnectionSQLSupported();
+        }
+
+        @Override
+        public void execPerConnectionSQL(@NonNull String sql, @Nullable Object[] bindArgs) {
+            delegate.execPerConnectionSQL(sql, bindArgs);
+        }
+
+        // Transactions
+
+        @Override
+        public void beginTransaction() {
+            delegate.beginTransaction();
+        }
+
+        @Override
+        public void beginTransactionNonExclusive() {
+            delegate.beginTransactionNonExclusive();
+        }
+
+        @Override
+        public void beginTransactionWithListener(@NonNull SQLiteTransactionListener transactionListener) {
+            delegate.beginTransactionWithListener(transactionListener);
+        }
+
+        @Override
+        public void beginTransactionWithListenerNonExclusive(@NonNull SQLiteTransactionListener transactionListener) {
+            delegate.beginTransactionWithListenerNonExclusive(transactionListener);
+        }
+
+        @Override
+        public void endTransaction() {
+            delegate.endTransaction();
+        }
+
+        @Override
+        public void setTransactionSuccessful() {
+            delegate.setTransactionSuccessful();
+        }
+
+        @Override
+        public boolean inTransaction() {
+            return delegate.inTransaction();
+        }
+
+        @Override
+        public boolean isDbLockedByCurrentThread() {
+            return delegate.isDbLockedByCurrentThread();
+        }
+
+        @Override
+        public boolean yieldIfContendedSafely() {
+            return delegate.yieldIfContendedSafely();
+        }
+
+        @Override
+        public boolean yieldIfContendedSafely(long sleepAfterYieldDelayMillis) {
+            return delegate.yieldIfContendedSafely(sleepAfterYieldDelayMillis);
+        }
+
+        // Configuration
+
+        @Override
+        public int getVersion() {
+            return delegate.getVersion();
+        }
+
+        @Override
+        public void setVersion(int version) {
+            delegate.setVersion(version);
+        }
+
+        @Override
+        public long getMaximumSize() {
+            return delegate.getMaximumSize();
+        }
+
+        @Override
+        public long setMaximumSize(long numBytes) {
+            return delegate.setMaximumSize(numBytes);
+        }
+
+        @Override
+        public long getPageSize() {
+            return delegate.getPageSize();
+        }
+
+        @Override
+        public void setPageSize(long numBytes) {
+            delegate.setPageSize(numBytes);
+        }
+
+        @Override
+        public boolean isReadOnly() {
+            return delegate.isReadOnly();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return delegate.isOpen();
+        }
+
+        @Override
+        public boolean needUpgrade(int newVersion) {
+            return delegate.needUpgrade(newVersion);
+        }
+
+        @Nullable
+        @Override
+        public String getPath() {
+            return delegate.getPath();
+        }
+
+        @Override
+        public void setLocale(@NonNull Locale locale) {
+            delegate.setLocale(locale);
+        }
+
+        @Override
+        public void setMaxSqlCacheSize(int cacheSize) {
+            delegate.setMaxSqlCacheSize(cacheSize);
+        }
+
+        @Override
+        public void setForeignKeyConstraintsEnabled(boolean enabled) {
+            delegate.setForeignKeyConstraintsEnabled(enabled);
+        }
+
+        @Override
+        public boolean enableWriteAheadLogging() {
+            return delegate.enableWriteAheadLogging();
+        }
+
+        @Override
+        public void disableWriteAheadLogging() {
+            delegate.disableWriteAheadLogging();
+        }
+
+        @Override
+        public boolean isWriteAheadLoggingEnabled() {
+            return delegate.isWriteAheadLoggingEnabled();
+        }
+
+        @Nullable
+        @Override
+        public List<Pair<String, String>> getAttachedDbs() {
+            return delegate.getAttachedDbs();
+        }
+
+        @Override
+        public boolean isDatabaseIntegrityOk() {
+            return delegate.isDatabaseIntegrityOk();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    private static final class ProfilingStatement implements SupportSQLiteStatement {
+        private final SupportSQLiteStatement delegate;
+        private final String sql;
+        private final QueryProfiler profiler;
+
+        ProfilingStatement(SupportSQLiteStatement delegate, String sql, QueryProfiler profiler) {
+            this.delegate = delegate;
+            this.sql = sql;
+            this.profiler = profiler;
+        }
+
+        @Override
+        public void execute() {
+            long startedAt = System.nanoTime();
+            delegate.execute();
+            record(profiler, sql, startedAt, -1);
+        }
+
+        @Override
+        public int executeUpdateDelete() {
+            long startedAt = System.nanoTime();
+            int rows = delegate.executeUpdateDelete();
+            record(profiler, sql, startedAt, rows);
+            return rows;
+        }
+
+        @Override
+        public long executeInsert() {
+            long startedAt = System.nanoTime();
+            long rowId = delegate.executeInsert();
+            record(profiler, sql, startedAt, rowId != -1 ? 1 : 0);
+            return rowId;
+        }
+
+        @Override
+        public long simpleQueryForLong() {
+            long startedAt = System.nanoTime();
+            long value = delegate.simpleQueryForLong();
+            record(profiler, sql, startedAt, 1);
+            return value;
+        }
+
+        @Nullable
+        @Override
+        public String simpleQueryForString() {
+            long startedAt = System.nanoTime();
+            String value = delegate.simpleQueryForString();
+            record(profiler, sql, startedAt, 1);
+            return value;
+        }
+
+        @Override
+        public void bindNull(int index) {
+            delegate.bindNull(index);
+        }
+
+        @Override
+        public void bindLong(int index, long value) {
+            delegate.bindLong(index, value);
+        }
+
+        @Override
+        public void bindDouble(int index, double value) {
+            delegate.bindDouble(index, value);
+        }
+
+        @Override
+        public void bindString(int index, @NonNull String value) {
+            delegate.bindString(index, value);
+        }
+
+        @Override
+        public void bindBlob(int index, @NonNull byte[] value) {
+            delegate.bindBlob(index, value);
+        }
+
+        @Override
+        public void clearBindings() {
+            delegate.clearBindings();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
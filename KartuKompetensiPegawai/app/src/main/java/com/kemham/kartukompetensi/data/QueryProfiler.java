@@ -0,0 +1,462 @@
+package com.kemham.kartukompetensi.data;
+
+import android.content.Context;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+
+import com.kemham.kartukompetensi.util.AppExecutors;
+import com.kemham.kartukompetensi.util.AppSettings;
+import com.kemham.kartukompetensi.util.LatencyHistogram;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Records how long each database statement takes, grouped by SQL shape.
+ *
+ * A shape is the SQL with literals replaced by {@code ?} and IN lists collapsed, so every call
+ * of one DAO method lands in the same entry whatever its arguments. Each entry keeps a latency
+ * histogram, rows returned or changed, and which threads ran it. Statements on the main thread
+ * or slower than the threshold are kept in a short in-memory list for the debug overlay and
+ * appended to a rolling log file. Timings are fed in by {@link ProfilingOpenHelperFactory},
+ * which debug builds always install and release builds only when {@link #isEnabled} is set.
+ */
+public class QueryProfiler {
+    private static final String TAG = "QueryProfiler";
+
+    static final String LOG_PATH = "diagnostics/slow_queries.log";
+    static final String ENABLED_PATH = "diagnostics/profile_queries";
+    private static final long MAX_LOG_BYTES = 256 * 1024;
+    private static final long LOG_FLUSH_DELAY_MS = 1000;
+    private static final int MAX_RECENT_SLOW = 50;
+    private static final int MAX_CACHED_SHAPES = 512;
+    private static final int MAX_THREADS_PER_SHAPE = 8;
+
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+
+    private static volatile QueryProfiler instance;
+
+    private final File logFile;
+    private final ConcurrentHashMap<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> shapeCache = new ConcurrentHashMap<>();
+    private final ArrayDeque<SlowQuery> recentSlow = new ArrayDeque<>();
+    private final Queue<String> pendingLog = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private volatile long slowThresholdNanos =
+        TimeUnit.MILLISECONDS.toNanos(AppSettings.SLOW_QUERY_THRESHOLD_MS);
+    private volatile long sinceMillis = System.currentTimeMillis();
+
+    private QueryProfiler(Context context) {
+        logFile = new File(context.getFilesDir(), LOG_PATH);
+    }
+
+    public static QueryProfiler getInstance(Context context) {
+        if (instance == null) {
+            synchronized (QueryProfiler.class) {
+                if (instance == null) {
+                    instance = new QueryProfiler(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Statistics for one SQL shape.
+     */
+    public static class ShapeStats {
+        private final String shape;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong totalRows = new AtomicLong();
+        private final AtomicLong maxRows = new AtomicLong();
+        private final AtomicLong mainThreadCount = new AtomicLong();
+        private final AtomicLong slowCount = new AtomicLong();
+        private final ConcurrentHashMap<String, AtomicLong> threads = new ConcurrentHashMap<>();
+
+        ShapeStats(String shape) {
+            this.shape = shape;
+        }
+
+        public String getShape() {
+            return shape;
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getTotalRows() {
+            return totalRows.get();
+        }
+
+        public long getMaxRows() {
+            return maxRows.get();
+        }
+
+        public long getMainThreadCount() {
+            return mainThreadCount.get();
+        }
+
+        public long getSlowCount() {
+            return slowCount.get();
+        }
+
+        /**
+         * Executions per thread, with pool thread numbers dropped so a pool counts as one.
+         */
+        public Map<String, AtomicLong> getThreads() {
+            return Collections.unmodifiableMap(threads);
+        }
+    }
+
+    /**
+     * A statement that ran on the main thread or exceeded the slow threshold.
+     */
+    public static class SlowQuery {
+        public final long timestamp;
+        public final String shape;
+        public final long durationMicros;
+        public final long rows;
+        public final String thread;
+        public final boolean mainThread;
+
+        SlowQuery(long timestamp, String shape, long durationMicros, long rows,
+                  String thread, boolean mainThread) {
+            this.timestamp = timestamp;
+            this.shape = shape;
+            this.durationMicros = durationMicros;
+            this.rows = rows;
+            this.thread = thread;
+            this.mainThread = mainThread;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.ROOT).format(new Date(timestamp))
+                + String.format(Locale.ROOT, " %.1fms rows=%d thread=%s%s ",
+                    durationMicros / 1000.0, rows, thread, mainThread ? " MAIN" : "")
+                + shape;
+        }
+    }
+
+    // Recording
+
+    /**
+     * Records one finished statement.
+     * @param rows Rows returned by a query, or changed by a write; -1 if unknown
+     */
+    public void record(String sql, long durationNanos, long rows, String thread, boolean mainThread) {
+        String shape = shapeOf(sql);
+        ShapeStats stats = shapes.get(shape);
+        if (stats == null) {
+            ShapeStats created = new ShapeStats(shape);
+            stats = shapes.putIfAbsent(shape, created);
+            if (stats == null) {
+                stats = created;
+            }
+        }
+
+        stats.latency.recordNanos(durationNanos);
+        if (rows > 0) {
+            stats.totalRows.addAndGet(rows);
+            long max;
+            while (rows > (max = stats.maxRows.get()) && !stats.maxRows.compareAndSet(max, rows)) {
+                // Retry until no larger value has been stored
+            }
+        }
+        String pool = poolOf(thread);
+        AtomicLong perThread = stats.threads.get(pool);
+        if (perThread == null && stats.threads.size() < MAX_THREADS_PER_SHAPE) {
+            stats.threads.putIfAbsent(pool, new AtomicLong());
+            perThread = stats.threads.get(pool);
+        }
+        if (perThread != null) {
+            perThread.incrementAndGet();
+        }
+
+        boolean slow = durationNanos >= slowThresholdNanos;
+        if (mainThread) {
+            stats.mainThreadCount.incrementAndGet();
+        }
+        if (slow) {
+            stats.slowCount.incrementAndGet();
+        }
+        if (slow || mainThread) {
+            onSlowQuery(new SlowQuery(System.currentTimeMillis(), shape,
+                TimeUnit.NANOSECONDS.toMicros(durationNanos), rows, thread, mainThread));
+        }
+    }
+
+    /**
+     * Drops a pool thread's trailing "-N" number. Runs for every statement, so it scans the name
+     * instead of matching a pattern.
+     */
+    static String poolOf(String thread) {
+        int end = thread.length();
+        while (end > 0 && Character.isDigit(thread.charAt(end - 1))) {
+            end--;
+        }
+        return end < thread.length() && end > 0 && thread.charAt(end - 1) == '-'
+            ? thread.substring(0, end - 1)
+            : thread;
+    }
+
+    static boolean isMainThread() {
+        return Looper.myLooper() == Looper.getMainLooper();
+    }
+
+    private void onSlowQuery(SlowQuery query) {
+        synchronized (recentSlow) {
+            if (recentSlow.size() == MAX_RECENT_SLOW) {
+                recentSlow.removeFirst();
+            }
+            recentSlow.addLast(query);
+        }
+        pendingLog.add(query.toString());
+        // Batch log writes so a burst of slow queries costs one file append
+        if (flushScheduled.compareAndSet(false, true)) {
+            AppExecutors.getInstance().schedule(this::flushLog, LOG_FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flushLog() {
+        flushScheduled.set(false);
+        if (pendingLog.isEmpty()) {
+            return;
+        }
+        try {
+            File dir = logFile.getParentFile();
+            if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Cannot create " + dir);
+            }
+            if (logFile.length() > MAX_LOG_BYTES) {
+                File previous = new File(logFile.getPath() + ".1");
+                if (previous.exists() && !previous.delete()) {
+                    throw new IOException("Cannot rotate " + previous);
+                }
+                if (!logFile.renameTo(previous)) {
+                    throw new IOException("Cannot rotate " + logFile);
+                }
+            }
+            try (Writer out = new OutputStreamWriter(
+                    new FileOutputStream(logFile, true), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = pendingLog.poll()) != null) {
+                    out.write(line);
+                    out.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            pendingLog.clear();
+            Log.w(TAG, "Failed to write slow query log", e);
+        }
+    }
+
+    /**
+     * Reduces a statement to its shape: literals become ?, IN lists collapse, whitespace folds.
+     */
+    String shapeOf(String sql) {
+        String shape = shapeCache.get(sql);
+        if (shape == null) {
+            shape = normalize(sql);
+            if (shapeCache.size() >= MAX_CACHED_SHAPES) {
+                shapeCache.clear();
+            }
+            shapeCache.put(sql, shape);
+        }
+        return shape;
+    }
+
+    static String normalize(String sql) {
+        StringBuilder sb = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (sb.length() > 0) {
+                    sb.append(' ');
+                }
+            } else if (c == '\'') {
+                // String literal, with '' as an escaped quote
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                sb.append('?');
+            } else if (Character.isDigit(c) && (sb.length() == 0 || !isIdentifierChar(sb.charAt(sb.length() - 1)))) {
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                sb.append('?');
+            } else if (c == '?') {
+                // Numbered parameters such as ?1 are the same shape as ?
+                i++;
+                while (i < length && Character.isDigit(sql.charAt(i))) {
+                    i++;
+                }
+                sb.append('?');
+            } else {
+                sb.append(c);
+                i++;
+            }
+        }
+        int end = sb.length();
+        while (end > 0 && (sb.charAt(end - 1) == ' ' || sb.charAt(end - 1) == ';')) {
+            end--;
+        }
+        sb.setLength(end);
+        return IN_LIST.matcher(sb).replaceAll("IN (?...)");
+    }
+
+    private static boolean isIdentifierChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '`' || c == '"' || c == '.';
+    }
+
+    // Configuration and reporting
+
+    /**
+     * Whether a release build profiles its queries. Set from the diagnostics screen and read when
+     * the database is opened, so a change takes effect on the next launch.
+     */
+    public static boolean isEnabled(Context context) {
+        return new File(context.getFilesDir(), ENABLED_PATH).isFile();
+    }
+
+    @WorkerThread
+    public static void setEnabled(Context context, boolean enabled) throws IOException {
+        File flag = new File(context.getFilesDir(), ENABLED_PATH);
+        if (enabled) {
+            File dir = flag.getParentFile();
+            if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Cannot create " + dir);
+            }
+            if (!flag.isFile() && !flag.createNewFile()) {
+                throw new IOException("Cannot create " + flag);
+            }
+        } else if (flag.exists() && !flag.delete()) {
+            throw new IOException("Cannot delete " + flag);
+        }
+    }
+
+    public void setSlowQueryThresholdMillis(long millis) {
+        slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    public long getSlowQueryThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos);
+    }
+
+    /**
+     * Returns every shape, most total time first.
+     */
+    public List<ShapeStats> getShapeStats() {
+        List<ShapeStats> list = new ArrayList<>(shapes.values());
+        Collections.sort(list, (a, b) ->
+            Long.compare(b.latency.getTotalMicros(), a.latency.getTotalMicros()));
+        return list;
+    }
+
+    /**
+     * Returns the most recent main-thread and slow statements, oldest first.
+     */
+    public List<SlowQuery> getRecentSlowQueries() {
+        synchronized (recentSlow) {
+            return new ArrayList<>(recentSlow);
+        }
+    }
+
+    public File getLogFile() {
+        return logFile;
+    }
+
+    public void reset() {
+        shapes.clear();
+        synchronized (recentSlow) {
+            recentSlow.clear();
+        }
+        sinceMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Writes a plain-text report of every shape and the recent slow statements.
+     */
+    public void dump(Writer out) throws IOException {
+        long elapsedSeconds = (System.currentTimeMillis() - sinceMillis) / 1000;
+        out.write("Query profile over the last " + elapsedSeconds + "s (times in ms, slow >= "
+            + getSlowQueryThresholdMillis() + "ms)\n\n");
+        for (ShapeStats stats : getShapeStats()) {
+            LatencyHistogram latency = stats.latency;
+            long count = latency.getCount();
+            out.write(String.format(Locale.ROOT,
+                "count=%d total=%d p50=%.1f p90=%.1f p99=%.1f max=%.1f rows/avg=%d rows/max=%d main=%d slow=%d%n",
+                count,
+                latency.getTotalMicros() / 1000,
+                latency.getPercentileMicros(50) / 1000.0,
+                latency.getPercentileMicros(90) / 1000.0,
+                latency.getPercentileMicros(99) / 1000.0,
+                latency.getMaxMicros() / 1000.0,
+                count > 0 ? stats.totalRows.get() / count : 0,
+                stats.maxRows.get(),
+                stats.mainThreadCount.get(),
+                stats.slowCount.get()));
+            out.write("  threads: " + formatThreads(stats) + "\n");
+            out.write("  " + stats.shape + "\n");
+        }
+
+        out.write("\nRecent main-thread and slow statements\n");
+        List<SlowQuery> slow = getRecentSlowQueries();
+        if (slow.isEmpty()) {
+            out.write("  none\n");
+        }
+        for (SlowQuery query : slow) {
+            out.write("  " + query + "\n");
+        }
+        out.write("\nFull slow query log: " + logFile.getAbsolutePath() + "\n");
+    }
+
+    private static String formatThreads(ShapeStats stats) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, AtomicLong> entry : stats.threads.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(entry.getKey()).append('=').append(entry.getValue().get());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,38 @@
+package com.kemham.kartukompetensi.data;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * SQL for the update triggers that keep employees_fts in step with the employees table.
+ *
+ * Room's content-sync triggers fire on every UPDATE of employees, so each skill save, which
+ * adjusts the employee's score totals, would delete and re-insert the employee's index row.
+ * These replacements fire only when a searchable column is written. Room's insert and delete
+ * triggers are kept as generated.
+ */
+final class SearchTriggers {
+
+    private static final String ROOM_TRIGGER_PREFIX = "room_fts_content_sync_employees_fts_";
+    private static final String SEARCHABLE_COLUMNS = "`name`, `nip`, `unit`, `position`";
+
+    private SearchTriggers() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Replaces Room's employees_fts update triggers. Safe to call on a database that already
+     * has the replacements.
+     */
+    static void create(SupportSQLiteDatabase db) {
+        db.execSQL("DROP TRIGGER IF EXISTS " + ROOM_TRIGGER_PREFIX + "BEFORE_UPDATE");
+        db.execSQL("DROP TRIGGER IF EXISTS " + ROOM_TRIGGER_PREFIX + "AFTER_UPDATE");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS search_employees_before_update " +
+                "BEFORE UPDATE OF " + SEARCHABLE_COLUMNS + " ON `employees` BEGIN " +
+                "DELETE FROM `employees_fts` WHERE `docid`=OLD.`rowid`; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS search_employees_after_update " +
+                "AFTER UPDATE OF " + SEARCHABLE_COLUMNS + " ON `employees` BEGIN " +
+                "INSERT INTO `employees_fts`(`docid`, " + SEARCHABLE_COLUMNS + ") " +
+                "VALUES (NEW.`rowid`, NEW.`name`, NEW.`nip`, NEW.`unit`, NEW.`position`); END");
+    }
+}
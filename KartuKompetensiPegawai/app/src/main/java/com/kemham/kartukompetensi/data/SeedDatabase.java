@@ -0,0 +1,37 @@
+package com.kemham.kartukompetensi.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Finishes the seed database after Room copies it into place, before it is opened for use.
+ *
+ * The seed is generated at build time from the exported Room schema and the CSVs in
+ * app/src/main/seed (see the build<Variant>SeedDatabase tasks), so it already has every table,
+ * index and FTS row, the running score totals and the filled summary tables. Only the triggers
+ * Room's schema does not describe are added here, which is DDL and touches no rows.
+ */
+final class SeedDatabase extends RoomDatabase.PrepackagedDatabaseCallback {
+
+    static final String ASSET_PATH = "databases/kartu_kompetensi_seed.db";
+    // An alternative seed, e.g. one unit's roster provisioned to the device, takes precedence
+    static final String OVERRIDE_PATH = "seed/kartu_kompetensi_seed.db";
+
+    @Override
+    public void onOpenPrepackagedDatabase(@NonNull SupportSQLiteDatabase db) {
+        if (db.getVersion() != Migrations.LATEST_VERSION) {
+            // An older seed is brought up to date by the regular migrations
+            return;
+        }
+
+        db.beginTransaction();
+        try {
+            StatsTriggers.create(db);
+            SearchTriggers.create(db);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+}
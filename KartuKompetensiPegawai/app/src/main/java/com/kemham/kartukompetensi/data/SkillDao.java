@@ -52,6 +52,19 @@ public interface SkillDao {
     @Query("SELECT * FROM skills WHERE id = :skillId")
     LiveData<Skill> getSkill(long skillId);
 
+    /**
+     * Get a skill by ID synchronously. Must be called off the main thread.
+     */
+    @Query("SELECT * FROM skills WHERE id = :skillId")
+    Skill getSkillSync(long skillId);
+
+    /**
+     * Get an employee's skill by category and name synchronously, the key of a skill within a
+     * roster. Must be called off the main thread.
+     */
+    @Query("SELECT * FROM skills WHERE employeeNip = :employeeNip AND category = :category AND name = :name")
+    Skill getSkillByKeySync(String employeeNip, Category category, String name);
+
     /**
      * Get all skills for an employee.
      */
@@ -124,6 +137,25 @@ public interface SkillDao {
     @Query("SELECT * FROM skills WHERE employeeNip = :employeeNip AND name LIKE '%' || :query || '%' ORDER BY name")
     LiveData<List<Skill>> searchSkills(String employeeNip, String query);
 
+    /**
+     * Full-text search over an employee's skill names, descriptions and recommendations.
+     * Name prefix matches rank before matches in the other columns.
+     * @param match A MATCH expression built with {@link FtsQuery#prefix(String)}
+     * @param rawQuery The trimmed user input, used only for ranking
+     */
+    @Query("SELECT s.* FROM skills s JOIN skills_fts ON s.id = skills_fts.docid " +
+           "WHERE skills_fts MATCH :match AND s.employeeNip = :employeeNip " +
+           "ORDER BY CASE WHEN s.name LIKE :rawQuery || '%' THEN 0 ELSE 1 END, s.name LIMIT :limit")
+    LiveData<List<Skill>> searchSkillsRanked(String employeeNip, String match, String rawQuery, int limit);
+
+    /**
+     * Full-text search over all skills, ranked like {@link #searchSkillsRanked(String, String, String, int)}.
+     */
+    @Query("SELECT s.* FROM skills s JOIN skills_fts ON s.id = skills_fts.docid " +
+           "WHERE skills_fts MATCH :match " +
+           "ORDER BY CASE WHEN s.name LIKE :rawQuery || '%' THEN 0 ELSE 1 END, s.name LIMIT :limit")
+    LiveData<List<Skill>> searchAllSkillsRanked(String match, String rawQuery, int limit);
+
     /**
      * Get top skills by score for an employee.
      */
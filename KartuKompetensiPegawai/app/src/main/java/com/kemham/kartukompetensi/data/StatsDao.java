@@ -0,0 +1,90 @@
+package com.kemham.kartukompetensi.data;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import com.kemham.kartukompetensi.model.Employee.EmployeeStatus;
+import com.kemham.kartukompetensi.model.EmployeeCategoryStats;
+import com.kemham.kartukompetensi.model.Skill.Category;
+import com.kemham.kartukompetensi.model.UnitStats;
+
+import java.util.List;
+
+/**
+ * Data Access Object for the trigger-maintained summary tables.
+ * Every query reads at most one row per category or status, regardless of table size.
+ */
+@Dao
+public interface StatsDao {
+
+    /**
+     * Get per-category skill aggregates for an employee.
+     */
+    @Query("SELECT * FROM employee_category_stats WHERE employeeNip = :employeeNip AND skillCount > 0")
+    LiveData<List<EmployeeCategoryStats>> getCategoryStats(String employeeNip);
+
+    /**
+     * Get average score by category for an employee.
+     */
+    @Query("SELECT CASE WHEN skillCount > 0 THEN CAST(scoreSum AS FLOAT) / skillCount END " +
+           "FROM employee_category_stats WHERE employeeNip = :employeeNip AND category = :category")
+    LiveData<Float> getAverageScoreByCategory(String employeeNip, Category category);
+
+    /**
+     * Get overall progress for an employee.
+     */
+    @Query("SELECT " +
+           "COALESCE(SUM(skillCount), 0) as totalSkills, " +
+           "COALESCE(SUM(achievedCount), 0) as achievedSkills, " +
+           "CASE WHEN SUM(skillCount) > 0 THEN CAST(SUM(progressSum) AS FLOAT) / SUM(skillCount) ELSE 0 END as averageProgress " +
+           "FROM employee_category_stats WHERE employeeNip = :employeeNip")
+    LiveData<SkillDao.SkillProgress> getOverallProgress(String employeeNip);
+
+    /**
+     * Get per-status aggregates for a unit. Use an empty string for employees without a unit.
+     */
+    @Query("SELECT * FROM unit_stats WHERE unit = :unit AND headcount > 0")
+    LiveData<List<UnitStats>> getUnitStats(String unit);
+
+    /**
+     * Get average score by unit.
+     */
+    @Query("SELECT CASE WHEN SUM(headcount) > 0 THEN CAST(SUM(scoreSum) AS FLOAT) / SUM(headcount) END " +
+           "FROM unit_stats WHERE unit = :unit")
+    LiveData<Float> getAverageScoreByUnit(String unit);
+
+    /**
+     * Get count of employees by status.
+     */
+    @Query("SELECT COALESCE(SUM(headcount), 0) FROM unit_stats WHERE status = :status")
+    LiveData<Integer> getEmployeeCountByStatus(EmployeeStatus status);
+
+    /**
+     * Get count of employees with scores below target.
+     */
+    @Query("SELECT COALESCE(SUM(belowTargetCount), 0) FROM unit_stats")
+    LiveData<Integer> getEmployeesBelowTargetCount();
+
+    /**
+     * Get count of employees with scores below target in a unit.
+     */
+    @Query("SELECT COALESCE(SUM(belowTargetCount), 0) FROM unit_stats WHERE unit = :unit")
+    LiveData<Integer> getEmployeesBelowTargetCountByUnit(String unit);
+
+    /**
+     * Get average score of every unit, highest first. Employees without a unit are left out.
+     */
+    @Query("SELECT unit, SUM(headcount) as headcount, " +
+           "CAST(SUM(scoreSum) AS FLOAT) / SUM(headcount) as averageScore " +
+           "FROM unit_stats WHERE unit != '' " +
+           "GROUP BY unit HAVING SUM(headcount) > 0 " +
+           "ORDER BY averageScore DESC")
+    LiveData<List<UnitScore>> getUnitAverageScores();
+
+    class UnitScore {
+        public String unit;
+        public int headcount;
+        public float averageScore;
+    }
+}
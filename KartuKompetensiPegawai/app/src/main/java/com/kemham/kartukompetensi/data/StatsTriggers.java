@@ -0,0 +1,158 @@
+package com.kemham.kartukompetensi.data;
+
+import android.database.Cursor;
+
+import androidx.annotation.Nullable;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * SQL for the triggers that keep employee_category_stats and unit_stats in step with the
+ * skills and employees tables. Each write adjusts the affected summary row by delta, so reading
+ * an aggregate never scans the source table.
+ *
+ * Summary rows are created with INSERT ... WHERE NOT EXISTS rather than INSERT OR IGNORE:
+ * statements inside a trigger inherit the conflict policy of the statement that fired it, and
+ * Room's REPLACE inserts would otherwise overwrite an existing summary row with zeros.
+ */
+final class StatsTriggers {
+
+    private static final String SKILL_CATEGORY = "COALESCE(%1$s.category, 'BASIC')";
+    private static final String SKILL_PROGRESS =
+            "(CASE WHEN %1$s.targetScore > 0 THEN %1$s.score * 100 / %1$s.targetScore ELSE 0 END)";
+    private static final String EMPLOYEE_UNIT = "COALESCE(%1$s.unit, '')";
+    private static final String EMPLOYEE_STATUS = "COALESCE(%1$s.status, 'ACTIVE')";
+
+    private StatsTriggers() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Creates all summary triggers. Safe to call on a database that already has them.
+     */
+    static void create(SupportSQLiteDatabase db) {
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS stats_skills_after_insert AFTER INSERT ON skills BEGIN " +
+                addSkill("NEW") + " END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS stats_skills_after_delete AFTER DELETE ON skills BEGIN " +
+                removeSkill("OLD") + " END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS stats_skills_after_update " +
+                "AFTER UPDATE OF employeeNip, category, score, targetScore ON skills BEGIN " +
+                removeSkill("OLD") + " " + addSkill("NEW") + " END");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS stats_employees_after_insert AFTER INSERT ON employees BEGIN " +
+                addEmployee("NEW") + " END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS stats_employees_after_delete AFTER DELETE ON employees BEGIN " +
+                removeEmployee("OLD") + " END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS stats_employees_after_update " +
+                "AFTER UPDATE OF unit, status, overallScore, targetScore ON employees BEGIN " +
+                removeEmployee("OLD") + " " + addEmployee("NEW") + " END");
+    }
+
+    /**
+     * Recomputes both summary tables from the source tables, e.g. after a migration.
+     */
+    static void rebuild(SupportSQLiteDatabase db) {
+        db.execSQL("DELETE FROM employee_category_stats");
+        db.execSQL("INSERT INTO employee_category_stats " +
+                "(employeeNip, category, skillCount, scoreSum, progressSum, achievedCount) " +
+                "SELECT employeeNip, " + String.format(SKILL_CATEGORY, "skills") + ", COUNT(*), SUM(score), " +
+                "SUM(" + String.format(SKILL_PROGRESS, "skills") + "), SUM(score >= targetScore) " +
+                "FROM skills GROUP BY 1, 2");
+        rebuildUnits(db);
+    }
+
+    /**
+     * Recomputes the category summaries of the next {@code limit} employees after
+     * {@code afterNip} in nip order, so a full rebuild can be split into short transactions.
+     * Rows of deleted employees need no cleanup; the foreign key cascade removes them.
+     * @param afterNip The last nip of the previous slice, or null to start from the beginning
+     * @return The last nip of this slice, or null if no employees were left
+     */
+    @Nullable
+    static String rebuildEmployees(SupportSQLiteDatabase db, @Nullable String afterNip, int limit) {
+        String from = afterNip != null ? afterNip : "";
+        String to;
+        try (Cursor cursor = db.query("SELECT MAX(nip) FROM " +
+                "(SELECT nip FROM employees WHERE nip > ? ORDER BY nip LIMIT ?)",
+                new Object[] {from, limit})) {
+            to = cursor.moveToFirst() ? cursor.getString(0) : null;
+        }
+        if (to == null) {
+            return null;
+        }
+        Object[] range = {from, to};
+        db.execSQL("DELETE FROM employee_category_stats WHERE employeeNip > ? AND employeeNip <= ?", range);
+        db.execSQL("INSERT INTO employee_category_stats " +
+                "(employeeNip, category, skillCount, scoreSum, progressSum, achievedCount) " +
+                "SELECT employeeNip, " + String.format(SKILL_CATEGORY, "skills") + ", COUNT(*), SUM(score), " +
+                "SUM(" + String.format(SKILL_PROGRESS, "skills") + "), SUM(score >= targetScore) " +
+                "FROM skills WHERE employeeNip > ? AND employeeNip <= ? GROUP BY 1, 2", range);
+        return to;
+    }
+
+    /**
+     * Recomputes the per-unit summaries. There are few units, so this is one short statement.
+     */
+    static void rebuildUnits(SupportSQLiteDatabase db) {
+        db.execSQL("DELETE FROM unit_stats");
+        db.execSQL("INSERT INTO unit_stats (unit, status, headcount, scoreSum, belowTargetCount) " +
+                "SELECT " + String.format(EMPLOYEE_UNIT, "employees") + ", " +
+                String.format(EMPLOYEE_STATUS, "employees") + ", COUNT(*), SUM(overallScore), " +
+                "SUM(overallScore < targetScore) FROM employees GROUP BY 1, 2");
+    }
+
+    /**
+     * Deletes summary rows whose counts dropped to zero. The triggers only ever decrement, so
+     * these pile up as skills and employees are removed or moved; a rebuild never creates them.
+     */
+    static void pruneEmpty(SupportSQLiteDatabase db) {
+        db.execSQL("DELETE FROM employee_category_stats WHERE skillCount <= 0");
+        db.execSQL("DELETE FROM unit_stats WHERE headcount <= 0");
+    }
+
+    private static String addSkill(String row) {
+        String category = String.format(SKILL_CATEGORY, row);
+        return "INSERT INTO employee_category_stats " +
+                "(employeeNip, category, skillCount, scoreSum, progressSum, achievedCount) " +
+                "SELECT " + row + ".employeeNip, " + category + ", 0, 0, 0, 0 " +
+                "WHERE NOT EXISTS (SELECT 1 FROM employee_category_stats " +
+                "WHERE employeeNip = " + row + ".employeeNip AND category = " + category + "); " +
+                "UPDATE employee_category_stats SET " +
+                "skillCount = skillCount + 1, " +
+                "scoreSum = scoreSum + " + row + ".score, " +
+                "progressSum = progressSum + " + String.format(SKILL_PROGRESS, row) + ", " +
+                "achievedCount = achievedCount + (" + row + ".score >= " + row + ".targetScore) " +
+                "WHERE employeeNip = " + row + ".employeeNip AND category = " + category + ";";
+    }
+
+    private static String removeSkill(String row) {
+        return "UPDATE employee_category_stats SET " +
+                "skillCount = skillCount - 1, " +
+                "scoreSum = scoreSum - " + row + ".score, " +
+                "progressSum = progressSum - " + String.format(SKILL_PROGRESS, row) + ", " +
+                "achievedCount = achievedCount - (" + row + ".score >= " + row + ".targetScore) " +
+                "WHERE employeeNip = " + row + ".employeeNip AND category = " +
+                String.format(SKILL_CATEGORY, row) + ";";
+    }
+
+    private static String addEmployee(String row) {
+        String unit = String.format(EMPLOYEE_UNIT, row);
+        String status = String.format(EMPLOYEE_STATUS, row);
+        return "INSERT INTO unit_stats (unit, status, headcount, scoreSum, belowTargetCount) " +
+                "SELECT " + unit + ", " + status + ", 0, 0, 0 " +
+                "WHERE NOT EXISTS (SELECT 1 FROM unit_stats WHERE unit = " + unit + " AND status = " + status + "); " +
+                "UPDATE unit_stats SET " +
+                "headcount = headcount + 1, " +
+                "scoreSum = scoreSum + " + row + ".overallScore, " +
+                "belowTargetCount = belowTargetCount + (" + row + ".overallScore < " + row + ".targetScore) " +
+                "WHERE unit = " + unit + " AND status = " + status + ";";
+    }
+
+    private static String removeEmployee(String row) {
+        return "UPDATE unit_stats SET " +
+                "headcount = headcount - 1, " +
+                "scoreSum = scoreSum - " + row + ".overallScore, " +
+                "belowTargetCount = belowTargetCount - (" + row + ".overallScore < " + row + ".targetScore) " +
+                "WHERE unit = " + String.format(EMPLOYEE_UNIT, row) +
+                " AND status = " + String.format(EMPLOYEE_STATUS, row) + ";";
+    }
+}
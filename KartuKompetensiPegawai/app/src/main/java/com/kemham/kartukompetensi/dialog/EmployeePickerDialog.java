@@ -0,0 +1,88 @@
+package com.kemham.kartukompetensi.dialog;
+
+import android.app.Dialog;
+import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.EditText;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AlertDialog;
+import androidx.fragment.app.DialogFragment;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.kemham.kartukompetensi.R;
+import com.kemham.kartukompetensi.adapter.EmployeePagingAdapter;
+import com.kemham.kartukompetensi.viewmodel.MainViewModel;
+
+/**
+ * Dialog for picking an employee from the paged roster.
+ */
+public class EmployeePickerDialog extends DialogFragment {
+
+    public static final String TAG = "EmployeePickerDialog";
+
+    private MainViewModel viewModel;
+    private EmployeePagingAdapter adapter;
+
+    public static EmployeePickerDialog newInstance() {
+        return new EmployeePickerDialog();
+    }
+
+    @NonNull
+    @Override
+    public Dialog onCreateDialog(Bundle savedInstanceState) {
+        // Shares the activity's ViewModel so the paged roster survives the dialog
+        viewModel = new ViewModelProvider(requireActivity()).get(MainViewModel.class);
+
+        LayoutInflater inflater = requireActivity().getLayoutInflater();
+        View view = inflater.inflate(R.layout.dialog_employee_picker, null);
+
+        // Setup list
+        adapter = new EmployeePagingAdapter(employee -> {
+            viewModel.selectEmployee(employee.getNip());
+            dismiss();
+        });
+        RecyclerView employeeList = view.findViewById(R.id.employeeList);
+        employeeList.setLayoutManager(new LinearLayoutManager(requireContext()));
+        employeeList.setHasFixedSize(true);
+        employeeList.setAdapter(adapter);
+
+        // Setup search
+        EditText searchInput = view.findViewById(R.id.searchInput);
+        searchInput.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {}
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                viewModel.setPickerQuery(s.toString());
+            }
+        });
+
+        viewModel.getEmployeePages().observe(this,
+            pagingData -> adapter.submitData(getLifecycle(), pagingData));
+
+        return new AlertDialog.Builder(requireContext())
+            .setTitle(R.string.label_select_employee)
+            .setView(view)
+            .setNegativeButton(R.string.action_cancel, (dialog, id) -> dismiss())
+            .create();
+    }
+
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+        // Next opening starts from the full roster
+        if (viewModel != null) {
+            viewModel.setPickerQuery("");
+        }
+    }
+}
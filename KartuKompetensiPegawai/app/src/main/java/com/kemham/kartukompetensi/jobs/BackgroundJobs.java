@@ -0,0 +1,215 @@
+package com.kemham.kartukompetensi.jobs;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent periodic jobs. Run history is stored in {@link JobStore}, and the system
+ * JobScheduler wakes the process through {@link JobRunnerService} when a job is due and its
+ * constraints hold, so jobs keep their schedule across process death and reboots and never run
+ * while the user is in the middle of something they did not ask for.
+ *
+ * Jobs run in batches, one job after another, and only one batch runs at a time. A request to run
+ * while a batch is in progress is folded into it. Each job runs on its own executor; database
+ * jobs hand their writes to the write lane in short steps, so user saves run between them.
+ */
+public class BackgroundJobs {
+
+    private static final String TAG = "BackgroundJobs";
+
+    // Keeps a job that is overdue at startup, or still blocked after a run, off the hot path
+    static final long MIN_WAKE_DELAY_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private static volatile BackgroundJobs instance;
+
+    private final JobStore store;
+    private final Clock clock;
+    private final DeviceConditions conditions;
+    private final Waker waker;
+    private final JobPlanner planner;
+    private final List<Runnable> waiting = new ArrayList<>();
+    private boolean running;
+    private boolean rerun;
+    // Bit n set if a wake-up for constraint set n may exist; the platform keeps them across restarts
+    private int wakeups = -1;
+
+    /**
+     * Arranges for the process to be woken to run jobs. One wake-up exists per constraint set.
+     */
+    interface Waker {
+        void wakeAfter(int constraints, long delayMs);
+
+        void cancel(int constraints);
+    }
+
+    @WorkerThread
+    BackgroundJobs(JobStore store, Clock clock, DeviceConditions conditions, Waker waker) {
+        this.store = store;
+        this.clock = clock;
+        this.conditions = conditions;
+        this.waker = waker;
+        this.planner = new JobPlanner(clock, store.load());
+    }
+
+    /**
+     * Gets the instance, reading the stored job history on first use.
+     */
+    @WorkerThread
+    public static BackgroundJobs getInstance(Context context) {
+        if (instance == null) {
+            synchronized (BackgroundJobs.class) {
+                if (instance == null) {
+                    Context app = context.getApplicationContext();
+                    instance = new BackgroundJobs(new JobStore(app.getFilesDir()), Clock.SYSTEM,
+                        new SystemConditions(app), new PlatformWaker(app));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Adds a job, or replaces the spec of the job with the same name.
+     */
+    @WorkerThread
+    public synchronized void schedule(JobSpec spec) {
+        planner.put(spec);
+        persist();
+        reschedule();
+    }
+
+    /**
+     * Removes a job. A run already in progress finishes.
+     */
+    @WorkerThread
+    public synchronized void cancel(String name) {
+        if (planner.remove(name)) {
+            persist();
+            reschedule();
+        }
+    }
+
+    /**
+     * Runs every job that is due, then calls {@code onDone} on the thread that finished the
+     * batch. May be called from any thread; the caller is not blocked.
+     */
+    public void runDue(@Nullable Runnable onDone) {
+        synchronized (this) {
+            if (onDone != null) {
+                waiting.add(onDone);
+            }
+            if (running) {
+                rerun = true;
+                return;
+            }
+            running = true;
+        }
+        startBatch();
+    }
+
+    /**
+     * Returns the next run time of a job, or {@link Long#MAX_VALUE} if there is no such job.
+     */
+    public synchronized long getNextRunAt(String name) {
+        return planner.nextRunAt(name);
+    }
+
+    public synchronized int getFailureCount(String name) {
+        return planner.failures(name);
+    }
+
+    private void startBatch() {
+        List<JobSpec> batch;
+        synchronized (this) {
+            rerun = false;
+            batch = planner.runnable(conditions.current());
+        }
+        runNext(batch.iterator());
+    }
+
+    private void runNext(Iterator<JobSpec> batch) {
+        if (!batch.hasNext()) {
+            finishBatch();
+            return;
+        }
+        JobSpec spec = batch.next();
+        try {
+            spec.executor.execute(() -> {
+                boolean success = false;
+                try {
+                    spec.work.run();
+                    success = true;
+                } catch (Exception e) {
+                    Log.w(TAG, "Job " + spec.name + " failed", e);
+                }
+                synchronized (this) {
+                    planner.finished(spec, success);
+                }
+                runNext(batch);
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the job stays due and runs on the next start
+            finishBatch();
+        }
+    }
+
+    private void finishBatch() {
+        List<Runnable> done;
+        synchronized (this) {
+            persist();
+            if (rerun) {
+                done = null;
+            } else {
+                running = false;
+                done = new ArrayList<>(waiting);
+                waiting.clear();
+            }
+        }
+        if (done == null) {
+            startBatch();
+            return;
+        }
+        // Let the platform job finish before its wake-up is replaced, which would stop it
+        for (Runnable callback : done) {
+            callback.run();
+        }
+        synchronized (this) {
+            reschedule();
+        }
+    }
+
+    private void persist() {
+        try {
+            store.save(planner.states());
+        } catch (IOException e) {
+            // The in-memory schedule stays correct; only a restart would forget the last runs
+            Log.w(TAG, "Failed to save job history", e);
+        }
+    }
+
+    private void reschedule() {
+        long now = clock.currentTimeMillis();
+        Map<Integer, Long> next = planner.wakeups();
+        for (int constraints = 0; constraints <= JobSpec.ALL_CONSTRAINTS; constraints++) {
+            Long wakeAt = next.get(constraints);
+            if (wakeAt != null) {
+                waker.wakeAfter(constraints, Math.max(wakeAt - now, MIN_WAKE_DELAY_MS));
+                wakeups |= 1 << constraints;
+            } else if ((wakeups & (1 << constraints)) != 0) {
+                waker.cancel(constraints);
+                wakeups &= ~(1 << constraints);
+            }
+        }
+    }
+}
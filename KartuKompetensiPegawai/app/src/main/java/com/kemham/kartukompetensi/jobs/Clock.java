@@ -0,0 +1,12 @@
+package com.kemham.kartukompetensi.jobs;
+
+/**
+ * Wall-clock time for the job layer. Job times are persisted and must survive a reboot, so they
+ * are epoch milliseconds rather than uptime. Tests substitute a clock they advance by hand.
+ */
+public interface Clock {
+
+    Clock SYSTEM = System::currentTimeMillis;
+
+    long currentTimeMillis();
+}
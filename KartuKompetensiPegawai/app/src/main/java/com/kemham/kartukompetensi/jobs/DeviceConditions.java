@@ -0,0 +1,12 @@
+package com.kemham.kartukompetensi.jobs;
+
+/**
+ * Reports which {@link JobSpec} constraints the device currently satisfies.
+ */
+public interface DeviceConditions {
+
+    /**
+     * Returns the satisfied constraints as a mask of the {@code JobSpec.REQUIRES_*} flags.
+     */
+    int current();
+}
@@ -0,0 +1,147 @@
+package com.kemham.kartukompetensi.jobs;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides which jobs run when. Plain Java on an injected {@link Clock}, so the schedule can be
+ * driven on the JVM without Android or real time. Not thread-safe; {@link BackgroundJobs} guards it.
+ *
+ * A job is due once its next run time has passed and its constraints hold. When anything is due,
+ * every other job whose flex window has opened runs in the same batch. A successful run schedules
+ * the next one a full interval later; a failed run is retried after an exponential backoff.
+ */
+final class JobPlanner {
+
+    private final Clock clock;
+    private final Map<String, JobSpec> specs = new LinkedHashMap<>();
+    private final Map<String, JobState> states = new HashMap<>();
+
+    JobPlanner(Clock clock, Map<String, JobState> stored) {
+        this.clock = clock;
+        this.states.putAll(stored);
+    }
+
+    /**
+     * Adds or replaces a job. A new job first runs one interval from now, as the timers it
+     * replaces did; a known job keeps its next run time, pulled in if the interval got shorter.
+     */
+    void put(JobSpec spec) {
+        long now = clock.currentTimeMillis();
+        specs.put(spec.name, spec);
+        JobState state = states.get(spec.name);
+        if (state == null) {
+            states.put(spec.name, new JobState(now + spec.intervalMs, 0, 0));
+        } else {
+            clampToInterval(spec, state, now);
+        }
+    }
+
+    /**
+     * Removes a job and forgets its history. Returns false if there was no such job.
+     */
+    boolean remove(String name) {
+        states.remove(name);
+        return specs.remove(name) != null;
+    }
+
+    @Nullable
+    JobSpec get(String name) {
+        return specs.get(name);
+    }
+
+    /**
+     * Returns the jobs to run now, ordered by next run time. Empty unless at least one job is
+     * due; otherwise also includes the jobs that may run early under their flex.
+     */
+    List<JobSpec> runnable(int conditions) {
+        long now = clock.currentTimeMillis();
+        List<JobSpec> batch = new ArrayList<>();
+        boolean anyDue = false;
+        for (JobSpec spec : specs.values()) {
+            if ((spec.constraints & ~conditions) != 0) {
+                continue;
+            }
+            JobState state = states.get(spec.name);
+            clampToInterval(spec, state, now);
+            if (state.nextRunAt <= now) {
+                anyDue = true;
+                batch.add(spec);
+            } else if (state.nextRunAt - spec.flexMs <= now) {
+                batch.add(spec);
+            }
+        }
+        if (!anyDue) {
+            return Collections.emptyList();
+        }
+        Collections.sort(batch, (a, b) ->
+            Long.compare(states.get(a.name).nextRunAt, states.get(b.name).nextRunAt));
+        return batch;
+    }
+
+    /**
+     * Records the outcome of a run. Ignored for a job removed while it ran.
+     */
+    void finished(JobSpec spec, boolean success) {
+        JobState state = states.get(spec.name);
+        if (state == null || specs.get(spec.name) != spec) {
+            return;
+        }
+        long now = clock.currentTimeMillis();
+        if (success) {
+            state.lastRunAt = now;
+            state.failures = 0;
+            state.nextRunAt = now + spec.intervalMs;
+        } else {
+            state.failures++;
+            state.nextRunAt = now + spec.backoffMs(state.failures);
+        }
+    }
+
+    /**
+     * Returns the earliest next run time for each constraint set in use. Jobs with the same
+     * constraints share one wake-up; jobs with different ones must not wait on each other.
+     */
+    Map<Integer, Long> wakeups() {
+        Map<Integer, Long> wakeups = new HashMap<>();
+        for (JobSpec spec : specs.values()) {
+            long nextRunAt = states.get(spec.name).nextRunAt;
+            Long earliest = wakeups.get(spec.constraints);
+            if (earliest == null || nextRunAt < earliest) {
+                wakeups.put(spec.constraints, nextRunAt);
+            }
+        }
+        return wakeups;
+    }
+
+    /**
+     * Returns every job state, for saving. This includes stored states of jobs not registered in
+     * this process yet, so a job registered late does not lose its history.
+     */
+    Map<String, JobState> states() {
+        return states;
+    }
+
+    int failures(String name) {
+        JobState state = states.get(name);
+        return state != null ? state.failures : 0;
+    }
+
+    long nextRunAt(String name) {
+        JobState state = states.get(name);
+        return state != null ? state.nextRunAt : Long.MAX_VALUE;
+    }
+
+    private static void clampToInterval(JobSpec spec, JobState state, long now) {
+        // After a shorter interval or a clock set backwards, do not wait longer than one interval
+        if (state.nextRunAt > now + spec.intervalMs) {
+            state.nextRunAt = now + spec.intervalMs;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.kemham.kartukompetensi.jobs;
+
+import android.app.job.JobParameters;
+import android.app.job.JobService;
+
+import com.kemham.kartukompetensi.KartuKompetensiApp;
+import com.kemham.kartukompetensi.util.Priority;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Entry point for the platform wake-ups scheduled by {@link PlatformWaker}. Whichever constraint
+ * set woke the process, every job that is due and allowed to run goes in the batch.
+ */
+public class JobRunnerService extends JobService {
+
+    private static final Set<Integer> runningJobIds = Collections.synchronizedSet(new HashSet<>());
+
+    static boolean isRunning(int jobId) {
+        return runningJobIds.contains(jobId);
+    }
+
+    @Override
+    public boolean onStartJob(JobParameters params) {
+        runningJobIds.add(params.getJobId());
+        KartuKompetensiApp app = (KartuKompetensiApp) getApplication();
+        // Getting the jobs reads the job history and settings files
+        app.getAppExecutors().reads().execute(Priority.BACKGROUND, "jobs-start", () ->
+            app.getBackgroundJobs().runDue(() -> {
+                runningJobIds.remove(params.getJobId());
+                jobFinished(params, false);
+            }));
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        // Jobs cannot be interrupted between steps; the batch finishes and reschedules itself
+        runningJobIds.remove(params.getJobId());
+        return false;
+    }
+}
@@ -0,0 +1,131 @@
+package com.kemham.kartukompetensi.jobs;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A periodic background job, identified by its name. Scheduling a spec with the name of an
+ * existing job replaces that job's spec but keeps its run history.
+ */
+public final class JobSpec {
+
+    // Conditions a job waits for; also the flags reported by DeviceConditions
+    public static final int REQUIRES_IDLE = 1;
+    public static final int REQUIRES_CHARGING = 1 << 1;
+    public static final int REQUIRES_BATTERY_NOT_LOW = 1 << 2;
+    static final int ALL_CONSTRAINTS = REQUIRES_IDLE | REQUIRES_CHARGING | REQUIRES_BATTERY_NOT_LOW;
+
+    /**
+     * The job body. Throwing marks the run as failed, and the job is retried with backoff.
+     */
+    public interface Work {
+        void run() throws Exception;
+    }
+
+    final String name;
+    final Work work;
+    final Executor executor;
+    final long intervalMs;
+    final long flexMs;
+    final int constraints;
+    final long initialBackoffMs;
+    final long maxBackoffMs;
+
+    private JobSpec(Builder builder) {
+        this.name = builder.name;
+        this.work = builder.work;
+        this.executor = builder.executor;
+        this.intervalMs = builder.intervalMs;
+        this.flexMs = builder.flexMs;
+        this.constraints = builder.constraints;
+        this.initialBackoffMs = builder.initialBackoffMs;
+        this.maxBackoffMs = Math.min(builder.maxBackoffMs, builder.intervalMs);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    public int getConstraints() {
+        return constraints;
+    }
+
+    /**
+     * How long to wait after the given number of consecutive failures: doubling from the initial
+     * backoff, and never longer than the maximum or one interval.
+     */
+    long backoffMs(int failures) {
+        int doublings = Math.min(Math.max(failures - 1, 0), 30);
+        return Math.min(initialBackoffMs << doublings, maxBackoffMs);
+    }
+
+    public static Builder builder(String name, Work work) {
+        return new Builder(name, work);
+    }
+
+    public static class Builder {
+        private final String name;
+        private final Work work;
+        private Executor executor = Runnable::run;
+        private long intervalMs = TimeUnit.DAYS.toMillis(1);
+        private long flexMs;
+        private int constraints;
+        private long initialBackoffMs = TimeUnit.SECONDS.toMillis(30);
+        private long maxBackoffMs = TimeUnit.HOURS.toMillis(5);
+
+        private Builder(String name, Work work) {
+            this.name = name;
+            this.work = work;
+        }
+
+        /**
+         * Runs the work on the given executor instead of the thread that started the batch.
+         */
+        public Builder runOn(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public Builder every(long interval, TimeUnit unit) {
+            if (interval <= 0) {
+                throw new IllegalArgumentException("Interval must be positive: " + interval);
+            }
+            this.intervalMs = unit.toMillis(interval);
+            return this;
+        }
+
+        /**
+         * Lets the job run up to this much early when another job is running anyway, so nearby
+         * jobs share one wake-up instead of waking the device twice.
+         */
+        public Builder flex(long flex, TimeUnit unit) {
+            this.flexMs = unit.toMillis(flex);
+            return this;
+        }
+
+        public Builder require(int constraints) {
+            this.constraints |= constraints & ALL_CONSTRAINTS;
+            return this;
+        }
+
+        public Builder backoff(long initial, long max, TimeUnit unit) {
+            if (initial <= 0 || max < initial) {
+                throw new IllegalArgumentException("Invalid backoff: " + initial + ", " + max);
+            }
+            this.initialBackoffMs = unit.toMillis(initial);
+            this.maxBackoffMs = unit.toMillis(max);
+            return this;
+        }
+
+        public JobSpec build() {
+            if (flexMs > intervalMs) {
+                flexMs = intervalMs;
+            }
+            return new JobSpec(this);
+        }
+    }
+}
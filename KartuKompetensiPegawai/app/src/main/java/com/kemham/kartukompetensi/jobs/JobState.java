@@ -0,0 +1,16 @@
+package com.kemham.kartukompetensi.jobs;
+
+/**
+ * The persisted run history of one job.
+ */
+final class JobState {
+    long nextRunAt;
+    long lastRunAt;
+    int failures;
+
+    JobState(long nextRunAt, long lastRunAt, int failures) {
+        this.nextRunAt = nextRunAt;
+        this.lastRunAt = lastRunAt;
+        this.failures = failures;
+    }
+}
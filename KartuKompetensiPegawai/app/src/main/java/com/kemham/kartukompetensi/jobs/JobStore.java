@@ -0,0 +1,81 @@
+package com.kemham.kartukompetensi.jobs;
+
+import android.util.AtomicFile;
+import android.util.Log;
+
+import androidx.annotation.WorkerThread;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps job run history in one small binary file, replaced atomically on every save, so a job
+ * that was due when the process died still runs on the next start.
+ */
+class JobStore {
+
+    private static final String TAG = "JobStore";
+
+    static final String FILE_NAME = "jobs.bin";
+
+    private static final int VERSION = 1;
+
+    private final AtomicFile file;
+
+    JobStore(File dir) {
+        this.file = new AtomicFile(new File(dir, FILE_NAME));
+    }
+
+    @WorkerThread
+    Map<String, JobState> load() {
+        Map<String, JobState> states = new HashMap<>();
+        if (!file.getBaseFile().exists()) {
+            return states;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(file.openRead()))) {
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported job store version " + version);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                states.put(name, new JobState(in.readLong(), in.readLong(), in.readInt()));
+            }
+        } catch (IOException e) {
+            // Every job then starts a fresh interval, which is what a first install does too
+            Log.w(TAG, "Failed to read job history", e);
+            states.clear();
+        }
+        return states;
+    }
+
+    @WorkerThread
+    void save(Map<String, JobState> states) throws IOException {
+        FileOutputStream out = file.startWrite();
+        try {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+            data.writeInt(VERSION);
+            data.writeInt(states.size());
+            for (Map.Entry<String, JobState> entry : states.entrySet()) {
+                JobState state = entry.getValue();
+                data.writeUTF(entry.getKey());
+                data.writeLong(state.nextRunAt);
+                data.writeLong(state.lastRunAt);
+                data.writeInt(state.failures);
+            }
+            data.flush();
+            file.finishWrite(out);
+        } catch (IOException e) {
+            file.failWrite(out);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.kemham.kartukompetensi.jobs;
+
+import android.app.job.JobInfo;
+import android.app.job.JobScheduler;
+import android.content.ComponentName;
+import android.content.Context;
+import android.os.Build;
+
+/**
+ * Schedules one persisted platform job per constraint set, which starts {@link JobRunnerService}.
+ */
+final class PlatformWaker implements BackgroundJobs.Waker {
+
+    // Platform job ids JOB_ID_BASE .. JOB_ID_BASE + ALL_CONSTRAINTS, one per constraint set
+    static final int JOB_ID_BASE = 0x4b4b0000;
+
+    private final Context context;
+
+    PlatformWaker(Context context) {
+        this.context = context;
+    }
+
+    @Override
+    public void wakeAfter(int constraints, long delayMs) {
+        int jobId = JOB_ID_BASE + constraints;
+        if (JobRunnerService.isRunning(jobId)) {
+            // Scheduling the same id would stop it; the batch reschedules when it is done
+            return;
+        }
+        JobInfo.Builder builder = new JobInfo.Builder(jobId, new ComponentName(context, JobRunnerService.class))
+            .setMinimumLatency(delayMs)
+            .setPersisted(true)
+            .setRequiresDeviceIdle((constraints & JobSpec.REQUIRES_IDLE) != 0)
+            .setRequiresCharging((constraints & JobSpec.REQUIRES_CHARGING) != 0);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            builder.setRequiresBatteryNotLow((constraints & JobSpec.REQUIRES_BATTERY_NOT_LOW) != 0);
+        }
+        // Before O the battery constraint is only checked in-process when the job runs
+        scheduler().schedule(builder.build());
+    }
+
+    @Override
+    public void cancel(int constraints) {
+        scheduler().cancel(JOB_ID_BASE + constraints);
+    }
+
+    private JobScheduler scheduler() {
+        return (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+    }
+}
@@ -0,0 +1,48 @@
+package com.kemham.kartukompetensi.jobs;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.BatteryManager;
+import android.os.PowerManager;
+
+/**
+ * Reads the device state the platform JobScheduler also uses. Idle is approximated by the screen
+ * being off; the platform's own idle signal is stricter and only gates when the process is woken.
+ */
+final class SystemConditions implements DeviceConditions {
+
+    // The level below which the system reports the battery as low
+    private static final int LOW_BATTERY_PERCENT = 15;
+
+    private final Context context;
+
+    SystemConditions(Context context) {
+        this.context = context;
+    }
+
+    @Override
+    public int current() {
+        int satisfied = 0;
+        PowerManager power = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        if (power != null && !power.isInteractive()) {
+            satisfied |= JobSpec.REQUIRES_IDLE;
+        }
+
+        // Sticky broadcast; no receiver is registered
+        Intent battery = context.registerReceiver(null, new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+        if (battery == null) {
+            return satisfied | JobSpec.REQUIRES_BATTERY_NOT_LOW;
+        }
+        boolean plugged = battery.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0) != 0;
+        if (plugged) {
+            satisfied |= JobSpec.REQUIRES_CHARGING;
+        }
+        int level = battery.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
+        int scale = battery.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
+        if (plugged || level < 0 || scale <= 0 || level * 100 > LOW_BATTERY_PERCENT * scale) {
+            satisfied |= JobSpec.REQUIRES_BATTERY_NOT_LOW;
+        }
+        return satisfied;
+    }
+}
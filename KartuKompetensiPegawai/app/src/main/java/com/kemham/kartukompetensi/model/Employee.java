@@ -2,15 +2,27 @@ package com.kemham.kartukompetensi.model;
 
 import androidx.annotation.NonNull;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import androidx.room.TypeConverters;
 
+import com.kemham.kartukompetensi.util.KompetensiUtil;
+
 import java.util.Date;
 
 /**
  * Entity class representing an employee and their competency data.
  */
-@Entity(tableName = "employees")
+@Entity(
+    tableName = "employees",
+    indices = {
+        @Index({"status", "name"}),          // status lists and counts
+        @Index({"status", "overallScore"}),  // top performers, development candidates
+        @Index({"unit", "name"}),            // unit lists, distinct units
+        @Index({"supervisor", "name"}),      // supervisor lists
+        @Index("lastAssessment")             // assessment due and recent lists
+    }
+)
 public class Employee {
 
     @PrimaryKey
@@ -29,6 +41,10 @@ public class Employee {
     private int overallScore;
     private int targetScore;
 
+    // Running totals maintained by ScoreEngine so overallScore can be updated by delta
+    private long skillProgressSum;
+    private int skillCount;
+
     @TypeConverters(DateConverter.class)
     private Date lastAssessment;
     private String notes;
@@ -139,6 +155,22 @@ public class Employee {
         this.targetScore = targetScore;
     }
 
+    public long getSkillProgressSum() {
+        return skillProgressSum;
+    }
+
+    public void setSkillProgressSum(long skillProgressSum) {
+        this.skillProgressSum = skillProgressSum;
+    }
+
+    public int getSkillCount() {
+        return skillCount;
+    }
+
+    public void setSkillCount(int skillCount) {
+        this.skillCount = skillCount;
+    }
+
     public Date getLastAssessment() {
         return lastAssessment;
     }
@@ -169,19 +201,7 @@ public class Employee {
     }
 
     public String getInitials() {
-        if (name == null || name.isEmpty()) {
-            return "";
-        }
-
-        StringBuilder initials = new StringBuilder();
-        String[] parts = name.split("\\s+");
-        for (String part : parts) {
-            if (!part.isEmpty()) {
-                initials.append(part.charAt(0));
-                if (initials.length() >= 2) break;
-            }
-        }
-        return initials.toString().toUpperCase();
+        return KompetensiUtil.getInitials(name);
     }
 
     public int getCompletionPercentage() {
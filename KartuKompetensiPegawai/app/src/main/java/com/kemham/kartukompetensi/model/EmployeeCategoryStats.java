@@ -0,0 +1,100 @@
+package com.kemham.kartukompetensi.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.TypeConverters;
+
+/**
+ * Materialized per-employee, per-category skill aggregates.
+ * Rows are maintained by triggers on the skills table and never written by the app directly.
+ */
+@Entity(
+    tableName = "employee_category_stats",
+    primaryKeys = {"employeeNip", "category"},
+    foreignKeys = @ForeignKey(
+        entity = Employee.class,
+        parentColumns = "nip",
+        childColumns = "employeeNip",
+        onDelete = ForeignKey.CASCADE
+    )
+)
+public class EmployeeCategoryStats {
+
+    @NonNull
+    private String employeeNip;
+
+    @NonNull
+    @TypeConverters(CategoryConverter.class)
+    private Skill.Category category;
+
+    private int skillCount;
+    private long scoreSum;
+    private long progressSum;
+    private int achievedCount;
+
+    public EmployeeCategoryStats(@NonNull String employeeNip, @NonNull Skill.Category category) {
+        this.employeeNip = employeeNip;
+        this.category = category;
+    }
+
+    // Getters and Setters
+    @NonNull
+    public String getEmployeeNip() {
+        return employeeNip;
+    }
+
+    public void setEmployeeNip(@NonNull String employeeNip) {
+        this.employeeNip = employeeNip;
+    }
+
+    @NonNull
+    public Skill.Category getCategory() {
+        return category;
+    }
+
+    public void setCategory(@NonNull Skill.Category category) {
+        this.category = category;
+    }
+
+    public int getSkillCount() {
+        return skillCount;
+    }
+
+    public void setSkillCount(int skillCount) {
+        this.skillCount = skillCount;
+    }
+
+    public long getScoreSum() {
+        return scoreSum;
+    }
+
+    public void setScoreSum(long scoreSum) {
+        this.scoreSum = scoreSum;
+    }
+
+    public long getProgressSum() {
+        return progressSum;
+    }
+
+    public void setProgressSum(long progressSum) {
+        this.progressSum = progressSum;
+    }
+
+    public int getAchievedCount() {
+        return achievedCount;
+    }
+
+    public void setAchievedCount(int achievedCount) {
+        this.achievedCount = achievedCount;
+    }
+
+    // Helper methods
+    public float getAverageScore() {
+        return skillCount > 0 ? (float) scoreSum / skillCount : 0f;
+    }
+
+    public float getAverageProgress() {
+        return skillCount > 0 ? (float) progressSum / skillCount : 0f;
+    }
+}
@@ -0,0 +1,53 @@
+package com.kemham.kartukompetensi.model;
+
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Full-text index over the searchable columns of the employees table.
+ * Kept in sync with employees through content triggers; rowid matches employees.rowid.
+ * The update triggers are replaced by SearchTriggers so that score updates skip the index.
+ */
+@Fts4(contentEntity = Employee.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "employees_fts")
+public class EmployeeFts {
+
+    private String name;
+    private String nip;
+    private String unit;
+    private String position;
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getNip() {
+        return nip;
+    }
+
+    public void setNip(String nip) {
+        this.nip = nip;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+
+    public String getPosition() {
+        return position;
+    }
+
+    public void setPosition(String position) {
+        this.position = position;
+    }
+}
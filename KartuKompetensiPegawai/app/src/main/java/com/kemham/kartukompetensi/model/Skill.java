@@ -23,7 +23,11 @@ import java.util.Date;
         childColumns = "employeeNip",
         onDelete = ForeignKey.CASCADE
     ),
-    indices = {@Index("employeeNip")}
+    indices = {
+        // Per-employee and per-category lists; an employee has one skill per category and name
+        @Index(value = {"employeeNip", "category", "name"}, unique = true),
+        @Index({"employeeNip", "lastAssessed"})  // assessment due and recent lists
+    }
 )
 public class Skill implements Parcelable {
 
@@ -0,0 +1,43 @@
+package com.kemham.kartukompetensi.model;
+
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Full-text index over the searchable columns of the skills table.
+ * Room keeps it in sync with skills through content triggers; rowid matches skills.id.
+ */
+@Fts4(contentEntity = Skill.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "skills_fts")
+public class SkillFts {
+
+    private String name;
+    private String description;
+    private String recommendation;
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getRecommendation() {
+        return recommendation;
+    }
+
+    public void setRecommendation(String recommendation) {
+        this.recommendation = recommendation;
+    }
+}
@@ -0,0 +1,81 @@
+package com.kemham.kartukompetensi.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.TypeConverters;
+
+/**
+ * Materialized per-unit, per-status employee aggregates.
+ * Rows are maintained by triggers on the employees table and never written by the app directly.
+ * Employees without a unit are counted under the empty string.
+ */
+@Entity(
+    tableName = "unit_stats",
+    primaryKeys = {"unit", "status"}
+)
+public class UnitStats {
+
+    @NonNull
+    private String unit;
+
+    @NonNull
+    @TypeConverters(CategoryConverter.class)
+    private Employee.EmployeeStatus status;
+
+    private int headcount;
+    private long scoreSum;
+    private int belowTargetCount;
+
+    public UnitStats(@NonNull String unit, @NonNull Employee.EmployeeStatus status) {
+        this.unit = unit;
+        this.status = status;
+    }
+
+    // Getters and Setters
+    @NonNull
+    public String getUnit() {
+        return unit;
+    }
+
+    public void setUnit(@NonNull String unit) {
+        this.unit = unit;
+    }
+
+    @NonNull
+    public Employee.EmployeeStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(@NonNull Employee.EmployeeStatus status) {
+        this.status = status;
+    }
+
+    public int getHeadcount() {
+        return headcount;
+    }
+
+    public void setHeadcount(int headcount) {
+        this.headcount = headcount;
+    }
+
+    public long getScoreSum() {
+        return scoreSum;
+    }
+
+    public void setScoreSum(long scoreSum) {
+        this.scoreSum = scoreSum;
+    }
+
+    public int getBelowTargetCount() {
+        return belowTargetCount;
+    }
+
+    public void setBelowTargetCount(int belowTargetCount) {
+        this.belowTargetCount = belowTargetCount;
+    }
+
+    // Helper methods
+    public float getAverageScore() {
+        return headcount > 0 ? (float) scoreSum / headcount : 0f;
+    }
+}
@@ -0,0 +1,151 @@
+package com.kemham.kartukompetensi.repository;
+
+import android.database.Cursor;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.kemham.kartukompetensi.data.AppDatabase;
+import com.kemham.kartukompetensi.data.EmployeeDao;
+import com.kemham.kartukompetensi.util.AppSettings;
+import com.kemham.kartukompetensi.util.CsvWriter;
+import com.kemham.kartukompetensi.util.JsonLinesWriter;
+import com.kemham.kartukompetensi.util.TableWriter;
+import com.kemham.kartukompetensi.util.XlsxWriter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Streams competency cards (one row per employee skill) to CSV, JSON Lines or XLSX.
+ *
+ * Employees are read in NIP-ordered batches of {@link #EMPLOYEE_BATCH_SIZE}, each through its own
+ * cursor, and every row is written as soon as it is read. Memory use is therefore the same for
+ * one unit or the whole ministry. Each batch is a consistent snapshot of its employees; edits
+ * made while a long export runs may show up in later batches.
+ */
+public class CompetencyExporter {
+
+    public static final int EMPLOYEE_BATCH_SIZE = 200;
+
+    private static final String[] COLUMNS = {
+        "nip", "employeeName", "unit", "position", "grade", "status", "overallScore",
+        "employeeTargetScore", "skillName", "category", "score", "targetScore", "priorityLevel",
+        "lastAssessed", "assessor", "recommendation"
+    };
+    private static final int COLUMN_LAST_ASSESSED = 13;
+
+    public enum Format {
+        CSV,
+        JSON_LINES,
+        XLSX
+    }
+
+    /**
+     * Receives export progress. Called on the exporting thread.
+     */
+    public interface ExportListener {
+        void onProgress(int rowsWritten);
+        void onComplete(int rowsWritten);
+    }
+
+    private final EmployeeDao employeeDao;
+    private final SimpleDateFormat dateFormat;
+
+    public CompetencyExporter(AppDatabase database) {
+        this.employeeDao = database.employeeDao();
+        this.dateFormat = new SimpleDateFormat(AppSettings.DATE_FORMAT_ISO, Locale.ROOT);
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+    }
+
+    /**
+     * Writes every competency row, optionally limited to one unit, and closes the stream.
+     * @param unit The unit to export, or null for all units
+     * @return The number of rows written
+     * @throws InterruptedIOException If the thread was interrupted; the document is not completed,
+     *         so an XLSX export cannot be opened as a workbook
+     */
+    @WorkerThread
+    public int export(OutputStream out, Format format, @Nullable String unit,
+                      @Nullable ExportListener listener) throws IOException {
+        int rows = 0;
+        TableWriter writer = createWriter(out, format);
+        boolean complete = false;
+        try {
+            writer.writeHeader(COLUMNS);
+
+            Object[] values = new Object[COLUMNS.length];
+            String afterNip = "";
+            int employees;
+            do {
+                employees = 0;
+                try (Cursor cursor = employeeDao.getCompetencyRows(afterNip, unit, EMPLOYEE_BATCH_SIZE)) {
+                    while (cursor.moveToNext()) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            throw new InterruptedIOException("Export cancelled");
+                        }
+                        readRow(cursor, values);
+                        writer.writeRow(values);
+                        rows++;
+
+                        String nip = cursor.getString(0);
+                        if (!nip.equals(afterNip)) {
+                            afterNip = nip;
+                            employees++;
+                        }
+                    }
+                }
+                if (listener != null) {
+                    listener.onProgress(rows);
+                }
+            } while (employees == EMPLOYEE_BATCH_SIZE);
+            complete = true;
+        } finally {
+            // Finishing a cancelled or failed export would leave a valid-looking truncated file
+            if (complete) {
+                writer.close();
+            } else {
+                writer.abort();
+            }
+        }
+
+        if (listener != null) {
+            listener.onComplete(rows);
+        }
+        return rows;
+    }
+
+    private TableWriter createWriter(OutputStream out, Format format) throws IOException {
+        switch (format) {
+            case JSON_LINES:
+                return new JsonLinesWriter(out);
+            case XLSX:
+                return new XlsxWriter(out, "Kompetensi");
+            case CSV:
+            default:
+                return new CsvWriter(out);
+        }
+    }
+
+    private void readRow(Cursor cursor, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            switch (cursor.getType(i)) {
+                case Cursor.FIELD_TYPE_NULL:
+                    values[i] = null;
+                    break;
+                case Cursor.FIELD_TYPE_INTEGER:
+                    values[i] = i == COLUMN_LAST_ASSESSED
+                        ? dateFormat.format(new Date(cursor.getLong(i)))
+                        : (Object) cursor.getLong(i);
+                    break;
+                default:
+                    values[i] = cursor.getString(i);
+            }
+        }
+    }
+}
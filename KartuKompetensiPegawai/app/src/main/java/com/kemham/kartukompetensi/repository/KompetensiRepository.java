@@ -1,42 +1,85 @@
 package com.kemham.kartukompetensi.repository;
 
 import android.content.Context;
+import android.net.Uri;
+import android.provider.DocumentsContract;
 
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
 import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+import androidx.paging.PagingSource;
+import androidx.room.InvalidationTracker;
 
 import com.kemham.kartukompetensi.data.AppDatabase;
 import com.kemham.kartukompetensi.data.EmployeeDao;
+import com.kemham.kartukompetensi.data.FtsQuery;
 import com.kemham.kartukompetensi.data.SkillDao;
+import com.kemham.kartukompetensi.data.StatsDao;
 import com.kemham.kartukompetensi.model.Employee;
+import com.kemham.kartukompetensi.model.EmployeeCategoryStats;
 import com.kemham.kartukompetensi.model.Skill;
+import com.kemham.kartukompetensi.model.UnitStats;
 import com.kemham.kartukompetensi.util.AppExecutors;
-
+import com.kemham.kartukompetensi.util.AppSettings;
+import com.kemham.kartukompetensi.util.Priority;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.util.Calendar;
-import java.util.Date;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * Repository that handles data operations between the database and UI.
  */
 public class KompetensiRepository {
 
+    // Pages kept in memory at once; older pages are dropped as the user scrolls
+    private static final int EMPLOYEE_PAGE_SIZE = AppSettings.PAGE_SIZE_LARGE;
+    private static final int EMPLOYEE_MAX_LOADED = EMPLOYEE_PAGE_SIZE * 5;
+    // Keep each write-lane maintenance step to a few milliseconds
+    private static final int MAINTENANCE_EMPLOYEES_PER_STEP = 200;
+    private static final int MAINTENANCE_MERGE_PAGES = 64;
+
     private static volatile KompetensiRepository instance;
+    private final Context context;
     private final AppDatabase database;
     private final EmployeeDao employeeDao;
     private final SkillDao skillDao;
+    private final StatsDao statsDao;
+    private final ScoreEngine scoreEngine;
+    private final SkillWriteQueue skillWriteQueue;
+    private final RosterImporter rosterImporter;
+    private final CompetencyExporter competencyExporter;
     private final AppExecutors executors;
 
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
     private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
 
     private KompetensiRepository(Context context) {
+        this.context = context;
         database = AppDatabase.getInstance(context);
         employeeDao = database.employeeDao();
         skillDao = database.skillDao();
+        statsDao = database.statsDao();
+        scoreEngine = new ScoreEngine(database);
         executors = AppExecutors.getInstance();
+        skillWriteQueue = new SkillWriteQueue(database, scoreEngine, executors.writes(), executors::schedule,
+            e -> errorMessage.postValue("Failed to save skills: " + e.getMessage()));
+        rosterImporter = new RosterImporter(database, executors.writes());
+        competencyExporter = new CompetencyExporter(database);
     }
 
     public static KompetensiRepository getInstance(Context context) {
@@ -56,6 +99,14 @@ public class KompetensiRepository {
         return employeeDao.getEmployee(nip);
     }
 
+    /**
+     * The overall score of one employee, emitted only when it changes rather than on every write
+     * to the employees table.
+     */
+    public LiveData<Integer> getOverallScore(String nip) {
+        return Transformations.distinctUntilChanged(employeeDao.getOverallScore(nip));
+    }
+
     public LiveData<List<Employee>> getAllEmployees() {
         return employeeDao.getAllEmployees();
     }
@@ -64,8 +115,107 @@ public class KompetensiRepository {
         return employeeDao.getActiveEmployees();
     }
 
+    // Paged Employee Lists
+
+    public LiveData<PagingData<Employee>> getAllEmployeesPaged() {
+        return pageEmployees(employeeDao::getAllEmployeesPaged);
+    }
+
+    public LiveData<PagingData<Employee>> getEmployeesByUnitPaged(String unit) {
+        return pageEmployees(() -> employeeDao.getEmployeesByUnitPaged(unit));
+    }
+
+    /**
+     * A page source for a ranked prefix search over employee name, NIP, unit and position, like
+     * {@link #searchEmployees(String, int)}, or for every employee by name if the query is empty.
+     */
+    public PagingSource<Integer, Employee> searchEmployeesPagingSource(@Nullable String query) {
+        String match = FtsQuery.prefix(query);
+        if (match == null) {
+            return employeeDao.getAllEmployeesPaged();
+        }
+        return employeeDao.searchEmployeesPaged(match, query.trim());
+    }
+
+    /**
+     * Wraps Room paging sources so only a bounded window of the roster is ever held in memory.
+     * The factory is called again whenever the current source is invalidated, so a factory that
+     * reads a changing query pages the new results after the caller invalidates the old source.
+     */
+    public LiveData<PagingData<Employee>> pageEmployees(EmployeePageSourceFactory factory) {
+        PagingConfig config = new PagingConfig(
+            EMPLOYEE_PAGE_SIZE,
+            EMPLOYEE_PAGE_SIZE / 2, // prefetch distance
+            false, // placeholders
+            EMPLOYEE_PAGE_SIZE * 2, // initial load size
+            EMPLOYEE_MAX_LOADED
+        );
+        return PagingLiveData.getLiveData(new Pager<>(config, factory::create));
+    }
+
+    public interface EmployeePageSourceFactory {
+        PagingSource<Integer, Employee> create();
+    }
+
+    // Search
+
+    /**
+     * Ranked prefix search over employee name, NIP, unit and position.
+     */
+    public LiveData<List<Employee>> searchEmployees(String query, int limit) {
+        String match = FtsQuery.prefix(query);
+        if (match == null) {
+            return new MutableLiveData<>(Collections.emptyList());
+        }
+        return employeeDao.searchEmployeesRanked(match, query.trim(), limit);
+    }
+
+    /**
+     * Ranked prefix search over employees with the given status, or any status if it is null.
+     * An empty query lists them by name. Runs on the calling thread, for search pipelines that
+     * debounce and cache on their own; see {@link #getInvalidationTracker()}.
+     */
+    @WorkerThread
+    public List<Employee> findEmployees(@Nullable String query, @Nullable Employee.EmployeeStatus status,
+                                        int limit) {
+        String match = FtsQuery.prefix(query);
+        if (match == null) {
+            return employeeDao.getEmployeesWithStatus(status, limit);
+        }
+        return employeeDao.searchEmployeesWithStatus(match, query.trim(), status, limit);
+    }
+
+    /**
+     * Tracker for table changes, so callers holding query snapshots know when to refresh them.
+     */
+    public InvalidationTracker getInvalidationTracker() {
+        return database.getInvalidationTracker();
+    }
+
+    /**
+     * Ranked prefix search over one employee's skill name, description and recommendation.
+     */
+    public LiveData<List<Skill>> searchSkills(String employeeNip, String query, int limit) {
+        String match = FtsQuery.prefix(query);
+        if (match == null) {
+            return new MutableLiveData<>(Collections.emptyList());
+        }
+        return skillDao.searchSkillsRanked(employeeNip, match, query.trim(), limit);
+    }
+
+    /**
+     * Ranked prefix search over every skill in the database.
+     */
+    public LiveData<List<Skill>> searchAllSkills(String query, int limit) {
+        String match = FtsQuery.prefix(query);
+        if (match == null) {
+            return new MutableLiveData<>(Collections.emptyList());
+        }
+        return skillDao.searchAllSkillsRanked(match, query.trim(), limit);
+    }
+
     public void insertEmployee(Employee employee) {
-        executors.diskIO().execute(() -> {
+        executors.writes().execute(() -> {
             try {
                 employeeDao.insert(employee);
             } catch (Exception e) {
@@ -75,9 +225,9 @@ public class KompetensiRepository {
     }
 
     public void updateEmployee(Employee employee) {
-        executors.diskIO().execute(() -> {
+        executors.writes().execute(() -> {
             try {
-                employeeDao.update(employee);
+                employeeDao.updateProfile(EmployeeDao.Profile.of(employee));
             } catch (Exception e) {
                 errorMessage.postValue("Failed to update employee: " + e.getMessage());
             }
@@ -85,7 +235,7 @@ public class KompetensiRepository {
     }
 
     public void deleteEmployee(Employee employee) {
-        executors.diskIO().execute(() -> {
+        executors.writes().execute(() -> {
             try {
                 employeeDao.delete(employee);
             } catch (Exception e) {
@@ -109,34 +259,119 @@ public class KompetensiRepository {
     }
 
     public void insertSkill(Skill skill) {
-        executors.diskIO().execute(() -> {
+        skillWriteQueue.insert(skill);
+    }
+
+    public void updateSkill(Skill skill) {
+        skillWriteQueue.update(skill);
+    }
+
+    public void deleteSkill(Skill skill) {
+        skillWriteQueue.delete(skill);
+    }
+
+    /**
+     * Commits queued skill writes now instead of at the end of the batching window.
+     * @return A future that completes once the writes are committed
+     */
+    public Future<?> flushSkillWrites() {
+        return skillWriteQueue.flush();
+    }
+
+    // Import
+
+    /**
+     * Imports an employee roster or skill assessments from a document picked by the user.
+     * Cancelling the returned future stops the import after the current chunk.
+     */
+    public Future<?> importData(Uri uri, RosterImporter.Kind kind, RosterImporter.Format format,
+                                @Nullable RosterImporter.ImportListener listener) {
+        return executors.reads().submit(Priority.BACKGROUND, "import", () -> {
             try {
-                skillDao.insert(skill);
-                updateEmployeeScore(skill.getEmployeeNip());
-            } catch (Exception e) {
-                errorMessage.postValue("Failed to insert skill: " + e.getMessage());
+                InputStream in = context.getContentResolver().openInputStream(uri);
+                if (in == null) {
+                    throw new FileNotFoundException(uri.toString());
+                }
+                rosterImporter.importStream(in, kind, format, listener);
+            } catch (IOException e) {
+                errorMessage.postValue("Failed to import data: " + e.getMessage());
             }
         });
     }
 
-    public void updateSkill(Skill skill) {
-        executors.diskIO().execute(() -> {
+    /**
+     * Imports an employee roster or skill assessments from a stream, which is closed afterwards.
+     */
+    public Future<?> importData(InputStream in, RosterImporter.Kind kind, RosterImporter.Format format,
+                                @Nullable RosterImporter.ImportListener listener) {
+        return executors.reads().submit(Priority.BACKGROUND, "import", () -> {
             try {
-                skillDao.update(skill);
-                updateEmployeeScore(skill.getEmployeeNip());
-            } catch (Exception e) {
-                errorMessage.postValue("Failed to update skill: " + e.getMessage());
+                rosterImporter.importStream(in, kind, format, listener);
+            } catch (IOException e) {
+                errorMessage.postValue("Failed to import data: " + e.getMessage());
             }
         });
     }
 
-    public void deleteSkill(Skill skill) {
-        executors.diskIO().execute(() -> {
+    // Export
+
+    /**
+     * Exports competency cards to a document created by the user, e.g. via ACTION_CREATE_DOCUMENT.
+     * Cancelling the returned future stops the export and deletes the document, or empties it
+     * if the provider does not allow deletes.
+     * @param unit The unit to export, or null for all units
+     */
+    public Future<?> exportData(Uri uri, CompetencyExporter.Format format, @Nullable String unit,
+                                @Nullable CompetencyExporter.ExportListener listener) {
+        return executors.reads().submit(Priority.BACKGROUND, "export", () -> {
             try {
-                skillDao.delete(skill);
-                updateEmployeeScore(skill.getEmployeeNip());
-            } catch (Exception e) {
-                errorMessage.postValue("Failed to delete skill: " + e.getMessage());
+                OutputStream out = context.getContentResolver().openOutputStream(uri, "wt");
+                if (out == null) {
+                    throw new FileNotFoundException(uri.toString());
+                }
+                competencyExporter.export(out, format, unit, listener);
+            } catch (InterruptedIOException e) {
+                // Cancelled by the caller
+                discardDocument(uri);
+            } catch (IOException e) {
+                errorMessage.postValue("Failed to export data: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Removes a cancelled export's document. Providers that cannot delete it, e.g. for a Uri
+     * that is not a document, get it truncated instead.
+     */
+    private void discardDocument(Uri uri) {
+        try {
+            if (DocumentsContract.isDocumentUri(context, uri)
+                    && DocumentsContract.deleteDocument(context.getContentResolver(), uri)) {
+                return;
+            }
+        } catch (FileNotFoundException | RuntimeException e) {
+            // Not deletable by this provider; truncate it below
+        }
+        try (OutputStream out = context.getContentResolver().openOutputStream(uri, "wt")) {
+            // Opening in "wt" mode truncates the document
+        } catch (IOException | RuntimeException e) {
+            // Nothing more can be done; the document is already incomplete
+        }
+    }
+
+    /**
+     * Exports competency cards to a stream, which is closed afterwards.
+     * @param unit The unit to export, or null for all units
+     */
+    public Future<?> exportData(OutputStream out, CompetencyExporter.Format format, @Nullable String unit,
+                                @Nullable CompetencyExporter.ExportListener listener) {
+        return executors.reads().submit(Priority.BACKGROUND, "export", () -> {
+            try {
+                competencyExporter.export(out, format, unit, listener);
+            } catch (InterruptedIOException e) {
+                // Cancelled by the caller
+            } catch (IOException e) {
+                errorMessage.postValue("Failed to export data: " + e.getMessage());
             }
         });
     }
@@ -167,28 +402,129 @@ public class KompetensiRepository {
 
     // Score Management
 
-    private void updateEmployeeScore(String employeeNip) {
-        executors.diskIO().execute(() -> {
+    /**
+     * Recomputes the overall score of every employee from the skills table.
+     * Only needed to repair totals after writes that bypass this repository.
+     */
+    public void recomputeAllScores() {
+        executors.writes().execute(Priority.MAINTENANCE, () -> {
             try {
-                LiveData<SkillDao.SkillProgress> progressLiveData = skillDao.getOverallProgress(employeeNip);
-                MediatorLiveData<Void> mediator = new MediatorLiveData<>();
-                mediator.addSource(progressLiveData, progress -> {
-                    if (progress != null) {
-                        Employee employee = employeeDao.getEmployee(employeeNip).getValue();
-                        if (employee != null) {
-                            employee.setOverallScore((int) progress.averageProgress);
-                            employee.setLastAssessment(new Date());
-                            employeeDao.update(employee);
-                        }
-                        mediator.removeSource(progressLiveData);
-                    }
-                });
+                scoreEngine.rebuildAll();
             } catch (Exception e) {
                 errorMessage.postValue("Failed to update employee score: " + e.getMessage());
             }
         });
     }
 
+    // Statistics
+
+    public LiveData<List<EmployeeCategoryStats>> getCategoryStats(String employeeNip) {
+        return statsDao.getCategoryStats(employeeNip);
+    }
+
+    public LiveData<Float> getAverageScoreByCategory(String employeeNip, Skill.Category category) {
+        return statsDao.getAverageScoreByCategory(employeeNip, category);
+    }
+
+    public LiveData<SkillDao.SkillProgress> getOverallProgress(String employeeNip) {
+        return statsDao.getOverallProgress(employeeNip);
+    }
+
+    public LiveData<List<UnitStats>> getUnitStats(String unit) {
+        return statsDao.getUnitStats(unit != null ? unit : "");
+    }
+
+    public LiveData<Float> getAverageScoreByUnit(String unit) {
+        return statsDao.getAverageScoreByUnit(unit != null ? unit : "");
+    }
+
+    public LiveData<Integer> getEmployeeCountByStatus(Employee.EmployeeStatus status) {
+        return statsDao.getEmployeeCountByStatus(status);
+    }
+
+    public LiveData<Integer> getEmployeesBelowTargetCount() {
+        return statsDao.getEmployeesBelowTargetCount();
+    }
+
+    public LiveData<List<StatsDao.UnitScore>> getUnitAverageScores() {
+        return statsDao.getUnitAverageScores();
+    }
+
+    public LiveData<List<Employee>> getTopPerformers(int limit) {
+        return employeeDao.getTopPerformingEmployees(limit);
+    }
+
+    /**
+     * Rebuilds the summary tables from employees and skills, a slice of employees at a time.
+     * Must be called off the main thread and off the write lane. Failures propagate, so the
+     * maintenance job can retry.
+     */
+    @WorkerThread
+    public void updateStatistics() {
+        String last = null;
+        do {
+            String after = last;
+            last = runMaintenanceStep(() ->
+                database.rebuildEmployeeStatistics(after, MAINTENANCE_EMPLOYEES_PER_STEP));
+        } while (last != null);
+        runMaintenanceStep(() -> {
+            database.rebuildUnitStatistics();
+            return null;
+        });
+    }
+
+    // Maintenance
+
+    /**
+     * Deletes summary rows left empty by removed skills and employees.
+     * Must be called off the main thread and off the write lane.
+     */
+    @WorkerThread
+    public void cleanupOldData() {
+        runMaintenanceStep(() -> {
+            database.pruneStatistics();
+            return null;
+        });
+    }
+
+    /**
+     * Compacts the search indices and the WAL after a day of incremental writes.
+     * Must be called off the main thread and off the write lane.
+     */
+    @WorkerThread
+    public void optimizeDatabase() {
+        while (runMaintenanceStep(() -> database.mergeSearchIndices(MAINTENANCE_MERGE_PAGES))) {
+            // Each step merges a bounded number of pages
+        }
+        runMaintenanceStep(() -> {
+            database.analyze();
+            return null;
+        });
+        runMaintenanceStep(() -> {
+            database.checkpoint();
+            return null;
+        });
+    }
+
+    /**
+     * Runs one short maintenance step on the write lane and waits for it. The lane is a single
+     * thread and cannot preempt a running task, so maintenance is split into steps queued at
+     * {@link Priority#MAINTENANCE}: a save queued meanwhile waits for at most one step.
+     */
+    private <T> T runMaintenanceStep(Callable<T> step) {
+        try {
+            return executors.writes().submit(Priority.MAINTENANCE, "maintenance", step).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException
+                ? (RuntimeException) cause
+                : new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Maintenance interrupted", e);
+        }
+    }
+
     // Status Management
 
     public LiveData<Boolean> getLoadingStatus() {
@@ -205,34 +541,22 @@ public class KompetensiRepository {
 
     // Cleanup
 
+    /**
+     * Commits queued skill writes and drops the instance. The executors and the database belong
+     * to the application, which closes them after this on process teardown.
+     */
     public void cleanup() {
-        executors.shutdown();
-        AppDatabase.destroyInstance();
+        skillWriteQueue.flush();
         instance = null;
     }
 
     // Utility Methods
 
+    /**
+     * Re-checks the tables for changes Room did not see, such as a restored database file, so
+     * observed queries run again. All data is local, so there is nothing to fetch.
+     */
     public void refreshData() {
-        isLoading.setValue(true);
-        executors.diskIO().execute(() -> {
-            try {
-                // Perform any necessary data refresh operations
-                Thread.sleep(1000); // Simulate network delay
-                isLoading.postValue(false);
-            } catch (Exception e) {
-                errorMessage.postValue("Failed to refresh data: " + e.getMessage());
-                isLoading.postValue(false);
-            }
-        });
-    }
-
-    public void schedulePeriodicUpdate() {
-        executors.scheduled().scheduleAtFixedRate(
-            this::refreshData,
-            0,
-            15,
-            TimeUnit.MINUTES
-        );
+        database.getInvalidationTracker().refreshVersionsAsync();
     }
 }
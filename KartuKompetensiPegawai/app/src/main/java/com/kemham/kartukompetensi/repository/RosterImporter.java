@@ -0,0 +1,603 @@
+package com.kemham.kartukompetensi.repository;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.kemham.kartukompetensi.data.AppDatabase;
+import com.kemham.kartukompetensi.data.EmployeeDao;
+import com.kemham.kartukompetensi.data.SkillDao;
+import com.kemham.kartukompetensi.model.Employee;
+import com.kemham.kartukompetensi.model.Skill;
+import com.kemham.kartukompetensi.util.AppSettings;
+import com.kemham.kartukompetensi.util.CsvReader;
+import com.kemham.kartukompetensi.util.KompetensiUtil;
+import com.kemham.kartukompetensi.util.Priority;
+import com.kemham.kartukompetensi.util.PriorityExecutor;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Streaming importer for employee rosters and skill assessments.
+ *
+ * Rows are parsed one at a time from CSV (with a header row) or a JSON array of objects, and
+ * written in chunks of {@link #CHUNK_SIZE} rows, one transaction per chunk. Memory use therefore
+ * stays flat regardless of file size, and other writers can interleave between chunks. Column
+ * and key names match the entity field names, case-insensitively.
+ *
+ * Roster rows insert new employees and update the roster fields of existing ones without
+ * touching their skills or scores. Assessment rows are always inserted as new skills, and the
+ * owners' scores are updated by delta in the same transaction.
+ */
+public class RosterImporter {
+
+    public static final int CHUNK_SIZE = 500;
+    // Errors beyond this are counted but not kept, so a bad file cannot exhaust memory
+    public static final int MAX_KEPT_ERRORS = 1000;
+
+    private static final String[] DATE_FORMATS = {
+        AppSettings.DATE_FORMAT_ISO,
+        "yyyy-MM-dd",
+        AppSettings.DATE_FORMAT_SHORT
+    };
+
+    public enum Kind {
+        EMPLOYEES,
+        SKILLS
+    }
+
+    public enum Format {
+        CSV,
+        JSON
+    }
+
+    /**
+     * Receives import progress. Called on the importing thread.
+     */
+    public interface ImportListener {
+        void onProgress(int rowsRead, int rowsImported);
+        void onRowError(RowError error);
+        void onComplete(ImportResult result);
+    }
+
+    public static class RowError {
+        private final long row;
+        private final String message;
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        /**
+         * Returns the line number for CSV input, or the 1-based element index for JSON input.
+         */
+        public long getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "Row " + row + ": " + message;
+        }
+    }
+
+    public static class ImportResult {
+        private int rowsRead;
+        private int rowsImported;
+        private int errorCount;
+        private boolean cancelled;
+        private final List<RowError> errors = new ArrayList<>();
+
+        public int getRowsRead() {
+            return rowsRead;
+        }
+
+        public int getRowsImported() {
+            return rowsImported;
+        }
+
+        public int getErrorCount() {
+            return errorCount;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Returns the first {@link #MAX_KEPT_ERRORS} row errors.
+         */
+        public List<RowError> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+    }
+
+    private final AppDatabase database;
+    private final PriorityExecutor writeExecutor;
+    private final EmployeeDao employeeDao;
+    private final SkillDao skillDao;
+    private final List<SimpleDateFormat> dateFormats = new ArrayList<>();
+
+    /**
+     * @param writeExecutor The serialized write lane; chunks are committed on it at
+     *                      {@link Priority#BACKGROUND} so interactive saves run between chunks
+     */
+    public RosterImporter(AppDatabase database, PriorityExecutor writeExecutor) {
+        this.database = database;
+        this.writeExecutor = writeExecutor;
+        this.employeeDao = database.employeeDao();
+        this.skillDao = database.skillDao();
+        for (String pattern : DATE_FORMATS) {
+            SimpleDateFormat format = new SimpleDateFormat(pattern, Locale.ROOT);
+            format.setLenient(false);
+            if (pattern.equals(AppSettings.DATE_FORMAT_ISO)) {
+                // The pattern ends in a literal 'Z', i.e. UTC
+                format.setTimeZone(TimeZone.getTimeZone("UTC"));
+            }
+            dateFormats.add(format);
+        }
+    }
+
+    /**
+     * Imports every row of the stream. If the thread is interrupted the import stops at the next
+     * row; chunks already committed are kept. The stream is closed when the import ends.
+     * @throws IOException If the stream cannot be read or is not well-formed
+     */
+    @WorkerThread
+    public ImportResult importStream(InputStream in, Kind kind, Format format,
+                                     @Nullable ImportListener listener) throws IOException {
+        ImportResult result = new ImportResult();
+        Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        try (RowSource rows = format == Format.CSV ? new CsvRowSource(reader) : new JsonRowSource(reader)) {
+            Chunk chunk = new Chunk();
+            while (rows.next()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    result.cancelled = true;
+                    break;
+                }
+                result.rowsRead++;
+                try {
+                    if (kind == Kind.EMPLOYEES) {
+                        chunk.add(rows.getRowNumber(), parseEmployee(rows));
+                    } else {
+                        chunk.add(rows.getRowNumber(), parseSkill(rows));
+                    }
+                } catch (IllegalArgumentException e) {
+                    reportError(result, listener, rows.getRowNumber(), e.getMessage());
+                }
+
+                if (chunk.size() >= CHUNK_SIZE) {
+                    commit(chunk, kind, result, listener);
+                    chunk = new Chunk();
+                }
+            }
+            if (chunk.size() > 0 && !result.cancelled) {
+                commit(chunk, kind, result, listener);
+            }
+        } catch (IllegalStateException e) {
+            // JsonReader reports structural errors as IllegalStateException
+            throw new IOException(e.getMessage(), e);
+        }
+
+        if (listener != null) {
+            listener.onComplete(result);
+        }
+        return result;
+    }
+
+    /**
+     * Commits a chunk on the write lane and waits for it. The chunk must not be reused afterwards.
+     */
+    private void commit(Chunk chunk, Kind kind, ImportResult result, @Nullable ImportListener listener) {
+        List<RowError> rejected = new ArrayList<>();
+        Future<Integer> write = writeExecutor.submit(Priority.BACKGROUND, () -> kind == Kind.EMPLOYEES
+            ? writeEmployees(chunk)
+            : writeSkills(chunk, rejected));
+        try {
+            result.rowsImported += write.get();
+        } catch (ExecutionException e) {
+            // The whole chunk was rolled back
+            rejected.clear();
+            for (long row : chunk.rows) {
+                rejected.add(new RowError(row, "Write failed: " + e.getCause().getMessage()));
+            }
+        } catch (InterruptedException e) {
+            // Drop the chunk if it has not started; the loop stops at the next row
+            write.cancel(false);
+            result.cancelled = true;
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        for (RowError error : rejected) {
+            reportError(result, listener, error.row, error.message);
+        }
+        if (listener != null) {
+            listener.onProgress(result.rowsRead, result.rowsImported);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private int writeEmployees(Chunk chunk) {
+        List<Employee> employees = (List<Employee>) (List<?>) chunk.items;
+        database.runInTransaction(() -> {
+            List<Long> rowIds = employeeDao.insertAllIfAbsent(employees);
+            for (int i = 0; i < rowIds.size(); i++) {
+                if (rowIds.get(i) == -1) {
+                    Employee e = employees.get(i);
+                    employeeDao.updateRosterFields(e.getNip(), e.getName(), e.getUnit(),
+                        e.getPosition(), e.getGrade(), e.getEmail(), e.getPhoneNumber(),
+                        e.getSupervisor(), e.getJoinDate(), e.getStatus(), e.getTargetScore());
+                }
+            }
+        });
+        return employees.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private int writeSkills(Chunk chunk, List<RowError> rejected) {
+        List<Skill> skills = (List<Skill>) (List<?>) chunk.items;
+        int[] imported = new int[1];
+        database.runInTransaction(() -> {
+            Set<String> nips = new HashSet<>();
+            for (Skill skill : skills) {
+                nips.add(skill.getEmployeeNip());
+            }
+            Set<String> existing = new HashSet<>(employeeDao.getExistingNips(new ArrayList<>(nips)));
+
+            List<Skill> accepted = new ArrayList<>(skills.size());
+            // Index in accepted of each skill key seen in this chunk, so a repeated row replaces it
+            Map<String, Integer> keys = new HashMap<>();
+            Map<String, ScoreDelta> deltas = new LinkedHashMap<>();
+            int rows = 0;
+            for (int i = 0; i < skills.size(); i++) {
+                Skill skill = skills.get(i);
+                if (!existing.contains(skill.getEmployeeNip())) {
+                    rejected.add(new RowError(chunk.rows.get(i), "Unknown employee " + skill.getEmployeeNip()));
+                    continue;
+                }
+                rows++;
+
+                // A skill already assessed is replaced in place, so re-importing a file is idempotent
+                String key = skill.getEmployeeNip() + '\u0000' + skill.getCategory() + '\u0000' + skill.getName();
+                Integer seen = keys.get(key);
+                Skill previous;
+                if (seen != null) {
+                    previous = accepted.set(seen, skill);
+                } else {
+                    previous = skillDao.getSkillByKeySync(skill.getEmployeeNip(), skill.getCategory(), skill.getName());
+                    keys.put(key, accepted.size());
+                    accepted.add(skill);
+                }
+                if (previous != null) {
+                    skill.setId(previous.getId());
+                }
+
+                ScoreDelta delta = deltas.get(skill.getEmployeeNip());
+                if (delta == null) {
+                    delta = new ScoreDelta();
+                    deltas.put(skill.getEmployeeNip(), delta);
+                }
+                if (previous != null) {
+                    delta.remove(previous);
+                }
+                delta.add(skill);
+            }
+
+            skillDao.insertAll(accepted);
+            // One score update per employee instead of one per skill
+            for (Map.Entry<String, ScoreDelta> entry : deltas.entrySet()) {
+                ScoreDelta delta = entry.getValue();
+                employeeDao.applyScoreDelta(entry.getKey(), delta.progress, delta.count, delta.latest);
+            }
+            imported[0] = rows;
+        });
+        return imported[0];
+    }
+
+    private void reportError(ImportResult result, @Nullable ImportListener listener, long row, String message) {
+        RowError error = new RowError(row, message);
+        result.errorCount++;
+        if (result.errors.size() < MAX_KEPT_ERRORS) {
+            result.errors.add(error);
+        }
+        if (listener != null) {
+            listener.onRowError(error);
+        }
+    }
+
+    // Row Parsing
+
+    private Employee parseEmployee(RowSource row) {
+        String nip = requireNip(row, "nip");
+        String name = require(row, "name");
+        return new Employee.Builder(nip)
+            .name(name)
+            .unit(row.get("unit"))
+            .position(row.get("position"))
+            .grade(row.get("grade"))
+            .email(row.get("email"))
+            .phoneNumber(row.get("phonenumber"))
+            .supervisor(row.get("supervisor"))
+            .joinDate(parseDate(row, "joindate"))
+            .status(parseEnum(Employee.EmployeeStatus.class, row, "status", Employee.EmployeeStatus.ACTIVE))
+            .targetScore(parseScore(row, "targetscore", 100))
+            .build();
+    }
+
+    private Skill parseSkill(RowSource row) {
+        String nip = requireNip(row, "employeenip");
+        String name = require(row, "name");
+        String score = require(row, "score");
+
+        Skill.Builder builder = new Skill.Builder()
+            .employeeNip(nip)
+            .name(name)
+            .description(row.get("description"))
+            .score(parseScore(score, "score"))
+            .targetScore(parseScore(row, "targetscore", 100))
+            .category(parseEnum(Skill.Category.class, row, "category", Skill.Category.BASIC))
+            .priorityLevel(parseEnum(Skill.Level.class, row, "prioritylevel", Skill.Level.MEDIUM))
+            .recommendation(row.get("recommendation"))
+            .assessor(row.get("assessor"))
+            .notes(row.get("notes"));
+
+        Date lastAssessed = parseDate(row, "lastassessed");
+        if (lastAssessed != null) {
+            builder.lastAssessed(lastAssessed);
+        }
+        return builder.build();
+    }
+
+    private static String require(RowSource row, String column) {
+        String value = row.get(column);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + column);
+        }
+        return value;
+    }
+
+    private static String requireNip(RowSource row, String column) {
+        String nip = require(row, column);
+        if (!KompetensiUtil.isValidNip(nip)) {
+            throw new IllegalArgumentException("Invalid NIP " + nip);
+        }
+        return nip;
+    }
+
+    private static int parseScore(RowSource row, String column, int defaultValue) {
+        String value = row.get(column);
+        return value == null ? defaultValue : parseScore(value, column);
+    }
+
+    private static int parseScore(String value, String column) {
+        int score;
+        try {
+            score = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + " " + value);
+        }
+        if (!AppSettings.isValidScore(score)) {
+            throw new IllegalArgumentException(column + " out of range: " + score);
+        }
+        return score;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, RowSource row, String column, E defaultValue) {
+        String value = row.get(column);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + column + " " + value);
+        }
+    }
+
+    @Nullable
+    private Date parseDate(RowSource row, String column) {
+        String value = row.get(column);
+        if (value == null) {
+            return null;
+        }
+        for (SimpleDateFormat format : dateFormats) {
+            try {
+                return format.parse(value);
+            } catch (ParseException ignored) {
+                // Try the next format
+            }
+        }
+        throw new IllegalArgumentException("Invalid " + column + " " + value);
+    }
+
+    // Buffers
+
+    private static class Chunk {
+        final List<Object> items = new ArrayList<>(CHUNK_SIZE);
+        final List<Long> rows = new ArrayList<>(CHUNK_SIZE);
+
+        void add(long row, Object item) {
+            rows.add(row);
+            items.add(item);
+        }
+
+        int size() {
+            return items.size();
+        }
+    }
+
+    private static class ScoreDelta {
+        long progress;
+        int count;
+        Date latest;
+
+        void add(Skill skill) {
+            progress += skill.getProgressPercentage();
+            count++;
+            if (latest == null || (skill.getLastAssessed() != null && skill.getLastAssessed().after(latest))) {
+                latest = skill.getLastAssessed();
+            }
+        }
+
+        void remove(Skill skill) {
+            progress -= skill.getProgressPercentage();
+            count--;
+        }
+    }
+
+    // Row Sources
+
+    /**
+     * One parsed row at a time. Column names are lower case; blank values read as null.
+     */
+    private interface RowSource extends Closeable {
+        boolean next() throws IOException;
+
+        @Nullable
+        String get(String column);
+
+        long getRowNumber();
+    }
+
+    private static class CsvRowSource implements RowSource {
+        private final CsvReader csv;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private List<String> record;
+
+        CsvRowSource(Reader reader) throws IOException {
+            csv = new CsvReader(reader);
+            List<String> header = csv.readRecord();
+            if (header == null) {
+                throw new IOException("Missing header row");
+            }
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        @Override
+        public boolean next() throws IOException {
+            do {
+                record = csv.readRecord();
+                // Skip blank lines
+            } while (record != null && record.size() == 1 && record.get(0).isEmpty());
+            return record != null;
+        }
+
+        @Nullable
+        @Override
+        public String get(String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= record.size()) {
+                return null;
+            }
+            String value = record.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        @Override
+        public long getRowNumber() {
+            return csv.getLineNumber();
+        }
+
+        @Override
+        public void close() throws IOException {
+            csv.close();
+        }
+    }
+
+    private static class JsonRowSource implements RowSource {
+        private final JsonReader json;
+        private final Map<String, String> values = new HashMap<>();
+        private long index;
+        private boolean ended;
+
+        JsonRowSource(Reader reader) throws IOException {
+            json = new JsonReader(reader);
+            json.beginArray();
+        }
+
+        @Override
+        public boolean next() throws IOException {
+            if (ended) {
+                return false;
+            }
+            if (!json.hasNext()) {
+                json.endArray();
+                ended = true;
+                return false;
+            }
+
+            values.clear();
+            index++;
+            json.beginObject();
+            while (json.hasNext()) {
+                String name = json.nextName().toLowerCase(Locale.ROOT);
+                JsonToken token = json.peek();
+                if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+                    values.put(name, json.nextString());
+                } else if (token == JsonToken.BOOLEAN) {
+                    values.put(name, String.valueOf(json.nextBoolean()));
+                } else {
+                    // Nulls, nested objects and arrays carry no importable value
+                    json.skipValue();
+                }
+            }
+            json.endObject();
+            return true;
+        }
+
+        @Nullable
+        @Override
+        public String get(String column) {
+            String value = values.get(column);
+            if (value == null) {
+                return null;
+            }
+            value = value.trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        @Override
+        public long getRowNumber() {
+            return index;
+        }
+
+        @Override
+        public void close() throws IOException {
+            json.close();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.kemham.kartukompetensi.repository;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.kemham.kartukompetensi.data.AppDatabase;
+import com.kemham.kartukompetensi.data.EmployeeDao;
+import com.kemham.kartukompetensi.data.SkillDao;
+import com.kemham.kartukompetensi.model.Skill;
+
+import java.util.Date;
+
+/**
+ * Keeps {@code employees.overallScore} in step with the skills table.
+ *
+ * Every skill write runs in the same transaction as the score update. Instead of re-running
+ * {@code AVG} over all of an employee's skills, each write applies the change in skill progress
+ * to the employee's running sum and count, so the cost of a write does not grow with the number
+ * of skills. All methods must be called off the main thread.
+ */
+public class ScoreEngine {
+
+    private final AppDatabase database;
+    private final EmployeeDao employeeDao;
+    private final SkillDao skillDao;
+
+    public ScoreEngine(AppDatabase database) {
+        this.database = database;
+        this.employeeDao = database.employeeDao();
+        this.skillDao = database.skillDao();
+    }
+
+    /**
+     * Inserts a skill, replacing any existing row with the same id or the same category and name,
+     * and updates the owner's score.
+     * @return The row id of the inserted skill
+     */
+    @WorkerThread
+    public long insertSkill(Skill skill) {
+        long[] rowId = new long[1];
+        database.runInTransaction(() -> {
+            Skill previous = skill.getId() != 0 ? skillDao.getSkillSync(skill.getId())
+                    : skillDao.getSkillByKeySync(skill.getEmployeeNip(), skill.getCategory(), skill.getName());
+            if (previous != null) {
+                // Replace the stored row in place rather than through the unique key
+                skill.setId(previous.getId());
+            }
+            rowId[0] = skillDao.insert(skill);
+            applyChange(previous, skill);
+        });
+        return rowId[0];
+    }
+
+    /**
+     * Updates a skill and the owner's score.
+     * @return The number of rows updated
+     */
+    @WorkerThread
+    public int updateSkill(Skill skill) {
+        int[] updated = new int[1];
+        database.runInTransaction(() -> {
+            Skill previous = skillDao.getSkillSync(skill.getId());
+            updated[0] = skillDao.update(skill);
+            if (updated[0] > 0) {
+                applyChange(previous, skill);
+            }
+        });
+        return updated[0];
+    }
+
+    /**
+     * Deletes a skill and updates the owner's score.
+     * @return The number of rows deleted
+     */
+    @WorkerThread
+    public int deleteSkill(Skill skill) {
+        int[] deleted = new int[1];
+        database.runInTransaction(() -> {
+            // The caller's copy may be stale, so retract what is actually stored
+            Skill previous = skillDao.getSkillSync(skill.getId());
+            deleted[0] = skillDao.delete(skill);
+            if (deleted[0] > 0) {
+                applyChange(previous, null);
+            }
+        });
+        return deleted[0];
+    }
+
+    /**
+     * Applies the score change caused by replacing {@code previous} with {@code current}.
+     * Either side may be null for inserts and deletes. Must be called inside a transaction.
+     * Only the employee gaining or changing a skill counts as assessed; a delete keeps the date.
+     */
+    @WorkerThread
+    public void applyChange(@Nullable Skill previous, @Nullable Skill current) {
+        Date now = new Date();
+        if (previous != null && current != null
+                && previous.getEmployeeNip().equals(current.getEmployeeNip())) {
+            long delta = current.getProgressPercentage() - previous.getProgressPercentage();
+            employeeDao.applyScoreDelta(current.getEmployeeNip(), delta, 0, now);
+            return;
+        }
+        if (previous != null) {
+            employeeDao.applyScoreDelta(previous.getEmployeeNip(), -previous.getProgressPercentage(), -1, null);
+        }
+        if (current != null) {
+            employeeDao.applyScoreDelta(current.getEmployeeNip(), current.getProgressPercentage(), 1, now);
+        }
+    }
+
+    /**
+     * Recomputes one employee's running totals from scratch, e.g. after a bulk skill delete.
+     */
+    @WorkerThread
+    public void rebuild(String employeeNip) {
+        database.runInTransaction(() -> {
+            employeeDao.rebuildScoreTotals(employeeNip);
+            employeeDao.refreshOverallScore(employeeNip);
+        });
+    }
+
+    /**
+     * Recomputes every employee's running totals from scratch.
+     */
+    @WorkerThread
+    public void rebuildAll() {
+        database.runInTransaction(() -> {
+            employeeDao.rebuildAllScoreTotals();
+            employeeDao.refreshOverallScores();
+        });
+    }
+}
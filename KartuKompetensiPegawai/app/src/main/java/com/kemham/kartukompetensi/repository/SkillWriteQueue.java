@@ -0,0 +1,201 @@
+package com.kemham.kartukompetensi.repository;
+
+import androidx.annotation.WorkerThread;
+
+import com.kemham.kartukompetensi.data.AppDatabase;
+import com.kemham.kartukompetensi.model.Skill;
+import com.kemham.kartukompetensi.util.AppExecutors;
+import com.kemham.kartukompetensi.util.Priority;
+import com.kemham.kartukompetensi.util.PriorityExecutor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Write-behind queue for skill edits.
+ *
+ * Writes are buffered for a short window and then applied in a single transaction, so a burst
+ * of saves costs one commit and one Room invalidation. Pending writes to the same skill id are
+ * coalesced: only the last state of each skill reaches the database. Writes are applied in the
+ * order of their last enqueue. If the batch fails, it is rolled back and replayed one write per
+ * transaction, so a single bad write only loses itself.
+ */
+public class SkillWriteQueue {
+
+    public static final long FLUSH_WINDOW_MS = 300;
+    public static final int MAX_BATCH_SIZE = 50;
+
+    private enum Op {
+        INSERT,
+        UPDATE,
+        DELETE
+    }
+
+    private static class PendingWrite {
+        final Op op;
+        final Skill skill;
+
+        PendingWrite(Op op, Skill skill) {
+            this.op = op;
+            this.skill = skill;
+        }
+    }
+
+    public interface WriteErrorListener {
+        void onWriteFailed(Exception e);
+    }
+
+    /**
+     * Runs a task after a delay; {@link AppExecutors#schedule} in the app.
+     */
+    public interface Scheduler {
+        void schedule(Runnable task, long delay, TimeUnit unit);
+    }
+
+    private final AppDatabase database;
+    private final ScoreEngine scoreEngine;
+    private final PriorityExecutor writeExecutor;
+    private final Scheduler scheduler;
+    private final WriteErrorListener errorListener;
+
+    private final Object lock = new Object();
+    // Keyed by skill id; skills without an id yet cannot be coalesced and get a key of their own
+    private LinkedHashMap<Object, PendingWrite> pending = new LinkedHashMap<>();
+    private boolean flushScheduled;
+    private boolean drainSubmitted;
+
+    /**
+     * @param writeExecutor The lane batches are committed on
+     * @param scheduler Closes the flush window
+     */
+    public SkillWriteQueue(AppDatabase database, ScoreEngine scoreEngine, PriorityExecutor writeExecutor,
+                           Scheduler scheduler, WriteErrorListener errorListener) {
+        this.database = database;
+        this.scoreEngine = scoreEngine;
+        this.writeExecutor = writeExecutor;
+        this.scheduler = scheduler;
+        this.errorListener = errorListener;
+    }
+
+    public void insert(Skill skill) {
+        enqueue(Op.INSERT, skill);
+    }
+
+    public void update(Skill skill) {
+        enqueue(Op.UPDATE, skill);
+    }
+
+    public void delete(Skill skill) {
+        enqueue(Op.DELETE, skill);
+    }
+
+    private void enqueue(Op op, Skill skill) {
+        synchronized (lock) {
+            Object key = skill.getId() != 0 ? skill.getId() : new Object();
+            // Removed first so the coalesced write moves to the position of the latest edit
+            PendingWrite previous = pending.remove(key);
+            // An update to a row that is still waiting to be inserted must stay an insert
+            if (op == Op.UPDATE && previous != null && previous.op == Op.INSERT) {
+                op = Op.INSERT;
+            }
+            pending.put(key, new PendingWrite(op, skill));
+            onEnqueued();
+        }
+    }
+
+    private void onEnqueued() {
+        if (drainSubmitted) {
+            // The submitted drain has not taken the queue yet and will include this write
+            return;
+        }
+        if (pending.size() >= MAX_BATCH_SIZE) {
+            drainSubmitted = true;
+            flush();
+        } else if (!flushScheduled) {
+            flushScheduled = true;
+            scheduler.schedule(this::flush, FLUSH_WINDOW_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Applies everything queued so far without waiting for the window to close.
+     * @return A future that completes once the batch has been committed
+     */
+    public Future<?> flush() {
+        return writeExecutor.submit(Priority.INTERACTIVE, this::drain);
+    }
+
+    /**
+     * Flushes and blocks until the pending writes are committed. Intended for tests and shutdown.
+     * @return true if the writes were committed within the timeout
+     */
+    public boolean awaitFlush(long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            flush().get(timeout, unit);
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the number of writes that have not been committed yet.
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    @WorkerThread
+    private void drain() {
+        List<PendingWrite> writes;
+        synchronized (lock) {
+            flushScheduled = false;
+            drainSubmitted = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            writes = new ArrayList<>(pending.values());
+            pending = new LinkedHashMap<>();
+        }
+
+        try {
+            database.runInTransaction(() -> {
+                for (PendingWrite write : writes) {
+                    apply(write);
+                }
+            });
+        } catch (Exception batchFailure) {
+            // The whole batch rolled back; replay it so only the failing writes are lost
+            for (PendingWrite write : writes) {
+                try {
+                    apply(write);
+                } catch (Exception e) {
+                    errorListener.onWriteFailed(e);
+                }
+            }
+        }
+    }
+
+    @WorkerThread
+    private void apply(PendingWrite write) {
+        // Each call is its own transaction, or joins the batch transaction
+        switch (write.op) {
+            case INSERT:
+                scoreEngine.insertSkill(write.skill);
+                break;
+            case UPDATE:
+                scoreEngine.updateSkill(write.skill);
+                break;
+            case DELETE:
+                scoreEngine.deleteSkill(write.skill);
+                break;
+        }
+    }
+}
@@ -5,31 +5,57 @@ import android.os.Looper;
 
 import androidx.annotation.NonNull;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Global executor pools for the whole application.
- * Grouping tasks like this avoids the effects of task starvation (e.g. disk reads don't wait behind
- * webservice requests).
+ *
+ * Database work is split into two lanes. The read lane is a small parallel pool sized to the
+ * read-only connections SQLite keeps in WAL mode; Room runs its queries on it. The write lane is a
+ * single thread, since SQLite allows one writer at a time. Both lanes run queued tasks by
+ * {@link Priority}, and batch work can never take the last reader thread, so UI queries do not
+ * wait behind imports, exports or maintenance. The write lane cannot preempt a running task, so
+ * batch writers hand it short chunks and a save waits for at most one of them.
+ *
+ * Every task run through these executors is recorded in {@link #getMetrics()}, and
+ * {@link #dumpMetrics(File)} writes the numbers to a file that can be attached to a bug report.
  */
 public class AppExecutors {
 
-    private static final int THREAD_COUNT = 3;
+    // Android's default WAL connection pool: one primary (writer) connection and the rest read-only
+    public static final int WAL_CONNECTION_POOL_SIZE = 4;
+    public static final int READER_THREADS = WAL_CONNECTION_POOL_SIZE - 1;
+
+    static final String LANE_MAIN = "main";
+    static final String LANE_SCHEDULED = "scheduled";
+
     private static volatile AppExecutors instance;
 
-    private final ExecutorService diskIO;
-    private final ExecutorService networkIO;
+    private final ExecutorMetrics metrics;
+    private final PriorityExecutor reads;
+    private final PriorityExecutor writes;
     private final Executor mainThread;
     private final ScheduledExecutorService scheduledExecutor;
 
-    private AppExecutors(ExecutorService diskIO, ExecutorService networkIO, 
+    private AppExecutors(ExecutorMetrics metrics, PriorityExecutor reads, PriorityExecutor writes,
                         Executor mainThread, ScheduledExecutorService scheduledExecutor) {
-        this.diskIO = diskIO;
-        this.networkIO = networkIO;
+        this.metrics = metrics;
+        this.reads = reads;
+        this.writes = writes;
         this.mainThread = mainThread;
         this.scheduledExecutor = scheduledExecutor;
     }
@@ -38,10 +64,12 @@ public class AppExecutors {
         if (instance == null) {
             synchronized (AppExecutors.class) {
                 if (instance == null) {
+                    ExecutorMetrics metrics = new ExecutorMetrics();
                     instance = new AppExecutors(
-                        Executors.newSingleThreadExecutor(), // diskIO
-                        Executors.newFixedThreadPool(THREAD_COUNT), // networkIO
-                        new MainThreadExecutor(), // mainThread
+                        metrics,
+                        new PriorityExecutor("db-read", READER_THREADS, Priority.INTERACTIVE, metrics), // reads
+                        new PriorityExecutor("db-write", 1, Priority.INTERACTIVE, metrics), // writes
+                        new MainThreadExecutor(metrics), // mainThread
                         Executors.newSingleThreadScheduledExecutor() // scheduledExecutor
                     );
                 }
@@ -51,17 +79,19 @@ public class AppExecutors {
     }
 
     /**
-     * Executor for disk IO operations.
+     * Parallel lane for work that does not write the database: queries, exports, parsing.
+     * Plain execute and submit calls run at {@link Priority#INTERACTIVE}.
      */
-    public ExecutorService diskIO() {
-        return diskIO;
+    public PriorityExecutor reads() {
+        return reads;
     }
 
     /**
-     * Executor for network operations.
+     * Serialized lane for database writes. Plain execute and submit calls run at
+     * {@link Priority#INTERACTIVE}; tasks of equal priority run in submission order.
      */
-    public ExecutorService networkIO() {
-        return networkIO;
+    public PriorityExecutor writes() {
+        return writes;
     }
 
     /**
@@ -72,26 +102,13 @@ public class AppExecutors {
     }
 
     /**
-     * Executor for scheduled operations.
+     * Executor for scheduled operations. Tasks submitted here directly are not instrumented;
+     * prefer {@link #schedule} and {@link #scheduleAtFixedRate}.
      */
     public ScheduledExecutorService scheduled() {
         return scheduledExecutor;
     }
 
-    /**
-     * Executes the given task on the disk IO thread.
-     */
-    public void executeDiskIO(Runnable runnable) {
-        diskIO.execute(runnable);
-    }
-
-    /**
-     * Executes the given task on the network IO thread.
-     */
-    public void executeNetworkIO(Runnable runnable) {
-        networkIO.execute(runnable);
-    }
-
     /**
      * Executes the given task on the main thread.
      */
@@ -103,7 +120,14 @@ public class AppExecutors {
      * Schedules the given task to run after the specified delay.
      */
     public void schedule(Runnable runnable, long delay, TimeUnit unit) {
-        scheduledExecutor.schedule(runnable, delay, unit);
+        long dueAt = System.nanoTime() + unit.toNanos(delay);
+        try {
+            scheduledExecutor.schedule(
+                new TimedRunnable(metrics, LANE_SCHEDULED, runnable, dueAt, 0), delay, unit);
+        } catch (RejectedExecutionException e) {
+            metrics.recordRejection(LANE_SCHEDULED);
+            throw e;
+        }
     }
 
     /**
@@ -111,7 +135,15 @@ public class AppExecutors {
      */
     public void scheduleAtFixedRate(Runnable runnable, long initialDelay, 
                                   long period, TimeUnit unit) {
-        scheduledExecutor.scheduleAtFixedRate(runnable, initialDelay, period, unit);
+        long dueAt = System.nanoTime() + unit.toNanos(initialDelay);
+        try {
+            scheduledExecutor.scheduleAtFixedRate(
+                new TimedRunnable(metrics, LANE_SCHEDULED, runnable, dueAt, unit.toNanos(period)),
+                initialDelay, period, unit);
+        } catch (RejectedExecutionException e) {
+            metrics.recordRejection(LANE_SCHEDULED);
+            throw e;
+        }
     }
 
     /**
@@ -119,7 +151,7 @@ public class AppExecutors {
      */
     public void executeSequentially(Runnable... tasks) {
         for (Runnable task : tasks) {
-            diskIO.execute(task);
+            writes.execute(task);
         }
     }
 
@@ -137,15 +169,15 @@ public class AppExecutors {
                 e.printStackTrace();
             }
         };
-        diskIO.execute(wrappedAfterTask);
+        writes.execute(wrappedAfterTask);
     }
 
     /**
      * Shuts down all executor services.
      */
     public void shutdown() {
-        diskIO.shutdown();
-        networkIO.shutdown();
+        reads.shutdown();
+        writes.shutdown();
         scheduledExecutor.shutdown();
     }
 
@@ -153,20 +185,105 @@ public class AppExecutors {
      * Attempts to stop all actively executing tasks.
      */
     public void shutdownNow() {
-        diskIO.shutdownNow();
-        networkIO.shutdownNow();
+        reads.shutdownNow();
+        writes.shutdownNow();
         scheduledExecutor.shutdownNow();
     }
 
+    /**
+     * Returns queue depth and wait time snapshots for the read and write lanes.
+     */
+    public PriorityExecutor.Stats[] getLaneStats() {
+        return new PriorityExecutor.Stats[] { reads.getStats(), writes.getStats() };
+    }
+
+    /**
+     * Returns per-task latency histograms for every lane.
+     */
+    public ExecutorMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Writes the lane snapshots and task metrics as a plain-text report.
+     */
+    public void dumpMetrics(Writer out) throws IOException {
+        out.write("Generated " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss Z", Locale.ROOT)
+            .format(new Date()) + "\n\n");
+        for (PriorityExecutor.Stats stats : getLaneStats()) {
+            out.write(stats + "\n");
+        }
+        out.write("\n");
+        metrics.dump(out);
+        out.flush();
+    }
+
+    /**
+     * Writes the metrics report to a file, replacing any existing content.
+     */
+    public void dumpMetrics(File file) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            dumpMetrics(out);
+        }
+    }
+
     /**
      * Main thread executor that wraps Handler.
      */
     private static class MainThreadExecutor implements Executor {
         private final Handler mainThreadHandler = new Handler(Looper.getMainLooper());
+        private final ExecutorMetrics metrics;
+
+        MainThreadExecutor(ExecutorMetrics metrics) {
+            this.metrics = metrics;
+        }
 
         @Override
         public void execute(@NonNull Runnable command) {
-            mainThreadHandler.post(command);
+            TimedRunnable task = new TimedRunnable(metrics, LANE_MAIN, command, System.nanoTime(), 0);
+            if (!mainThreadHandler.post(task)) {
+                // The main looper is quitting
+                metrics.recordRejection(LANE_MAIN);
+                throw new RejectedExecutionException("Main looper is exiting");
+            }
+        }
+    }
+
+    /**
+     * Records how late a task started relative to when it was due, and how long it ran.
+     */
+    private static class TimedRunnable implements Runnable {
+        private final ExecutorMetrics metrics;
+        private final String lane;
+        private final String tag;
+        private final Runnable task;
+        private final long periodNanos;
+        private long dueAt;
+
+        TimedRunnable(ExecutorMetrics metrics, String lane, Runnable task, long dueAt, long periodNanos) {
+            this.metrics = metrics;
+            this.lane = lane;
+            this.tag = metrics.tagOf(task);
+            this.task = task;
+            this.dueAt = dueAt;
+            this.periodNanos = periodNanos;
+        }
+
+        @Override
+        public void run() {
+            long startedAt = System.nanoTime();
+            boolean failed = true;
+            try {
+                task.run();
+                failed = false;
+            } finally {
+                metrics.record(lane, tag, startedAt - dueAt, System.nanoTime() - startedAt, failed);
+                dueAt += periodNanos;
+            }
         }
     }
 
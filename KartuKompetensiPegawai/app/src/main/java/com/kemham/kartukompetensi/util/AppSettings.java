@@ -132,6 +132,9 @@ public class AppSettings {
     public static final long MAX_PHOTO_SIZE = 5 * 1024 * 1024; // 5MB
     public static final long MAX_ATTACHMENT_SIZE = 10 * 1024 * 1024; // 10MB
 
+    // Diagnostics
+    public static final long SLOW_QUERY_THRESHOLD_MS = 50;
+
     // Development flags
     public static final boolean DEBUG = true;
     public static final boolean ENABLE_CRASH_REPORTING = true;
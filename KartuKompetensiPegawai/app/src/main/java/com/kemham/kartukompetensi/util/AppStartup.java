@@ -0,0 +1,263 @@
+package com.kemham.kartukompetensi.util;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lazy, dependency-ordered application startup. Each component is a {@link Stage} created on
+ * first use, after the stages it depends on. Creating a stage runs inside a
+ * {@code startup:<name>} trace section and its duration is recorded, so cold start can be read
+ * from a system trace or from {@link #getTimings()}. Work that is not needed for the first screen
+ * goes through {@link #runAfterFirstFrame}.
+ */
+public class AppStartup {
+
+    private static final String TRACE_PREFIX = "startup:";
+
+    // Deferred work still runs if no activity draws, e.g. when started for a background job
+    private static final long FIRST_FRAME_TIMEOUT_MS = 5000;
+
+    private final Context context;
+    private final long processStartMs = SystemClock.uptimeMillis();
+    private final List<Timing> timings = new ArrayList<>();
+    private final List<Runnable> afterFirstFrame = new ArrayList<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable firstFrameTimeout = this::onFirstFrame;
+    private boolean firstFrameDrawn;
+
+    /**
+     * Creates one component from its context once the stage's dependencies exist.
+     */
+    public interface Initializer<T> {
+        T create(Context context);
+    }
+
+    /**
+     * A duration recorded for one stage or startup step.
+     */
+    public static final class Timing {
+        public final String name;
+        public final String thread;
+        public final long startMs;
+        public final long durationNanos;
+
+        Timing(String name, String thread, long startMs, long durationNanos) {
+            this.name = name;
+            this.thread = thread;
+            this.startMs = startMs;
+            this.durationNanos = durationNanos;
+        }
+    }
+
+    public AppStartup(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * Declares a lazily created component. Its dependencies are created first, outside its own
+     * trace section, so sections never nest and each one measures only its own stage.
+     */
+    public <T> Stage<T> stage(String name, Initializer<T> initializer, Stage<?>... dependencies) {
+        return new Stage<>(name, initializer, dependencies);
+    }
+
+    /**
+     * Runs and records a startup step that is not a component, such as applying the theme.
+     */
+    public void trace(String name, Runnable step) {
+        long startMs = SystemClock.uptimeMillis();
+        long start = System.nanoTime();
+        Trace.beginSection(TRACE_PREFIX + name);
+        try {
+            step.run();
+        } finally {
+            Trace.endSection();
+            record(name, startMs, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Starts watching for the first drawn activity frame. Call from {@link Application#onCreate}.
+     */
+    public void watchFirstFrame(Application application) {
+        application.registerActivityLifecycleCallbacks(new FirstFrameCallbacks(application));
+        mainHandler.postDelayed(firstFrameTimeout, FIRST_FRAME_TIMEOUT_MS);
+    }
+
+    /**
+     * Runs the task on the main thread once the first activity frame is drawn, or right away
+     * if that already happened. The task should only hand work to background lanes.
+     */
+    public void runAfterFirstFrame(Runnable task) {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            mainHandler.post(() -> runAfterFirstFrame(task));
+            return;
+        }
+        if (firstFrameDrawn) {
+            task.run();
+        } else {
+            afterFirstFrame.add(task);
+        }
+    }
+
+    public List<Timing> getTimings() {
+        synchronized (timings) {
+            return new ArrayList<>(timings);
+        }
+    }
+
+    /**
+     * Writes the recorded stages in the order they finished, with start times relative to the
+     * creation of this object.
+     */
+    public void dump(Writer out) throws IOException {
+        out.write("Startup\n");
+        for (Timing timing : getTimings()) {
+            out.write(String.format(Locale.ROOT, "  %-24s +%5d ms  %8.2f ms  %s%n", timing.name,
+                timing.startMs - processStartMs,
+                timing.durationNanos / (double) TimeUnit.MILLISECONDS.toNanos(1), timing.thread));
+        }
+    }
+
+    private void record(String name, long startMs, long durationNanos) {
+        synchronized (timings) {
+            timings.add(new Timing(name, Thread.currentThread().getName(), startMs, durationNanos));
+        }
+    }
+
+    private void onFirstFrame() {
+        if (firstFrameDrawn) {
+            return;
+        }
+        firstFrameDrawn = true;
+        // Only the timeout; the handler also carries tasks re-posted by runAfterFirstFrame
+        mainHandler.removeCallbacks(firstFrameTimeout);
+        record("first-frame", processStartMs, TimeUnit.MILLISECONDS.toNanos(
+            SystemClock.uptimeMillis() - processStartMs));
+        for (Runnable task : afterFirstFrame) {
+            task.run();
+        }
+        afterFirstFrame.clear();
+    }
+
+    /**
+     * A component created on first {@link #get()}. Safe to call from any thread; a caller that
+     * arrives while another thread is creating the component waits for it.
+     */
+    public final class Stage<T> {
+        private final String name;
+        private final Initializer<T> initializer;
+        private final Stage<?>[] dependencies;
+        private volatile T value;
+
+        private Stage(String name, Initializer<T> initializer, Stage<?>[] dependencies) {
+            this.name = name;
+            this.initializer = initializer;
+            this.dependencies = dependencies;
+        }
+
+        public T get() {
+            T current = value;
+            if (current != null) {
+                return current;
+            }
+            for (Stage<?> dependency : dependencies) {
+                dependency.get();
+            }
+            synchronized (this) {
+                if (value == null) {
+                    long startMs = SystemClock.uptimeMillis();
+                    long start = System.nanoTime();
+                    Trace.beginSection(TRACE_PREFIX + name);
+                    try {
+                        value = initializer.create(context);
+                    } finally {
+                        Trace.endSection();
+                        record(name, startMs, System.nanoTime() - start);
+                    }
+                }
+                return value;
+            }
+        }
+
+        /**
+         * Returns the component if something already created it, without creating it.
+         */
+        @Nullable
+        public T getIfCreated() {
+            return value;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private final class FirstFrameCallbacks implements Application.ActivityLifecycleCallbacks {
+        private final Application application;
+
+        FirstFrameCallbacks(Application application) {
+            this.application = application;
+        }
+
+        @Override
+        public void onActivityResumed(@NonNull Activity activity) {
+            application.unregisterActivityLifecycleCallbacks(this);
+            View decor = activity.getWindow().getDecorView();
+            decor.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+                @Override
+                public void onDraw() {
+                    // Listeners cannot be removed during dispatch, and the frame is not out yet
+                    mainHandler.postAtFrontOfQueue(() -> {
+                        if (decor.getViewTreeObserver().isAlive()) {
+                            decor.getViewTreeObserver().removeOnDrawListener(this);
+                        }
+                        onFirstFrame();
+                    });
+                }
+            });
+        }
+
+        @Override
+        public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+        }
+
+        @Override
+        public void onActivityStarted(@NonNull Activity activity) {
+        }
+
+        @Override
+        public void onActivityPaused(@NonNull Activity activity) {
+        }
+
+        @Override
+        public void onActivityStopped(@NonNull Activity activity) {
+        }
+
+        @Override
+        public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+        }
+
+        @Override
+        public void onActivityDestroyed(@NonNull Activity activity) {
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.kemham.kartukompetensi.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 CSV reader.
+ *
+ * Reads one record at a time from a fixed-size buffer, so memory use does not depend on file
+ * size. Supports quoted fields with embedded separators, quotes and line breaks, CRLF or LF line
+ * endings, and a leading UTF-8 byte order mark.
+ */
+public class CsvReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final char BOM = '\uFEFF';
+
+    private final Reader reader;
+    private final char separator;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder field = new StringBuilder(64);
+    private int position;
+    private int limit;
+    private boolean started;
+    private long lineNumber;
+
+    public CsvReader(Reader reader) {
+        this(reader, ',');
+    }
+
+    public CsvReader(Reader reader, char separator) {
+        this.reader = reader;
+        this.separator = separator;
+    }
+
+    /**
+     * Reads the next record.
+     * @return The fields of the record, or null at end of input
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        if (!started) {
+            started = true;
+            if (c == BOM) {
+                c = read();
+                if (c == -1) {
+                    return null;
+                }
+            }
+        }
+
+        List<String> record = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean fieldWasQuoted = false;
+        lineNumber++;
+
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0 && !fieldWasQuoted) {
+                quoted = true;
+                fieldWasQuoted = true;
+            } else if (c == separator) {
+                record.add(field.toString());
+                field.setLength(0);
+                fieldWasQuoted = false;
+            } else if (c == '\r') {
+                int next = read();
+                if (next != '\n') {
+                    unread();
+                }
+                break;
+            } else if (c == '\n') {
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+
+        record.add(field.toString());
+        return record;
+    }
+
+    /**
+     * Returns the line number on which the last record returned by {@link #readRecord()} ended.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    private void unread() {
+        if (position > 0) {
+            position--;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
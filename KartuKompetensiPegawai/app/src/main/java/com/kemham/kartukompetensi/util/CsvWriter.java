@@ -0,0 +1,76 @@
+package com.kemham.kartukompetensi.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RFC 4180 CSV writer. Output is UTF-8 with a byte order mark so spreadsheet apps detect the
+ * encoding; {@link CsvReader} skips the mark when reading the file back.
+ */
+public class CsvWriter implements TableWriter {
+
+    private final Writer writer;
+    private final char separator;
+
+    public CsvWriter(OutputStream out) throws IOException {
+        this(out, ',');
+    }
+
+    public CsvWriter(OutputStream out, char separator) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.separator = separator;
+        writer.write('\uFEFF');
+    }
+
+    @Override
+    public void writeHeader(String[] columns) throws IOException {
+        writeRow(columns);
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(separator);
+            }
+            if (values[i] != null) {
+                writeField(values[i].toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == separator || c == '"' || c == '\n' || c == '\r') {
+                needsQuotes = true;
+                break;
+            }
+        }
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
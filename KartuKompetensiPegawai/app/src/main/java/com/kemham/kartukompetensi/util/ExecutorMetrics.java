@@ -0,0 +1,189 @@
+package com.kemham.kartukompetensi.util;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-task metrics for the application's executors.
+ *
+ * Every task is recorded under its lane and a caller tag: how long it waited between being queued
+ * and starting, how long it ran, and whether it failed. Rejected submissions are counted per lane.
+ * All recording is lock-free, so instrumentation does not change the contention it measures.
+ */
+public class ExecutorMetrics {
+
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    private final ConcurrentHashMap<String, TaskStats> tasks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> rejections = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<?>, String> tagCache = new ConcurrentHashMap<>();
+    private volatile long sinceMillis = System.currentTimeMillis();
+
+    /**
+     * Latency and failure counts for one lane and caller tag.
+     */
+    public static class TaskStats {
+        private final String lane;
+        private final String tag;
+        private final LatencyHistogram queueLatency = new LatencyHistogram();
+        private final LatencyHistogram runTime = new LatencyHistogram();
+        private final AtomicLong failures = new AtomicLong();
+
+        TaskStats(String lane, String tag) {
+            this.lane = lane;
+            this.tag = tag;
+        }
+
+        public String getLane() {
+            return lane;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+
+        /**
+         * Time from enqueue to start.
+         */
+        public LatencyHistogram getQueueLatency() {
+            return queueLatency;
+        }
+
+        public LatencyHistogram getRunTime() {
+            return runTime;
+        }
+
+        public long getFailures() {
+            return failures.get();
+        }
+    }
+
+    /**
+     * Records one finished task.
+     */
+    public void record(String lane, String tag, long queueNanos, long runNanos, boolean failed) {
+        String key = lane + '/' + tag;
+        TaskStats stats = tasks.get(key);
+        if (stats == null) {
+            TaskStats created = new TaskStats(lane, tag);
+            stats = tasks.putIfAbsent(key, created);
+            if (stats == null) {
+                stats = created;
+            }
+        }
+        stats.queueLatency.recordNanos(queueNanos);
+        stats.runTime.recordNanos(runNanos);
+        if (failed) {
+            stats.failures.incrementAndGet();
+        }
+    }
+
+    public void recordRejection(String lane) {
+        AtomicLong count = rejections.get(lane);
+        if (count == null) {
+            AtomicLong created = new AtomicLong();
+            count = rejections.putIfAbsent(lane, created);
+            if (count == null) {
+                count = created;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    /**
+     * Derives a caller tag from a task object. Lambdas and method references compile to classes
+     * named after the class that created them, so this names the caller without a stack walk.
+     */
+    public String tagOf(Object task) {
+        Class<?> type = task.getClass();
+        String tag = tagCache.get(type);
+        if (tag == null) {
+            tag = simplify(type.getName());
+            tagCache.put(type, tag);
+        }
+        return tag;
+    }
+
+    private static String simplify(String className) {
+        String name = className.substring(className.lastIndexOf('.') + 1);
+        // Outer$$Lambda$12, Outer$$ExternalSyntheticLambda3, Outer$1, Outer$Inner
+        int synthetic = name.indexOf("$$");
+        if (synthetic > 0) {
+            name = name.substring(0, synthetic);
+        }
+        int inner = name.indexOf('$');
+        if (inner > 0 && inner + 1 < name.length() && Character.isDigit(name.charAt(inner + 1))) {
+            name = name.substring(0, inner);
+        }
+        return name.startsWith("-") ? name.substring(1) : name;
+    }
+
+    public List<TaskStats> getTaskStats() {
+        List<TaskStats> list = new ArrayList<>(tasks.values());
+        Collections.sort(list, (a, b) -> {
+            int byLane = a.lane.compareTo(b.lane);
+            return byLane != 0 ? byLane : Long.compare(b.runTime.getCount(), a.runTime.getCount());
+        });
+        return list;
+    }
+
+    public Map<String, AtomicLong> getRejections() {
+        return Collections.unmodifiableMap(rejections);
+    }
+
+    public void reset() {
+        tasks.clear();
+        rejections.clear();
+        sinceMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Writes a plain-text report of every lane and tag.
+     */
+    public void dump(Writer out) throws IOException {
+        long elapsedSeconds = (System.currentTimeMillis() - sinceMillis) / 1000;
+        out.write("Executor metrics over the last " + elapsedSeconds + "s (times in ms)\n\n");
+        out.write(String.format(Locale.ROOT, "%-34s %8s %6s  %-26s  %-26s%n",
+            "lane/tag", "count", "failed", "wait p50/p90/p99/max", "run p50/p90/p99/max"));
+        for (TaskStats stats : getTaskStats()) {
+            out.write(String.format(Locale.ROOT, "%-34s %8d %6d  %-26s  %-26s%n",
+                stats.lane + '/' + stats.tag,
+                stats.runTime.getCount(),
+                stats.failures.get(),
+                formatPercentiles(stats.queueLatency),
+                formatPercentiles(stats.runTime)));
+        }
+
+        out.write("\nRejected submissions\n");
+        if (rejections.isEmpty()) {
+            out.write("  none\n");
+        }
+        for (Map.Entry<String, AtomicLong> entry : rejections.entrySet()) {
+            out.write("  " + entry.getKey() + ": " + entry.getValue().get() + "\n");
+        }
+    }
+
+    @NonNull
+    private static String formatPercentiles(LatencyHistogram histogram) {
+        StringBuilder sb = new StringBuilder();
+        for (double percentile : PERCENTILES) {
+            sb.append(formatMillis(histogram.getPercentileMicros(percentile))).append('/');
+        }
+        return sb.append(formatMillis(histogram.getMaxMicros())).toString();
+    }
+
+    private static String formatMillis(long micros) {
+        return micros < 10_000
+            ? String.format(Locale.ROOT, "%.1f", micros / 1000.0)
+            : String.valueOf(micros / 1000);
+    }
+}
@@ -0,0 +1,92 @@
+package com.kemham.kartukompetensi.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSON Lines writer: one JSON object per row, keyed by the header columns.
+ */
+public class JsonLinesWriter implements TableWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Writer writer;
+    private String[] keys;
+
+    public JsonLinesWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void writeHeader(String[] columns) {
+        keys = columns.clone();
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        if (keys == null) {
+            throw new IllegalStateException("writeHeader must be called before writeRow");
+        }
+
+        writer.write('{');
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeString(keys[i]);
+            writer.write(':');
+
+            Object value = i < values.length ? values[i] : null;
+            if (value == null) {
+                writer.write("null");
+            } else if (value instanceof Number) {
+                writer.write(value.toString());
+            } else {
+                writeString(value.toString());
+            }
+        }
+        writer.write("}\n");
+    }
+
+    private void writeString(String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        writer.write("\\u00");
+                        writer.write(HEX[c >> 4]);
+                        writer.write(HEX[c & 0xF]);
+                    } else {
+                        writer.write(c);
+                    }
+            }
+        }
+        writer.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
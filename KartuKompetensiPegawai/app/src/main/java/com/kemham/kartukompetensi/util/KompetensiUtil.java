@@ -11,6 +11,9 @@ import com.kemham.kartukompetensi.model.Skill;
 import com.kemham.kartukompetensi.model.Employee;
 
 import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
@@ -21,6 +24,8 @@ public class KompetensiUtil {
 
     private static final NumberFormat scoreFormat;
     private static final NumberFormat percentFormat;
+    private static final SimpleDateFormat displayDateFormat =
+        new SimpleDateFormat(AppSettings.DATE_FORMAT_DISPLAY, new Locale("id"));
 
     static {
         scoreFormat = NumberFormat.getInstance(new Locale("id"));
@@ -45,6 +50,15 @@ public class KompetensiUtil {
         return percentFormat.format(value / 100.0);
     }
 
+    /**
+     * Formats a date for display, e.g. "01 Juli 2024"
+     */
+    public static String formatDate(Date date) {
+        synchronized (displayDateFormat) {
+            return displayDateFormat.format(date);
+        }
+    }
+
     /**
      * Gets the color for a score value
      */
@@ -70,15 +84,24 @@ public class KompetensiUtil {
      */
     @ColorInt
     public static int getProgressColor(Context context, int score, int target) {
+        return ContextCompat.getColor(context, getProgressColorRes(score, target));
+    }
+
+    /**
+     * Gets the progress color resource for a score relative to target, for callers that cache
+     * resolved colors
+     */
+    @ColorRes
+    public static int getProgressColorRes(int score, int target) {
         float progress = (float) score / target;
         if (progress >= 1.0f) {
-            return ContextCompat.getColor(context, R.color.progress_complete);
+            return R.color.progress_complete;
         } else if (progress >= 0.8f) {
-            return ContextCompat.getColor(context, R.color.progress_good);
+            return R.color.progress_good;
         } else if (progress >= 0.6f) {
-            return ContextCompat.getColor(context, R.color.progress_average);
+            return R.color.progress_average;
         } else {
-            return ContextCompat.getColor(context, R.color.progress_poor);
+            return R.color.progress_poor;
         }
     }
 
@@ -132,6 +155,52 @@ public class KompetensiUtil {
         return (double) completed / skills.size() * 100.0;
     }
 
+    /**
+     * Calculates total score as a percentage of total target for a list of skills
+     */
+    public static int calculateOverallProgress(List<Skill> skills) {
+        if (skills == null || skills.isEmpty()) {
+            return 0;
+        }
+
+        // Long, so a million skills cannot overflow the scaled total
+        long totalScore = 0;
+        long totalTarget = 0;
+
+        for (Skill skill : skills) {
+            totalScore += skill.getScore();
+            totalTarget += skill.getTargetScore();
+        }
+
+        return totalTarget > 0 ? (int) ((totalScore * 100) / totalTarget) : 0;
+    }
+
+    /**
+     * Returns a copy of the skills without those below the minimum score, in the given sort order
+     */
+    public static List<Skill> filterAndSortSkills(List<Skill> skills, int minScore,
+                                                  @AppSettings.SortOrder String sortOrder) {
+        if (skills == null) return new ArrayList<>();
+
+        List<Skill> filteredSkills = new ArrayList<>(skills);
+
+        // Apply minimum score filter if enabled
+        if (minScore > AppSettings.MIN_SCORE) {
+            filteredSkills.removeIf(skill -> skill.getScore() < minScore);
+        }
+
+        // Sort based on preference
+        if (AppSettings.SORT_SCORE_DESC.equals(sortOrder)) {
+            filteredSkills.sort((s1, s2) -> Integer.compare(s2.getScore(), s1.getScore()));
+        } else if (AppSettings.SORT_SCORE_ASC.equals(sortOrder)) {
+            filteredSkills.sort((s1, s2) -> Integer.compare(s1.getScore(), s2.getScore()));
+        } else {
+            filteredSkills.sort((s1, s2) -> s1.getName().compareTo(s2.getName()));
+        }
+
+        return filteredSkills;
+    }
+
     /**
      * Gets the development priority level based on score gap
      */
@@ -172,6 +241,42 @@ public class KompetensiUtil {
         return nip != null && nip.matches("\\d{18}");
     }
 
+    /**
+     * Returns the upper-cased first letters of the first two words of a name, e.g.
+     * "siti rahmawati, S.H." -> "SR". Scans the name once without splitting it.
+     */
+    public static String getInitials(String name) {
+        if (name == null) {
+            return "";
+        }
+        char[] initials = new char[2];
+        int count = 0;
+        boolean wordStart = true;
+        for (int i = 0; i < name.length() && count < initials.length; i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c)) {
+                wordStart = true;
+            } else if (wordStart) {
+                initials[count++] = Character.toUpperCase(c);
+                wordStart = false;
+            }
+        }
+        return new String(initials, 0, count);
+    }
+
+    /**
+     * Formats a NIP for display: 198501012010011001 -> 19850101 201001 1 001
+     */
+    public static String formatNip(String nip) {
+        if (nip == null || nip.length() != 18) {
+            return nip;
+        }
+        return nip.substring(0, 8) + " " +
+               nip.substring(8, 14) + " " +
+               nip.substring(14, 15) + " " +
+               nip.substring(15);
+    }
+
     /**
      * Gets the development status message based on progress
      */
@@ -1,15 +1,44 @@
 package com.kemham.kartukompetensi.util;
 
 import android.content.Context;
-import android.content.SharedPreferences;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
 /**
  * Utility class for managing application preferences and settings.
+ *
+ * <p>All settings are held in an immutable {@link Settings} snapshot that getters read without
+ * locking. Changes go through {@link #edit()}: a batch of changes replaces the snapshot, is
+ * published through {@link #getSettings()} and is saved once in the background. The
+ * single-value setters are one-change batches.
+ *
+ * <p>Settings live in a {@link SettingsStore} file that loads on the read lane while the app
+ * starts. Dark mode and the first-launch flag come from the store's boot file and are available
+ * at once. Nothing waits for the rest on the main thread: {@link #getSettings()} emits once the
+ * load finishes, changes made before then are applied on top of the stored values, and the other
+ * getters may only wait on a background thread. If the file cannot be read,
+ * {@link #getLoadState()} reports {@link LoadState#FAILED} and the defaults are used until the
+ * next change replaces the file.
  */
 public class PreferenceManager {
-    private static final String PREF_NAME = "kartu_kompetensi_prefs";
+    private static final String TAG = "PreferenceManager";
     private static volatile PreferenceManager instance;
-    private final SharedPreferences preferences;
+    private final SettingsStore store;
 
     // Preference keys
     private static final String KEY_LAST_SELECTED_EMPLOYEE = "last_selected_employee";
@@ -20,10 +49,51 @@ public class PreferenceManager {
     private static final String KEY_REFRESH_INTERVAL = "refresh_interval";
     private static final String KEY_NOTIFICATION_ENABLED = "notification_enabled";
     private static final String KEY_LANGUAGE = "language";
+    private static final String KEY_FIRST_LAUNCH = "first_launch";
+
+    // Defaults
+    private static final String DEFAULT_SKILL_SORT_ORDER = "name_asc";
+    private static final int DEFAULT_REFRESH_INTERVAL = 30;
+    private static final String DEFAULT_LANGUAGE = "id";
+
+    /**
+     * Progress of reading the settings file.
+     */
+    public enum LoadState {
+        LOADING,
+        LOADED,
+        // The file could not be read; defaults are in use and the next change replaces the file
+        FAILED
+    }
+
+    // Serializes changes; readers only touch the volatile snapshot
+    private final Object writeLock = new Object();
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    // Changes made while loading, applied to the stored values in order; guarded by writeLock
+    private final List<UnaryOperator<Settings>> changedWhileLoading = new ArrayList<>();
+    // Newest snapshot not yet saved; saves in between are skipped
+    private final AtomicReference<Settings> pendingSave = new AtomicReference<>();
+    private volatile Settings settings;
+    private final MutableLiveData<Settings> settingsData;
+    private final MutableLiveData<LoadState> loadState;
 
     private PreferenceManager(Context context) {
-        preferences = context.getApplicationContext()
-            .getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        store = new SettingsStore(context);
+        SettingsStore.Boot boot = store.readBoot();
+        if (boot == null) {
+            // First launch or not migrated yet; the load is a few existence checks or a one-time migration
+            Settings stored = readStore();
+            settings = stored != null ? stored : Settings.DEFAULTS;
+            loaded.countDown();
+            settingsData = new MutableLiveData<>(settings);
+            loadState = new MutableLiveData<>(stored != null ? LoadState.LOADED : LoadState.FAILED);
+        } else {
+            settings = Settings.DEFAULTS.withBoot(boot.darkMode, boot.firstLaunch);
+            // No value until the load finishes, so observers never take the defaults for settings
+            settingsData = new MutableLiveData<>();
+            loadState = new MutableLiveData<>(LoadState.LOADING);
+            AppExecutors.getInstance().reads().execute(Priority.INTERACTIVE, "settings-load", this::load);
+        }
     }
 
     public static PreferenceManager getInstance(Context context) {
@@ -37,134 +107,527 @@ public class PreferenceManager {
         return instance;
     }
 
+    /**
+     * Returns the instance created by {@link #getInstance(Context)} when the application started.
+     */
+    public static PreferenceManager getInstance() {
+        PreferenceManager manager = instance;
+        if (manager == null) {
+            throw new IllegalStateException("PreferenceManager is not initialized");
+        }
+        return manager;
+    }
+
+    /**
+     * Returns the current settings; the snapshot does not change afterwards. While the store is
+     * still loading this waits on a background thread and throws on the main thread, which
+     * should observe {@link #getSettings()} instead. The other getters behave the same, except
+     * {@link #isDarkMode()} and {@link #isFirstLaunch()}.
+     */
+    @NonNull
+    public Settings getSnapshot() {
+        return loadedSettings();
+    }
+
+    /**
+     * Emits the settings once they are loaded, and after every batch that changed at least one
+     * value.
+     */
+    public LiveData<Settings> getSettings() {
+        return settingsData;
+    }
+
+    public LiveData<LoadState> getLoadState() {
+        return loadState;
+    }
+
+    /**
+     * Whether the getters can answer without waiting.
+     */
+    public boolean isLoaded() {
+        return loaded.getCount() == 0;
+    }
+
+    /**
+     * Starts a batch of changes that is written once by {@link Batch#apply()}.
+     */
+    public Batch edit() {
+        return new Batch();
+    }
+
     // Last selected employee
     public void setLastSelectedEmployee(String nip) {
-        preferences.edit().putString(KEY_LAST_SELECTED_EMPLOYEE, nip).apply();
+        edit().setLastSelectedEmployee(nip).apply();
     }
 
     public String getLastSelectedEmployee() {
-        return preferences.getString(KEY_LAST_SELECTED_EMPLOYEE, null);
+        return loadedSettings().lastSelectedEmployee;
     }
 
     // Skill sort order
     public void setSkillSortOrder(String order) {
-        preferences.edit().putString(KEY_SKILL_SORT_ORDER, order).apply();
+        edit().setSkillSortOrder(order).apply();
     }
 
     public String getSkillSortOrder() {
-        return preferences.getString(KEY_SKILL_SORT_ORDER, "name_asc");
+        return loadedSettings().skillSortOrder;
     }
 
     // Minimum skill score filter
     public void setMinimumSkillScore(int score) {
-        preferences.edit().putInt(KEY_MIN_SKILL_SCORE, score).apply();
+        edit().setMinimumSkillScore(score).apply();
     }
 
     public int getMinimumSkillScore() {
-        return preferences.getInt(KEY_MIN_SKILL_SCORE, AppSettings.MIN_SCORE);
+        return loadedSettings().minimumSkillScore;
     }
 
     // Dark mode
     public void setDarkMode(boolean enabled) {
-        preferences.edit().putBoolean(KEY_DARK_MODE, enabled).apply();
+        edit().setDarkMode(enabled).apply();
     }
 
     public boolean isDarkMode() {
-        return preferences.getBoolean(KEY_DARK_MODE, false);
+        return settings.darkMode;
     }
 
     // Auto refresh
     public void setAutoRefresh(boolean enabled) {
-        preferences.edit().putBoolean(KEY_AUTO_REFRESH, enabled).apply();
+        edit().setAutoRefresh(enabled).apply();
     }
 
     public boolean isAutoRefreshEnabled() {
-        return preferences.getBoolean(KEY_AUTO_REFRESH, true);
+        return loadedSettings().autoRefresh;
     }
 
     // Refresh interval (in minutes)
     public void setRefreshInterval(int minutes) {
-        preferences.edit().putInt(KEY_REFRESH_INTERVAL, minutes).apply();
+        edit().setRefreshInterval(minutes).apply();
     }
 
     public int getRefreshInterval() {
-        return preferences.getInt(KEY_REFRESH_INTERVAL, 30);
+        return loadedSettings().refreshInterval;
     }
 
     // Notifications
     public void setNotificationsEnabled(boolean enabled) {
-        preferences.edit().putBoolean(KEY_NOTIFICATION_ENABLED, enabled).apply();
+        edit().setNotificationsEnabled(enabled).apply();
     }
 
     public boolean areNotificationsEnabled() {
-        return preferences.getBoolean(KEY_NOTIFICATION_ENABLED, true);
+        return loadedSettings().notificationsEnabled;
     }
 
     // Language
     public void setLanguage(String language) {
-        preferences.edit().putString(KEY_LANGUAGE, language).apply();
+        edit().setLanguage(language).apply();
     }
 
     public String getLanguage() {
-        return preferences.getString(KEY_LANGUAGE, "id");
+        return loadedSettings().language;
     }
 
     /**
      * Resets all preferences to their default values
      */
     public void resetToDefaults() {
-        preferences.edit()
-            .remove(KEY_LAST_SELECTED_EMPLOYEE)
-            .remove(KEY_SKILL_SORT_ORDER)
-            .remove(KEY_MIN_SKILL_SCORE)
-            .remove(KEY_DARK_MODE)
-            .remove(KEY_AUTO_REFRESH)
-            .remove(KEY_REFRESH_INTERVAL)
-            .remove(KEY_NOTIFICATION_ENABLED)
-            .remove(KEY_LANGUAGE)
-            .apply();
+        // Resetting does not make the next launch a first launch again
+        update(current -> Settings.DEFAULTS.withBoot(Settings.DEFAULTS.darkMode, current.firstLaunch));
     }
 
     /**
      * Checks if this is the first launch of the app
      */
     public boolean isFirstLaunch() {
-        return preferences.getBoolean("first_launch", true);
+        return settings.firstLaunch;
     }
 
     /**
      * Marks the first launch as completed
      */
     public void setFirstLaunchComplete() {
-        preferences.edit().putBoolean("first_launch", false).apply();
+        edit().setFirstLaunch(false).apply();
+    }
+
+    /**
+     * Gets all preferences as a map for backup purposes, keyed like the old preferences file
+     */
+    public Map<String, ?> getAll() {
+        return loadedSettings().toMap();
+    }
+
+    /**
+     * Imports preferences from a map (for restore purposes). Keys missing from the map keep
+     * their current value.
+     */
+    public void importPreferences(Map<String, ?> prefs) {
+        Map<String, Object> values = new HashMap<>(prefs);
+        update(current -> current.merge(values));
+    }
+
+    private void load() {
+        Settings stored = readStore();
+        synchronized (writeLock) {
+            if (stored != null) {
+                settings = stored;
+            }
+            loaded.countDown();
+            for (UnaryOperator<Settings> change : changedWhileLoading) {
+                commit(change.apply(settings));
+            }
+            changedWhileLoading.clear();
+            // Always emitted, even if the stored values equal the boot defaults
+            settingsData.postValue(settings);
+        }
+        loadState.postValue(stored != null ? LoadState.LOADED : LoadState.FAILED);
+    }
+
+    /**
+     * Reads the store. Returns null if the file could not be read.
+     */
+    @Nullable
+    private Settings readStore() {
+        try {
+            return store.load();
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Failed to load settings, using defaults", e);
+            return null;
+        }
+    }
+
+    /**
+     * Applies a change to the current settings, or to the stored ones once they are loaded.
+     * Never waits for the load.
+     */
+    private void update(UnaryOperator<Settings> change) {
+        synchronized (writeLock) {
+            if (loaded.getCount() > 0) {
+                changedWhileLoading.add(change);
+            } else {
+                commit(change.apply(settings));
+            }
+        }
+    }
+
+    private Settings loadedSettings() {
+        if (loaded.getCount() > 0) {
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                throw new IllegalStateException("Settings are still loading; observe getSettings()");
+            }
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    loaded.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return settings;
+    }
+
+    // Call with writeLock held
+    private void commit(Settings next) {
+        if (!publish(next)) {
+            return;
+        }
+        if (pendingSave.getAndSet(next) == null) {
+            AppExecutors.getInstance().writes().execute(Priority.BACKGROUND, "settings-save", () -> {
+                Settings latest = pendingSave.getAndSet(null);
+                if (latest == null) {
+                    return;
+                }
+                try {
+                    store.save(latest);
+                } catch (IOException e) {
+                    Log.w(TAG, "Failed to save settings", e);
+                }
+            });
+        }
+    }
+
+    private boolean publish(Settings next) {
+        if (next.equals(settings)) {
+            return false;
+        }
+        settings = next;
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            settingsData.setValue(next);
+        } else {
+            settingsData.postValue(next);
+        }
+        return true;
     }
 
     /**
-     * Gets all preferences as a map for backup purposes
+     * A set of changes applied together. Only the values set on the batch are changed, so
+     * batches built at the same time on different threads do not undo each other.
      */
-    public java.util.Map<String, ?> getAll() {
-        return preferences.getAll();
+    public final class Batch {
+        private static final int LAST_SELECTED_EMPLOYEE = 1;
+        private static final int SKILL_SORT_ORDER = 1 << 1;
+        private static final int MIN_SKILL_SCORE = 1 << 2;
+        private static final int DARK_MODE = 1 << 3;
+        private static final int AUTO_REFRESH = 1 << 4;
+        private static final int REFRESH_INTERVAL = 1 << 5;
+        private static final int NOTIFICATION_ENABLED = 1 << 6;
+        private static final int LANGUAGE = 1 << 7;
+        private static final int FIRST_LAUNCH = 1 << 8;
+
+        private int changed;
+        private String lastSelectedEmployee;
+        private String skillSortOrder;
+        private int minimumSkillScore;
+        private boolean darkMode;
+        private boolean autoRefresh;
+        private int refreshInterval;
+        private boolean notificationsEnabled;
+        private String language;
+        private boolean firstLaunch;
+
+        private Batch() {
+        }
+
+        public Batch setLastSelectedEmployee(String nip) {
+            lastSelectedEmployee = nip;
+            changed |= LAST_SELECTED_EMPLOYEE;
+            return this;
+        }
+
+        public Batch setSkillSortOrder(String order) {
+            skillSortOrder = order;
+            changed |= SKILL_SORT_ORDER;
+            return this;
+        }
+
+        public Batch setMinimumSkillScore(int score) {
+            minimumSkillScore = score;
+            changed |= MIN_SKILL_SCORE;
+            return this;
+        }
+
+        public Batch setDarkMode(boolean enabled) {
+            darkMode = enabled;
+            changed |= DARK_MODE;
+            return this;
+        }
+
+        public Batch setAutoRefresh(boolean enabled) {
+            autoRefresh = enabled;
+            changed |= AUTO_REFRESH;
+            return this;
+        }
+
+        public Batch setRefreshInterval(int minutes) {
+            refreshInterval = minutes;
+            changed |= REFRESH_INTERVAL;
+            return this;
+        }
+
+        public Batch setNotificationsEnabled(boolean enabled) {
+            notificationsEnabled = enabled;
+            changed |= NOTIFICATION_ENABLED;
+            return this;
+        }
+
+        public Batch setLanguage(String language) {
+            this.language = language;
+            changed |= LANGUAGE;
+            return this;
+        }
+
+        Batch setFirstLaunch(boolean firstLaunch) {
+            this.firstLaunch = firstLaunch;
+            changed |= FIRST_LAUNCH;
+            return this;
+        }
+
+        /**
+         * Publishes the new snapshot and saves it once in the background. While the store is
+         * loading, the batch is kept and applied to the stored values once they are read, so
+         * this never waits. The batch must not be changed afterwards.
+         */
+        public void apply() {
+            update(this::applyTo);
+        }
+
+        private Settings applyTo(Settings current) {
+            return new Settings(
+                has(LAST_SELECTED_EMPLOYEE) ? lastSelectedEmployee : current.lastSelectedEmployee,
+                has(SKILL_SORT_ORDER) ? skillSortOrder : current.skillSortOrder,
+                has(MIN_SKILL_SCORE) ? minimumSkillScore : current.minimumSkillScore,
+                has(DARK_MODE) ? darkMode : current.darkMode,
+                has(AUTO_REFRESH) ? autoRefresh : current.autoRefresh,
+                has(REFRESH_INTERVAL) ? refreshInterval : current.refreshInterval,
+                has(NOTIFICATION_ENABLED) ? notificationsEnabled : current.notificationsEnabled,
+                has(LANGUAGE) ? language : current.language,
+                has(FIRST_LAUNCH) ? firstLaunch : current.firstLaunch);
+        }
+
+        private boolean has(int field) {
+            return (changed & field) != 0;
+        }
     }
 
     /**
-     * Imports preferences from a map (for restore purposes)
+     * An immutable snapshot of every setting.
      */
-    public void importPreferences(java.util.Map<String, ?> prefs) {
-        SharedPreferences.Editor editor = preferences.edit();
-        for (java.util.Map.Entry<String, ?> entry : prefs.entrySet()) {
-            Object value = entry.getValue();
-            if (value instanceof String) {
-                editor.putString(entry.getKey(), (String) value);
-            } else if (value instanceof Integer) {
-                editor.putInt(entry.getKey(), (Integer) value);
-            } else if (value instanceof Boolean) {
-                editor.putBoolean(entry.getKey(), (Boolean) value);
-            } else if (value instanceof Long) {
-                editor.putLong(entry.getKey(), (Long) value);
-            } else if (value instanceof Float) {
-                editor.putFloat(entry.getKey(), (Float) value);
+    public static final class Settings {
+        static final Settings DEFAULTS = new Settings(null, DEFAULT_SKILL_SORT_ORDER,
+            AppSettings.MIN_SCORE, false, true, DEFAULT_REFRESH_INTERVAL, true, DEFAULT_LANGUAGE, true);
+
+        private final String lastSelectedEmployee;
+        private final String skillSortOrder;
+        private final int minimumSkillScore;
+        private final boolean darkMode;
+        private final boolean autoRefresh;
+        private final int refreshInterval;
+        private final boolean notificationsEnabled;
+        private final String language;
+        private final boolean firstLaunch;
+
+        Settings(String lastSelectedEmployee, String skillSortOrder, int minimumSkillScore,
+                 boolean darkMode, boolean autoRefresh, int refreshInterval,
+                 boolean notificationsEnabled, String language, boolean firstLaunch) {
+            this.lastSelectedEmployee = lastSelectedEmployee;
+            this.skillSortOrder = skillSortOrder;
+            this.minimumSkillScore = minimumSkillScore;
+            this.darkMode = darkMode;
+            this.autoRefresh = autoRefresh;
+            this.refreshInterval = refreshInterval;
+            this.notificationsEnabled = notificationsEnabled;
+            this.language = language;
+            this.firstLaunch = firstLaunch;
+        }
+
+        /**
+         * Builds settings from values keyed like the old preferences file. Missing or mistyped
+         * values are defaults.
+         */
+        static Settings fromMap(Map<String, ?> values) {
+            return DEFAULTS.merge(values);
+        }
+
+        /**
+         * Returns these settings with the values present in the map replaced.
+         */
+        Settings merge(Map<String, ?> values) {
+            return new Settings(
+                values.containsKey(KEY_LAST_SELECTED_EMPLOYEE)
+                    ? valueOf(values, KEY_LAST_SELECTED_EMPLOYEE, String.class, null) : lastSelectedEmployee,
+                valueOf(values, KEY_SKILL_SORT_ORDER, String.class, skillSortOrder),
+                valueOf(values, KEY_MIN_SKILL_SCORE, Integer.class, minimumSkillScore),
+                valueOf(values, KEY_DARK_MODE, Boolean.class, darkMode),
+                valueOf(values, KEY_AUTO_REFRESH, Boolean.class, autoRefresh),
+                valueOf(values, KEY_REFRESH_INTERVAL, Integer.class, refreshInterval),
+                valueOf(values, KEY_NOTIFICATION_ENABLED, Boolean.class, notificationsEnabled),
+                valueOf(values, KEY_LANGUAGE, String.class, language),
+                valueOf(values, KEY_FIRST_LAUNCH, Boolean.class, firstLaunch));
+        }
+
+        /**
+         * Returns every value keyed like the old preferences file. Unset values are left out.
+         */
+        Map<String, Object> toMap() {
+            Map<String, Object> values = new HashMap<>();
+            if (lastSelectedEmployee != null) {
+                values.put(KEY_LAST_SELECTED_EMPLOYEE, lastSelectedEmployee);
+            }
+            if (skillSortOrder != null) {
+                values.put(KEY_SKILL_SORT_ORDER, skillSortOrder);
             }
+            values.put(KEY_MIN_SKILL_SCORE, minimumSkillScore);
+            values.put(KEY_DARK_MODE, darkMode);
+            values.put(KEY_AUTO_REFRESH, autoRefresh);
+            values.put(KEY_REFRESH_INTERVAL, refreshInterval);
+            values.put(KEY_NOTIFICATION_ENABLED, notificationsEnabled);
+            if (language != null) {
+                values.put(KEY_LANGUAGE, language);
+            }
+            values.put(KEY_FIRST_LAUNCH, firstLaunch);
+            return values;
+        }
+
+        Settings withBoot(boolean darkMode, boolean firstLaunch) {
+            return new Settings(lastSelectedEmployee, skillSortOrder, minimumSkillScore, darkMode,
+                autoRefresh, refreshInterval, notificationsEnabled, language, firstLaunch);
+        }
+
+        private static <T> T valueOf(Map<String, ?> values, String key, Class<T> type, T fallback) {
+            Object value = values.get(key);
+            return type.isInstance(value) ? type.cast(value) : fallback;
+        }
+
+        @Nullable
+        public String getLastSelectedEmployee() {
+            return lastSelectedEmployee;
+        }
+
+        public String getSkillSortOrder() {
+            return skillSortOrder;
+        }
+
+        public int getMinimumSkillScore() {
+            return minimumSkillScore;
+        }
+
+        public boolean isDarkMode() {
+            return darkMode;
+        }
+
+        public boolean isAutoRefreshEnabled() {
+            return autoRefresh;
+        }
+
+        public int getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public boolean areNotificationsEnabled() {
+            return notificationsEnabled;
+        }
+
+        public String getLanguage() {
+            return language;
+        }
+
+        public boolean isFirstLaunch() {
+            return firstLaunch;
+        }
+
+        /**
+         * Whether skill lists filtered and sorted with {@code other} would come out the same.
+         */
+        public boolean sameSkillListOptions(@Nullable Settings other) {
+            return other != null
+                && minimumSkillScore == other.minimumSkillScore
+                && Objects.equals(skillSortOrder, other.skillSortOrder);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Settings)) return false;
+            Settings other = (Settings) o;
+            return minimumSkillScore == other.minimumSkillScore
+                && darkMode == other.darkMode
+                && autoRefresh == other.autoRefresh
+                && refreshInterval == other.refreshInterval
+                && notificationsEnabled == other.notificationsEnabled
+                && firstLaunch == other.firstLaunch
+                && Objects.equals(lastSelectedEmployee, other.lastSelectedEmployee)
+                && Objects.equals(skillSortOrder, other.skillSortOrder)
+                && Objects.equals(language, other.language);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(lastSelectedEmployee, skillSortOrder, minimumSkillScore, darkMode,
+                autoRefresh, refreshInterval, notificationsEnabled, language, firstLaunch);
         }
-        editor.apply();
     }
 }
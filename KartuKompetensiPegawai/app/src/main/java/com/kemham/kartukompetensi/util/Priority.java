@@ -0,0 +1,14 @@
+package com.kemham.kartukompetensi.util;
+
+/**
+ * Scheduling priority of a task submitted to an {@link AppExecutors} lane.
+ * Declared from most to least urgent.
+ */
+public enum Priority {
+    /** Work the user is waiting on: UI queries, saves, anything behind a spinner. */
+    INTERACTIVE,
+    /** User-started batch work such as imports and exports. */
+    BACKGROUND,
+    /** Periodic housekeeping nobody is waiting on. */
+    MAINTENANCE
+}
@@ -0,0 +1,424 @@
+package com.kemham.kartukompetensi.util;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed-size thread pool that runs queued tasks in {@link Priority} order, and in submission
+ * order within a priority.
+ *
+ * On a pool with more than one thread, non-interactive tasks may occupy at most all but one
+ * thread, so an interactive task never waits for a batch job to finish. Plain
+ * {@link #execute(Runnable)} and {@code submit} calls use the pool's default priority.
+ *
+ * When given an {@link ExecutorMetrics}, every task's queue latency and run time are recorded
+ * under the pool's name and a caller tag, and rejected submissions are counted.
+ */
+public class PriorityExecutor extends AbstractExecutorService {
+
+    private final String name;
+    private final int threadCount;
+    private final int maxNonInteractive;
+    private final Priority defaultPriority;
+    private final ExecutorMetrics metrics;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition taskAvailable = lock.newCondition();
+    private final Condition terminated = lock.newCondition();
+    private final PriorityQueue<Task<?>> queue = new PriorityQueue<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private long sequence;
+    private int running;
+    private int runningNonInteractive;
+    private int liveWorkers;
+    private boolean shutdown;
+
+    // Metrics, guarded by lock
+    private final int[] queued = new int[Priority.values().length];
+    private final long[] started = new long[Priority.values().length];
+    private final long[] totalWaitNanos = new long[Priority.values().length];
+    private final long[] maxWaitNanos = new long[Priority.values().length];
+
+    public PriorityExecutor(String name, int threadCount, Priority defaultPriority) {
+        this(name, threadCount, defaultPriority, null);
+    }
+
+    public PriorityExecutor(String name, int threadCount, Priority defaultPriority,
+                            ExecutorMetrics metrics) {
+        this.name = name;
+        this.metrics = metrics;
+        this.threadCount = threadCount;
+        this.maxNonInteractive = threadCount > 1 ? threadCount - 1 : 1;
+        this.defaultPriority = defaultPriority;
+        for (int i = 0; i < threadCount; i++) {
+            Thread worker = new Thread(this::runWorker, name + "-" + (i + 1));
+            worker.setDaemon(true);
+            workers.add(worker);
+        }
+        liveWorkers = threadCount;
+        for (Thread worker : workers) {
+            worker.start();
+        }
+    }
+
+    /**
+     * Runs the task with the given priority.
+     */
+    public void execute(Priority priority, Runnable command) {
+        if (command instanceof Task) {
+            enqueue((Task<?>) command);
+            return;
+        }
+        execute(priority, tagOf(command), command);
+    }
+
+    /**
+     * Runs the task with the given priority, recording its metrics under {@code tag}.
+     */
+    public void execute(Priority priority, String tag, Runnable command) {
+        Task<Void> task = new Task<>(priority, tag, command, null);
+        // Like ThreadPoolExecutor, a failure in a fire-and-forget task must not go unnoticed
+        task.reportsFailure = true;
+        enqueue(task);
+    }
+
+    public Future<?> submit(Priority priority, Runnable task) {
+        return submit(priority, tagOf(task), task);
+    }
+
+    public Future<?> submit(Priority priority, String tag, Runnable task) {
+        Task<Void> future = new Task<>(priority, tag, task, null);
+        enqueue(future);
+        return future;
+    }
+
+    public <T> Future<T> submit(Priority priority, Callable<T> task) {
+        return submit(priority, tagOf(task), task);
+    }
+
+    public <T> Future<T> submit(Priority priority, String tag, Callable<T> task) {
+        Task<T> future = new Task<>(priority, tag, task);
+        enqueue(future);
+        return future;
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        execute(defaultPriority, command);
+    }
+
+    @Override
+    protected <T> FutureTask<T> newTaskFor(Runnable runnable, T value) {
+        return new Task<>(defaultPriority, tagOf(runnable), runnable, value);
+    }
+
+    @Override
+    protected <T> FutureTask<T> newTaskFor(Callable<T> callable) {
+        return new Task<>(defaultPriority, tagOf(callable), callable);
+    }
+
+    private String tagOf(Object task) {
+        return metrics != null ? metrics.tagOf(task) : null;
+    }
+
+    private void enqueue(Task<?> task) {
+        lock.lock();
+        try {
+            if (shutdown) {
+                if (metrics != null) {
+                    metrics.recordRejection(name);
+                }
+                throw new RejectedExecutionException(name + " is shut down");
+            }
+            task.sequence = sequence++;
+            task.enqueuedAt = System.nanoTime();
+            queue.add(task);
+            queued[task.priority.ordinal()]++;
+            taskAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runWorker() {
+        while (true) {
+            Task<?> task;
+            long wait;
+            lock.lock();
+            try {
+                while ((task = pollRunnable()) == null) {
+                    if (shutdown && queue.isEmpty()) {
+                        if (--liveWorkers == 0) {
+                            terminated.signalAll();
+                        }
+                        return;
+                    }
+                    taskAvailable.awaitUninterruptibly();
+                }
+                int p = task.priority.ordinal();
+                wait = System.nanoTime() - task.enqueuedAt;
+                queued[p]--;
+                started[p]++;
+                totalWaitNanos[p] += wait;
+                maxWaitNanos[p] = Math.max(maxWaitNanos[p], wait);
+                running++;
+                if (task.priority != Priority.INTERACTIVE) {
+                    runningNonInteractive++;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            long startedAt = System.nanoTime();
+            try {
+                task.run();
+                if (task.reportsFailure && task.failure != null) {
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, task.failure);
+                }
+            } finally {
+                // Clear an interrupt from cancel(true) so it cannot leak into the next task
+                Thread.interrupted();
+                if (metrics != null) {
+                    metrics.record(name, task.tag, wait, System.nanoTime() - startedAt,
+                        task.failure != null);
+                }
+                lock.lock();
+                try {
+                    running--;
+                    if (task.priority != Priority.INTERACTIVE) {
+                        runningNonInteractive--;
+                    }
+                    taskAvailable.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes the next task this worker may run, keeping one thread free for interactive work.
+     */
+    private Task<?> pollRunnable() {
+        Task<?> head = queue.peek();
+        if (head == null) {
+            return null;
+        }
+        if (head.priority == Priority.INTERACTIVE || runningNonInteractive < maxNonInteractive) {
+            return queue.poll();
+        }
+        // The head is the most urgent task, so nothing interactive is waiting
+        return null;
+    }
+
+    // Metrics
+
+    /**
+     * Returns a snapshot of queue depth, wait times and throughput.
+     */
+    public Stats getStats() {
+        lock.lock();
+        try {
+            return new Stats(name, threadCount, running, queued.clone(), started.clone(),
+                totalWaitNanos.clone(), maxWaitNanos.clone());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of tasks waiting to start.
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static class Stats {
+        private final String name;
+        private final int threadCount;
+        private final int running;
+        private final int[] queued;
+        private final long[] started;
+        private final long[] totalWaitNanos;
+        private final long[] maxWaitNanos;
+
+        Stats(String name, int threadCount, int running, int[] queued, long[] started,
+              long[] totalWaitNanos, long[] maxWaitNanos) {
+            this.name = name;
+            this.threadCount = threadCount;
+            this.running = running;
+            this.queued = queued;
+            this.started = started;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getThreadCount() {
+            return threadCount;
+        }
+
+        public int getRunning() {
+            return running;
+        }
+
+        public int getQueued(Priority priority) {
+            return queued[priority.ordinal()];
+        }
+
+        public long getStarted(Priority priority) {
+            return started[priority.ordinal()];
+        }
+
+        /**
+         * Average time tasks of this priority spent queued before starting.
+         */
+        public long getAverageWaitMillis(Priority priority) {
+            int p = priority.ordinal();
+            return started[p] > 0 ? TimeUnit.NANOSECONDS.toMillis(totalWaitNanos[p] / started[p]) : 0;
+        }
+
+        public long getMaxWaitMillis(Priority priority) {
+            return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos[priority.ordinal()]);
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(name)
+                .append(": running=").append(running).append('/').append(threadCount);
+            for (Priority priority : Priority.values()) {
+                sb.append(", ").append(priority.name().toLowerCase(Locale.ROOT))
+                    .append("[queued=").append(getQueued(priority))
+                    .append(", avgWait=").append(getAverageWaitMillis(priority)).append("ms")
+                    .append(", maxWait=").append(getMaxWaitMillis(priority)).append("ms]");
+            }
+            return sb.toString();
+        }
+    }
+
+    // Lifecycle
+
+    @Override
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            taskAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @NonNull
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> pending;
+        lock.lock();
+        try {
+            shutdown = true;
+            pending = new ArrayList<>(queue);
+            queue.clear();
+            Arrays.fill(queued, 0);
+            taskAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        return pending;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        lock.lock();
+        try {
+            return shutdown;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isTerminated() {
+        lock.lock();
+        try {
+            return shutdown && liveWorkers == 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (!(shutdown && liveWorkers == 0)) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = terminated.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Task<T> extends FutureTask<T> implements Comparable<Task<?>> {
+        final Priority priority;
+        final String tag;
+        long sequence;
+        long enqueuedAt;
+        boolean reportsFailure;
+        Throwable failure;
+
+        Task(Priority priority, String tag, Callable<T> callable) {
+            super(callable);
+            this.priority = priority;
+            this.tag = tag;
+        }
+
+        Task(Priority priority, String tag, Runnable runnable, T result) {
+            super(runnable, result);
+            this.priority = priority;
+            this.tag = tag;
+        }
+
+        @Override
+        protected void setException(Throwable t) {
+            failure = t;
+            super.setException(t);
+        }
+
+        @Override
+        public int compareTo(Task<?> other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
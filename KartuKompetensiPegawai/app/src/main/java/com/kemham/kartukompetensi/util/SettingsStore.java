@@ -0,0 +1,194 @@
+package com.kemham.kartukompetensi.util;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.kemham.kartukompetensi.util.PreferenceManager.Settings;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * File storage behind {@link PreferenceManager}. The whole {@link Settings} snapshot is one small
+ * binary file, replaced atomically on every save. The settings needed before the first frame
+ * also go to a separate boot file of a few bytes, which startup reads without waiting for the
+ * rest. Settings still in the old {@code kartu_kompetensi_prefs} SharedPreferences file are moved
+ * here on the first load.
+ */
+final class SettingsStore {
+
+    private static final String TAG = "SettingsStore";
+
+    static final String FILE_NAME = "settings.bin";
+    static final String BOOT_FILE_NAME = "settings.boot";
+    static final String LEGACY_PREFS_NAME = "kartu_kompetensi_prefs";
+
+    private static final int VERSION = 1;
+    private static final int BOOT_VERSION = 1;
+    private static final int BOOT_DARK_MODE = 1;
+    private static final int BOOT_FIRST_LAUNCH = 1 << 1;
+
+    private final Context context;
+
+    SettingsStore(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * The startup-critical settings, read without touching the main file.
+     */
+    static final class Boot {
+        final boolean darkMode;
+        final boolean firstLaunch;
+
+        Boot(boolean darkMode, boolean firstLaunch) {
+            this.darkMode = darkMode;
+            this.firstLaunch = firstLaunch;
+        }
+    }
+
+    /**
+     * Reads the boot file. Returns null if there is none yet, such as on the first launch or
+     * before the old preferences are migrated; the caller then has to {@link #load()}.
+     */
+    @Nullable
+    Boot readBoot() {
+        byte[] bytes = new byte[2];
+        try (FileInputStream in = new FileInputStream(new File(context.getFilesDir(), BOOT_FILE_NAME))) {
+            if (in.read(bytes) != bytes.length || bytes[0] != BOOT_VERSION) {
+                return null;
+            }
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to read boot settings", e);
+            return null;
+        }
+        return new Boot((bytes[1] & BOOT_DARK_MODE) != 0, (bytes[1] & BOOT_FIRST_LAUNCH) != 0);
+    }
+
+    /**
+     * Reads every setting, migrating the old preferences file if this store has no file yet.
+     * @throws IOException if the file exists but cannot be read. The old preferences are long
+     *                     gone by then, so the caller falls back to defaults and the next save
+     *                     replaces the damaged file.
+     */
+    @WorkerThread
+    Settings load() throws IOException {
+        AtomicFile file = file();
+        if (file.getBaseFile().exists()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(file.openRead()))) {
+                return read(in);
+            }
+        }
+        Settings migrated = migrateLegacy();
+        return migrated != null ? migrated : Settings.DEFAULTS;
+    }
+
+    /**
+     * Replaces the stored settings. The main file is written first, so a crash in between leaves
+     * at worst a stale boot file, which the next load corrects.
+     */
+    @WorkerThread
+    void save(Settings settings) throws IOException {
+        AtomicFile file = file();
+        FileOutputStream out = file.startWrite();
+        try {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+            write(settings, data);
+            data.flush();
+            file.finishWrite(out);
+        } catch (IOException e) {
+            file.failWrite(out);
+            throw e;
+        }
+
+        AtomicFile boot = new AtomicFile(new File(context.getFilesDir(), BOOT_FILE_NAME));
+        FileOutputStream bootOut = boot.startWrite();
+        try {
+            int flags = (settings.isDarkMode() ? BOOT_DARK_MODE : 0)
+                | (settings.isFirstLaunch() ? BOOT_FIRST_LAUNCH : 0);
+            bootOut.write(new byte[] { BOOT_VERSION, (byte) flags });
+            boot.finishWrite(bootOut);
+        } catch (IOException e) {
+            boot.failWrite(bootOut);
+            throw e;
+        }
+    }
+
+    @Nullable
+    private Settings migrateLegacy() {
+        File legacyFile = new File(context.getDataDir(), "shared_prefs/" + LEGACY_PREFS_NAME + ".xml");
+        if (!legacyFile.exists()) {
+            return null;
+        }
+        SharedPreferences legacy = context.getSharedPreferences(LEGACY_PREFS_NAME, Context.MODE_PRIVATE);
+        Settings settings = Settings.fromMap(legacy.getAll());
+        try {
+            save(settings);
+            context.deleteSharedPreferences(LEGACY_PREFS_NAME);
+        } catch (IOException e) {
+            // Keep the old file so the next launch migrates again
+            Log.w(TAG, "Failed to migrate preferences", e);
+        }
+        return settings;
+    }
+
+    private AtomicFile file() {
+        return new AtomicFile(new File(context.getFilesDir(), FILE_NAME));
+    }
+
+    private static Settings read(DataInputStream in) throws IOException {
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported settings version " + version);
+        }
+        return new Settings(
+            readString(in),
+            readString(in),
+            in.readInt(),
+            in.readBoolean(),
+            in.readBoolean(),
+            in.readInt(),
+            in.readBoolean(),
+            readString(in),
+            in.readBoolean());
+    }
+
+    private static void write(Settings settings, DataOutputStream out) throws IOException {
+        out.writeInt(VERSION);
+        writeString(out, settings.getLastSelectedEmployee());
+        writeString(out, settings.getSkillSortOrder());
+        out.writeInt(settings.getMinimumSkillScore());
+        out.writeBoolean(settings.isDarkMode());
+        out.writeBoolean(settings.isAutoRefreshEnabled());
+        out.writeInt(settings.getRefreshInterval());
+        out.writeBoolean(settings.areNotificationsEnabled());
+        writeString(out, settings.getLanguage());
+        out.writeBoolean(settings.isFirstLaunch());
+    }
+
+    @Nullable
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeString(DataOutputStream out, @Nullable String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+}
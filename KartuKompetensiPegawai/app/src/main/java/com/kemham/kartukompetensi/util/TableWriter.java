@@ -0,0 +1,30 @@
+package com.kemham.kartukompetensi.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes a table to a stream one row at a time. Implementations hold no rows in memory.
+ * Closing the writer completes the document and closes the underlying stream; aborting it
+ * closes the stream without completing the document.
+ */
+public interface TableWriter extends Closeable {
+
+    /**
+     * Writes the column names. Must be called once, before the first row.
+     */
+    void writeHeader(String[] columns) throws IOException;
+
+    /**
+     * Writes one row. Each value is a String, a Number or null; the array may be reused by the caller.
+     */
+    void writeRow(Object[] values) throws IOException;
+
+    /**
+     * Closes the underlying stream without completing the document, e.g. when an export is
+     * cancelled. Formats with no closing structure simply close; the rows written so far stay.
+     */
+    default void abort() throws IOException {
+        close();
+    }
+}
@@ -0,0 +1,192 @@
+package com.kemham.kartukompetensi.util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Minimal streaming XLSX writer.
+ *
+ * Cells are written as inline strings and plain numbers, so there is no shared string table to
+ * keep in memory and each row goes straight into the zip stream. The workbook and content type
+ * parts are written last, once the number of sheets is known. A new sheet, with the header
+ * repeated, is started whenever a sheet reaches the spreadsheet row limit.
+ */
+public class XlsxWriter implements TableWriter {
+
+    public static final int MAX_ROWS_PER_SHEET = 1_048_576;
+
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String NS_MAIN = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String NS_RELATIONSHIPS = "http://schemas.openxmlformats.org/package/2006/relationships";
+    private static final String NS_DOC_RELATIONSHIPS =
+            "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private final OutputStream out;
+    private final ZipOutputStream zip;
+    private final Writer writer;
+    private final String sheetName;
+    private String[] header;
+    private int sheetCount;
+    private int sheetRows;
+    private boolean closed;
+
+    public XlsxWriter(OutputStream out, String sheetName) {
+        this.out = out;
+        this.zip = new ZipOutputStream(new BufferedOutputStream(out));
+        this.writer = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+        // Sheet names are limited to 31 characters, leaving room for a " 99" suffix
+        this.sheetName = sheetName.length() > 28 ? sheetName.substring(0, 28) : sheetName;
+    }
+
+    @Override
+    public void writeHeader(String[] columns) throws IOException {
+        header = columns.clone();
+        startSheet();
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        if (header == null) {
+            throw new IllegalStateException("writeHeader must be called before writeRow");
+        }
+        if (sheetRows >= MAX_ROWS_PER_SHEET) {
+            endSheet();
+            startSheet();
+        }
+        writeCells(values);
+    }
+
+    private void startSheet() throws IOException {
+        sheetCount++;
+        sheetRows = 0;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetCount + ".xml"));
+        writer.write(XML_HEADER);
+        writer.write("<worksheet xmlns=\"" + NS_MAIN + "\"><sheetData>");
+        writeCells(header);
+    }
+
+    private void endSheet() throws IOException {
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private void writeCells(Object[] values) throws IOException {
+        writer.write("<row>");
+        for (Object value : values) {
+            if (value == null) {
+                writer.write("<c/>");
+            } else if (value instanceof Number) {
+                writer.write("<c><v>");
+                writer.write(value.toString());
+                writer.write("</v></c>");
+            } else {
+                writer.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                writeEscaped(value.toString());
+                writer.write("</t></is></c>");
+            }
+        }
+        writer.write("</row>\n");
+        sheetRows++;
+    }
+
+    private void writeEscaped(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&':
+                    writer.write("&amp;");
+                    break;
+                case '<':
+                    writer.write("&lt;");
+                    break;
+                case '>':
+                    writer.write("&gt;");
+                    break;
+                case '"':
+                    writer.write("&quot;");
+                    break;
+                default:
+                    // Control characters other than tab and line breaks are not allowed in XML
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        writer.write(c);
+                    }
+            }
+        }
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        writer.write(XML_HEADER);
+        writer.write(content);
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    /**
+     * Closes the stream without writing the workbook parts or the zip central directory, so the
+     * output cannot be opened as a workbook.
+     */
+    @Override
+    public void abort() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // Bypass the zip and its buffer; whatever they still hold is dropped
+        out.close();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (header == null) {
+                header = new String[0];
+                startSheet();
+            }
+            endSheet();
+
+            StringBuilder types = new StringBuilder();
+            types.append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>");
+            StringBuilder sheets = new StringBuilder();
+            StringBuilder relationships = new StringBuilder();
+            for (int i = 1; i <= sheetCount; i++) {
+                types.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+                sheets.append("<sheet name=\"").append(sheetName);
+                if (i > 1) {
+                    sheets.append(' ').append(i);
+                }
+                sheets.append("\" sheetId=\"").append(i).append("\" r:id=\"rId").append(i).append("\"/>");
+                relationships.append("<Relationship Id=\"rId").append(i)
+                    .append("\" Type=\"").append(NS_DOC_RELATIONSHIPS).append("/worksheet\" Target=\"worksheets/sheet")
+                    .append(i).append(".xml\"/>");
+            }
+            types.append("</Types>");
+
+            writeEntry("xl/workbook.xml", "<workbook xmlns=\"" + NS_MAIN + "\" xmlns:r=\"" + NS_DOC_RELATIONSHIPS + "\">"
+                + "<sheets>" + sheets + "</sheets></workbook>");
+            writeEntry("xl/_rels/workbook.xml.rels", "<Relationships xmlns=\"" + NS_RELATIONSHIPS + "\">"
+                + relationships + "</Relationships>");
+            writeEntry("_rels/.rels", "<Relationships xmlns=\"" + NS_RELATIONSHIPS + "\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + NS_DOC_RELATIONSHIPS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>");
+            writeEntry("[Content_Types].xml", types.toString());
+        } finally {
+            zip.close();
+        }
+    }
+}
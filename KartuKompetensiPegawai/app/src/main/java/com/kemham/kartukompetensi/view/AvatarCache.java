@@ -0,0 +1,139 @@
+package com.kemham.kartukompetensi.view;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Process-wide LRU cache of rendered {@link InitialsAvatarView} bitmaps, bounded by bytes. A
+ * roster of thousands of employees only has a few hundred distinct initial and color
+ * combinations, so pickers mostly draw an already rendered bitmap instead of rasterizing an
+ * anti-aliased circle and text for every row. Main thread only, like the views using it.
+ */
+public class AvatarCache {
+
+    // Enough for a few hundred avatars at xxhdpi without crowding a small heap
+    private static final int MAX_BYTES = 16 * 1024 * 1024;
+    private static final int HEAP_FRACTION = 16;
+
+    private static volatile AvatarCache instance;
+    private final LruCache<Key, Bitmap> cache;
+
+    private AvatarCache(int maxBytes) {
+        cache = new LruCache<Key, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(@NonNull Key key, @NonNull Bitmap bitmap) {
+                return bitmap.getAllocationByteCount();
+            }
+        };
+    }
+
+    public static AvatarCache getInstance() {
+        if (instance == null) {
+            synchronized (AvatarCache.class) {
+                if (instance == null) {
+                    long heapShare = Runtime.getRuntime().maxMemory() / HEAP_FRACTION;
+                    instance = new AvatarCache((int) Math.min(MAX_BYTES, heapShare));
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Nullable
+    public Bitmap get(Key key) {
+        return cache.get(key);
+    }
+
+    public void put(Key key, Bitmap bitmap) {
+        cache.put(key, bitmap);
+    }
+
+    /**
+     * Releases cached avatars in proportion to the memory pressure reported by
+     * {@link ComponentCallbacks2#onTrimMemory}. Evicted bitmaps may still be on screen, so they
+     * are left to the garbage collector rather than recycled.
+     */
+    public void trimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            cache.evictAll();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            cache.trimToSize(cache.maxSize() / 2);
+        }
+    }
+
+    public void clear() {
+        cache.evictAll();
+    }
+
+    public int getSizeBytes() {
+        return cache.size();
+    }
+
+    /**
+     * Everything that changes an avatar's pixels. Built when a view's appearance changes, so
+     * drawing looks the bitmap up without allocating.
+     */
+    public static final class Key {
+        private final String initials;
+        private final int width;
+        private final int height;
+        private final int backgroundColor;
+        private final int textColor;
+        private final float textSize;
+        private final boolean circular;
+        private final int borderWidth;
+        private final int borderColor;
+        private final int hash;
+
+        public Key(String initials, int width, int height, int backgroundColor, int textColor,
+                   float textSize, boolean circular, int borderWidth, int borderColor) {
+            this.initials = initials;
+            this.width = width;
+            this.height = height;
+            this.backgroundColor = backgroundColor;
+            this.textColor = textColor;
+            this.textSize = textSize;
+            this.circular = circular;
+            this.borderWidth = borderWidth;
+            this.borderColor = borderColor;
+
+            int h = initials.hashCode();
+            h = 31 * h + width;
+            h = 31 * h + height;
+            h = 31 * h + backgroundColor;
+            h = 31 * h + textColor;
+            h = 31 * h + Float.floatToIntBits(textSize);
+            h = 31 * h + (circular ? 1 : 0);
+            h = 31 * h + borderWidth;
+            h = 31 * h + borderColor;
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return hash == other.hash
+                && width == other.width
+                && height == other.height
+                && backgroundColor == other.backgroundColor
+                && textColor == other.textColor
+                && Float.compare(textSize, other.textSize) == 0
+                && circular == other.circular
+                && borderWidth == other.borderWidth
+                && borderColor == other.borderColor
+                && initials.equals(other.initials);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
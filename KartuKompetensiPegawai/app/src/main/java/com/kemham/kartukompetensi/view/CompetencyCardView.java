@@ -6,20 +6,26 @@ import android.util.AttributeSet;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.ImageView;
-import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import androidx.annotation.Nullable;
 import androidx.cardview.widget.CardView;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.SimpleItemAnimator;
 
 import com.kemham.kartukompetensi.R;
+import com.kemham.kartukompetensi.adapter.CompactSkillAdapter;
 import com.kemham.kartukompetensi.model.Skill;
 import com.kemham.kartukompetensi.util.KompetensiUtil;
 
 import java.util.List;
 
 /**
- * Custom view that displays a competency card with score and details.
+ * Custom view that displays a competency card with score and details. Skill rows live in a
+ * diffed RecyclerView, so an update only inflates rows that are new to the card and only rebinds
+ * rows whose skill changed. Cards on one screen should share a pool through
+ * {@link #setRecycledViewPool} so rows dropped by one card are reused by another.
  */
 public class CompetencyCardView extends CardView {
 
@@ -28,7 +34,9 @@ public class CompetencyCardView extends CardView {
     private TextView countText;
     private ScoreProgressBar progressBar;
     private ImageView iconView;
-    private LinearLayout skillsContainer;
+    private RecyclerView skillsList;
+    private TextView emptyText;
+    private CompactSkillAdapter skillAdapter;
     private View expandButton;
     private View addButton;
 
@@ -72,10 +80,28 @@ public class CompetencyCardView extends CardView {
         countText = findViewById(R.id.text_count);
         progressBar = findViewById(R.id.progress_score);
         iconView = findViewById(R.id.icon_competency);
-        skillsContainer = findViewById(R.id.container_skills);
+        skillsList = findViewById(R.id.recycler_skills);
+        emptyText = findViewById(R.id.text_empty);
         expandButton = findViewById(R.id.button_expand);
         addButton = findViewById(R.id.button_add);
 
+        // The card sits in a scrolling screen and shows every row, so the list never scrolls itself
+        LinearLayoutManager layoutManager = new LinearLayoutManager(getContext());
+        layoutManager.setRecycleChildrenOnDetach(true);
+        skillsList.setLayoutManager(layoutManager);
+        skillsList.setNestedScrollingEnabled(false);
+        // Change animations would bind a second holder per changed row; rebind in place instead
+        RecyclerView.ItemAnimator animator = skillsList.getItemAnimator();
+        if (animator instanceof SimpleItemAnimator) {
+            ((SimpleItemAnimator) animator).setSupportsChangeAnimations(false);
+        }
+        skillAdapter = new CompactSkillAdapter(getContext(), skill -> {
+            if (listener != null) {
+                listener.onSkillClick(skill);
+            }
+        });
+        skillsList.setAdapter(skillAdapter);
+
         // Get attributes
         if (attrs != null) {
             TypedArray a = getContext().obtainStyledAttributes(attrs, R.styleable.CompetencyCardView);
@@ -91,7 +117,7 @@ public class CompetencyCardView extends CardView {
         titleText.setText(title);
         updateScore(score, targetScore);
         if (iconResId != 0) {
-            iconView.setImageResource(iconResId);
+            setIcon(iconResId);
         }
         updateExpandState();
 
@@ -127,55 +153,41 @@ public class CompetencyCardView extends CardView {
         progressBar.setProgressColor(KompetensiUtil.getProgressColor(getContext(), score, targetScore));
 
         // Update score text
-        scoreText.setText(String.format("%d/%d", score, targetScore));
+        scoreText.setText(getResources().getString(R.string.score_fraction_format, score, targetScore));
 
         // Update count text if skills are available
         if (skills != null) {
-            countText.setText(String.format("%d %s", skills.size(), 
-                getResources().getString(R.string.skills_count)));
+            countText.setText(getResources().getString(R.string.skills_count, skills.size()));
         }
     }
 
     private void updateExpandState() {
-        skillsContainer.setVisibility(isExpanded ? View.VISIBLE : View.GONE);
+        boolean empty = skills == null || skills.isEmpty();
+        skillsList.setVisibility(isExpanded && !empty ? View.VISIBLE : View.GONE);
+        emptyText.setVisibility(isExpanded && empty ? View.VISIBLE : View.GONE);
         expandButton.setRotation(isExpanded ? 180 : 0);
     }
 
+    /**
+     * Shows a new skill list. The list is diffed against the current one off the main thread;
+     * unchanged rows keep their views and changed rows are rebound in place.
+     */
     public void setSkills(List<Skill> skills) {
         this.skills = skills;
-        updateSkillsList();
+        skillAdapter.submitList(skills);
+        updateExpandState();
+        countText.setVisibility(skills != null ? View.VISIBLE : View.GONE);
         updateScore(score, targetScore);
     }
 
-    private void updateSkillsList() {
-        skillsContainer.removeAllViews();
-        if (skills != null) {
-            LayoutInflater inflater = LayoutInflater.from(getContext());
-            for (Skill skill : skills) {
-                View skillView = inflater.inflate(R.layout.item_skill_compact, skillsContainer, false);
-                bindSkillView(skillView, skill);
-                skillsContainer.addView(skillView);
-            }
-        }
-    }
-
-    private void bindSkillView(View view, Skill skill) {
-        TextView nameText = view.findViewById(R.id.text_skill_name);
-        ScoreProgressBar scoreBar = view.findViewById(R.id.progress_score);
-        TextView scoreText = view.findViewById(R.id.text_score);
-
-        nameText.setText(skill.getName());
-        scoreBar.setMax(skill.getTargetScore());
-        scoreBar.setProgress(skill.getScore());
-        scoreBar.setProgressColor(KompetensiUtil.getProgressColor(getContext(), 
-            skill.getScore(), skill.getTargetScore()));
-        scoreText.setText(String.format("%d/%d", skill.getScore(), skill.getTargetScore()));
-
-        view.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onSkillClick(skill);
-            }
-        });
+    /**
+     * Takes skill rows from, and returns them to, a pool shared with other cards. Size the pool
+     * for the rows all sharing cards can show at once with
+     * {@link RecyclerView.RecycledViewPool#setMaxRecycledViews} and
+     * {@link CompactSkillAdapter#VIEW_TYPE_SKILL}.
+     */
+    public void setRecycledViewPool(RecyclerView.RecycledViewPool pool) {
+        skillsList.setRecycledViewPool(pool);
     }
 
     public void setListener(CompetencyCardListener listener) {
@@ -194,6 +206,7 @@ public class CompetencyCardView extends CardView {
     public void setIcon(int resId) {
         this.iconResId = resId;
         iconView.setImageResource(resId);
+        iconView.setVisibility(resId != 0 ? View.VISIBLE : View.GONE);
     }
 
     public void setExpanded(boolean expanded) {
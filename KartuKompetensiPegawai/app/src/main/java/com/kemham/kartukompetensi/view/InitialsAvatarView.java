@@ -2,6 +2,7 @@ package com.kemham.kartukompetensi.view;
 
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
@@ -14,15 +15,21 @@ import androidx.annotation.Nullable;
 import androidx.core.content.res.ResourcesCompat;
 
 import com.kemham.kartukompetensi.R;
+import com.kemham.kartukompetensi.util.KompetensiUtil;
 
 /**
- * Custom view that displays a circular avatar with initials.
+ * Custom view that displays a circular avatar with initials. The initials and their vertical
+ * offset are computed when they change, so drawing allocates nothing. Rendered avatars are shared
+ * through {@link AvatarCache}, so rows with the same initials and colors draw a cached bitmap.
  */
 public class InitialsAvatarView extends View {
 
     private Paint backgroundPaint;
     private Paint textPaint;
+    private final Rect textBounds = new Rect();
     private String initials = "";
+    private float textOffset;
+    private AvatarCache.Key cacheKey;
     private int backgroundColor;
     private int textColor;
     private float textSize;
@@ -65,7 +72,7 @@ public class InitialsAvatarView extends View {
             borderColor = a.getColor(R.styleable.InitialsAvatarView_avatarBorderColor, borderColor);
             String initialText = a.getString(R.styleable.InitialsAvatarView_initials);
             if (initialText != null) {
-                setInitials(initialText);
+                initials = KompetensiUtil.getInitials(initialText);
             }
             a.recycle();
         }
@@ -80,6 +87,7 @@ public class InitialsAvatarView extends View {
         textPaint.setTextSize(textSize);
         textPaint.setTextAlign(Paint.Align.CENTER);
         textPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
+        updateTextOffset();
 
         if (borderWidth > 0) {
             backgroundPaint.setStrokeWidth(borderWidth);
@@ -104,12 +112,41 @@ public class InitialsAvatarView extends View {
         return getResources().getDimensionPixelSize(R.dimen.avatar_size);
     }
 
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        cacheKey = null;
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
 
         int width = getWidth();
         int height = getHeight();
+        if (width == 0 || height == 0) {
+            return;
+        }
+        if (isInEditMode()) {
+            drawAvatar(canvas, width, height);
+            return;
+        }
+
+        if (cacheKey == null) {
+            cacheKey = new AvatarCache.Key(initials, width, height, backgroundColor, textColor,
+                textSize, isCircular, borderWidth, borderColor);
+        }
+        AvatarCache cache = AvatarCache.getInstance();
+        Bitmap avatar = cache.get(cacheKey);
+        if (avatar == null) {
+            avatar = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            drawAvatar(new Canvas(avatar), width, height);
+            cache.put(cacheKey, avatar);
+        }
+        canvas.drawBitmap(avatar, 0, 0, null);
+    }
+
+    private void drawAvatar(Canvas canvas, int width, int height) {
         float radius = Math.min(width, height) / 2f;
         float centerX = width / 2f;
         float centerY = height / 2f;
@@ -128,56 +165,66 @@ public class InitialsAvatarView extends View {
             }
         }
 
-        // Draw text
+        // Draw text, centered vertically
         if (!initials.isEmpty()) {
-            // Center text vertically
-            Rect textBounds = new Rect();
-            textPaint.getTextBounds(initials, 0, initials.length(), textBounds);
-            float textHeight = textBounds.height();
-            float textOffset = textHeight / 2f;
-
             canvas.drawText(initials, centerX, centerY + textOffset, textPaint);
         }
     }
 
+    /**
+     * Shows the initials of a name. Rebinding the same initials does not redraw.
+     */
     public void setInitials(String name) {
-        if (name == null || name.isEmpty()) {
-            this.initials = "";
-        } else {
-            StringBuilder initialsBuilder = new StringBuilder();
-            String[] parts = name.split("\\s+");
-            for (String part : parts) {
-                if (!part.isEmpty()) {
-                    initialsBuilder.append(part.charAt(0));
-                    if (initialsBuilder.length() >= 2) break;
-                }
-            }
-            this.initials = initialsBuilder.toString().toUpperCase();
+        String newInitials = KompetensiUtil.getInitials(name);
+        if (!newInitials.equals(initials)) {
+            initials = newInitials;
+            updateTextOffset();
+            invalidateAvatar();
+        }
+    }
+
+    /**
+     * Measures the initials once so onDraw can center them without allocating.
+     */
+    private void updateTextOffset() {
+        if (initials.isEmpty()) {
+            textOffset = 0;
+            return;
         }
+        textPaint.getTextBounds(initials, 0, initials.length(), textBounds);
+        textOffset = textBounds.height() / 2f;
+    }
+
+    /**
+     * Redraws after an appearance change, which also selects a different cached bitmap.
+     */
+    private void invalidateAvatar() {
+        cacheKey = null;
         invalidate();
     }
 
     public void setBackgroundColor(int color) {
         this.backgroundColor = color;
         backgroundPaint.setColor(color);
-        invalidate();
+        invalidateAvatar();
     }
 
     public void setTextColor(int color) {
         this.textColor = color;
         textPaint.setColor(color);
-        invalidate();
+        invalidateAvatar();
     }
 
     public void setTextSize(float size) {
         this.textSize = size;
         textPaint.setTextSize(size);
-        invalidate();
+        updateTextOffset();
+        invalidateAvatar();
     }
 
     public void setCircular(boolean circular) {
         this.isCircular = circular;
-        invalidate();
+        invalidateAvatar();
     }
 
     public void setBorder(int width, int color) {
@@ -191,7 +238,7 @@ public class InitialsAvatarView extends View {
             backgroundPaint.setStyle(Paint.Style.FILL);
             backgroundPaint.setColor(backgroundColor);
         }
-        invalidate();
+        invalidateAvatar();
     }
 
     public String getInitials() {
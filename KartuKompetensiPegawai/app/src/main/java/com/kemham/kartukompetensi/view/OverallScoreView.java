@@ -1,5 +1,6 @@
 package com.kemham.kartukompetensi.view;
 
+import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
@@ -8,6 +9,7 @@ import android.graphics.RectF;
 import android.graphics.Typeface;
 import android.util.AttributeSet;
 import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
 
 import androidx.annotation.Nullable;
 
@@ -16,14 +18,16 @@ import com.kemham.kartukompetensi.util.AppSettings;
 import com.kemham.kartukompetensi.util.KompetensiUtil;
 
 /**
- * Custom view that displays an overall competency score with visual feedback.
+ * Custom view that displays an overall competency score with visual feedback. The arc animates on
+ * a {@link ValueAnimator}; the score text is formatted when the score changes, so drawing
+ * allocates nothing. The animation jumps to its end while the view is hidden or detached.
  */
 public class OverallScoreView extends View {
 
     private static final float STROKE_WIDTH_RATIO = 0.1f;
     private static final float TEXT_SIZE_RATIO = 0.3f;
     private static final float LABEL_SIZE_RATIO = 0.15f;
-    private static final float ANIMATION_DURATION = 1000f;
+    private static final long ANIMATION_DURATION = 1000;
 
     private Paint arcPaint;
     private Paint backgroundPaint;
@@ -31,11 +35,14 @@ public class OverallScoreView extends View {
     private Paint labelPaint;
     private RectF arcBounds;
 
+    private ValueAnimator animator;
+
     private int score;
     private int targetScore;
+    private String scoreText;
     private float currentAngle;
-    private long startTime;
-    private boolean isAnimating;
+    private float sweepAngle;
+    private float animationStartAngle;
     private int backgroundColor;
     private int progressColor;
     private int textColor;
@@ -78,6 +85,8 @@ public class OverallScoreView extends View {
             a.recycle();
         }
 
+        scoreText = String.valueOf(score);
+
         // Initialize paints
         arcPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
         arcPaint.setStyle(Paint.Style.STROKE);
@@ -99,6 +108,20 @@ public class OverallScoreView extends View {
         arcBounds = new RectF();
     }
 
+    @Override
+    protected void onDetachedFromWindow() {
+        endAnimation();
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+        if (!isVisible) {
+            endAnimation();
+        }
+    }
+
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         int size = Math.min(
@@ -133,23 +156,10 @@ public class OverallScoreView extends View {
         // Draw background circle
         canvas.drawArc(arcBounds, 0, 360, false, backgroundPaint);
 
-        // Calculate and draw progress arc
-        float sweepAngle;
-        if (isAnimating) {
-            float elapsed = (System.currentTimeMillis() - startTime) / ANIMATION_DURATION;
-            if (elapsed >= 1f) {
-                elapsed = 1f;
-                isAnimating = false;
-            }
-            sweepAngle = currentAngle * elapsed;
-            invalidate();
-        } else {
-            sweepAngle = currentAngle;
-        }
+        // Draw progress arc
         canvas.drawArc(arcBounds, -90, sweepAngle, false, arcPaint);
 
         // Draw score text
-        String scoreText = String.valueOf(score);
         float centerX = getWidth() / 2f;
         float centerY = getHeight() / 2f;
         canvas.drawText(scoreText, centerX, centerY + scorePaint.getTextSize() / 3, scorePaint);
@@ -161,16 +171,51 @@ public class OverallScoreView extends View {
     public void setScore(int score, int targetScore) {
         this.score = score;
         this.targetScore = targetScore;
-        this.currentAngle = 360f * score / targetScore;
+        this.scoreText = String.valueOf(score);
+        this.currentAngle = targetScore > 0 ? 360f * score / targetScore : 0;
         this.progressColor = KompetensiUtil.getProgressColor(getContext(), score, targetScore);
         arcPaint.setColor(progressColor);
         startAnimation();
     }
 
+    /**
+     * Animates the arc from the angle currently shown to the new score's angle. Views that are
+     * not on screen skip straight to the end.
+     */
     private void startAnimation() {
-        isAnimating = true;
-        startTime = System.currentTimeMillis();
-        invalidate();
+        if (!isShown()) {
+            endAnimation();
+            invalidate();
+            return;
+        }
+        if (animator == null) {
+            animator = ValueAnimator.ofFloat(0f, 1f);
+            animator.setDuration(ANIMATION_DURATION);
+            animator.setInterpolator(new AccelerateDecelerateInterpolator());
+            animator.addUpdateListener(animation -> {
+                float fraction = animation.getAnimatedFraction();
+                sweepAngle = animationStartAngle + (currentAngle - animationStartAngle) * fraction;
+                invalidate();
+            });
+        } else {
+            animator.cancel();
+        }
+        animationStartAngle = sweepAngle;
+        animator.start();
+    }
+
+    /**
+     * Stops any running animation and shows the final arc.
+     */
+    private void endAnimation() {
+        if (animator != null) {
+            animator.cancel();
+        }
+        sweepAngle = currentAngle;
+    }
+
+    public boolean isAnimating() {
+        return animator != null && animator.isRunning();
     }
 
     public void setLabel(String label) {
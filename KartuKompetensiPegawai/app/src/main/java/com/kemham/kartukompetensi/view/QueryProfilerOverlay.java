@@ -0,0 +1,111 @@
+package com.kemham.kartukompetensi.view;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.util.TypedValue;
+import android.view.Gravity;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import androidx.appcompat.widget.AppCompatTextView;
+
+import com.kemham.kartukompetensi.data.QueryProfiler;
+import com.kemham.kartukompetensi.util.LatencyHistogram;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Debug overlay listing the most expensive query shapes and the latest main-thread or slow
+ * queries. It ignores touches, so the screen underneath stays usable.
+ */
+public class QueryProfilerOverlay extends AppCompatTextView {
+
+    private static final long REFRESH_INTERVAL_MS = 1000;
+    private static final int TOP_SHAPES = 3;
+    private static final int RECENT_SLOW = 2;
+    private static final int MAX_SHAPE_LENGTH = 70;
+
+    private final QueryProfiler profiler;
+    private final StringBuilder text = new StringBuilder();
+    private final Runnable refresh = new Runnable() {
+        @Override
+        public void run() {
+            update();
+            postDelayed(this, REFRESH_INTERVAL_MS);
+        }
+    };
+
+    public QueryProfilerOverlay(Context context) {
+        super(context);
+        profiler = QueryProfiler.getInstance(context);
+
+        int padding = (int) TypedValue.applyDimension(
+            TypedValue.COMPLEX_UNIT_DIP, 4, getResources().getDisplayMetrics());
+        setPadding(padding, padding, padding, padding);
+        setBackgroundColor(0xB0000000);
+        setTextColor(Color.WHITE);
+        setTextSize(TypedValue.COMPLEX_UNIT_SP, 9);
+        setTypeface(Typeface.MONOSPACE);
+        setClickable(false);
+        setFocusable(false);
+    }
+
+    /**
+     * Adds an overlay along the bottom of the activity's content.
+     */
+    public static QueryProfilerOverlay attach(Activity activity) {
+        QueryProfilerOverlay overlay = new QueryProfilerOverlay(activity);
+        FrameLayout.LayoutParams params = new FrameLayout.LayoutParams(
+            ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT,
+            Gravity.BOTTOM);
+        ViewGroup content = activity.findViewById(android.R.id.content);
+        content.addView(overlay, params);
+        return overlay;
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        post(refresh);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        removeCallbacks(refresh);
+        super.onDetachedFromWindow();
+    }
+
+    private void update() {
+        text.setLength(0);
+        List<QueryProfiler.ShapeStats> shapes = profiler.getShapeStats();
+        for (int i = 0; i < Math.min(TOP_SHAPES, shapes.size()); i++) {
+            QueryProfiler.ShapeStats stats = shapes.get(i);
+            LatencyHistogram latency = stats.getLatency();
+            text.append(String.format(Locale.ROOT, "%5dms x%-4d p90=%.1f ",
+                    latency.getTotalMicros() / 1000, latency.getCount(),
+                    latency.getPercentileMicros(90) / 1000.0))
+                .append(truncate(stats.getShape())).append('\n');
+        }
+
+        List<QueryProfiler.SlowQuery> slow = profiler.getRecentSlowQueries();
+        for (int i = Math.max(0, slow.size() - RECENT_SLOW); i < slow.size(); i++) {
+            QueryProfiler.SlowQuery query = slow.get(i);
+            text.append(String.format(Locale.ROOT, "%s %.1fms ",
+                    query.mainThread ? "MAIN" : "SLOW", query.durationMicros / 1000.0))
+                .append(truncate(query.shape)).append('\n');
+        }
+
+        if (text.length() > 0) {
+            text.setLength(text.length() - 1);
+        }
+        setText(text);
+        setVisibility(text.length() > 0 ? VISIBLE : GONE);
+    }
+
+    private static String truncate(String shape) {
+        return shape.length() > MAX_SHAPE_LENGTH ? shape.substring(0, MAX_SHAPE_LENGTH - 3) + "..." : shape;
+    }
+}
@@ -1,5 +1,6 @@
 package com.kemham.kartukompetensi.view;
 
+import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
@@ -16,7 +17,9 @@ import androidx.annotation.Nullable;
 import com.kemham.kartukompetensi.R;
 
 /**
- * Custom view that displays a progress bar with score visualization.
+ * Custom view that displays a progress bar with score visualization. Progress changes animate on
+ * a {@link ValueAnimator} driven by the frame clock; drawing only reads the current value and
+ * allocates nothing. The animation jumps to its end while the view is hidden or detached.
  */
 public class ScoreProgressBar extends View {
 
@@ -26,13 +29,14 @@ public class ScoreProgressBar extends View {
     private Paint progressPaint;
     private Paint backgroundPaint;
     private RectF progressBounds;
+    private final RectF progressRect = new RectF();
     private Interpolator interpolator;
+    private ValueAnimator animator;
 
     private int max;
     private int progress;
     private float currentProgress;
-    private long animationStartTime;
-    private boolean isAnimating;
+    private float animationStartProgress;
     private int progressColor;
     private int backgroundColor;
     private float cornerRadius;
@@ -57,7 +61,6 @@ public class ScoreProgressBar extends View {
         // Default values
         max = 100;
         progress = 0;
-        currentProgress = 0;
         progressColor = getResources().getColor(R.color.progress_default);
         backgroundColor = getResources().getColor(R.color.progress_background);
         rounded = true;
@@ -72,6 +75,7 @@ public class ScoreProgressBar extends View {
             rounded = a.getBoolean(R.styleable.ScoreProgressBar_rounded, rounded);
             a.recycle();
         }
+        currentProgress = progress;
 
         // Initialize paints
         progressPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
@@ -89,6 +93,21 @@ public class ScoreProgressBar extends View {
         interpolator = new AccelerateDecelerateInterpolator();
     }
 
+    @Override
+    protected void onDetachedFromWindow() {
+        // A recycled row must not keep animating offscreen
+        endAnimation();
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+        if (!isVisible) {
+            endAnimation();
+        }
+    }
+
     @Override
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         super.onSizeChanged(w, h, oldw, oldh);
@@ -103,27 +122,10 @@ public class ScoreProgressBar extends View {
         // Draw background
         canvas.drawRoundRect(progressBounds, cornerRadius, cornerRadius, backgroundPaint);
 
-        // Calculate progress width
-        float progressWidth;
-        if (isAnimating) {
-            float elapsed = (System.currentTimeMillis() - animationStartTime) / (float) ANIMATION_DURATION;
-            if (elapsed >= 1f) {
-                elapsed = 1f;
-                isAnimating = false;
-                currentProgress = progress;
-            } else {
-                float interpolation = interpolator.getInterpolation(elapsed);
-                currentProgress = progress * interpolation;
-                invalidate();
-            }
-            progressWidth = getWidth() * (currentProgress / max);
-        } else {
-            progressWidth = getWidth() * (progress / (float) max);
-        }
-
         // Draw progress
+        float progressWidth = getWidth() * (currentProgress / max);
         if (progressWidth > 0) {
-            RectF progressRect = new RectF(0, 0, progressWidth, getHeight());
+            progressRect.set(0, 0, progressWidth, getHeight());
             canvas.drawRoundRect(progressRect, cornerRadius, cornerRadius, progressPaint);
         }
     }
@@ -139,6 +141,7 @@ public class ScoreProgressBar extends View {
         if (max > 0 && max != this.max) {
             this.max = max;
             this.progress = Math.min(progress, max);
+            endAnimation();
             invalidate();
         }
     }
@@ -167,16 +170,45 @@ public class ScoreProgressBar extends View {
         }
     }
 
+    /**
+     * Animates from the progress currently shown to the new progress. Views that are not on
+     * screen skip straight to the end.
+     */
     private void startAnimation() {
-        isAnimating = true;
-        animationStartTime = System.currentTimeMillis();
-        invalidate();
+        if (!isShown()) {
+            endAnimation();
+            invalidate();
+            return;
+        }
+        if (animator == null) {
+            animator = ValueAnimator.ofFloat(0f, 1f);
+            animator.setDuration(ANIMATION_DURATION);
+            animator.setInterpolator(interpolator);
+            animator.addUpdateListener(animation -> {
+                float fraction = animation.getAnimatedFraction();
+                currentProgress = animationStartProgress + (progress - animationStartProgress) * fraction;
+                invalidate();
+            });
+        } else {
+            animator.cancel();
+        }
+        animationStartProgress = currentProgress;
+        animator.start();
+    }
+
+    /**
+     * Stops any running animation and shows the final progress.
+     */
+    private void endAnimation() {
+        if (animator != null) {
+            animator.cancel();
+        }
+        currentProgress = progress;
     }
 
     public void setProgressImmediately(int progress) {
         this.progress = Math.min(Math.max(0, progress), max);
-        this.currentProgress = this.progress;
-        isAnimating = false;
+        endAnimation();
         invalidate();
     }
 
@@ -203,6 +235,6 @@ public class ScoreProgressBar extends View {
     }
 
     public boolean isAnimating() {
-        return isAnimating;
+        return animator != null && animator.isRunning();
     }
 }
@@ -0,0 +1,122 @@
+package com.kemham.kartukompetensi.view;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.text.TextUtils;
+
+import androidx.annotation.ColorRes;
+import androidx.collection.LongSparseArray;
+import androidx.core.content.ContextCompat;
+
+import com.google.android.material.chip.Chip;
+import com.google.android.material.chip.ChipGroup;
+import com.kemham.kartukompetensi.model.Skill;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * Renders a skill list into a {@link ChipGroup}, keyed by skill id. Each render diffs the list
+ * against the chips on screen: chips of skills that stayed keep their view and are only touched
+ * when their label changed, removed chips go to a small pool and new skills take chips from it.
+ * A score change therefore leaves the group alone instead of relaying out the whole header.
+ * Main thread only.
+ */
+public class SkillChipRenderer {
+
+    private static final int MAX_POOLED_CHIPS = 8;
+
+    private final ChipGroup group;
+    private final ColorStateList chipBackground;
+    private final int chipTextColor;
+    private final ArrayDeque<Chip> pool = new ArrayDeque<>();
+    private LongSparseArray<Chip> chips = new LongSparseArray<>();
+    private LongSparseArray<Chip> nextChips = new LongSparseArray<>();
+
+    public SkillChipRenderer(ChipGroup group, @ColorRes int backgroundRes, @ColorRes int textColorRes) {
+        this.group = group;
+        Context context = group.getContext();
+        this.chipBackground = ColorStateList.valueOf(ContextCompat.getColor(context, backgroundRes));
+        this.chipTextColor = ContextCompat.getColor(context, textColorRes);
+    }
+
+    public void render(List<Skill> skills) {
+        // Match every skill to its current chip, or to a pooled or new one
+        if (skills != null) {
+            for (Skill skill : skills) {
+                long id = skill.getId();
+                if (nextChips.containsKey(id)) {
+                    continue;
+                }
+                Chip chip = chips.get(id);
+                if (chip == null) {
+                    chip = obtainChip();
+                }
+                bind(chip, skill);
+                nextChips.put(id, chip);
+            }
+        }
+
+        // Release chips whose skill left the list
+        for (int i = 0; i < chips.size(); i++) {
+            if (!nextChips.containsKey(chips.keyAt(i))) {
+                Chip chip = chips.valueAt(i);
+                group.removeView(chip);
+                recycleChip(chip);
+            }
+        }
+
+        // Move only the chips that are out of place
+        int position = 0;
+        if (skills != null) {
+            for (Skill skill : skills) {
+                Chip chip = nextChips.get(skill.getId());
+                int index = group.indexOfChild(chip);
+                if (index >= 0 && index < position) {
+                    // Repeated id, already placed
+                    continue;
+                }
+                if (index != position) {
+                    if (index >= 0) {
+                        group.removeView(chip);
+                    }
+                    group.addView(chip, position);
+                }
+                position++;
+            }
+        }
+
+        LongSparseArray<Chip> previous = chips;
+        chips = nextChips;
+        nextChips = previous;
+        nextChips.clear();
+    }
+
+    public int getChipCount() {
+        return chips.size();
+    }
+
+    private void bind(Chip chip, Skill skill) {
+        // setText requests a layout even when the text is equal
+        if (!TextUtils.equals(chip.getText(), skill.getName())) {
+            chip.setText(skill.getName());
+        }
+    }
+
+    private Chip obtainChip() {
+        Chip chip = pool.poll();
+        if (chip != null) {
+            return chip;
+        }
+        chip = new Chip(group.getContext());
+        chip.setChipBackgroundColor(chipBackground);
+        chip.setTextColor(chipTextColor);
+        return chip;
+    }
+
+    private void recycleChip(Chip chip) {
+        if (pool.size() < MAX_POOLED_CHIPS) {
+            pool.push(chip);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.kemham.kartukompetensi.viewmodel;
+
+import android.util.LruCache;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.room.InvalidationTracker;
+
+import com.kemham.kartukompetensi.model.Employee;
+import com.kemham.kartukompetensi.repository.KompetensiRepository;
+import com.kemham.kartukompetensi.util.AppExecutors;
+import com.kemham.kartukompetensi.util.Priority;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Future;
+
+/**
+ * One long-lived employee search for a (query, status) pair that changes over time. Keystrokes
+ * are debounced, a query that is superseded before it starts is cancelled and the result of one
+ * that is already running is dropped, and recent pairs are answered from a small LRU. The cache
+ * is cleared whenever the employees table changes, and the current search is then run again.
+ * Searches only run while the results are observed. Main thread only, except for the queries.
+ */
+class EmployeeSearch {
+
+    static final long DEBOUNCE_MS = 300;
+    static final int CACHE_SIZE = 16;
+    static final int RESULT_LIMIT = 200;
+
+    private static final String TAG = "employee-search";
+
+    private final KompetensiRepository repository;
+    private final AppExecutors executors;
+    private final LruCache<Key, List<Employee>> cache = new LruCache<>(CACHE_SIZE);
+    private final Runnable debouncedSearch = this::search;
+    private final InvalidationTracker.Observer tableObserver;
+    private final MutableLiveData<List<Employee>> results = new MutableLiveData<List<Employee>>() {
+        @Override
+        protected void onActive() {
+            if (stale) {
+                executors.removeMainThreadCallbacks(debouncedSearch);
+                search();
+            }
+        }
+    };
+
+    private Key key;
+    // Whether results do not match the key yet
+    private boolean stale;
+    private Future<?> inFlight;
+    private int generation;
+    private boolean closed;
+
+    EmployeeSearch(KompetensiRepository repository, AppExecutors executors) {
+        this.repository = repository;
+        this.executors = executors;
+        this.tableObserver = new InvalidationTracker.Observer("employees") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                executors.executeMainThread(EmployeeSearch.this::onEmployeesChanged);
+            }
+        };
+        // Registering syncs Room's triggers, which touches the database
+        InvalidationTracker tracker = repository.getInvalidationTracker();
+        executors.reads().execute(Priority.BACKGROUND, TAG, () -> tracker.addObserver(tableObserver));
+    }
+
+    LiveData<List<Employee>> getResults() {
+        return results;
+    }
+
+    /**
+     * Points the search at a new query and status. A cached pair is published at once. Otherwise
+     * a status change runs right away and typing waits for {@link #DEBOUNCE_MS} of quiet.
+     */
+    @MainThread
+    void setQuery(@Nullable String query, @Nullable Employee.EmployeeStatus status) {
+        Key next = new Key(query, status);
+        if (closed || next.equals(key)) {
+            return;
+        }
+        boolean typing = key != null && key.status == next.status && !next.query.isEmpty();
+        key = next;
+        executors.removeMainThreadCallbacks(debouncedSearch);
+
+        List<Employee> cached = cache.get(next);
+        if (cached != null) {
+            cancelInFlight();
+            stale = false;
+            results.setValue(cached);
+            return;
+        }
+        stale = true;
+        if (!results.hasActiveObservers()) {
+            return;
+        }
+        if (typing) {
+            executors.postToMainThreadDelayed(debouncedSearch, DEBOUNCE_MS);
+        } else {
+            search();
+        }
+    }
+
+    /**
+     * Forgets the current query and drops pending work, so the next {@link #setQuery} publishes
+     * its results even if the pair is the one searched before. The results keep their last value.
+     */
+    @MainThread
+    void clear() {
+        key = null;
+        stale = false;
+        executors.removeMainThreadCallbacks(debouncedSearch);
+        cancelInFlight();
+    }
+
+    /**
+     * Stops listening for table changes and drops pending work. The results keep their last value.
+     */
+    @MainThread
+    void close() {
+        closed = true;
+        executors.removeMainThreadCallbacks(debouncedSearch);
+        cancelInFlight();
+        cache.evictAll();
+        InvalidationTracker tracker = repository.getInvalidationTracker();
+        executors.reads().execute(Priority.BACKGROUND, TAG, () -> tracker.removeObserver(tableObserver));
+    }
+
+    private void onEmployeesChanged() {
+        if (closed) {
+            return;
+        }
+        cache.evictAll();
+        stale = key != null;
+        if (stale && results.hasActiveObservers()) {
+            executors.removeMainThreadCallbacks(debouncedSearch);
+            search();
+        }
+    }
+
+    private void search() {
+        if (closed || key == null) {
+            return;
+        }
+        cancelInFlight();
+        Key searched = key;
+        int token = ++generation;
+        inFlight = executors.reads().submit(Priority.INTERACTIVE, TAG, () -> {
+            List<Employee> found = repository.findEmployees(searched.query, searched.status, RESULT_LIMIT);
+            executors.executeMainThread(() -> {
+                // Drop results overtaken by a newer search or a table change
+                if (token != generation || closed) {
+                    return;
+                }
+                inFlight = null;
+                cache.put(searched, found);
+                stale = false;
+                results.setValue(found);
+            });
+        });
+    }
+
+    private void cancelInFlight() {
+        // A running query is left to finish and its result dropped; interrupting it gains nothing
+        generation++;
+        if (inFlight != null) {
+            inFlight.cancel(false);
+            inFlight = null;
+        }
+    }
+
+    /**
+     * A normalized (query, status) pair. FTS matching is case-insensitive and ignores surrounding
+     * whitespace, so "Budi " and "budi" share a cache entry.
+     */
+    private static final class Key {
+        final String query;
+        final Employee.EmployeeStatus status;
+
+        Key(@Nullable String query, @Nullable Employee.EmployeeStatus status) {
+            this.query = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+            this.status = status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return status == other.status && query.equals(other.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(query, status);
+        }
+    }
+}
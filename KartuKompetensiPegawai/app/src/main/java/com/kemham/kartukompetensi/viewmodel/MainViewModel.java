@@ -7,31 +7,50 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.Transformations;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+import androidx.paging.PagingSource;
 
 import com.kemham.kartukompetensi.KartuKompetensiApp;
-import com.kemham.kartukompetensi.data.EmployeeDao;
+import com.kemham.kartukompetensi.data.StatsDao;
 import com.kemham.kartukompetensi.model.Employee;
 import com.kemham.kartukompetensi.model.Skill;
 import com.kemham.kartukompetensi.repository.KompetensiRepository;
-import com.kemham.kartukompetensi.util.AppSettings;
+import com.kemham.kartukompetensi.util.AppExecutors;
+import com.kemham.kartukompetensi.util.KompetensiUtil;
 import com.kemham.kartukompetensi.util.PreferenceManager;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class MainViewModel extends AndroidViewModel {
     private final KompetensiRepository repository;
     private final PreferenceManager preferenceManager;
+    private final AppExecutors executors;
     
-    private final MutableLiveData<String> selectedEmployeeNip;
+    private final MediatorLiveData<String> selectedEmployeeNip;
     private final LiveData<Employee> selectedEmployee;
     private final LiveData<List<Employee>> allEmployees;
+    private final LiveData<PagingData<Employee>> employeePages;
+    private final Runnable refreshPicker = this::refreshPicker;
+    // Read by the paging thread whenever it needs a new source
+    private volatile String pickerQuery = "";
+    private volatile PagingSource<Integer, Employee> pickerSource;
     
-    private final MediatorLiveData<List<Skill>> basicSkills;
-    private final MediatorLiveData<List<Skill>> technicalSkills;
-    private final MediatorLiveData<List<Skill>> emergingSkills;
-    private final MediatorLiveData<List<Skill>> potentialSkills;
-    private final MediatorLiveData<List<Skill>> developmentAreas;
+    private final MediatorLiveData<SkillPartition> skillPartition;
+    private int partitionGeneration;
+    // Last skill list and the settings it was filtered with, to re-sort on relevant changes only
+    private List<Skill> partitionedSkills;
+    private PreferenceManager.Settings partitionSettings;
+    // Null until the settings have loaded
+    private PreferenceManager.Settings latestSettings;
+
+    private final LiveData<List<Skill>> basicSkills;
+    private final LiveData<List<Skill>> technicalSkills;
+    private final LiveData<List<Skill>> emergingSkills;
+    private final LiveData<List<Skill>> potentialSkills;
+    private final LiveData<List<Skill>> developmentAreas;
+    private final LiveData<List<Skill>> specialSkills;
     
     private final LiveData<Integer> overallScore;
     private final MutableLiveData<Boolean> isLoading;
@@ -39,6 +58,7 @@ public class MainViewModel extends AndroidViewModel {
     private final MutableLiveData<Boolean> isEditMode;
     private final MutableLiveData<String> searchQuery;
     private final MutableLiveData<Employee.EmployeeStatus> selectedStatus;
+    private final EmployeeSearch employeeSearch;
 
     public MainViewModel(Application application) {
         super(application);
@@ -46,12 +66,15 @@ public class MainViewModel extends AndroidViewModel {
         KartuKompetensiApp app = (KartuKompetensiApp) application;
         repository = app.getRepository();
         preferenceManager = PreferenceManager.getInstance();
+        executors = app.getAppExecutors();
         
         isEditMode = new MutableLiveData<>(false);
         searchQuery = new MutableLiveData<>("");
         selectedStatus = new MutableLiveData<>(Employee.EmployeeStatus.ACTIVE);
+        employeeSearch = new EmployeeSearch(repository, executors);
+        employeeSearch.setQuery(searchQuery.getValue(), selectedStatus.getValue());
         
-        selectedEmployeeNip = new MutableLiveData<>();
+        selectedEmployeeNip = new MediatorLiveData<>();
         isLoading = new MutableLiveData<>(false);
         errorMessage = new MutableLiveData<>();
 
@@ -60,86 +83,76 @@ public class MainViewModel extends AndroidViewModel {
         selectedEmployee = Transformations.switchMap(selectedEmployeeNip,
             repository::getEmployee);
 
-        // Initialize skills data
-        basicSkills = new MediatorLiveData<>();
-        technicalSkills = new MediatorLiveData<>();
-        emergingSkills = new MediatorLiveData<>();
-        potentialSkills = new MediatorLiveData<>();
-        developmentAreas = new MediatorLiveData<>();
-
-        // Setup skills observers
+        // Employee picker: the paged roster while the query is empty, otherwise the paged
+        // full-text search across all statuses. One pager serves both; a new query invalidates
+        // the current source and the pager asks for one matching the query.
+        employeePages = PagingLiveData.cachedIn(repository.pageEmployees(() -> {
+            PagingSource<Integer, Employee> source = repository.searchEmployeesPagingSource(pickerQuery);
+            pickerSource = source;
+            return source;
+        }), ViewModelKt.getViewModelScope(this));
+
+        // Initialize skills data from a single partitioned stream
+        skillPartition = new MediatorLiveData<>();
         setupSkillsObservers();
+        basicSkills = Transformations.map(skillPartition, p -> p.getSkills(Skill.Category.BASIC));
+        technicalSkills = Transformations.map(skillPartition, p -> p.getSkills(Skill.Category.TECHNICAL));
+        emergingSkills = Transformations.map(skillPartition, p -> p.getSkills(Skill.Category.EMERGING));
+        potentialSkills = Transformations.map(skillPartition, p -> p.getSkills(Skill.Category.POTENTIAL));
+        developmentAreas = Transformations.map(skillPartition, SkillPartition::getDevelopmentAreas);
+        specialSkills = Transformations.map(skillPartition, SkillPartition::getSpecialSkills);
 
         // Initialize overall score
         overallScore = Transformations.switchMap(selectedEmployeeNip,
             repository::getOverallScore);
 
-        // Load last selected employee
-        String lastSelectedNip = preferenceManager.getLastSelectedEmployee();
-        if (lastSelectedNip != null) {
-            selectedEmployeeNip.setValue(lastSelectedNip);
-        }
+        // Restore the last selected employee once the settings have loaded, unless one was picked
+        LiveData<PreferenceManager.Settings> settings = preferenceManager.getSettings();
+        selectedEmployeeNip.addSource(settings, loaded -> {
+            selectedEmployeeNip.removeSource(settings);
+            if (selectedEmployeeNip.getValue() == null && loaded.getLastSelectedEmployee() != null) {
+                selectedEmployeeNip.setValue(loaded.getLastSelectedEmployee());
+            }
+        });
     }
 
     private void setupSkillsObservers() {
-        // Basic Skills
-        basicSkills.addSource(
-            Transformations.switchMap(selectedEmployeeNip,
-                nip -> repository.getSkillsByCategory(nip, Skill.Category.BASIC)),
-            skills -> basicSkills.setValue(filterAndSortSkills(skills))
-        );
-
-        // Technical Skills
-        technicalSkills.addSource(
-            Transformations.switchMap(selectedEmployeeNip,
-                nip -> repository.getSkillsByCategory(nip, Skill.Category.TECHNICAL)),
-            skills -> technicalSkills.setValue(filterAndSortSkills(skills))
-        );
-
-        // Emerging Skills
-        emergingSkills.addSource(
-            Transformations.switchMap(selectedEmployeeNip,
-                nip -> repository.getSkillsByCategory(nip, Skill.Category.EMERGING)),
-            skills -> emergingSkills.setValue(filterAndSortSkills(skills))
-        );
-
-        // Potential Skills
-        potentialSkills.addSource(
-            Transformations.switchMap(selectedEmployeeNip,
-                nip -> repository.getSkillsByCategory(nip, Skill.Category.POTENTIAL)),
-            skills -> potentialSkills.setValue(filterAndSortSkills(skills))
-        );
-
-        // Development Areas
-        developmentAreas.addSource(
-            Transformations.switchMap(selectedEmployeeNip,
-                repository::getDevelopmentAreas),
-            skills -> developmentAreas.setValue(filterAndSortSkills(skills))
+        // One Room query per employee; categories and development areas are split from it
+        skillPartition.addSource(
+            Transformations.switchMap(selectedEmployeeNip, repository::getEmployeeSkills),
+            skills -> {
+                partitionedSkills = skills;
+                partitionSkills();
+            }
         );
-    }
-
-    private List<Skill> filterAndSortSkills(List<Skill> skills) {
-        if (skills == null) return new ArrayList<>();
-
-        List<Skill> filteredSkills = new ArrayList<>(skills);
-        
-        // Apply minimum score filter if enabled
-        int minScore = preferenceManager.getMinimumSkillScore();
-        if (minScore > AppSettings.MIN_SCORE) {
-            filteredSkills.removeIf(skill -> skill.getScore() < minScore);
+        skillPartition.addSource(preferenceManager.getSettings(), settings -> {
+            latestSettings = settings;
+            if (!settings.sameSkillListOptions(partitionSettings)) {
+                partitionSkills();
+            }
+        });
+    }
+
+    private void partitionSkills() {
+        // Needs both the skills and the loaded settings; whichever arrives last starts it
+        if (partitionedSkills == null || latestSettings == null) {
+            return;
         }
-
-        // Sort based on preference
-        String sortOrder = preferenceManager.getSkillSortOrder();
-        if (sortOrder.equals("score_desc")) {
-            filteredSkills.sort((s1, s2) -> Integer.compare(s2.getScore(), s1.getScore()));
-        } else if (sortOrder.equals("score_asc")) {
-            filteredSkills.sort((s1, s2) -> Integer.compare(s1.getScore(), s2.getScore()));
-        } else {
-            filteredSkills.sort((s1, s2) -> s1.getName().compareTo(s2.getName()));
-        }
-
-        return filteredSkills;
+        int generation = ++partitionGeneration;
+        // One snapshot for every list of this partition, read once instead of per list
+        List<Skill> skills = partitionedSkills;
+        PreferenceManager.Settings settings = latestSettings;
+        partitionSettings = settings;
+        executors.reads().execute(() -> {
+            SkillPartition partition = SkillPartition.of(skills, list -> KompetensiUtil.filterAndSortSkills(
+                list, settings.getMinimumSkillScore(), settings.getSkillSortOrder()));
+            executors.mainThread().execute(() -> {
+                // Drop results overtaken by a newer emission or employee switch
+                if (generation == partitionGeneration) {
+                    skillPartition.setValue(partition);
+                }
+            });
+        });
     }
 
     // Employee operations
@@ -152,6 +165,35 @@ public class MainViewModel extends AndroidViewModel {
         return allEmployees;
     }
 
+    public LiveData<PagingData<Employee>> getEmployeePages() {
+        return employeePages;
+    }
+
+    /**
+     * Filters the picker. Clearing the query returns to the roster at once; typing waits for
+     * {@link EmployeeSearch#DEBOUNCE_MS} of quiet.
+     */
+    public void setPickerQuery(String query) {
+        String next = query == null ? "" : query.trim();
+        if (next.equals(pickerQuery)) {
+            return;
+        }
+        pickerQuery = next;
+        executors.removeMainThreadCallbacks(refreshPicker);
+        if (next.isEmpty()) {
+            refreshPicker();
+        } else {
+            executors.postToMainThreadDelayed(refreshPicker, EmployeeSearch.DEBOUNCE_MS);
+        }
+    }
+
+    private void refreshPicker() {
+        PagingSource<Integer, Employee> source = pickerSource;
+        if (source != null) {
+            source.invalidate();
+        }
+    }
+
     public LiveData<Employee> getSelectedEmployee() {
         return selectedEmployee;
     }
@@ -190,6 +232,10 @@ public class MainViewModel extends AndroidViewModel {
         return developmentAreas;
     }
 
+    public LiveData<List<Skill>> getSpecialSkills() {
+        return specialSkills;
+    }
+
     public LiveData<Integer> getOverallScore() {
         return overallScore;
     }
@@ -208,7 +254,6 @@ public class MainViewModel extends AndroidViewModel {
     }
 
     public void refreshData() {
-        isLoading.setValue(true);
         repository.refreshData();
     }
 
@@ -228,6 +273,7 @@ public class MainViewModel extends AndroidViewModel {
     // Search and filter operations
     public void setSearchQuery(String query) {
         searchQuery.setValue(query);
+        employeeSearch.setQuery(query, selectedStatus.getValue());
     }
 
     public LiveData<String> getSearchQuery() {
@@ -236,18 +282,19 @@ public class MainViewModel extends AndroidViewModel {
 
     public void setSelectedStatus(Employee.EmployeeStatus status) {
         selectedStatus.setValue(status);
+        employeeSearch.setQuery(searchQuery.getValue(), status);
     }
 
     public LiveData<Employee.EmployeeStatus> getSelectedStatus() {
         return selectedStatus;
     }
 
+    /**
+     * Employees matching the search query and selected status. Always the same instance; see
+     * {@link EmployeeSearch} for debouncing and caching.
+     */
     public LiveData<List<Employee>> getFilteredEmployees() {
-        return Transformations.switchMap(searchQuery, query ->
-            Transformations.switchMap(selectedStatus, status ->
-                repository.getFilteredEmployees(query, status)
-            )
-        );
+        return employeeSearch.getResults();
     }
 
     // Edit mode operations
@@ -264,7 +311,7 @@ public class MainViewModel extends AndroidViewModel {
         return repository.getTopPerformers(5);
     }
 
-    public LiveData<List<EmployeeDao.UnitScores>> getUnitAverageScores() {
+    public LiveData<List<StatsDao.UnitScore>> getUnitAverageScores() {
         return repository.getUnitAverageScores();
     }
 
@@ -280,19 +327,7 @@ public class MainViewModel extends AndroidViewModel {
 
     // Score Calculations
     public int calculateOverallProgress(List<Skill> skills) {
-        if (skills == null || skills.isEmpty()) {
-            return 0;
-        }
-
-        int totalScore = 0;
-        int totalTarget = 0;
-
-        for (Skill skill : skills) {
-            totalScore += skill.getScore();
-            totalTarget += skill.getTargetScore();
-        }
-
-        return totalTarget > 0 ? (totalScore * 100) / totalTarget : 0;
+        return KompetensiUtil.calculateOverallProgress(skills);
     }
 
     public boolean isSkillBelowTarget(Skill skill) {
@@ -308,23 +343,30 @@ public class MainViewModel extends AndroidViewModel {
     }
 
     // Preference Management
+    /**
+     * Saves both list options in one write. The skill lists are re-sorted through the settings
+     * observer, and only if an option actually changed.
+     */
     public void updatePreferences(String sortOrder, int minScore) {
-        preferenceManager.setSkillSortOrder(sortOrder);
-        preferenceManager.setMinimumSkillScore(minScore);
-        refreshData();
-    }
-
-    public String getSkillSortOrder() {
-        return preferenceManager.getSkillSortOrder();
+        preferenceManager.edit()
+            .setSkillSortOrder(sortOrder)
+            .setMinimumSkillScore(minScore)
+            .apply();
     }
 
-    public int getMinimumSkillScore() {
-        return preferenceManager.getMinimumSkillScore();
+    /**
+     * Emits the list options and every other setting once loaded, and after each change.
+     */
+    public LiveData<PreferenceManager.Settings> getSettings() {
+        return preferenceManager.getSettings();
     }
 
     @Override
     protected void onCleared() {
         super.onCleared();
-        repository.cleanup();
+        employeeSearch.close();
+        executors.removeMainThreadCallbacks(refreshPicker);
+        // The repository and its executors outlive this screen; only commit what it queued
+        repository.flushSkillWrites();
     }
 }
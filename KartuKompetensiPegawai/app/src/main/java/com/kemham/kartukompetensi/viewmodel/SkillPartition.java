@@ -0,0 +1,103 @@
+package com.kemham.kartukompetensi.viewmodel;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+
+import com.kemham.kartukompetensi.model.Skill;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An employee's skills split by category, plus the skills still below target and the best skills
+ * at or above target.
+ */
+public class SkillPartition {
+
+    /** Skills shown as special skills in the employee header. */
+    public static final int MAX_SPECIAL_SKILLS = 6;
+
+    private static final Comparator<Skill> BY_SCORE_DESCENDING = (a, b) -> {
+        int byScore = Integer.compare(b.getScore(), a.getScore());
+        return byScore != 0 ? byScore : Long.compare(a.getId(), b.getId());
+    };
+
+    /**
+     * Filters and orders one partitioned list before it is published.
+     */
+    public interface ListProcessor {
+        List<Skill> process(List<Skill> skills);
+    }
+
+    public static final SkillPartition EMPTY = new SkillPartition(
+        new EnumMap<>(Skill.Category.class), Collections.emptyList(), Collections.emptyList());
+
+    private final Map<Skill.Category, List<Skill>> byCategory;
+    private final List<Skill> developmentAreas;
+    private final List<Skill> specialSkills;
+
+    private SkillPartition(Map<Skill.Category, List<Skill>> byCategory, List<Skill> developmentAreas,
+                           List<Skill> specialSkills) {
+        this.byCategory = byCategory;
+        this.developmentAreas = developmentAreas;
+        this.specialSkills = specialSkills;
+    }
+
+    /**
+     * Splits the skills in a single pass and runs each resulting list through the processor.
+     */
+    @WorkerThread
+    public static SkillPartition of(List<Skill> skills, ListProcessor processor) {
+        if (skills == null || skills.isEmpty()) {
+            return EMPTY;
+        }
+
+        Map<Skill.Category, List<Skill>> byCategory = new EnumMap<>(Skill.Category.class);
+        List<Skill> developmentAreas = new ArrayList<>();
+        List<Skill> specialSkills = new ArrayList<>();
+        for (Skill skill : skills) {
+            Skill.Category category = skill.getCategory() != null ? skill.getCategory() : Skill.Category.BASIC;
+            List<Skill> list = byCategory.get(category);
+            if (list == null) {
+                list = new ArrayList<>();
+                byCategory.put(category, list);
+            }
+            list.add(skill);
+            if (skill.getScore() < skill.getTargetScore()) {
+                developmentAreas.add(skill);
+            } else {
+                specialSkills.add(skill);
+            }
+        }
+
+        for (Map.Entry<Skill.Category, List<Skill>> entry : byCategory.entrySet()) {
+            entry.setValue(processor.process(entry.getValue()));
+        }
+        // Ordered by score only, so the header does not reshuffle when list preferences change
+        Collections.sort(specialSkills, BY_SCORE_DESCENDING);
+        if (specialSkills.size() > MAX_SPECIAL_SKILLS) {
+            specialSkills = new ArrayList<>(specialSkills.subList(0, MAX_SPECIAL_SKILLS));
+        }
+        return new SkillPartition(byCategory, processor.process(developmentAreas), specialSkills);
+    }
+
+    @NonNull
+    public List<Skill> getSkills(Skill.Category category) {
+        List<Skill> skills = byCategory.get(category);
+        return skills != null ? skills : Collections.emptyList();
+    }
+
+    @NonNull
+    public List<Skill> getDevelopmentAreas() {
+        return developmentAreas;
+    }
+
+    @NonNull
+    public List<Skill> getSpecialSkills() {
+        return specialSkills;
+    }
+}
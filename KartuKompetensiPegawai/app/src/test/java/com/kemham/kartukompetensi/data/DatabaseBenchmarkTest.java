@@ -0,0 +1,410 @@
+package com.kemham.kartukompetensi.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Application;
+import android.content.Context;
+import android.database.Cursor;
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.kemham.kartukompetensi.model.Employee;
+import com.kemham.kartukompetensi.model.Employee.EmployeeStatus;
+import com.kemham.kartukompetensi.model.Skill;
+import com.kemham.kartukompetensi.util.JsonLinesWriter;
+import com.kemham.kartukompetensi.util.TableWriter;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Times the DAOs against a file-backed database filled with a {@link SyntheticRoster}, and checks
+ * every timed result against the roster so a fast wrong answer fails the build.
+ *
+ * The default roster keeps {@code ./gradlew test} quick. Larger ministries run with
+ * {@code -Pbenchmark.employees=10000} (or 50000, 200000). Timings are written as JSON Lines to
+ * {@code build/benchmarks/database.jsonl}, one object per measurement, so runs can be charted
+ * across releases.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class DatabaseBenchmarkTest {
+
+    private static final String DATABASE_NAME = "benchmark.db";
+    private static final int DEFAULT_EMPLOYEES = 2000;
+    private static final int INSERT_BATCH_EMPLOYEES = 1000;
+    private static final int READ_ITERATIONS = 5;
+    private static final int WRITE_OPERATIONS = 200;
+    private static final int RESULT_LIMIT = 50;
+
+    private static final String[] COLUMNS = {
+        "test", "name", "employees", "iterations", "rows", "minMs", "medianMs", "maxMs", "opsPerSecond"
+    };
+
+    private static TableWriter results;
+
+    private Context context;
+    private AppDatabase database;
+    private EmployeeDao employeeDao;
+    private SkillDao skillDao;
+    private StatsDao statsDao;
+    private SyntheticRoster roster;
+    private String test;
+
+    @BeforeClass
+    public static void openResults() throws IOException {
+        File dir = new File(System.getProperty("benchmark.resultsDir", "build/benchmarks"));
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        results = new JsonLinesWriter(new FileOutputStream(new File(dir, "database.jsonl")));
+        results.writeHeader(COLUMNS);
+    }
+
+    @AfterClass
+    public static void closeResults() throws IOException {
+        results.close();
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(DATABASE_NAME);
+        // Same schema, triggers and journal mode as the app, on the test thread
+        database = Room.databaseBuilder(context, AppDatabase.class, DATABASE_NAME)
+            .addCallback(new AppDatabase.SchemaCallback())
+            .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING)
+            .setQueryExecutor(Runnable::run)
+            .setTransactionExecutor(Runnable::run)
+            .allowMainThreadQueries()
+            .build();
+        employeeDao = database.employeeDao();
+        skillDao = database.skillDao();
+        statsDao = database.statsDao();
+        roster = new SyntheticRoster(Integer.getInteger("benchmark.employees", DEFAULT_EMPLOYEES));
+        populate();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void employeeQueriesMatchTheRoster() throws Exception {
+        test = "employeeQueries";
+        int employees = roster.getEmployeeCount();
+
+        assertEquals(employees, (int) time("getEmployeeCount", READ_ITERATIONS,
+            () -> await(employeeDao.getEmployeeCount())));
+        assertEquals(employees, (int) time("getAllEmployees", 1,
+            () -> await(employeeDao.getAllEmployees()).size()));
+
+        TreeSet<String> units = new TreeSet<>();
+        Map<EmployeeStatus, Integer> byStatus = new EnumMap<>(EmployeeStatus.class);
+        int inFirstUnit = 0;
+        int reportingToHead = 0;
+        for (int i = 0; i < employees; i++) {
+            Employee employee = roster.employee(i);
+            units.add(employee.getUnit());
+            Integer count = byStatus.get(employee.getStatus());
+            byStatus.put(employee.getStatus(), count == null ? 1 : count + 1);
+            if (employee.getUnit().equals(SyntheticRoster.unit(0))) {
+                inFirstUnit++;
+            }
+            if (SyntheticRoster.supervisorOf(i) == 0) {
+                reportingToHead++;
+            }
+        }
+
+        List<String> storedUnits = time("getAllUnits", READ_ITERATIONS, () -> await(employeeDao.getAllUnits()));
+        assertEquals(new ArrayList<>(units), storedUnits);
+
+        List<Employee> unitEmployees = time("getEmployeesByUnit", READ_ITERATIONS,
+            () -> await(employeeDao.getEmployeesByUnit(SyntheticRoster.unit(0))));
+        assertEquals(inFirstUnit, unitEmployees.size());
+        assertSortedByName(unitEmployees);
+
+        List<Employee> team = time("getEmployeesBySupervisor", READ_ITERATIONS,
+            () -> await(employeeDao.getEmployeesBySupervisor(SyntheticRoster.nip(0))));
+        assertEquals(reportingToHead, team.size());
+
+        for (EmployeeStatus status : EmployeeStatus.values()) {
+            Integer expected = byStatus.get(status);
+            assertEquals(expected == null ? 0 : expected, (int) time("getEmployeeCountByStatus", READ_ITERATIONS,
+                () -> await(employeeDao.getEmployeeCountByStatus(status))));
+            // The summary table answers the same question without scanning employees
+            assertEquals(expected == null ? 0 : expected, (int) time("stats.getEmployeeCountByStatus",
+                READ_ITERATIONS, () -> await(statsDao.getEmployeeCountByStatus(status))));
+        }
+
+        List<Employee> firstPage = time("getEmployeesWithStatus", READ_ITERATIONS,
+            () -> employeeDao.getEmployeesWithStatus(null, RESULT_LIMIT));
+        assertEquals(Math.min(RESULT_LIMIT, employees), firstPage.size());
+        assertSortedByName(firstPage);
+    }
+
+    @Test
+    public void skillQueriesMatchTheRoster() throws Exception {
+        test = "skillQueries";
+        int index = roster.getEmployeeCount() / 2;
+        String nip = SyntheticRoster.nip(index);
+        List<Skill> expected = roster.skills(index, 1);
+
+        List<Skill> skills = time("getEmployeeSkills", READ_ITERATIONS, () -> await(skillDao.getEmployeeSkills(nip)));
+        assertEquals(expected.size(), skills.size());
+        for (int i = 1; i < skills.size(); i++) {
+            Skill previous = skills.get(i - 1);
+            Skill current = skills.get(i);
+            // Categories are stored by name, so they sort by name rather than declaration order
+            int byCategory = previous.getCategory().name().compareTo(current.getCategory().name());
+            assertTrue(byCategory < 0 || byCategory == 0 && previous.getName().compareTo(current.getName()) <= 0);
+        }
+
+        int below = 0;
+        int achieved = 0;
+        for (Skill skill : expected) {
+            if (skill.getScore() < skill.getTargetScore()) {
+                below++;
+            } else {
+                achieved++;
+            }
+        }
+        assertEquals(below, time("getSkillsNeedingDevelopment", READ_ITERATIONS,
+            () -> await(skillDao.getSkillsNeedingDevelopment(nip))).size());
+        assertEquals(RESULT_LIMIT < expected.size() ? RESULT_LIMIT : expected.size(),
+            time("getTopSkills", READ_ITERATIONS, () -> await(skillDao.getTopSkills(nip, RESULT_LIMIT))).size());
+
+        SkillDao.SkillProgress direct = time("getOverallProgress", READ_ITERATIONS,
+            () -> await(skillDao.getOverallProgress(nip)));
+        SkillDao.SkillProgress summarized = time("stats.getOverallProgress", READ_ITERATIONS,
+            () -> await(statsDao.getOverallProgress(nip)));
+        assertEquals(expected.size(), direct.totalSkills);
+        assertEquals(achieved, direct.achievedSkills);
+        assertEquals(direct.totalSkills, summarized.totalSkills);
+        assertEquals(direct.achievedSkills, summarized.achievedSkills);
+    }
+
+    @Test
+    public void searchFindsEmployeesAndSkills() throws Exception {
+        test = "search";
+        String nip = SyntheticRoster.nip(roster.getEmployeeCount() - 1);
+        List<Employee> byNip = time("searchEmployeesWithStatus", READ_ITERATIONS,
+            () -> employeeDao.searchEmployeesWithStatus(FtsQuery.prefix(nip), nip, null, RESULT_LIMIT));
+        assertFalse(byNip.isEmpty());
+        assertEquals(nip, byNip.get(0).getNip());
+
+        // The last name, without title or degree, appears in no other indexed column
+        String[] words = roster.employee(0).getName().split(",")[0].split(" ");
+        String lastName = words[words.length - 1];
+        List<Employee> byName = time("searchEmployeesRanked", READ_ITERATIONS,
+            () -> await(employeeDao.searchEmployeesRanked(FtsQuery.prefix(lastName), lastName, RESULT_LIMIT)));
+        assertFalse(byName.isEmpty());
+        for (Employee employee : byName) {
+            assertTrue(employee.getName(), employee.getName().contains(lastName));
+        }
+
+        List<Skill> skills = time("searchAllSkillsRanked", READ_ITERATIONS,
+            () -> await(skillDao.searchAllSkillsRanked(FtsQuery.prefix("integritas"), "integritas", RESULT_LIMIT)));
+        assertEquals(RESULT_LIMIT, skills.size());
+        for (Skill skill : skills) {
+            assertTrue(skill.getName(), skill.getName().startsWith("Integritas"));
+        }
+    }
+
+    @Test
+    public void listQueriesUseTheirIndices() {
+        // Every list a screen shows must be answered from an index, in index order
+        assertIndexed("SELECT * FROM employees WHERE unit = ? ORDER BY name ASC", SyntheticRoster.unit(0));
+        assertIndexed("SELECT * FROM employees WHERE status = ? ORDER BY name ASC", "ACTIVE");
+        assertIndexed("SELECT * FROM employees WHERE supervisor = ? ORDER BY name ASC", SyntheticRoster.nip(0));
+        assertIndexed("SELECT * FROM employees WHERE status = 'ACTIVE' ORDER BY overallScore DESC LIMIT 10");
+        assertIndexed("SELECT * FROM skills WHERE employeeNip = ? ORDER BY category, name", SyntheticRoster.nip(0));
+        assertIndexed("SELECT * FROM employee_category_stats WHERE employeeNip = ?", SyntheticRoster.nip(0));
+    }
+
+    @Test
+    public void writesKeepTheSummaryTablesConsistent() throws Exception {
+        test = "writes";
+        int employees = roster.getEmployeeCount();
+        Date now = new Date();
+
+        time("updateEmployeeStatus", 1, () -> {
+            database.runInTransaction(() -> {
+                for (int i = 0; i < WRITE_OPERATIONS; i++) {
+                    int index = (int) ((i * 2654435761L) % employees);
+                    employeeDao.updateEmployeeStatus(SyntheticRoster.nip(index), EmployeeStatus.ON_LEAVE);
+                }
+            });
+            return WRITE_OPERATIONS;
+        });
+
+        List<Long> skillIds = new ArrayList<>();
+        try (Cursor cursor = database.query("SELECT id FROM skills ORDER BY id LIMIT " + WRITE_OPERATIONS, null)) {
+            while (cursor.moveToNext()) {
+                skillIds.add(cursor.getLong(0));
+            }
+        }
+        time("updateSkillScore", 1, () -> {
+            database.runInTransaction(() -> {
+                for (int i = 0; i < skillIds.size(); i++) {
+                    skillDao.updateSkillScore(skillIds.get(i), i % 101, now);
+                }
+            });
+            return skillIds.size();
+        });
+
+        Skill removed = skillDao.getSkillSync(skillIds.get(0));
+        assertNotNull(removed);
+        time("deleteSkill", 1, () -> skillDao.delete(removed));
+        time("deleteInactiveEmployees", 1, employeeDao::deleteInactiveEmployees);
+
+        List<String> categoryStats = rows("SELECT * FROM employee_category_stats WHERE skillCount > 0 " +
+            "ORDER BY employeeNip, category");
+        List<String> unitStats = rows("SELECT * FROM unit_stats WHERE headcount > 0 ORDER BY unit, status");
+        time("rebuildStatistics", 1, () -> {
+            database.rebuildStatistics();
+            return employees;
+        });
+        assertEquals(categoryStats, rows("SELECT * FROM employee_category_stats WHERE skillCount > 0 " +
+            "ORDER BY employeeNip, category"));
+        assertEquals(unitStats, rows("SELECT * FROM unit_stats WHERE headcount > 0 ORDER BY unit, status"));
+    }
+
+    private void populate() throws Exception {
+        test = "populate";
+        int employees = roster.getEmployeeCount();
+        int[] skillCount = new int[1];
+        time("insertRoster", 1, () -> {
+            for (int from = 0; from < employees; from += INSERT_BATCH_EMPLOYEES) {
+                int count = Math.min(INSERT_BATCH_EMPLOYEES, employees - from);
+                List<Employee> batch = roster.employees(from, count);
+                List<Skill> skills = roster.skills(from, count);
+                database.runInTransaction(() -> {
+                    employeeDao.insertAll(batch);
+                    skillDao.insertAll(skills);
+                });
+                skillCount[0] += skills.size();
+            }
+            return employees + skillCount[0];
+        });
+        assertEquals(employees, count("employees"));
+        assertEquals(skillCount[0], count("skills"));
+    }
+
+    private int count(String table) {
+        try (Cursor cursor = database.query("SELECT COUNT(*) FROM " + table, null)) {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        }
+    }
+
+    private List<String> rows(String sql) {
+        List<String> rows = new ArrayList<>();
+        try (Cursor cursor = database.query(sql, null)) {
+            String[] values = new String[cursor.getColumnCount()];
+            while (cursor.moveToNext()) {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = cursor.getString(i);
+                }
+                rows.add(Arrays.toString(values));
+            }
+        }
+        return rows;
+    }
+
+    private void assertIndexed(String sql, Object... args) {
+        SupportSQLiteDatabase db = database.getOpenHelper().getReadableDatabase();
+        try (Cursor cursor = db.query("EXPLAIN QUERY PLAN " + sql, args)) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                String step = cursor.getString(detail);
+                assertFalse(sql + ": " + step, step.startsWith("SCAN ") && !step.contains(" USING "));
+                assertFalse(sql + ": " + step, step.contains("TEMP B-TREE"));
+            }
+        }
+    }
+
+    private static void assertSortedByName(List<Employee> employees) {
+        for (int i = 1; i < employees.size(); i++) {
+            assertTrue(employees.get(i - 1).getName().compareTo(employees.get(i).getName()) <= 0);
+        }
+    }
+
+    /**
+     * Runs the body {@code iterations} times and records its timings. Returns the last result;
+     * lists and numbers are recorded as the row count.
+     */
+    private <T> T time(String name, int iterations, Callable<T> body) throws Exception {
+        long[] nanos = new long[iterations];
+        T result = null;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            result = body.call();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        long total = 0;
+        for (long n : nanos) {
+            total += n;
+        }
+        Object rows = result instanceof List ? ((List<?>) result).size()
+            : result instanceof Number ? result : null;
+        results.writeRow(new Object[] {
+            test, name, roster.getEmployeeCount(), iterations, rows,
+            millis(nanos[0]), millis(nanos[iterations / 2]), millis(nanos[iterations - 1]),
+            total > 0 ? iterations * (double) TimeUnit.SECONDS.toNanos(1) / total : null
+        });
+        return result;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Returns the first value a LiveData query delivers to the main thread, which includes the
+     * hop a screen waits for.
+     */
+    private static <T> T await(LiveData<T> data) {
+        AtomicReference<T> value = new AtomicReference<>();
+        Observer<T> observer = value::set;
+        data.observeForever(observer);
+        shadowOf(Looper.getMainLooper()).idle();
+        data.removeObserver(observer);
+        return value.get();
+    }
+}
@@ -0,0 +1,130 @@
+package com.kemham.kartukompetensi.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Application;
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.kemham.kartukompetensi.model.Employee;
+import com.kemham.kartukompetensi.model.Employee.EmployeeStatus;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.util.Date;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class EmployeeDaoTest {
+
+    private static final String NIP = "198501012010011001";
+
+    private AppDatabase database;
+    private EmployeeDao employeeDao;
+    private SupportSQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase.class)
+            .addCallback(new AppDatabase.SchemaCallback())
+            .setQueryExecutor(Runnable::run)
+            .setTransactionExecutor(Runnable::run)
+            .allowMainThreadQueries()
+            .build();
+        employeeDao = database.employeeDao();
+        db = database.getOpenHelper().getWritableDatabase();
+
+        employeeDao.insert(new Employee.Builder(NIP)
+            .name("Budi Santoso")
+            .unit("Direktorat Jenderal Imigrasi")
+            .position("Pemeriksa Keimigrasian")
+            .status(EmployeeStatus.ACTIVE)
+            .targetScore(90)
+            .build());
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void scoreUpdatesLeaveTheSearchIndexAlone() {
+        assertEquals(1, matches("sant*"));
+
+        // Drop the row from the index; an update that reindexes would put it back
+        db.execSQL("DELETE FROM employees_fts WHERE docid = (SELECT rowid FROM employees WHERE nip = ?)",
+            new Object[] {NIP});
+        employeeDao.applyScoreDelta(NIP, 80, 1, new Date());
+        assertEquals(0, matches("sant*"));
+    }
+
+    @Test
+    public void searchableUpdatesReindex() {
+        employeeDao.updateRosterFields(NIP, "Budi Lestari", "Direktorat Jenderal Imigrasi",
+            "Pemeriksa Keimigrasian", null, null, null, null, null, EmployeeStatus.ACTIVE, 90);
+
+        assertEquals(0, matches("sant*"));
+        assertEquals(1, matches("lestari*"));
+    }
+
+    @Test
+    public void rosterUpdatesKeepOptionalFieldsTheRosterLeavesOut() {
+        employeeDao.updateRosterFields(NIP, "Budi Santoso", "Direktorat Jenderal Imigrasi",
+            "Pemeriksa Keimigrasian", "III/a", "budi@kemenkumham.go.id", "08123456789",
+            "197001011995031001", null, EmployeeStatus.ACTIVE, 90);
+        employeeDao.updateRosterFields(NIP, "Budi Santoso", "Direktorat Jenderal Imigrasi",
+            "Pemeriksa Keimigrasian", "III/b", null, null, null, null, EmployeeStatus.ACTIVE, 90);
+
+        try (Cursor cursor = db.query("SELECT grade, email, phoneNumber, supervisor FROM employees WHERE nip = ?",
+                new Object[] {NIP})) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals("III/b", cursor.getString(0));
+            assertEquals("budi@kemenkumham.go.id", cursor.getString(1));
+            assertEquals("08123456789", cursor.getString(2));
+            assertEquals("197001011995031001", cursor.getString(3));
+        }
+    }
+
+    @Test
+    public void anOlderAssessmentKeepsTheLaterDate() {
+        Date newer = new Date(1_700_000_000_000L);
+        Date older = new Date(1_600_000_000_000L);
+
+        employeeDao.applyScoreDelta(NIP, 80, 1, newer);
+        employeeDao.applyScoreDelta(NIP, 60, 1, older);
+        assertEquals(newer.getTime(), lastAssessment());
+
+        // Deletes pass no date and keep the stored one
+        employeeDao.applyScoreDelta(NIP, -60, -1, null);
+        assertEquals(newer.getTime(), lastAssessment());
+    }
+
+    private long lastAssessment() {
+        try (Cursor cursor = db.query("SELECT lastAssessment FROM employees WHERE nip = ?", new Object[] {NIP})) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getLong(0);
+        }
+    }
+
+    private int matches(String query) {
+        try (Cursor cursor = db.query("SELECT COUNT(*) FROM employees_fts WHERE employees_fts MATCH ?",
+                new Object[] {query})) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getInt(0);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.kemham.kartukompetensi.data;
+
+import com.kemham.kartukompetensi.model.Employee;
+import com.kemham.kartukompetensi.model.Employee.EmployeeStatus;
+import com.kemham.kartukompetensi.model.Skill;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * A synthetic ministry roster for database benchmarks: units, a supervisor hierarchy and 20 to 50
+ * skills per employee. Every employee is derived from its index and a fixed seed, so a roster can
+ * be generated in slices of any size and two runs of the same scale produce the same rows.
+ */
+public class SyntheticRoster {
+
+    public static final long SEED = 20240701L;
+    public static final int MIN_SKILLS = 20;
+    public static final int MAX_SKILLS = 50;
+
+    /** Employees per team; the first member of each team supervises the rest. */
+    public static final int TEAM_SIZE = 25;
+
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    // 2024-07-01T00:00:00Z, so assessment dates do not move between runs
+    private static final long REFERENCE_TIME = 1719792000000L;
+
+    private static final String[] CENTRAL_UNITS = {
+        "Sekretariat Jenderal",
+        "Inspektorat Jenderal",
+        "Direktorat Jenderal Peraturan Perundang-undangan",
+        "Direktorat Jenderal Administrasi Hukum Umum",
+        "Direktorat Jenderal Pemasyarakatan",
+        "Direktorat Jenderal Imigrasi",
+        "Direktorat Jenderal Kekayaan Intelektual",
+        "Direktorat Jenderal Hak Asasi Manusia",
+        "Badan Pembinaan Hukum Nasional",
+        "Badan Pengembangan Sumber Daya Manusia",
+        "Badan Strategi Kebijakan"
+    };
+    private static final String[] PROVINCES = {
+        "Aceh", "Sumatera Utara", "Sumatera Barat", "Riau", "Jambi", "Sumatera Selatan",
+        "Bengkulu", "Lampung", "Kepulauan Bangka Belitung", "Kepulauan Riau", "DKI Jakarta",
+        "Jawa Barat", "Jawa Tengah", "DI Yogyakarta", "Jawa Timur", "Banten", "Bali",
+        "Nusa Tenggara Barat", "Nusa Tenggara Timur", "Kalimantan Barat", "Kalimantan Tengah",
+        "Kalimantan Selatan", "Kalimantan Timur", "Kalimantan Utara", "Sulawesi Utara",
+        "Sulawesi Tengah", "Sulawesi Selatan", "Sulawesi Tenggara", "Gorontalo",
+        "Sulawesi Barat", "Maluku", "Maluku Utara", "Papua", "Papua Barat"
+    };
+    private static final String[] POSITIONS = {
+        "Analis Hukum", "Perancang Peraturan Perundang-undangan", "Penyuluh Hukum",
+        "Analis Kepegawaian", "Pranata Komputer", "Pemeriksa Keimigrasian", "Pembimbing Kemasyarakatan",
+        "Analis Kekayaan Intelektual", "Arsiparis", "Auditor", "Pengelola Keuangan", "Penerjemah"
+    };
+    private static final String[] SUPERVISOR_POSITIONS = {
+        "Kepala Subbagian", "Kepala Bagian", "Kepala Bidang", "Koordinator"
+    };
+    private static final String[] GRADES = {
+        "III/a", "III/b", "III/c", "III/d", "IV/a", "IV/b", "IV/c", "IV/d", "IV/e"
+    };
+    private static final String[] FIRST_NAMES = {
+        "Budi", "Siti", "Agus", "Dewi", "Rizky", "Putri", "Andi", "Nur", "Hendra", "Ratna",
+        "Yusuf", "Fitri", "Bambang", "Indah", "Eko", "Wulan", "Dimas", "Sri", "Teguh", "Ayu"
+    };
+    private static final String[] LAST_NAMES = {
+        "Santoso", "Rahmawati", "Wijaya", "Lestari", "Pratama", "Hidayat", "Saputra", "Kurniawan",
+        "Nasution", "Siregar", "Simanjuntak", "Manurung", "Halim", "Setiawan", "Permana", "Utami"
+    };
+    private static final String[] TITLES = { "", "", "", "Dr. ", "Ir. " };
+    private static final String[] DEGREES = { "", ", S.H.", ", S.H., M.H.", ", S.Kom.", ", S.E.", ", M.Si." };
+    private static final String[] SKILLS = {
+        "Integritas", "Kerjasama", "Komunikasi", "Orientasi Pelayanan", "Pengambilan Keputusan",
+        "Analisis Hukum", "Penyusunan Regulasi", "Harmonisasi Peraturan", "Litigasi",
+        "Manajemen Data", "Literasi Digital", "Keamanan Informasi", "Kepemimpinan", "Negosiasi",
+        "Manajemen Perubahan", "Perencanaan Anggaran", "Pengawasan Internal", "Pelayanan Publik",
+        "Bahasa Inggris", "Mediasi"
+    };
+    private static final String[] SKILL_LEVELS = { "Dasar", "Lanjutan", "Ahli" };
+
+    private final int employeeCount;
+
+    public SyntheticRoster(int employeeCount) {
+        this.employeeCount = employeeCount;
+    }
+
+    public int getEmployeeCount() {
+        return employeeCount;
+    }
+
+    /**
+     * Returns a valid, unique 18-digit NIP for an employee index: birth date, appointment month,
+     * gender digit and sequence number.
+     */
+    public static String nip(int index) {
+        int sequence = index % 1000;
+        int rest = index / 1000;
+        int gender = 1 + rest % 2;
+        rest /= 2;
+        int appointmentMonth = 1 + rest % 12;
+        rest /= 12;
+        int appointmentYear = 2000 + rest % 20;
+        rest /= 20;
+        int birthDay = 1 + rest % 28;
+        rest /= 28;
+        int birthMonth = 1 + rest % 12;
+        int birthYear = appointmentYear - 22 - sequence % 10;
+        return String.format(Locale.ROOT, "%04d%02d%02d%04d%02d%d%03d",
+            birthYear, birthMonth, birthDay, appointmentYear, appointmentMonth, gender, sequence);
+    }
+
+    /**
+     * Returns the unit of an employee index. Teams stay within one unit.
+     */
+    public static String unit(int index) {
+        int team = index / TEAM_SIZE;
+        int units = CENTRAL_UNITS.length + PROVINCES.length;
+        int unit = (int) ((team * 2654435761L) % units);
+        return unit < CENTRAL_UNITS.length
+            ? CENTRAL_UNITS[unit]
+            : "Kantor Wilayah " + PROVINCES[unit - CENTRAL_UNITS.length];
+    }
+
+    /**
+     * Returns the index of an employee's supervisor, or -1 for the head of the roster. Team leads
+     * report to the lead of the team their own team number falls in, which gives a shallow tree.
+     */
+    public static int supervisorOf(int index) {
+        if (index % TEAM_SIZE != 0) {
+            return index - index % TEAM_SIZE;
+        }
+        if (index == 0) {
+            return -1;
+        }
+        int parent = index / TEAM_SIZE;
+        return parent - parent % TEAM_SIZE;
+    }
+
+    /**
+     * Builds employees {@code [from, from + count)}.
+     */
+    public List<Employee> employees(int from, int count) {
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            employees.add(employee(i));
+        }
+        return employees;
+    }
+
+    /**
+     * Builds every skill of employees {@code [from, from + count)}.
+     */
+    public List<Skill> skills(int from, int count) {
+        List<Skill> skills = new ArrayList<>(count * (MIN_SKILLS + MAX_SKILLS) / 2);
+        int[] pool = new int[SKILLS.length * SKILL_LEVELS.length];
+        for (int i = from; i < from + count; i++) {
+            addSkills(i, pool, skills);
+        }
+        return skills;
+    }
+
+    public Employee employee(int index) {
+        Random random = random(index);
+        boolean lead = index % TEAM_SIZE == 0;
+        int supervisor = supervisorOf(index);
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+
+        int statusRoll = random.nextInt(100);
+        EmployeeStatus status = statusRoll < 90 ? EmployeeStatus.ACTIVE
+            : statusRoll < 94 ? EmployeeStatus.ON_LEAVE
+            : statusRoll < 97 ? EmployeeStatus.TRANSFERRED
+            : EmployeeStatus.INACTIVE;
+
+        return new Employee.Builder(nip(index))
+            .name(TITLES[random.nextInt(TITLES.length)] + firstName + " " + lastName
+                + DEGREES[random.nextInt(DEGREES.length)])
+            .unit(unit(index))
+            .position(lead
+                ? SUPERVISOR_POSITIONS[random.nextInt(SUPERVISOR_POSITIONS.length)]
+                : POSITIONS[random.nextInt(POSITIONS.length)])
+            .grade(GRADES[lead ? 4 + random.nextInt(GRADES.length - 4) : random.nextInt(GRADES.length)])
+            .email(firstName.toLowerCase(Locale.ROOT) + "." + lastName.toLowerCase(Locale.ROOT)
+                + index + "@kemenkumham.go.id")
+            .phoneNumber(String.format(Locale.ROOT, "08%010d", (index * 7919L) % 10000000000L))
+            .joinDate(new Date(REFERENCE_TIME - (365 + random.nextInt(30 * 365)) * DAY_MS))
+            .supervisor(supervisor >= 0 ? nip(supervisor) : null)
+            .status(status)
+            .targetScore(70 + random.nextInt(31))
+            .build();
+    }
+
+    private void addSkills(int index, int[] pool, List<Skill> out) {
+        // Skills have their own stream so employee fields do not depend on the skill count
+        Random random = random(~index);
+        String employeeNip = nip(index);
+        int supervisor = supervisorOf(index);
+        String assessor = supervisor >= 0 ? nip(supervisor) : employeeNip;
+        Skill.Category[] categories = Skill.Category.values();
+        Skill.Level[] levels = Skill.Level.values();
+
+        // Partial Fisher-Yates shuffle so the names are distinct within one employee
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = i;
+        }
+        int count = MIN_SKILLS + random.nextInt(MAX_SKILLS - MIN_SKILLS + 1);
+        for (int i = 0; i < count; i++) {
+            int pick = i + random.nextInt(pool.length - i);
+            int skill = pool[pick];
+            pool[pick] = pool[i];
+            pool[i] = skill;
+
+            String name = SKILLS[skill / SKILL_LEVELS.length] + " " + SKILL_LEVELS[skill % SKILL_LEVELS.length];
+            // Scores cluster around 70, like real assessments
+            int score = Math.max(0, Math.min(100, (int) Math.round(70 + random.nextGaussian() * 15)));
+            int targetScore = 70 + random.nextInt(31);
+            Skill.Builder builder = new Skill.Builder()
+                .employeeNip(employeeNip)
+                .name(name)
+                .description("Kompetensi " + name.toLowerCase(Locale.ROOT))
+                .score(score)
+                .targetScore(targetScore)
+                .category(categories[random.nextInt(categories.length)])
+                .priorityLevel(levels[random.nextInt(levels.length)])
+                .lastAssessed(new Date(REFERENCE_TIME - random.nextInt(2 * 365) * DAY_MS))
+                .assessor(assessor);
+            if (score < targetScore) {
+                builder.recommendation("Ikuti pelatihan " + name.toLowerCase(Locale.ROOT));
+            }
+            out.add(builder.build());
+        }
+    }
+
+    private static Random random(int index) {
+        return new Random(SEED * 31 + index);
+    }
+}
@@ -0,0 +1,241 @@
+package com.kemham.kartukompetensi.jobs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the schedule with a hand-advanced clock; no Android or real time involved.
+ */
+public class JobPlannerTest {
+
+    private static final long START = 1_700_000_000_000L;
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final int ALL = JobSpec.ALL_CONSTRAINTS;
+
+    private FakeClock clock;
+    private JobPlanner planner;
+
+    @Before
+    public void setUp() {
+        clock = new FakeClock(START);
+        planner = new JobPlanner(clock, Collections.emptyMap());
+    }
+
+    @Test
+    public void newJobFirstRunsOneIntervalLater() {
+        JobSpec daily = daily("daily", 0);
+        planner.put(daily);
+
+        clock.advance(24 * HOUR - 1);
+        assertEquals(Collections.emptyList(), planner.runnable(ALL));
+
+        clock.advance(1);
+        assertEquals(Collections.singletonList(daily), planner.runnable(ALL));
+    }
+
+    @Test
+    public void successSchedulesTheNextRunAFullIntervalAfterTheRun() {
+        JobSpec daily = daily("daily", 0);
+        planner.put(daily);
+        clock.advance(30 * HOUR);
+
+        planner.finished(daily, true);
+
+        assertEquals(clock.now + 24 * HOUR, planner.nextRunAt("daily"));
+        assertEquals(clock.now, planner.states().get("daily").lastRunAt);
+        assertEquals(0, planner.failures("daily"));
+    }
+
+    @Test
+    public void failuresBackOffExponentiallyUpToTheMaximum() {
+        JobSpec job = JobSpec.builder("job", () -> { })
+            .every(24, TimeUnit.HOURS)
+            .backoff(15, 4 * 60, TimeUnit.MINUTES)
+            .build();
+        planner.put(job);
+        clock.advance(24 * HOUR);
+
+        long[] expectedMinutes = {15, 30, 60, 120, 240, 240};
+        for (int i = 0; i < expectedMinutes.length; i++) {
+            planner.finished(job, false);
+            assertEquals(i + 1, planner.failures("job"));
+            assertEquals(clock.now + expectedMinutes[i] * MINUTE, planner.nextRunAt("job"));
+            clock.advance(expectedMinutes[i] * MINUTE);
+        }
+
+        planner.finished(job, true);
+        assertEquals(0, planner.failures("job"));
+        assertEquals(clock.now + 24 * HOUR, planner.nextRunAt("job"));
+    }
+
+    @Test
+    public void backoffNeverExceedsTheInterval() {
+        JobSpec job = JobSpec.builder("job", () -> { })
+            .every(30, TimeUnit.MINUTES)
+            .backoff(1, 240, TimeUnit.MINUTES)
+            .build();
+        planner.put(job);
+        clock.advance(30 * MINUTE);
+
+        for (int i = 0; i < 10; i++) {
+            planner.finished(job, false);
+        }
+        assertEquals(clock.now + 30 * MINUTE, planner.nextRunAt("job"));
+    }
+
+    @Test
+    public void jobWaitsForItsConstraints() {
+        JobSpec job = daily("job", JobSpec.REQUIRES_IDLE | JobSpec.REQUIRES_BATTERY_NOT_LOW);
+        planner.put(job);
+        clock.advance(48 * HOUR);
+
+        assertEquals(Collections.emptyList(), planner.runnable(JobSpec.REQUIRES_IDLE));
+        assertEquals(Collections.emptyList(), planner.runnable(JobSpec.REQUIRES_BATTERY_NOT_LOW));
+        assertEquals(Collections.singletonList(job),
+            planner.runnable(JobSpec.REQUIRES_IDLE | JobSpec.REQUIRES_BATTERY_NOT_LOW));
+    }
+
+    @Test
+    public void dueJobPullsInJobsWhoseFlexWindowHasOpened() {
+        JobSpec first = daily("first", 0);
+        planner.put(first);
+        clock.advance(2 * HOUR);
+        JobSpec inFlex = daily("inFlex", 0);
+        planner.put(inFlex);
+        clock.advance(5 * HOUR);
+        JobSpec outsideFlex = daily("outsideFlex", 0);
+        planner.put(outsideFlex);
+
+        // Nothing is due yet, so nothing runs early on its own
+        clock.advance(24 * HOUR - 7 * HOUR - 1);
+        assertEquals(Collections.emptyList(), planner.runnable(ALL));
+
+        // "first" is due; "inFlex" is 2 hours early, inside its 6-hour flex; "outsideFlex" is 7 early
+        clock.advance(1);
+        assertEquals(Arrays.asList(first, inFlex), planner.runnable(ALL));
+    }
+
+    @Test
+    public void batchIsOrderedByNextRunTime() {
+        JobSpec late = daily("late", 0);
+        JobSpec early = daily("early", 0);
+        planner.put(late);
+        planner.put(early);
+        planner.finished(early, false);
+
+        clock.advance(24 * HOUR);
+        List<JobSpec> batch = planner.runnable(ALL);
+        assertEquals(Arrays.asList(early, late), batch);
+    }
+
+    @Test
+    public void historySurvivesARestart() {
+        JobSpec daily = daily("daily", 0);
+        planner.put(daily);
+        clock.advance(24 * HOUR);
+        planner.finished(daily, true);
+        long nextRunAt = planner.nextRunAt("daily");
+
+        JobPlanner restarted = new JobPlanner(clock, copy(planner.states()));
+        clock.advance(HOUR);
+        restarted.put(daily("daily", 0));
+
+        assertEquals(nextRunAt, restarted.nextRunAt("daily"));
+    }
+
+    @Test
+    public void shorterIntervalPullsInTheNextRun() {
+        planner.put(daily("job", 0));
+        JobPlanner restarted = new JobPlanner(clock, copy(planner.states()));
+
+        restarted.put(JobSpec.builder("job", () -> { }).every(1, TimeUnit.HOURS).build());
+
+        assertEquals(clock.now + HOUR, restarted.nextRunAt("job"));
+    }
+
+    @Test
+    public void clockSetBackwardsWaitsAtMostOneInterval() {
+        planner.put(daily("job", 0));
+        clock.advance(-72 * HOUR);
+
+        assertEquals(Collections.emptyList(), planner.runnable(ALL));
+        assertEquals(clock.now + 24 * HOUR, planner.nextRunAt("job"));
+    }
+
+    @Test
+    public void jobsShareOneWakeupPerConstraintSet() {
+        planner.put(daily("idleA", JobSpec.REQUIRES_IDLE));
+        clock.advance(HOUR);
+        planner.put(daily("idleB", JobSpec.REQUIRES_IDLE));
+        planner.put(JobSpec.builder("charging", () -> { })
+            .every(2, TimeUnit.HOURS)
+            .require(JobSpec.REQUIRES_CHARGING)
+            .build());
+
+        Map<Integer, Long> wakeups = planner.wakeups();
+        assertEquals(2, wakeups.size());
+        assertEquals(Long.valueOf(START + 24 * HOUR), wakeups.get(JobSpec.REQUIRES_IDLE));
+        assertEquals(Long.valueOf(clock.now + 2 * HOUR), wakeups.get(JobSpec.REQUIRES_CHARGING));
+    }
+
+    @Test
+    public void outcomeOfARemovedOrReplacedJobIsIgnored() {
+        JobSpec old = daily("job", 0);
+        planner.put(old);
+        clock.advance(24 * HOUR);
+        planner.put(daily("job", 0));
+
+        planner.finished(old, false);
+        assertEquals(0, planner.failures("job"));
+
+        assertTrue(planner.remove("job"));
+        planner.finished(old, true);
+        assertEquals(Long.MAX_VALUE, planner.nextRunAt("job"));
+    }
+
+    private static JobSpec daily(String name, int constraints) {
+        return JobSpec.builder(name, () -> { })
+            .every(24, TimeUnit.HOURS)
+            .flex(6, TimeUnit.HOURS)
+            .require(constraints)
+            .backoff(15, 4 * 60, TimeUnit.MINUTES)
+            .build();
+    }
+
+    private static Map<String, JobState> copy(Map<String, JobState> states) {
+        Map<String, JobState> copy = new HashMap<>();
+        for (Map.Entry<String, JobState> entry : states.entrySet()) {
+            JobState state = entry.getValue();
+            copy.put(entry.getKey(), new JobState(state.nextRunAt, state.lastRunAt, state.failures));
+        }
+        return copy;
+    }
+
+    private static final class FakeClock implements Clock {
+        long now;
+
+        FakeClock(long now) {
+            this.now = now;
+        }
+
+        void advance(long ms) {
+            now += ms;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.kemham.kartukompetensi.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import android.app.Application;
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.kemham.kartukompetensi.data.AppDatabase;
+import com.kemham.kartukompetensi.model.Employee;
+import com.kemham.kartukompetensi.model.Skill;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class CompetencyExporterTest {
+
+    // One more than a batch, so the export has a second batch to cancel
+    private static final int EMPLOYEES = CompetencyExporter.EMPLOYEE_BATCH_SIZE + 1;
+
+    @Rule
+    public final TemporaryFolder files = new TemporaryFolder();
+
+    private AppDatabase database;
+    private CompetencyExporter exporter;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase.class)
+            .addCallback(new AppDatabase.SchemaCallback())
+            .allowMainThreadQueries()
+            .build();
+        exporter = new CompetencyExporter(database);
+
+        List<Employee> employees = new ArrayList<>(EMPLOYEES);
+        List<Skill> skills = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            String nip = String.format(Locale.ROOT, "19850101201001%04d", i);
+            employees.add(new Employee.Builder(nip).name("Pegawai " + i).unit("Sekretariat").build());
+            skills.add(new Skill.Builder().employeeNip(nip).name("Integritas").score(80).targetScore(100).build());
+        }
+        database.employeeDao().insertAllIfAbsent(employees);
+        database.skillDao().insertAll(skills);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void aCompleteExportIsAWorkbook() throws IOException {
+        File file = files.newFile("kompetensi.xlsx");
+        int rows = exporter.export(new FileOutputStream(file), CompetencyExporter.Format.XLSX, null, null);
+
+        assertEquals(EMPLOYEES, rows);
+        try (ZipFile workbook = new ZipFile(file)) {
+            assertNotNull(workbook.getEntry("xl/workbook.xml"));
+            assertNotNull(workbook.getEntry("xl/worksheets/sheet1.xml"));
+        }
+    }
+
+    @Test
+    public void aCancelledExportIsNotAWorkbook() throws IOException {
+        File file = files.newFile("kompetensi.xlsx");
+        CompetencyExporter.ExportListener cancelAfterFirstBatch = new CompetencyExporter.ExportListener() {
+            @Override
+            public void onProgress(int rowsWritten) {
+                Thread.currentThread().interrupt();
+            }
+
+            @Override
+            public void onComplete(int rowsWritten) {
+                fail("A cancelled export completed");
+            }
+        };
+
+        try {
+            exporter.export(new FileOutputStream(file), CompetencyExporter.Format.XLSX, null, cancelAfterFirstBatch);
+            fail("The export was not cancelled");
+        } catch (InterruptedIOException expected) {
+            // Clear the flag for the rest of the test
+            Thread.interrupted();
+        }
+
+        // Without the central directory the file cannot be opened as a zip, let alone a workbook
+        try (ZipFile ignored = new ZipFile(file)) {
+            fail("A cancelled export left a readable workbook");
+        } catch (ZipException expected) {
+            // No end of central directory record
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.kemham.kartukompetensi.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Application;
+import android.content.Context;
+import android.database.Cursor;
+import android.util.JsonWriter;
+
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.kemham.kartukompetensi.data.AppDatabase;
+import com.kemham.kartukompetensi.data.SyntheticRoster;
+import com.kemham.kartukompetensi.model.Employee;
+import com.kemham.kartukompetensi.model.Skill;
+import com.kemham.kartukompetensi.repository.RosterImporter.ImportResult;
+import com.kemham.kartukompetensi.repository.RosterImporter.RowError;
+import com.kemham.kartukompetensi.util.AppSettings;
+import com.kemham.kartukompetensi.util.CsvWriter;
+import com.kemham.kartukompetensi.util.JsonLinesWriter;
+import com.kemham.kartukompetensi.util.Priority;
+import com.kemham.kartukompetensi.util.PriorityExecutor;
+import com.kemham.kartukompetensi.util.TableWriter;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams a 100k-row roster file and a 100k-row assessment file through {@link RosterImporter}
+ * into a file-backed database, and checks that every valid row landed and every bad one was
+ * reported with its row number.
+ *
+ * Throughput is written as JSON Lines to {@code build/benchmarks/import.jsonl}, one object per
+ * import, next to the DAO timings of {@link com.kemham.kartukompetensi.data.DatabaseBenchmarkTest}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class ImportBenchmarkTest {
+
+    private static final String DATABASE_NAME = "import-benchmark.db";
+    private static final int ROWS = 100_000;
+    // One row in this many is made invalid, to time the error path along with the rest
+    private static final int BAD_ROW_INTERVAL = 1000;
+    private static final long TIMEOUT_SECONDS = 30;
+
+    private static final String[] EMPLOYEE_COLUMNS = {
+        "nip", "name", "unit", "position", "grade", "email", "phoneNumber", "supervisor", "joinDate",
+        "status", "targetScore"
+    };
+
+    private static final String[] COLUMNS = {
+        "test", "kind", "format", "rows", "imported", "errors", "ms", "rowsPerSecond"
+    };
+
+    private static TableWriter results;
+
+    @Rule
+    public final TemporaryFolder files = new TemporaryFolder();
+
+    private Context context;
+    private AppDatabase database;
+    private PriorityExecutor writes;
+    private RosterImporter importer;
+    private SyntheticRoster roster;
+
+    @BeforeClass
+    public static void openResults() throws IOException {
+        File dir = new File(System.getProperty("benchmark.resultsDir", "build/benchmarks"));
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        results = new JsonLinesWriter(new FileOutputStream(new File(dir, "import.jsonl")));
+        results.writeHeader(COLUMNS);
+    }
+
+    @AfterClass
+    public static void closeResults() throws IOException {
+        results.close();
+    }
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(DATABASE_NAME);
+        // Same schema, triggers and journal mode as the app
+        database = Room.databaseBuilder(context, AppDatabase.class, DATABASE_NAME)
+            .addCallback(new AppDatabase.SchemaCallback())
+            .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING)
+            .allowMainThreadQueries()
+            .build();
+        // A write lane of its own, like the app's, so chunks are committed off the test thread
+        writes = new PriorityExecutor("import-writes", 1, Priority.INTERACTIVE);
+        importer = new RosterImporter(database, writes);
+        roster = new SyntheticRoster(ROWS);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        writes.shutdown();
+        writes.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        database.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void importsA100kRowRosterCsv() throws IOException {
+        File file = files.newFile("roster.csv");
+        SimpleDateFormat dates = new SimpleDateFormat("yyyy-MM-dd", Locale.ROOT);
+        try (CsvWriter csv = new CsvWriter(new FileOutputStream(file))) {
+            csv.writeHeader(EMPLOYEE_COLUMNS);
+            for (int i = 0; i < ROWS; i++) {
+                Employee e = roster.employee(i);
+                csv.writeRow(new Object[] {
+                    isBadRow(i) ? "19850101201001100X" : e.getNip(), e.getName(), e.getUnit(),
+                    e.getPosition(), e.getGrade(), e.getEmail(), e.getPhoneNumber(), e.getSupervisor(),
+                    dates.format(e.getJoinDate()), e.getStatus().name(), e.getTargetScore()
+                });
+            }
+        }
+
+        ProgressRecorder progress = new ProgressRecorder();
+        ImportResult result = time("roster", RosterImporter.Kind.EMPLOYEES, RosterImporter.Format.CSV,
+            file, progress);
+
+        int bad = ROWS / BAD_ROW_INTERVAL;
+        assertEquals(ROWS, result.getRowsRead());
+        assertEquals(ROWS - bad, result.getRowsImported());
+        assertEquals(bad, result.getErrorCount());
+        assertEquals(ROWS - bad, count("SELECT COUNT(*) FROM employees"));
+        assertEquals(ROWS - bad, count("SELECT SUM(headcount) FROM unit_stats"));
+        // CSV rows are numbered by line, and the header is line 1
+        RowError first = result.getErrors().get(0);
+        assertEquals(2 + BAD_ROW_INTERVAL - 1, first.getRow());
+        assertTrue(first.getMessage(), first.getMessage().startsWith("Invalid NIP"));
+        // Rows with a bad NIP never reach a chunk
+        progress.assertCoversEveryChunk(result, (ROWS - bad + RosterImporter.CHUNK_SIZE - 1)
+            / RosterImporter.CHUNK_SIZE);
+
+        Employee expected = roster.employee(1);
+        assertEquals(Collections.singletonList(expected.getName() + "|" + expected.getSupervisor() + "|"
+                + expected.getStatus().name() + "|"),
+            rows("SELECT name, supervisor, status FROM employees WHERE nip = '" + expected.getNip() + "'"));
+    }
+
+    @Test
+    public void importsA100kRowAssessmentJson() throws IOException {
+        // Skills of the first employees until the file holds ROWS assessments
+        List<Skill> skills = new ArrayList<>(ROWS);
+        int employees = 0;
+        while (skills.size() < ROWS) {
+            skills.addAll(roster.skills(employees++, 1));
+        }
+        skills.subList(ROWS, skills.size()).clear();
+        database.employeeDao().insertAllIfAbsent(roster.employees(0, employees));
+
+        File file = files.newFile("assessments.json");
+        SimpleDateFormat dates = new SimpleDateFormat(AppSettings.DATE_FORMAT_ISO, Locale.ROOT);
+        dates.setTimeZone(TimeZone.getTimeZone("UTC"));
+        String unknownNip = SyntheticRoster.nip(employees);
+        try (JsonWriter json = new JsonWriter(new OutputStreamWriter(new FileOutputStream(file),
+                StandardCharsets.UTF_8))) {
+            json.beginArray();
+            for (int i = 0; i < ROWS; i++) {
+                Skill s = skills.get(i);
+                json.beginObject()
+                    .name("employeeNip").value(isBadRow(i) ? unknownNip : s.getEmployeeNip())
+                    .name("name").value(s.getName())
+                    .name("score").value(s.getScore())
+                    .name("targetScore").value(s.getTargetScore())
+                    .name("description").value(s.getDescription())
+                    .name("category").value(s.getCategory().name())
+                    .name("priorityLevel").value(s.getPriorityLevel().name())
+                    .name("assessor").value(s.getAssessor())
+                    .name("lastAssessed").value(dates.format(s.getLastAssessed()))
+                    .endObject();
+            }
+            json.endArray();
+        }
+
+        ProgressRecorder progress = new ProgressRecorder();
+        ImportResult result = time("assessments", RosterImporter.Kind.SKILLS, RosterImporter.Format.JSON,
+            file, progress);
+
+        int bad = ROWS / BAD_ROW_INTERVAL;
+        assertEquals(ROWS, result.getRowsRead());
+        assertEquals(ROWS - bad, result.getRowsImported());
+        assertEquals(bad, result.getErrorCount());
+        assertEquals(ROWS - bad, count("SELECT COUNT(*) FROM skills"));
+        // JSON rows are numbered by element, from 1
+        RowError first = result.getErrors().get(0);
+        assertEquals(BAD_ROW_INTERVAL, first.getRow());
+        assertEquals("Unknown employee " + unknownNip, first.getMessage());
+        // Unknown employees are only found when the chunk is written, so every row is in a chunk
+        progress.assertCoversEveryChunk(result, (ROWS + RosterImporter.CHUNK_SIZE - 1)
+            / RosterImporter.CHUNK_SIZE);
+
+        // Scores were updated by delta in the chunk transactions, so a rebuild changes nothing
+        assertEquals(ROWS - bad, count("SELECT SUM(skillCount) FROM employees"));
+        List<String> before = rows("SELECT * FROM employee_category_stats ORDER BY employeeNip, category");
+        database.rebuildStatistics();
+        assertEquals(before, rows("SELECT * FROM employee_category_stats ORDER BY employeeNip, category"));
+    }
+
+    private ImportResult time(String test, RosterImporter.Kind kind, RosterImporter.Format format,
+                              File file, ProgressRecorder progress) throws IOException {
+        long start = System.nanoTime();
+        ImportResult result = importer.importStream(new FileInputStream(file), kind, format, progress);
+        long nanos = System.nanoTime() - start;
+
+        assertFalse(result.isCancelled());
+        assertEquals(1, progress.completions);
+        results.writeRow(new Object[] {
+            test, kind.name(), format.name(), result.getRowsRead(), result.getRowsImported(),
+            result.getErrorCount(), nanos / (double) TimeUnit.MILLISECONDS.toNanos(1),
+            result.getRowsRead() * (double) TimeUnit.SECONDS.toNanos(1) / nanos
+        });
+        return result;
+    }
+
+    private static boolean isBadRow(int index) {
+        return index % BAD_ROW_INTERVAL == BAD_ROW_INTERVAL - 1;
+    }
+
+    private int count(String sql) {
+        try (Cursor cursor = database.query(sql, null)) {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        }
+    }
+
+    private List<String> rows(String sql) {
+        List<String> rows = new ArrayList<>();
+        try (Cursor cursor = database.query(sql, null)) {
+            while (cursor.moveToNext()) {
+                StringBuilder row = new StringBuilder();
+                for (int i = 0; i < cursor.getColumnCount(); i++) {
+                    row.append(cursor.getString(i)).append('|');
+                }
+                rows.add(row.toString());
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Records the callbacks of one import.
+     */
+    private static class ProgressRecorder implements RosterImporter.ImportListener {
+        final List<Integer> imported = new ArrayList<>();
+        int rowErrors;
+        int completions;
+
+        @Override
+        public void onProgress(int rowsRead, int rowsImported) {
+            imported.add(rowsImported);
+        }
+
+        @Override
+        public void onRowError(RowError error) {
+            rowErrors++;
+        }
+
+        @Override
+        public void onComplete(ImportResult result) {
+            completions++;
+        }
+
+        /**
+         * Checks that progress was reported once per committed chunk, growing to the final count.
+         */
+        void assertCoversEveryChunk(ImportResult result, int chunks) {
+            assertEquals(chunks, imported.size());
+            for (int i = 1; i < imported.size(); i++) {
+                assertTrue(imported.get(i) > imported.get(i - 1));
+            }
+            assertEquals(result.getRowsImported(), (int) imported.get(imported.size() - 1));
+            assertEquals(result.getErrorCount(), rowErrors);
+        }
+    }
+}
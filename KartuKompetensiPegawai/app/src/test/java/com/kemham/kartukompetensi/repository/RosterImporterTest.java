@@ -0,0 +1,120 @@
+package com.kemham.kartukompetensi.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Application;
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.kemham.kartukompetensi.data.AppDatabase;
+import com.kemham.kartukompetensi.model.Employee;
+import com.kemham.kartukompetensi.repository.RosterImporter.ImportResult;
+import com.kemham.kartukompetensi.util.Priority;
+import com.kemham.kartukompetensi.util.PriorityExecutor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class RosterImporterTest {
+
+    private static final String NIP = "198501012010011001";
+    private static final String ASSESSMENTS =
+        "employeeNip,name,category,score,targetScore\n" +
+        NIP + ",Integritas,BASIC,80,100\n" +
+        NIP + ",Analisis Hukum,TECHNICAL,60,80\n";
+
+    private AppDatabase database;
+    private PriorityExecutor writes;
+    private RosterImporter importer;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase.class)
+            .addCallback(new AppDatabase.SchemaCallback())
+            .allowMainThreadQueries()
+            .build();
+        writes = new PriorityExecutor("import-writes", 1, Priority.INTERACTIVE);
+        importer = new RosterImporter(database, writes);
+
+        database.employeeDao().insert(new Employee.Builder(NIP)
+            .name("Budi Santoso")
+            .unit("Direktorat Jenderal Imigrasi")
+            .status(Employee.EmployeeStatus.ACTIVE)
+            .targetScore(90)
+            .build());
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        writes.shutdown();
+        writes.awaitTermination(10, TimeUnit.SECONDS);
+        database.close();
+    }
+
+    @Test
+    public void reimportingTheSameAssessmentsReplacesThem() throws IOException {
+        importSkills(ASSESSMENTS);
+        importSkills(ASSESSMENTS);
+
+        // 80/100 and 60/80 are 80% and 75%
+        assertEquals(2, count("SELECT COUNT(*) FROM skills"));
+        assertEquals("2|155|77", row("SELECT skillCount, skillProgressSum, overallScore FROM employees"));
+        assertEquals(2, count("SELECT SUM(skillCount) FROM employee_category_stats"));
+    }
+
+    @Test
+    public void reimportedScoresReplaceTheStoredOnes() throws IOException {
+        importSkills(ASSESSMENTS);
+        ImportResult result = importSkills(
+            "employeeNip,name,category,score,targetScore\n" +
+            NIP + ",Integritas,BASIC,50,100\n" +
+            // A row repeated within one file keeps the last one
+            NIP + ",Integritas,BASIC,90,100\n");
+
+        assertEquals(2, result.getRowsImported());
+        assertEquals(90, count("SELECT score FROM skills WHERE name = 'Integritas'"));
+        assertEquals("2|165|82", row("SELECT skillCount, skillProgressSum, overallScore FROM employees"));
+        assertEquals(150, count("SELECT SUM(scoreSum) FROM employee_category_stats"));
+    }
+
+    private ImportResult importSkills(String csv) throws IOException {
+        return importer.importStream(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+            RosterImporter.Kind.SKILLS, RosterImporter.Format.CSV, null);
+    }
+
+    private long count(String sql) {
+        try (Cursor cursor = database.query(sql, null)) {
+            assertTrue(sql, cursor.moveToFirst());
+            return cursor.getLong(0);
+        }
+    }
+
+    private String row(String sql) {
+        try (Cursor cursor = database.query(sql, null)) {
+            assertTrue(sql, cursor.moveToFirst());
+            StringBuilder row = new StringBuilder();
+            for (int i = 0; i < cursor.getColumnCount(); i++) {
+                row.append(i > 0 ? "|" : "").append(cursor.getString(i));
+            }
+            return row.toString();
+        }
+    }
+}
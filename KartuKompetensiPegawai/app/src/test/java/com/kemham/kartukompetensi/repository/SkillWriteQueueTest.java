@@ -0,0 +1,301 @@
+package com.kemham.kartukompetensi.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Application;
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.kemham.kartukompetensi.data.AppDatabase;
+import com.kemham.kartukompetensi.model.Employee;
+import com.kemham.kartukompetensi.model.Skill;
+import com.kemham.kartukompetensi.util.Priority;
+import com.kemham.kartukompetensi.util.PriorityExecutor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class SkillWriteQueueTest {
+
+    private static final String NIP = "198501012010011001";
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private AppDatabase database;
+    private CountingExecutor writes;
+    private ManualScheduler scheduler;
+    private RecordingScoreEngine scoreEngine;
+    private List<Exception> errors;
+    private SkillWriteQueue queue;
+
+    @Before
+    public void setUp() {
+        database = Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), AppDatabase.class)
+            .addCallback(new RoomDatabase.Callback() {
+                @Override
+                public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                    // As in the app, so a skill of a missing employee fails
+                    db.execSQL("PRAGMA foreign_keys = ON");
+                }
+            })
+            .allowMainThreadQueries()
+            .build();
+        database.employeeDao().insert(new Employee.Builder(NIP).name("Budi Santoso").build());
+
+        // A write lane and flush timer of this test's own, so nothing else runs on them
+        writes = new CountingExecutor();
+        scheduler = new ManualScheduler();
+        scoreEngine = new RecordingScoreEngine(database);
+        errors = Collections.synchronizedList(new ArrayList<>());
+        queue = new SkillWriteQueue(database, scoreEngine, writes, scheduler, errors::add);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        queue.awaitFlush(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        writes.shutdown();
+        writes.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        database.close();
+    }
+
+    @Test
+    public void writesAreCommittedWhenTheWindowCloses() throws Exception {
+        queue.insert(skill(0, "Integritas", 70));
+        queue.insert(skill(0, "Kerjasama", 80));
+
+        // One window for both writes, and nothing submitted before it closes
+        assertEquals(1, scheduler.tasks.size());
+        assertEquals(SkillWriteQueue.FLUSH_WINDOW_MS, (long) scheduler.delays.get(0));
+        assertEquals(0, writes.submitted.get());
+
+        scheduler.runAll();
+        awaitWrites();
+
+        assertEquals(1, writes.submitted.get());
+        assertEquals(0, queue.getPendingCount());
+        assertEquals(2, count("SELECT COUNT(*) FROM skills"));
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void repeatedEditsToOneSkillAreCoalesced() throws InterruptedException {
+        long id = scoreEngine.insertSkill(skill(0, "Integritas", 70));
+        scoreEngine.calls.clear();
+
+        queue.update(skill(id, "Integritas", 75));
+        queue.update(skill(id, "Integritas", 80));
+        queue.update(skill(id, "Integritas", 85));
+        assertEquals(1, queue.getPendingCount());
+        assertTrue(queue.awaitFlush(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        assertEquals(Collections.singletonList("update Integritas 85"), scoreEngine.calls);
+        assertEquals(85, database.skillDao().getSkillSync(id).getScore());
+    }
+
+    @Test
+    public void anUpdateOfAPendingInsertStaysAnInsert() throws InterruptedException {
+        queue.insert(skill(500, "Integritas", 70));
+        queue.update(skill(500, "Integritas", 90));
+        assertTrue(queue.awaitFlush(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        assertEquals(Collections.singletonList("insert Integritas 90"), scoreEngine.calls);
+        assertEquals(90, database.skillDao().getSkillSync(500).getScore());
+    }
+
+    @Test
+    public void aDeleteWinsOverEarlierEdits() throws InterruptedException {
+        long id = scoreEngine.insertSkill(skill(0, "Integritas", 70));
+        scoreEngine.calls.clear();
+
+        queue.update(skill(id, "Integritas", 75));
+        queue.delete(skill(id, "Integritas", 75));
+        assertTrue(queue.awaitFlush(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        assertEquals(Collections.singletonList("delete Integritas 75"), scoreEngine.calls);
+        assertNull(database.skillDao().getSkillSync(id));
+    }
+
+    @Test
+    public void writesApplyInTheOrderOfTheirLastEdit() throws InterruptedException {
+        long first = scoreEngine.insertSkill(skill(0, "Integritas", 70));
+        long second = scoreEngine.insertSkill(skill(0, "Kerjasama", 70));
+        scoreEngine.calls.clear();
+
+        queue.update(skill(first, "Integritas", 75));
+        queue.insert(skill(0, "Komunikasi", 60));
+        queue.update(skill(second, "Kerjasama", 80));
+        queue.update(skill(first, "Integritas", 85));
+        assertTrue(queue.awaitFlush(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        assertEquals(Arrays.asList("insert Komunikasi 60", "update Kerjasama 80", "update Integritas 85"),
+            scoreEngine.calls);
+    }
+
+    @Test
+    public void aFailingWriteOnlyLosesItself() throws InterruptedException {
+        long id = scoreEngine.insertSkill(skill(0, "Integritas", 70));
+        scoreEngine.calls.clear();
+
+        queue.insert(skill(0, "Kerjasama", 80));
+        // No employee has this NIP, so the foreign key rejects this one
+        Skill orphan = skill(0, "Komunikasi", 60);
+        orphan.setEmployeeNip("199002022015012002");
+        queue.insert(orphan);
+        queue.update(skill(id, "Integritas", 90));
+        assertTrue(queue.awaitFlush(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        assertEquals(1, errors.size());
+        assertEquals(2, count("SELECT COUNT(*) FROM skills"));
+        assertEquals(1, count("SELECT COUNT(*) FROM skills WHERE name = 'Kerjasama'"));
+        assertEquals(90, database.skillDao().getSkillSync(id).getScore());
+    }
+
+    @Test
+    public void aFullBatchIsSubmittedOnce() throws Exception {
+        // Hold the write lane so every enqueue below sees the drain still waiting
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> blocker = writes.submit(Priority.INTERACTIVE, "blocker", () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        try {
+            for (int i = 0; i < SkillWriteQueue.MAX_BATCH_SIZE * 2; i++) {
+                queue.insert(skill(0, "Kompetensi " + i, 70));
+            }
+            // The batch filled at MAX_BATCH_SIZE and the later writes joined the waiting drain
+            assertEquals(1, writes.submitted.get());
+        } finally {
+            release.countDown();
+        }
+        blocker.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        awaitWrites();
+
+        assertEquals(1, writes.submitted.get());
+        assertEquals(0, queue.getPendingCount());
+        assertEquals(SkillWriteQueue.MAX_BATCH_SIZE * 2, count("SELECT COUNT(*) FROM skills"));
+    }
+
+    /**
+     * Waits until everything submitted to the write lane so far has run. The lane has one thread
+     * and runs tasks of equal priority in order, so a no-op submitted last runs last.
+     */
+    private void awaitWrites() throws Exception {
+        writes.submit(Priority.INTERACTIVE, "barrier", () -> { }).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private int count(String sql) {
+        try (Cursor cursor = database.query(sql, null)) {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        }
+    }
+
+    private static Skill skill(long id, String name, int score) {
+        Skill skill = new Skill.Builder()
+            .employeeNip(NIP)
+            .name(name)
+            .score(score)
+            .targetScore(80)
+            .build();
+        skill.setId(id);
+        return skill;
+    }
+
+    /**
+     * A single-thread write lane that counts the drains submitted by the queue.
+     */
+    private static class CountingExecutor extends PriorityExecutor {
+        final AtomicInteger submitted = new AtomicInteger();
+
+        CountingExecutor() {
+            super("skill-writes", 1, Priority.INTERACTIVE);
+        }
+
+        @Override
+        public Future<?> submit(Priority priority, Runnable task) {
+            // The queue submits without a tag; the test's own tasks pass one
+            submitted.incrementAndGet();
+            return super.submit(priority, task);
+        }
+    }
+
+    /**
+     * Keeps scheduled tasks until the test runs them, so the flush window closes on demand.
+     */
+    private static class ManualScheduler implements SkillWriteQueue.Scheduler {
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<Long> delays = new ArrayList<>();
+
+        @Override
+        public void schedule(Runnable task, long delay, TimeUnit unit) {
+            tasks.add(task);
+            delays.add(unit.toMillis(delay));
+        }
+
+        void runAll() {
+            List<Runnable> due = new ArrayList<>(tasks);
+            tasks.clear();
+            for (Runnable task : due) {
+                task.run();
+            }
+        }
+    }
+
+    /**
+     * Records the writes that reach the engine, in order, and applies them.
+     */
+    private static class RecordingScoreEngine extends ScoreEngine {
+        final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingScoreEngine(AppDatabase database) {
+            super(database);
+        }
+
+        @Override
+        public long insertSkill(Skill skill) {
+            calls.add("insert " + skill.getName() + " " + skill.getScore());
+            return super.insertSkill(skill);
+        }
+
+        @Override
+        public int updateSkill(Skill skill) {
+            calls.add("update " + skill.getName() + " " + skill.getScore());
+            return super.updateSkill(skill);
+        }
+
+        @Override
+        public int deleteSkill(Skill skill) {
+            calls.add("delete " + skill.getName() + " " + skill.getScore());
+            return super.deleteSkill(skill);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.kemham.kartukompetensi.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Looper;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class AppStartupTest {
+
+    private Application application;
+    private AppStartup startup;
+
+    @Before
+    public void setUp() {
+        application = ApplicationProvider.getApplicationContext();
+        startup = new AppStartup(application);
+    }
+
+    @Test
+    public void stageIsCreatedOnceAfterItsDependencies() {
+        List<String> created = new ArrayList<>();
+        AppStartup.Stage<String> executors = startup.stage("executors", context -> {
+            created.add("executors");
+            return "executors";
+        });
+        AppStartup.Stage<String> database = startup.stage("database", context -> {
+            created.add("database");
+            return "database";
+        }, executors);
+
+        assertNull(database.getIfCreated());
+        assertEquals("database", database.get());
+        assertEquals("database", database.get());
+
+        assertEquals(2, created.size());
+        assertEquals("executors", created.get(0));
+        assertEquals("database", created.get(1));
+        assertSame(executors.get(), executors.getIfCreated());
+    }
+
+    @Test
+    public void stagesAndStepsAreTimedInTheOrderTheyFinish() {
+        AppStartup.Stage<Object> executors = startup.stage("executors", context -> new Object());
+        AppStartup.Stage<Object> database = startup.stage("database", context -> new Object(), executors);
+
+        database.get();
+        startup.trace("theme", () -> { });
+
+        List<AppStartup.Timing> timings = startup.getTimings();
+        assertEquals(3, timings.size());
+        assertEquals("executors", timings.get(0).name);
+        assertEquals("database", timings.get(1).name);
+        assertEquals("theme", timings.get(2).name);
+    }
+
+    @Test
+    public void deferredWorkWaitsForTheFirstDrawnFrame() {
+        AtomicInteger ran = new AtomicInteger();
+        startup.watchFirstFrame(application);
+        startup.runAfterFirstFrame(ran::incrementAndGet);
+
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(0, ran.get());
+
+        activity.getWindow().getDecorView().getViewTreeObserver().dispatchOnDraw();
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(1, ran.get());
+
+        // Later work runs right away, and the timeout does not run anything twice
+        startup.runAfterFirstFrame(ran::incrementAndGet);
+        shadowOf(Looper.getMainLooper()).idleFor(10, TimeUnit.SECONDS);
+        assertEquals(2, ran.get());
+    }
+
+    @Test
+    public void deferredWorkRunsAfterTheTimeoutWhenNothingDraws() {
+        AtomicInteger ran = new AtomicInteger();
+        startup.watchFirstFrame(application);
+        startup.runAfterFirstFrame(ran::incrementAndGet);
+
+        shadowOf(Looper.getMainLooper()).idleFor(4, TimeUnit.SECONDS);
+        assertEquals(0, ran.get());
+
+        shadowOf(Looper.getMainLooper()).idleFor(1, TimeUnit.SECONDS);
+        assertEquals(1, ran.get());
+        assertTrue(containsTiming("first-frame"));
+    }
+
+    @Test
+    public void workDeferredFromABackgroundThreadSurvivesTheFirstFrame() throws InterruptedException {
+        AtomicInteger ran = new AtomicInteger();
+        startup.watchFirstFrame(application);
+        Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+
+        // Re-posted to the main thread, and still queued when the frame callback jumps ahead of it
+        Thread worker = new Thread(() -> startup.runAfterFirstFrame(ran::incrementAndGet));
+        worker.start();
+        worker.join();
+        activity.getWindow().getDecorView().getViewTreeObserver().dispatchOnDraw();
+
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(1, ran.get());
+    }
+
+    private boolean containsTiming(String name) {
+        for (AppStartup.Timing timing : startup.getTimings()) {
+            if (timing.name.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
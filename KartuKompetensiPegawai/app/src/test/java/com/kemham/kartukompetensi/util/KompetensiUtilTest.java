@@ -0,0 +1,63 @@
+package com.kemham.kartukompetensi.util;
+
+import static org.junit.Assert.assertEquals;
+
+import android.app.Application;
+
+import com.kemham.kartukompetensi.model.Skill;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class KompetensiUtilTest {
+
+    @Test
+    public void overallProgressDoesNotOverflowForAMillionSkills() {
+        // 1M skills scoring 90 would overflow an int once the total is scaled by 100
+        Skill skill = skill("Integritas", 90);
+        List<Skill> skills = Collections.nCopies(1_000_000, skill);
+
+        assertEquals(90, KompetensiUtil.calculateOverallProgress(skills));
+    }
+
+    @Test
+    public void skillsAreSortedByTheSortOrderConstants() {
+        List<Skill> skills = new ArrayList<>(Arrays.asList(
+            skill("Kerjasama", 70), skill("Analisis", 90), skill("Integritas", 80)));
+
+        assertEquals(Arrays.asList("Analisis", "Integritas", "Kerjasama"),
+            names(KompetensiUtil.filterAndSortSkills(skills, AppSettings.MIN_SCORE, AppSettings.SORT_SCORE_DESC)));
+        assertEquals(Arrays.asList("Kerjasama", "Integritas", "Analisis"),
+            names(KompetensiUtil.filterAndSortSkills(skills, AppSettings.MIN_SCORE, AppSettings.SORT_SCORE_ASC)));
+        assertEquals(Arrays.asList("Analisis", "Integritas", "Kerjasama"),
+            names(KompetensiUtil.filterAndSortSkills(skills, AppSettings.MIN_SCORE, AppSettings.SORT_NAME_ASC)));
+        assertEquals(Arrays.asList("Analisis", "Integritas"),
+            names(KompetensiUtil.filterAndSortSkills(skills, 75, AppSettings.SORT_SCORE_DESC)));
+    }
+
+    private static List<String> names(List<Skill> skills) {
+        List<String> names = new ArrayList<>();
+        for (Skill skill : skills) {
+            names.add(skill.getName());
+        }
+        return names;
+    }
+
+    private static Skill skill(String name, int score) {
+        return new Skill.Builder()
+            .employeeNip("198501012010011001")
+            .name(name)
+            .score(score)
+            .targetScore(100)
+            .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.kemham.kartukompetensi.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Application;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.View;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Checks that the custom views allocate nothing per frame once their first frame is drawn.
+ *
+ * Allocation is read from the JVM's per-thread counter around a short and a long run of frames.
+ * The two runs share every fixed cost, including the counter's own, so their difference is what
+ * the extra frames allocated. Native graphics keeps Robolectric's recording canvas, which
+ * allocates for every call, out of the measurement.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class DrawAllocationTest {
+
+    private static final int SIZE = 96;
+    private static final int WARMUP_FRAMES = 2000;
+    private static final int SHORT_RUN = 100;
+    private static final int LONG_RUN = 10_100;
+
+    private Context context;
+    private Canvas canvas;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        canvas = new Canvas(Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888));
+        AvatarCache.getInstance().clear();
+    }
+
+    @Test
+    public void avatarDrawsFromTheCacheWithoutAllocating() {
+        InitialsAvatarView avatar = layOut(new InitialsAvatarView(context));
+        avatar.setInitials("Budi Santoso");
+        avatar.setBackgroundColor(0xFF3F51B5);
+
+        // The first frame renders the bitmap; later frames only look it up
+        avatar.onDraw(canvas);
+        assertTrue(AvatarCache.getInstance().getSizeBytes() > 0);
+
+        assertNoAllocationPerFrame("InitialsAvatarView", () -> avatar.onDraw(canvas));
+    }
+
+    @Test
+    public void avatarsWithTheSameLookShareOneBitmap() {
+        InitialsAvatarView first = layOut(new InitialsAvatarView(context));
+        first.setInitials("Budi Santoso");
+        first.onDraw(canvas);
+        int cached = AvatarCache.getInstance().getSizeBytes();
+
+        // Another employee with the same initials draws the bitmap the first one rendered
+        InitialsAvatarView second = layOut(new InitialsAvatarView(context));
+        second.setInitials("Bambang Suryadi");
+        second.onDraw(canvas);
+
+        assertEquals("BS", second.getInitials());
+        assertEquals(cached, AvatarCache.getInstance().getSizeBytes());
+        assertNotNull(AvatarCache.getInstance().get(new AvatarCache.Key("BS", SIZE, SIZE,
+            second.getAvatarBackgroundColor(), second.getAvatarTextColor(), second.getAvatarTextSize(),
+            second.isCircular(), second.getBorderWidth(), second.getBorderColor())));
+    }
+
+    @Test
+    public void scoreProgressBarDrawsWithoutAllocating() {
+        ScoreProgressBar bar = layOut(new ScoreProgressBar(context));
+        bar.setProgress(65);
+        // Not attached, so the bar shows its final value without animating
+        assertFalse(bar.isAnimating());
+
+        assertNoAllocationPerFrame("ScoreProgressBar", () -> bar.onDraw(canvas));
+    }
+
+    @Test
+    public void overallScoreViewDrawsWithoutAllocating() {
+        OverallScoreView score = layOut(new OverallScoreView(context));
+        score.setScore(72, 90);
+        score.setLabel("Skor");
+        assertFalse(score.isAnimating());
+
+        assertNoAllocationPerFrame("OverallScoreView", () -> score.onDraw(canvas));
+    }
+
+    private <V extends View> V layOut(V view) {
+        int spec = View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY);
+        view.measure(spec, spec);
+        view.layout(0, 0, SIZE, SIZE);
+        return view;
+    }
+
+    private static void assertNoAllocationPerFrame(String view, Runnable frame) {
+        // Load and compile everything the draw path touches before measuring
+        draw(frame, WARMUP_FRAMES);
+
+        long shortRun = draw(frame, SHORT_RUN);
+        long longRun = draw(frame, LONG_RUN);
+
+        // Even one object per frame would add at least 16 bytes for each of the extra frames
+        long extraFrames = LONG_RUN - SHORT_RUN;
+        assertTrue(view + " allocated " + (longRun - shortRun) + " bytes in " + extraFrames + " frames",
+            longRun - shortRun < extraFrames);
+    }
+
+    /**
+     * Draws the given number of frames and returns the bytes allocated meanwhile.
+     */
+    private static long draw(Runnable frame, int frames) {
+        long before = allocatedBytes();
+        for (int i = 0; i < frames; i++) {
+            frame.run();
+        }
+        return allocatedBytes() - before;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
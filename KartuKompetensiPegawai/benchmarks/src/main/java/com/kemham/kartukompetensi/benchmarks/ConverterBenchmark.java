@@ -0,0 +1,106 @@
+package com.kemham.kartukompetensi.benchmarks;
+
+import com.kemham.kartukompetensi.model.CategoryConverter;
+import com.kemham.kartukompetensi.model.DateConverter;
+import com.kemham.kartukompetensi.model.Employee;
+import com.kemham.kartukompetensi.model.Skill;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Room type converters, which run once per column per row read or written.
+ * Scores are per conversion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private Long[] timestamps;
+    private Date[] dates;
+    private String[] categories;
+    private String[] levels;
+    private String[] statuses;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(Rosters.SEED);
+        timestamps = new Long[ROWS];
+        dates = new Date[ROWS];
+        categories = new String[ROWS];
+        levels = new String[ROWS];
+        statuses = new String[ROWS];
+
+        Skill.Category[] categoryValues = Skill.Category.values();
+        Skill.Level[] levelValues = Skill.Level.values();
+        Employee.EmployeeStatus[] statusValues = Employee.EmployeeStatus.values();
+        for (int i = 0; i < ROWS; i++) {
+            // Every tenth value is null, like unassessed skills
+            timestamps[i] = i % 10 == 0 ? null : 1700000000000L + random.nextInt(Integer.MAX_VALUE);
+            dates[i] = DateConverter.fromTimestamp(timestamps[i]);
+            categories[i] = CategoryConverter.fromCategory(categoryValues[random.nextInt(categoryValues.length)]);
+            levels[i] = CategoryConverter.fromLevel(levelValues[random.nextInt(levelValues.length)]);
+            statuses[i] = CategoryConverter.fromEmployeeStatus(statusValues[random.nextInt(statusValues.length)]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void fromTimestamp(Blackhole blackhole) {
+        for (Long timestamp : timestamps) {
+            blackhole.consume(DateConverter.fromTimestamp(timestamp));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void dateToTimestamp(Blackhole blackhole) {
+        for (Date date : dates) {
+            blackhole.consume(DateConverter.dateToTimestamp(date));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void toCategory(Blackhole blackhole) {
+        for (String category : categories) {
+            blackhole.consume(CategoryConverter.toCategory(category));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void toLevel(Blackhole blackhole) {
+        for (String level : levels) {
+            blackhole.consume(CategoryConverter.toLevel(level));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void toEmployeeStatus(Blackhole blackhole) {
+        for (String status : statuses) {
+            blackhole.consume(CategoryConverter.toEmployeeStatus(status));
+        }
+    }
+}
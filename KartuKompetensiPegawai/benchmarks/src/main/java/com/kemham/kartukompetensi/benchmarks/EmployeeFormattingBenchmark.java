@@ -0,0 +1,73 @@
+package com.kemham.kartukompetensi.benchmarks;
+
+import com.kemham.kartukompetensi.model.Employee;
+import com.kemham.kartukompetensi.util.KompetensiUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row string work done while binding employee lists and validating input.
+ * Scores are per employee.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeFormattingBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private List<Employee> employees;
+    private String[] nips;
+
+    @Setup
+    public void setUp() {
+        employees = Rosters.employees(ROWS);
+        nips = new String[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            String nip = employees.get(i).getNip();
+            // Every fourth value is malformed, as typed input often is
+            nips[i] = i % 4 == 0 ? nip.substring(0, 17) + "X" : nip;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void initials(Blackhole blackhole) {
+        for (Employee employee : employees) {
+            blackhole.consume(employee.getInitials());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void validNip(Blackhole blackhole) {
+        for (String nip : nips) {
+            blackhole.consume(KompetensiUtil.isValidNip(nip));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void formatNip(Blackhole blackhole) {
+        for (String nip : nips) {
+            blackhole.consume(KompetensiUtil.formatNip(nip));
+        }
+    }
+}
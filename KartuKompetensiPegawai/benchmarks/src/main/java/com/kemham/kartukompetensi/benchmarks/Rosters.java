@@ -0,0 +1,75 @@
+package com.kemham.kartukompetensi.benchmarks;
+
+import com.kemham.kartukompetensi.model.Employee;
+import com.kemham.kartukompetensi.model.Skill;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Synthetic rosters for the benchmarks. A fixed seed keeps every run on the same data.
+ */
+final class Rosters {
+
+    static final long SEED = 20240701L;
+
+    private static final String[] FIRST_NAMES = {
+        "Budi", "Siti", "Agus", "Dewi", "Rizky", "Putri", "Andi", "Nur", "Hendra", "Ratna"
+    };
+    private static final String[] LAST_NAMES = {
+        "Santoso", "Rahmawati", "Wijaya", "Lestari", "Pratama", "Hidayat", "Saputra", "Kurniawan"
+    };
+    private static final String[] TITLES = { "", "", "Dr. ", "Ir. " };
+    private static final String[] DEGREES = { "", ", S.H.", ", S.H., M.H.", ", S.Kom." };
+    private static final String[] SKILLS = {
+        "Integritas", "Kerjasama", "Komunikasi", "Orientasi Pelayanan", "Analisis Hukum",
+        "Penyusunan Regulasi", "Manajemen Data", "Literasi Digital", "Kepemimpinan", "Negosiasi"
+    };
+
+    private Rosters() {
+        // Private constructor to prevent instantiation
+    }
+
+    static List<Skill> skills(int count) {
+        Random random = new Random(SEED);
+        Skill.Category[] categories = Skill.Category.values();
+        Date assessed = new Date(1719792000000L);
+        List<Skill> skills = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            skills.add(new Skill.Builder()
+                .employeeNip(nip(i / 10))
+                .name(SKILLS[random.nextInt(SKILLS.length)] + " " + (i % 7))
+                .category(categories[random.nextInt(categories.length)])
+                .score(random.nextInt(101))
+                .targetScore(70 + random.nextInt(31))
+                .lastAssessed(assessed)
+                .build());
+        }
+        return skills;
+    }
+
+    static List<Employee> employees(int count) {
+        Random random = new Random(SEED);
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(new Employee.Builder(nip(i))
+                .name(TITLES[random.nextInt(TITLES.length)]
+                    + FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)]
+                    + DEGREES[random.nextInt(DEGREES.length)])
+                .build());
+        }
+        return employees;
+    }
+
+    /**
+     * An 18-digit NIP: birth date, appointment month, gender digit and sequence number.
+     */
+    static String nip(int index) {
+        return String.format(Locale.ROOT, "1985%02d%02d2010%02d1%03d",
+            1 + index % 12, 1 + index % 28, 1 + (index / 12) % 12, index % 1000);
+    }
+}
@@ -0,0 +1,67 @@
+package com.kemham.kartukompetensi.benchmarks;
+
+import com.kemham.kartukompetensi.model.Skill;
+import com.kemham.kartukompetensi.util.AppSettings;
+import com.kemham.kartukompetensi.util.KompetensiUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-list aggregation and sorting that runs each time an employee's skills change.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SkillAggregationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int skillCount;
+
+    private List<Skill> skills;
+
+    @Setup
+    public void setUp() {
+        skills = Rosters.skills(skillCount);
+    }
+
+    @Benchmark
+    public double averageScore() {
+        return KompetensiUtil.calculateAverageScore(skills);
+    }
+
+    @Benchmark
+    public double completionPercentage() {
+        return KompetensiUtil.calculateCompletionPercentage(skills);
+    }
+
+    @Benchmark
+    public int overallProgress() {
+        return KompetensiUtil.calculateOverallProgress(skills);
+    }
+
+    @Benchmark
+    public List<Skill> filterAndSortByName() {
+        return KompetensiUtil.filterAndSortSkills(skills, AppSettings.MIN_SCORE, AppSettings.SORT_NAME_ASC);
+    }
+
+    @Benchmark
+    public List<Skill> filterAndSortByScore() {
+        return KompetensiUtil.filterAndSortSkills(skills, AppSettings.AVERAGE_THRESHOLD, AppSettings.SORT_SCORE_DESC);
+    }
+}
@@ -0,0 +1,292 @@
+package com.kemham.kartukompetensi.seed;
+
+import groovy.json.JsonSlurper;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the seed database that the app ships as an asset.
+ *
+ * The schema comes from the JSON that Room exports for the current database version, so the
+ * tables, indices, FTS tables and their content-sync triggers are exactly the ones Room expects.
+ * Rows are loaded from one CSV per table, named after the table, in the order the entities are
+ * declared. The derived data is then computed here rather than on the device: the employees'
+ * running score totals and the summary tables. Finally the file is analyzed and vacuumed so the
+ * app copies a compact, pre-indexed database on first launch.
+ */
+public final class SeedDatabaseBuilder {
+
+    private static final Pattern ISO_DATE = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+
+    private SeedDatabaseBuilder() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Writes a new seed database to {@code output}, replacing any existing file.
+     * @param schemaFile The schema JSON Room exports for the latest database version
+     * @param csvDir The directory holding {@code <table>.csv} files
+     */
+    @SuppressWarnings("unchecked")
+    public static void build(File schemaFile, File csvDir, File output) throws IOException, SQLException {
+        Map<String, Object> schema = (Map<String, Object>) new JsonSlurper().parse(schemaFile);
+        Map<String, Object> database = (Map<String, Object>) schema.get("database");
+        List<Map<String, Object>> entities = (List<Map<String, Object>>) database.get("entities");
+
+        Files.createDirectories(output.getParentFile().toPath());
+        Files.deleteIfExists(output.toPath());
+
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + output.getAbsolutePath())) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                createSchema(statement, database, entities);
+            }
+            for (Map<String, Object> entity : entities) {
+                File csv = new File(csvDir, entity.get("tableName") + ".csv");
+                if (csv.isFile()) {
+                    loadTable(connection, entity, csv);
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                computeDerivedData(statement);
+            }
+            connection.commit();
+
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE");
+                statement.execute("VACUUM");
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void createSchema(Statement statement, Map<String, Object> database,
+                                     List<Map<String, Object>> entities) throws SQLException {
+        for (Map<String, Object> entity : entities) {
+            String table = (String) entity.get("tableName");
+            statement.execute(withTable((String) entity.get("createSql"), table));
+
+            List<Map<String, Object>> indices = (List<Map<String, Object>>) entity.get("indices");
+            if (indices != null) {
+                for (Map<String, Object> index : indices) {
+                    statement.execute(withTable((String) index.get("createSql"), table));
+                }
+            }
+            List<String> triggers = (List<String>) entity.get("contentSyncTriggers");
+            if (triggers != null) {
+                for (String trigger : triggers) {
+                    statement.execute(trigger);
+                }
+            }
+        }
+
+        List<Map<String, Object>> views = (List<Map<String, Object>>) database.get("views");
+        if (views != null) {
+            for (Map<String, Object> view : views) {
+                statement.execute(((String) view.get("createSql"))
+                        .replace("${VIEW_NAME}", (String) view.get("viewName")));
+            }
+        }
+
+        // No room_master_table: on the first open Room validates a copied database without one
+        // against its generated schema and then stamps its own identity hash, so a stale hash in
+        // the exported JSON can never make a valid seed fail to open
+        statement.execute("PRAGMA user_version = " + database.get("version"));
+    }
+
+    /**
+     * Fills what the app otherwise maintains incrementally: the score totals on employees and the
+     * employee_category_stats and unit_stats summaries. The SQL matches EmployeeDao's score
+     * rebuild and StatsTriggers.rebuild in the app, which this build cannot call.
+     */
+    private static void computeDerivedData(Statement statement) throws SQLException {
+        statement.execute("UPDATE employees SET " +
+                "skillProgressSum = (SELECT COALESCE(SUM(CASE WHEN s.targetScore > 0 " +
+                "THEN s.score * 100 / s.targetScore ELSE 0 END), 0) " +
+                "FROM skills s WHERE s.employeeNip = employees.nip), " +
+                "skillCount = (SELECT COUNT(*) FROM skills s WHERE s.employeeNip = employees.nip)");
+        statement.execute("UPDATE employees SET overallScore = " +
+                "CASE WHEN skillCount > 0 THEN skillProgressSum / skillCount ELSE 0 END");
+
+        statement.execute("DELETE FROM employee_category_stats");
+        statement.execute("INSERT INTO employee_category_stats " +
+                "(employeeNip, category, skillCount, scoreSum, progressSum, achievedCount) " +
+                "SELECT employeeNip, COALESCE(category, 'BASIC'), COUNT(*), SUM(score), " +
+                "SUM(CASE WHEN targetScore > 0 THEN score * 100 / targetScore ELSE 0 END), " +
+                "SUM(score >= targetScore) FROM skills GROUP BY 1, 2");
+        statement.execute("DELETE FROM unit_stats");
+        statement.execute("INSERT INTO unit_stats (unit, status, headcount, scoreSum, belowTargetCount) " +
+                "SELECT COALESCE(unit, ''), COALESCE(status, 'ACTIVE'), COUNT(*), SUM(overallScore), " +
+                "SUM(overallScore < targetScore) FROM employees GROUP BY 1, 2");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void loadTable(Connection connection, Map<String, Object> entity, File csv)
+            throws IOException, SQLException {
+        String table = (String) entity.get("tableName");
+        Map<String, Map<String, Object>> fields = new LinkedHashMap<>();
+        for (Map<String, Object> field : (List<Map<String, Object>>) entity.get("fields")) {
+            fields.put((String) field.get("columnName"), field);
+        }
+
+        try (BufferedReader lines = Files.newBufferedReader(csv.toPath(), StandardCharsets.UTF_8)) {
+            List<String> header = readRecord(lines);
+            if (header == null) {
+                return;
+            }
+            for (String column : header) {
+                if (!fields.containsKey(column)) {
+                    throw new IOException(csv.getName() + ": unknown column " + column);
+                }
+            }
+
+            // NOT NULL columns the CSV leaves out get their type's zero value
+            List<String> columns = new ArrayList<>(header);
+            List<Object> defaults = new ArrayList<>();
+            for (Map.Entry<String, Map<String, Object>> field : fields.entrySet()) {
+                boolean notNull = Boolean.TRUE.equals(field.getValue().get("notNull"));
+                boolean generated = isAutoGenerated(entity, field.getKey());
+                if (notNull && !generated && !header.contains(field.getKey())) {
+                    columns.add(field.getKey());
+                    defaults.add("TEXT".equals(field.getValue().get("affinity")) ? "" : 0);
+                }
+            }
+
+            StringBuilder sql = new StringBuilder("INSERT INTO `").append(table).append("` (");
+            for (int i = 0; i < columns.size(); i++) {
+                sql.append(i > 0 ? ", `" : "`").append(columns.get(i)).append('`');
+            }
+            sql.append(") VALUES (");
+            for (int i = 0; i < columns.size(); i++) {
+                sql.append(i > 0 ? ", ?" : "?");
+            }
+            sql.append(')');
+
+            try (PreparedStatement insert = connection.prepareStatement(sql.toString())) {
+                List<String> record;
+                int line = 1;
+                while ((record = readRecord(lines)) != null) {
+                    line++;
+                    if (record.size() == 1 && record.get(0).isEmpty()) {
+                        continue;
+                    }
+                    if (record.size() != header.size()) {
+                        throw new IOException(csv.getName() + ":" + line + ": expected "
+                                + header.size() + " fields, found " + record.size());
+                    }
+                    for (int i = 0; i < header.size(); i++) {
+                        String affinity = (String) fields.get(header.get(i)).get("affinity");
+                        insert.setObject(i + 1, convert(record.get(i), affinity));
+                    }
+                    for (int i = 0; i < defaults.size(); i++) {
+                        insert.setObject(header.size() + i + 1, defaults.get(i));
+                    }
+                    insert.executeUpdate();
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean isAutoGenerated(Map<String, Object> entity, String column) {
+        Map<String, Object> primaryKey = (Map<String, Object>) entity.get("primaryKey");
+        return primaryKey != null
+                && Boolean.TRUE.equals(primaryKey.get("autoGenerate"))
+                && ((List<String>) primaryKey.get("columnNames")).contains(column);
+    }
+
+    /**
+     * Converts a CSV value to the column's storage type. Dates in yyyy-MM-dd form are stored as
+     * epoch milliseconds at UTC midnight, matching DateConverter.
+     */
+    private static Object convert(String value, String affinity) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        switch (affinity) {
+            case "INTEGER":
+                if (ISO_DATE.matcher(value).matches()) {
+                    return LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+                }
+                return Long.parseLong(value);
+            case "REAL":
+                return Double.parseDouble(value);
+            default:
+                return value;
+        }
+    }
+
+    private static String withTable(String sql, String table) {
+        return sql.replace("${TABLE_NAME}", table);
+    }
+
+    /**
+     * Reads one RFC 4180 record, allowing quoted fields to span lines.
+     * @return The fields, or null at end of input
+     */
+    private static List<String> readRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        if (!line.isEmpty() && line.charAt(0) == '\uFEFF') {
+            line = line.substring(1);
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                line = reader.readLine();
+                if (line == null) {
+                    throw new IOException("Unterminated quoted field");
+                }
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"' && i < line.length() && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,52 @@
+package com.kemham.kartukompetensi.seed;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.File;
+
+/**
+ * Generates the seed database asset from the Room schema and the seed CSVs.
+ * The database is written to {@code <outputDir>/<assetPath>} so the directory can be added
+ * directly as a generated assets source.
+ */
+@CacheableTask
+public abstract class SeedDatabaseTask extends DefaultTask {
+
+    @InputFile
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getSchemaFile();
+
+    @InputDirectory
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract DirectoryProperty getCsvDir();
+
+    @Input
+    public abstract Property<String> getAssetPath();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getOutputDir();
+
+    @TaskAction
+    public void build() {
+        File output = getOutputDir().file(getAssetPath()).get().getAsFile();
+        try {
+            SeedDatabaseBuilder.build(getSchemaFile().get().getAsFile(), getCsvDir().get().getAsFile(),
+                    output);
+        } catch (Exception e) {
+            throw new GradleException("Failed to build seed database: " + e.getMessage(), e);
+        }
+        getLogger().info("Seed database written to {}", output);
+    }
+}